@@ -0,0 +1,37 @@
+// Order placement under many concurrent clients, run with `make load-test`.
+// Every client places a limit order and reads it back, so each iteration
+// goes through matching, the execution write and an order lookup.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/stonks-jh';
+const SYMBOLS = ['AAPL', 'META', 'NVDA', 'AMZN', 'GOOG', 'TSLA', 'MSFT', 'JNJ'];
+
+export const options = {
+    scenarios: {
+        orders: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.CLIENTS || 10000),
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const order = {
+        amount: 1 + Math.floor(Math.random() * 10),
+        symbol: SYMBOLS[Math.floor(Math.random() * SYMBOLS.length)],
+        type: Math.random() < 0.5 ? 'BUY' : 'SELL',
+        price: (100 + Math.floor(Math.random() * 1000) / 100).toFixed(2),
+    };
+    const created = http.post(`${BASE_URL}/api/orders`, JSON.stringify(order), {
+        headers: { 'Content-Type': 'application/json' },
+        tags: { name: 'create' },
+    });
+    if (!check(created, { 'order created': (r) => r.status === 201 || r.status === 202 })) {
+        return;
+    }
+    const read = http.get(`${BASE_URL}/api/orders/${created.json('uuid')}`, { tags: { name: 'read' } });
+    check(read, { 'order read': (r) => r.status === 200 || r.status === 404 });
+}
@@ -0,0 +1,87 @@
+package com.griddynamics.internship.stonksjh.commission;
+
+import com.griddynamics.internship.stonksjh.dto.commission.CommissionBracketDTO;
+import com.griddynamics.internship.stonksjh.model.User;
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Commission of {@value #ORDERS} random orders across all tiers, with the precomputed table against
+ * looking up the bracket and calculating with {@link BigDecimal}s, as it would be done from the DTOs.
+ * The requirement is 100k commissions per second and core, which is 10 µs per commission.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommissionBenchmark {
+
+    private static final int ORDERS = 4096;
+
+    private CommissionTable table;
+    private List<CommissionBracketDTO> brackets;
+    private final User.Tier[] tiers = new User.Tier[ORDERS];
+    private final long[] priceTicks = new long[ORDERS];
+    private final int[] amounts = new int[ORDERS];
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (Reader reader = new InputStreamReader(
+                Objects.requireNonNull(getClass().getResourceAsStream("/commission-tiers.csv")), StandardCharsets.UTF_8)) {
+            table = CommissionTable.parse(reader);
+        }
+        brackets = table.brackets();
+        val random = ThreadLocalRandom.current();
+        for (int i = 0; i < ORDERS; i++) {
+            tiers[i] = User.Tier.values()[random.nextInt(User.Tier.values().length)];
+            priceTicks[i] = random.nextLong(1_00, 1_000_00);
+            amounts[i] = random.nextInt(1, 2_000);
+        }
+    }
+
+    @Benchmark
+    public long scaledLong() {
+        val i = next++ & (ORDERS - 1);
+        return table.commission(tiers[i], priceTicks[i], amounts[i]);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        val i = next++ & (ORDERS - 1);
+        val notional = BigDecimal.valueOf(priceTicks[i], 2).multiply(BigDecimal.valueOf(amounts[i]));
+        CommissionBracketDTO bracket = null;
+        for (val candidate : brackets) {
+            if (candidate.tier() == tiers[i] && candidate.fromNotional().compareTo(notional) <= 0) {
+                bracket = candidate;
+            }
+        }
+        val commission = notional.multiply(bracket.ratePercent())
+                .movePointLeft(2)
+                .setScale(2, RoundingMode.HALF_UP);
+        return commission.max(bracket.minimum());
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.griddynamics.internship.stonksjh.database;
+
+import lombok.val;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * PostgreSQL the benchmarks of this package run against, the one of {@code make start} by default.
+ * {@code STONKS_BENCHMARK_DB_URL}, {@code STONKS_BENCHMARK_DB_USER} and {@code STONKS_BENCHMARK_DB_PASSWORD}
+ * point them at another one. Batched inserts are rewritten into multi-row inserts, like the application's.
+ */
+final class Database {
+
+    private Database() {
+    }
+
+    static Connection connect() throws SQLException {
+        val properties = new Properties();
+        properties.setProperty("user", env("STONKS_BENCHMARK_DB_USER", "stonks"));
+        properties.setProperty("password", env("STONKS_BENCHMARK_DB_PASSWORD", "stonks"));
+        properties.setProperty("reWriteBatchedInserts", "true");
+        return DriverManager.getConnection(env("STONKS_BENCHMARK_DB_URL", "jdbc:postgresql://localhost:5432/"), properties);
+    }
+
+    private static String env(String name, String defaultValue) {
+        val value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+}
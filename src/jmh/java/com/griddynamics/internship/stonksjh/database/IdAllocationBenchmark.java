@@ -0,0 +1,203 @@
+package com.griddynamics.internship.stonksjh.database;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes {@value #ROWS} rows in one transaction with the statements Hibernate sends for either id strategy:
+ * <ul>
+ *     <li>{@link Strategy#IDENTITY} inserts row by row, as the id of a row is only known once it is inserted</li>
+ *     <li>{@link Strategy#POOLED_SEQUENCE} takes one {@code nextval} per {@value #ALLOCATION_SIZE} ids and inserts
+ *     in JDBC batches of {@value #BATCH_SIZE}, the {@code hibernate.jdbc.batch_size} of the application</li>
+ * </ul>
+ * {@link #importUsers()} writes rows like {@code usr}, {@link #orderBurst()} rows like {@code "order"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@OperationsPerInvocation(IdAllocationBenchmark.ROWS)
+public class IdAllocationBenchmark {
+
+    static final int ROWS = 1_000;
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int BATCH_SIZE = 50;
+    private static final String[] GENERATED_ID = {"id"};
+
+    private static final String INSERT_USER = """
+            insert into id_benchmark_usr (uuid, email, username, balance, tier%s)
+            values (?, ?, ?, ?, ?%s)
+            """;
+    private static final String INSERT_ORDER = """
+            insert into id_benchmark_order (uuid, user_uuid, type, amount, symbol, price, filled, status, created_at%s)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?%s)
+            """;
+
+    @Param({"IDENTITY", "POOLED_SEQUENCE"})
+    private Strategy strategy;
+
+    private Connection connection;
+    private PreparedStatement insertUser;
+    private PreparedStatement insertOrder;
+    private PreparedStatement nextval;
+    private long users;
+    private long nextId;
+    private long lastId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = Database.connect();
+        val id = strategy == Strategy.IDENTITY ? "bigint generated by default as identity" : "bigint";
+        try (val statement = connection.createStatement()) {
+            statement.execute("drop table if exists id_benchmark_usr, id_benchmark_order");
+            statement.execute("drop sequence if exists id_benchmark_seq");
+            statement.execute("create sequence id_benchmark_seq increment by " + ALLOCATION_SIZE);
+            statement.execute("""
+                    create table id_benchmark_usr (
+                        id %s primary key,
+                        uuid uuid not null unique,
+                        email varchar(255) not null unique,
+                        username varchar(255) not null unique,
+                        balance decimal(10, 2) not null,
+                        tier varchar(16) not null
+                    )
+                    """.formatted(id));
+            statement.execute("""
+                    create table id_benchmark_order (
+                        id %s primary key,
+                        uuid uuid not null unique,
+                        user_uuid uuid,
+                        type varchar(255) not null,
+                        amount integer not null,
+                        symbol varchar(255) not null,
+                        price decimal(10, 2),
+                        filled integer not null,
+                        status varchar(255) not null,
+                        created_at timestamp(6) with time zone not null
+                    )
+                    """.formatted(id));
+        }
+        connection.setAutoCommit(false);
+        if (strategy == Strategy.IDENTITY) {
+            insertUser = connection.prepareStatement(INSERT_USER.formatted("", ""), GENERATED_ID);
+            insertOrder = connection.prepareStatement(INSERT_ORDER.formatted("", ""), GENERATED_ID);
+        } else {
+            insertUser = connection.prepareStatement(INSERT_USER.formatted(", id", ", ?"));
+            insertOrder = connection.prepareStatement(INSERT_ORDER.formatted(", id", ", ?"));
+            nextval = connection.prepareStatement("select nextval('id_benchmark_seq')");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (val statement = connection.createStatement()) {
+            statement.execute("drop table id_benchmark_usr, id_benchmark_order");
+            statement.execute("drop sequence id_benchmark_seq");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void importUsers() throws SQLException {
+        for (int i = 0; i < ROWS; i++) {
+            val n = users++;
+            insertUser.setObject(1, UUID.randomUUID());
+            insertUser.setString(2, "user" + n + "@example.com");
+            insertUser.setString(3, "user" + n);
+            insertUser.setBigDecimal(4, BigDecimal.ZERO);
+            insertUser.setString(5, "STANDARD");
+            write(insertUser, 6, i);
+        }
+        commit(insertUser);
+    }
+
+    @Benchmark
+    public void orderBurst() throws SQLException {
+        val createdAt = Timestamp.from(Instant.now());
+        for (int i = 0; i < ROWS; i++) {
+            insertOrder.setObject(1, UUID.randomUUID());
+            insertOrder.setObject(2, UUID.randomUUID());
+            insertOrder.setString(3, i % 2 == 0 ? "BUY" : "SELL");
+            insertOrder.setInt(4, 10);
+            insertOrder.setString(5, "AAPL");
+            insertOrder.setBigDecimal(6, new BigDecimal("150.00"));
+            insertOrder.setInt(7, 0);
+            insertOrder.setString(8, "OPEN");
+            insertOrder.setTimestamp(9, createdAt);
+            write(insertOrder, 10, i);
+        }
+        commit(insertOrder);
+    }
+
+    /**
+     * @param idIndex parameter index of the id, only bound with a sequence
+     * @param row     index of the row within the transaction
+     */
+    private void write(PreparedStatement insert, int idIndex, int row) throws SQLException {
+        if (strategy == Strategy.IDENTITY) {
+            insert.executeUpdate();
+            try (val keys = insert.getGeneratedKeys()) {
+                keys.next();
+                keys.getLong(1);
+            }
+            return;
+        }
+        insert.setLong(idIndex, allocateId());
+        insert.addBatch();
+        if ((row + 1) % BATCH_SIZE == 0) {
+            insert.executeBatch();
+        }
+    }
+
+    private void commit(PreparedStatement insert) throws SQLException {
+        if (strategy == Strategy.POOLED_SEQUENCE) {
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    /**
+     * Hands out the block below every {@code nextval}, like Hibernate's pooled optimizer.
+     */
+    private long allocateId() throws SQLException {
+        if (nextId == lastId) {
+            try (val result = nextval.executeQuery()) {
+                result.next();
+                lastId = result.getLong(1);
+            }
+            nextId = lastId - ALLOCATION_SIZE;
+        }
+        return ++nextId;
+    }
+
+    public enum Strategy {
+        IDENTITY,
+        POOLED_SEQUENCE
+    }
+
+}
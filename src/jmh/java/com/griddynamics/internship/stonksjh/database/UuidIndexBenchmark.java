@@ -0,0 +1,117 @@
+package com.griddynamics.internship.stonksjh.database;
+
+import com.griddynamics.internship.stonksjh.uuid.UuidGenerator;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts into a table indexed like the {@code uuid} columns of {@code "order"} and {@code usr}, preloaded with
+ * {@code rows} uuids of the same version through that index. Inserts are committed in batches of
+ * {@value #BATCH_SIZE} rows, and the size of the index after each trial is logged, as random uuids leave its
+ * pages half empty. Preloading ten million rows takes a few minutes, needs PostgreSQL 13 or newer.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@OperationsPerInvocation(UuidIndexBenchmark.BATCH_SIZE)
+public class UuidIndexBenchmark {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String PRELOAD_V4 = """
+            insert into uuid_benchmark (uuid)
+            select gen_random_uuid()
+            from generate_series(1, ?)
+            """;
+    /**
+     * One uuid per millisecond before now, with the timestamp written over the first 48 bits
+     * and the version bits of a random uuid turned from 4 into 7.
+     */
+    private static final String PRELOAD_V7 = """
+            insert into uuid_benchmark (uuid)
+            select encode(set_bit(set_bit(overlay(uuid_send(gen_random_uuid())
+                    placing substring(int8send((extract(epoch from now()) * 1000)::bigint - ? + g) from 3)
+                    from 1 for 6), 52, 1), 53, 1), 'hex')::uuid
+            from generate_series(1, ?) g
+            """;
+
+    @Param({"V4", "V7"})
+    private UuidGenerator.Version version;
+
+    @Param({"10000000"})
+    private long rows;
+
+    private UuidGenerator uuidGenerator;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        uuidGenerator = new UuidGenerator(version);
+        connection = Database.connect();
+        try (val statement = connection.createStatement()) {
+            statement.execute("drop table if exists uuid_benchmark");
+            statement.execute("create table uuid_benchmark (id bigserial primary key, uuid uuid not null)");
+            statement.execute("create unique index uk_uuid_benchmark_uuid on uuid_benchmark (uuid)");
+        }
+        try (val preload = connection.prepareStatement(version == UuidGenerator.Version.V4 ? PRELOAD_V4 : PRELOAD_V7)) {
+            preload.setLong(1, rows);
+            if (version == UuidGenerator.Version.V7) {
+                preload.setLong(2, rows);
+            }
+            preload.execute();
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("insert into uuid_benchmark (uuid) values (?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (val statement = connection.createStatement()) {
+            try (val result = statement.executeQuery(
+                    "select count(*), pg_relation_size('uk_uuid_benchmark_uuid') from uuid_benchmark"
+            )) {
+                result.next();
+                log.info("{}: {} rows, uuid index {} MB", version, result.getLong(1), result.getLong(2) >> 20);
+            }
+            statement.execute("drop table uuid_benchmark");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int[] insert() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, uuidGenerator.generate());
+            insert.addBatch();
+        }
+        val counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+
+}
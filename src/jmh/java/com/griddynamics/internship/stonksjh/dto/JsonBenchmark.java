@@ -0,0 +1,94 @@
+package com.griddynamics.internship.stonksjh.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.griddynamics.internship.stonksjh.dto.order.OrderRequestDTO;
+import com.griddynamics.internship.stonksjh.dto.user.UserResponseDTO;
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serialization of the request and response bodies, with readers and writers
+ * prepared up front the way Spring's message converters cache them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private ObjectReader orderRequestReader;
+    private ObjectWriter orderRequestWriter;
+    private ObjectReader userResponseReader;
+    private ObjectWriter userResponseWriter;
+
+    private OrderRequestDTO orderRequestDTO;
+    private String orderRequestJson;
+    private UserResponseDTO userResponseDTO;
+    private String userResponseJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        val objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .build();
+        orderRequestReader = objectMapper.readerFor(OrderRequestDTO.class);
+        orderRequestWriter = objectMapper.writerFor(OrderRequestDTO.class);
+        userResponseReader = objectMapper.readerFor(UserResponseDTO.class);
+        userResponseWriter = objectMapper.writerFor(UserResponseDTO.class);
+
+        orderRequestDTO = OrderRequestDTO.builder()
+                .symbol("AAPL")
+                .amount(10)
+                .type("BUY")
+                .price(new BigDecimal("151.25"))
+                .userUuid(UUID.randomUUID())
+                .build();
+        orderRequestJson = orderRequestWriter.writeValueAsString(orderRequestDTO);
+        userResponseDTO = UserResponseDTO.builder()
+                .uuid(UUID.randomUUID())
+                .email("user@example.com")
+                .username("user")
+                .balance(new BigDecimal("1000.00"))
+                .build();
+        userResponseJson = userResponseWriter.writeValueAsString(userResponseDTO);
+    }
+
+    @Benchmark
+    public String serializeOrderRequest() throws JsonProcessingException {
+        return orderRequestWriter.writeValueAsString(orderRequestDTO);
+    }
+
+    @Benchmark
+    public OrderRequestDTO deserializeOrderRequest() throws JsonProcessingException {
+        return orderRequestReader.readValue(orderRequestJson);
+    }
+
+    @Benchmark
+    public String serializeUserResponse() throws JsonProcessingException {
+        return userResponseWriter.writeValueAsString(userResponseDTO);
+    }
+
+    @Benchmark
+    public UserResponseDTO deserializeUserResponse() throws JsonProcessingException {
+        return userResponseReader.readValue(userResponseJson);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.griddynamics.internship.stonksjh.journal;
+
+import com.griddynamics.internship.stonksjh.matching.OrderSnapshot;
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appending to the journal, and recovering the resting orders from a journal of {@value #RECOVERED_ORDERS} orders
+ * without a snapshot. Every second order is filled completely right after it was created, so that half of them
+ * rest at the end. The journals live in a temporary directory that is deleted after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderJournalBenchmark {
+
+    private static final int RECOVERED_ORDERS = 1_000_000;
+
+    private Path directory;
+    private OrderJournal appendJournal;
+    private OrderJournal recoveryJournal;
+    private OrderEvent created;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        created = OrderEvent.placed(OrderEvent.Type.CREATED, order());
+
+        appendJournal = new OrderJournal(true, directory.resolve("append"), DataSize.ofMegabytes(64));
+        recoveryJournal = new OrderJournal(true, directory.resolve("recovery"), DataSize.ofMegabytes(64));
+        for (int i = 0; i < RECOVERED_ORDERS; i++) {
+            val order = order();
+            recoveryJournal.append(OrderEvent.placed(OrderEvent.Type.CREATED, order));
+            if (i % 2 == 0) {
+                recoveryJournal.append(OrderEvent.filled(new OrderSnapshot(order.getUuid(), 10, Order.Status.FILLED)));
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        appendJournal.destroy();
+        recoveryJournal.destroy();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    private static Order order() {
+        val order = new Order();
+        order.setUuid(UUID.randomUUID());
+        order.setType(Order.Type.BUY);
+        order.setSymbol(Order.Symbol.AAPL);
+        order.setAmount(10);
+        order.setPrice(new BigDecimal("150.00"));
+        order.setCreatedAt(Instant.now());
+        return order;
+    }
+
+    @Benchmark
+    public long append() {
+        return appendJournal.append(created);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int recover() {
+        return new OrderJournalSnapshotter(recoveryJournal, Duration.ofDays(1)).recover().size();
+    }
+
+}
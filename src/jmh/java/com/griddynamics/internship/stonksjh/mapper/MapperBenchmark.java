@@ -0,0 +1,75 @@
+package com.griddynamics.internship.stonksjh.mapper;
+
+import com.griddynamics.internship.stonksjh.dto.order.OrderRequestDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.dto.user.UserRequestDTO;
+import com.griddynamics.internship.stonksjh.dto.user.UserResponseDTO;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.model.User;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
+    private final UserMapper userMapper = Mappers.getMapper(UserMapper.class);
+
+    private OrderRequestDTO orderRequestDTO;
+    private Order order;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        orderRequestDTO = OrderRequestDTO.builder()
+                .symbol("AAPL")
+                .amount(10)
+                .type("BUY")
+                .price(new BigDecimal("151.25"))
+                .userUuid(UUID.randomUUID())
+                .build();
+        order = orderMapper.requestDtoToEntity(orderRequestDTO);
+        order.setUuid(UUID.randomUUID());
+        order.setCreatedAt(Instant.now());
+        user = userMapper.requestDtoToEntity(UserRequestDTO.builder()
+                .email("user@example.com")
+                .username("user")
+                .build());
+        user.setUuid(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public Order orderRequestToEntity() {
+        return orderMapper.requestDtoToEntity(orderRequestDTO);
+    }
+
+    @Benchmark
+    public OrderResponseDTO orderEntityToResponse() {
+        return orderMapper.entityToResponseDTO(order);
+    }
+
+    @Benchmark
+    public UserResponseDTO userEntityToResponse() {
+        return userMapper.entityToResponseDTO(user);
+    }
+
+}
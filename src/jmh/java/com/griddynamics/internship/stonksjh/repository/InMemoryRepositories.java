@@ -0,0 +1,151 @@
+package com.griddynamics.internship.stonksjh.repository;
+
+import com.griddynamics.internship.stonksjh.model.Fill;
+import com.griddynamics.internship.stonksjh.model.LedgerEntry;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.model.User;
+import lombok.val;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Map-backed stand-ins for the Spring Data repositories, so that benchmarks measure the application code
+ * and not a database. Only the methods used on the benchmarked paths are implemented, the others throw.
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    public static OrderRepository orders() {
+        Map<UUID, Order> orders = new ConcurrentHashMap<>();
+        return proxy(OrderRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> {
+                Order order = (Order) args[0];
+                orders.put(order.getUuid(), order);
+                yield order;
+            }
+            case "saveAll" -> {
+                List<Order> saved = new ArrayList<>();
+                for (Object order : (Iterable<?>) args[0]) {
+                    orders.put(((Order) order).getUuid(), (Order) order);
+                    saved.add((Order) order);
+                }
+                yield saved;
+            }
+            case "findByUUID" -> Optional.ofNullable(orders.get((UUID) args[0]));
+            case "findByUUIDAndSymbol" -> Optional.ofNullable(orders.get((UUID) args[0]))
+                    .filter(order -> order.getSymbol() == args[1]);
+            case "findReservedShares" -> List.of();
+            case "updateExecution" -> {
+                Order order = orders.get((UUID) args[0]);
+                if (order == null || order.getSymbol() != args[1] || order.getFilled() >= (int) args[2]) {
+                    yield 0;
+                }
+                order.setFilled((int) args[2]);
+                order.setStatus((Order.Status) args[3]);
+                yield 1;
+            }
+            case "count" -> (long) orders.size();
+            default -> throw unsupported(method.getName());
+        });
+    }
+
+    public static FillRepository fills() {
+        val count = new AtomicLong();
+        return proxy(FillRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> {
+                count.incrementAndGet();
+                yield args[0];
+            }
+            case "saveAll" -> {
+                List<Fill> saved = new ArrayList<>();
+                for (Object fill : (Iterable<?>) args[0]) {
+                    saved.add((Fill) fill);
+                }
+                count.addAndGet(saved.size());
+                yield saved;
+            }
+            case "count" -> count.get();
+            default -> throw unsupported(method.getName());
+        });
+    }
+
+    /**
+     * Only counts the entries, every account starts out empty.
+     */
+    public static LedgerEntryRepository ledgerEntries() {
+        val count = new AtomicLong();
+        return proxy(LedgerEntryRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "saveAll" -> {
+                List<LedgerEntry> saved = new ArrayList<>();
+                for (Object entry : (Iterable<?>) args[0]) {
+                    saved.add((LedgerEntry) entry);
+                }
+                count.addAndGet(saved.size());
+                yield saved;
+            }
+            case "findTotals" -> null;
+            case "count" -> count.get();
+            default -> throw unsupported(method.getName());
+        });
+    }
+
+    /**
+     * Accepts every position change, every user starts out holding nothing.
+     */
+    public static PositionRepository positions() {
+        return proxy(PositionRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findByUserUuid" -> List.of();
+            case "addToAmount" -> 1;
+            default -> throw unsupported(method.getName());
+        });
+    }
+
+    /**
+     * Users are keyed by email, so repeatedly creating the same user does not grow the store.
+     */
+    public static UserRepository users() {
+        Map<String, User> users = new ConcurrentHashMap<>();
+        return proxy(UserRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save", "saveAndFlush" -> {
+                User user = (User) args[0];
+                users.put(user.getEmail(), user);
+                yield user;
+            }
+            case "findByUuid" -> users.values().stream()
+                    .filter(user -> user.getUuid().equals(args[0]))
+                    .findFirst();
+            case "addToBalance" -> 1;
+            case "count" -> (long) users.size();
+            default -> throw unsupported(method.getName());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> repositoryClass, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(
+                repositoryClass.getClassLoader(),
+                new Class<?>[]{repositoryClass},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "toString" -> "InMemory" + repositoryClass.getSimpleName();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> handler.invoke(proxy, method, args);
+                }
+        );
+    }
+
+    private static UnsupportedOperationException unsupported(String methodName) {
+        return new UnsupportedOperationException(methodName + " is not supported by the in-memory repository");
+    }
+
+}
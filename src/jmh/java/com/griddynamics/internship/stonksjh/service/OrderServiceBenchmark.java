@@ -0,0 +1,151 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.candle.Candles;
+import com.griddynamics.internship.stonksjh.dto.order.OrderBatchItemDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderRequestDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderStatusDTO;
+import com.griddynamics.internship.stonksjh.journal.OrderJournal;
+import com.griddynamics.internship.stonksjh.ledger.Ledger;
+import com.griddynamics.internship.stonksjh.ledger.LedgerWriter;
+import com.griddynamics.internship.stonksjh.mapper.OrderMapper;
+import com.griddynamics.internship.stonksjh.matching.ExecutionWriteQueue;
+import com.griddynamics.internship.stonksjh.matching.ExecutionWriter;
+import com.griddynamics.internship.stonksjh.matching.MatchingEngine;
+import com.griddynamics.internship.stonksjh.position.PositionWriter;
+import com.griddynamics.internship.stonksjh.position.Positions;
+import com.griddynamics.internship.stonksjh.price.SimulatedQuoteProvider;
+import com.griddynamics.internship.stonksjh.repository.InMemoryRepositories;
+import com.griddynamics.internship.stonksjh.sequencer.OrderSequencer;
+import com.griddynamics.internship.stonksjh.uuid.UuidGenerator;
+import lombok.val;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation from request DTO to response DTO: validation, mapping, the hop onto the symbol's shard,
+ * matching and the execution writes, with the repositories kept in memory.
+ * Buy and sell orders alternate at the same price, so every second order trades and the book stays small.
+ * The service is rebuilt for every iteration to keep the in-memory store from growing across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private OrderSequencer orderSequencer;
+    private ExecutionWriteQueue executionWriteQueue;
+    private StockPriceService stockPriceService;
+    private OrderService orderService;
+
+    private OrderRequestDTO buyRequestDTO;
+    private OrderRequestDTO sellRequestDTO;
+    private List<OrderRequestDTO> batch;
+    private boolean buy;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        val orderRepository = InMemoryRepositories.orders();
+        orderSequencer = new OrderSequencer(10_000);
+        stockPriceService = new StockPriceService(
+                new SimulatedQuoteProvider(), Duration.ofSeconds(5), Duration.ofSeconds(4)
+        );
+        val ledgerEntryRepository = InMemoryRepositories.ledgerEntries();
+        val positionRepository = InMemoryRepositories.positions();
+        val userRepository = InMemoryRepositories.users();
+        val ledgerWriter = new LedgerWriter(
+                ledgerEntryRepository, userRepository, new UserCache(10_000, Duration.ofMinutes(10))
+        );
+        executionWriteQueue = new ExecutionWriteQueue(
+                new ExecutionWriter(orderRepository, InMemoryRepositories.fills(), ledgerWriter,
+                        new PositionWriter(positionRepository)),
+                OrderJournal.disabled(), 10_000, 500
+        );
+        val orderMapper = Mappers.getMapper(OrderMapper.class);
+        orderService = new OrderService(
+                orderRepository,
+                userRepository,
+                orderMapper,
+                new MatchingEngine(),
+                orderSequencer,
+                executionWriteQueue,
+                stockPriceService,
+                new OrderCache(DataSize.ofMegabytes(64), Duration.ofMinutes(10)),
+                new OrderAcceptanceTracker(OrderAcceptanceTracker.Acknowledgement.ACCEPTED, 100_000, Duration.ofMinutes(1)),
+                new Ledger(ledgerEntryRepository, Duration.ofMinutes(10)),
+                new Positions(positionRepository, orderRepository, Duration.ofMinutes(10)),
+                new Candles(),
+                new IdempotencyKeys(orderRepository, orderMapper, false, 100_000, Duration.ofHours(24)),
+                new UuidGenerator(UuidGenerator.Version.V7)
+        );
+
+        buyRequestDTO = request("BUY");
+        sellRequestDTO = request("SELL");
+        batch = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(i % 2 == 0 ? buyRequestDTO : sellRequestDTO);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws InterruptedException {
+        orderSequencer.destroy();
+        executionWriteQueue.destroy();
+        stockPriceService.destroy();
+    }
+
+    private static OrderRequestDTO request(String type) {
+        return OrderRequestDTO.builder()
+                .symbol("AAPL")
+                .amount(10)
+                .type(type)
+                .price(new BigDecimal("150.00"))
+                .build();
+    }
+
+    @Benchmark
+    public OrderResponseDTO create() {
+        buy = !buy;
+        return orderService.create(buy ? buyRequestDTO : sellRequestDTO);
+    }
+
+    /**
+     * Bounded by the shard and write queues, so the throughput converges to what the writer sustains.
+     */
+    @Benchmark
+    public OrderStatusDTO accept() {
+        buy = !buy;
+        return orderService.accept(buy ? buyRequestDTO : sellRequestDTO);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<OrderBatchItemDTO> createAll() {
+        return orderService.createAll(batch);
+    }
+
+}
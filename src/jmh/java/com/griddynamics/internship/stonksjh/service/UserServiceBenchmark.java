@@ -0,0 +1,62 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.dto.user.UserRequestDTO;
+import com.griddynamics.internship.stonksjh.dto.user.UserResponseDTO;
+import com.griddynamics.internship.stonksjh.mapper.UserMapper;
+import com.griddynamics.internship.stonksjh.repository.InMemoryRepositories;
+import com.griddynamics.internship.stonksjh.uuid.UuidGenerator;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User creation with the repository kept in memory: validation, mapping and the single insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private UserService userService;
+    private UserRequestDTO userRequestDTO;
+    private UUID uuid;
+
+    @Setup
+    public void setUp() {
+        userService = new UserService(
+                InMemoryRepositories.users(), Mappers.getMapper(UserMapper.class), new UserCache(10_000, Duration.ofMinutes(10)),
+                new UuidGenerator(UuidGenerator.Version.V7)
+        );
+        userRequestDTO = UserRequestDTO.builder()
+                .email("user@example.com")
+                .username("user")
+                .build();
+        uuid = userService.create(userRequestDTO);
+    }
+
+    @Benchmark
+    public UUID create() {
+        return userService.create(userRequestDTO);
+    }
+
+    @Benchmark
+    public UserResponseDTO read() {
+        return userService.read(uuid);
+    }
+
+}
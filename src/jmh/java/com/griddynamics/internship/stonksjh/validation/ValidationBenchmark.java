@@ -0,0 +1,101 @@
+package com.griddynamics.internship.stonksjh.validation;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous validation code ({@code legacy*}) with {@link Validators}
+ * for valid and invalid input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"valid", "invalid"})
+    private String input;
+
+    private String email;
+    private String username;
+    private String symbol;
+    private String type;
+
+    @Setup
+    public void setUp() {
+        if (input.equals("valid")) {
+            email = "user@example.com";
+            username = "user_123";
+            symbol = "NVDA";
+            type = "SELL";
+        } else {
+            email = "user@example";
+            username = "user 123";
+            symbol = "NVDAX";
+            type = "HOLD";
+        }
+    }
+
+    @Benchmark
+    public boolean legacyEmail() {
+        return email.matches("\\w+@\\w+\\.\\w+");
+    }
+
+    @Benchmark
+    public boolean email() {
+        return Validators.isEmail(email);
+    }
+
+    @Benchmark
+    public boolean legacyUsername() {
+        return username.matches("\\w+");
+    }
+
+    @Benchmark
+    public boolean username() {
+        return Validators.isUsername(username);
+    }
+
+    @Benchmark
+    public Order.Symbol legacySymbol() {
+        try {
+            return Order.Symbol.valueOf(symbol);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Order.Symbol symbol() {
+        return Validators.symbol(symbol);
+    }
+
+    @Benchmark
+    public Order.Type legacyOrderType() {
+        try {
+            return Order.Type.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Order.Type orderType() {
+        return Validators.orderType(type);
+    }
+
+}
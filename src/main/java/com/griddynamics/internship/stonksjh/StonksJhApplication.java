@@ -2,8 +2,10 @@ package com.griddynamics.internship.stonksjh;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class StonksJhApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,18 @@
+package com.griddynamics.internship.stonksjh.candle;
+
+import java.time.Instant;
+
+/**
+ * @param start  start of the interval the bar covers
+ * @param open   first price of the interval in ticks, same for {@code high}, {@code low} and {@code close}
+ * @param volume shares traded in the interval
+ */
+public record Candle(
+        Instant start,
+        long open,
+        long high,
+        long low,
+        long close,
+        long volume
+) {
+}
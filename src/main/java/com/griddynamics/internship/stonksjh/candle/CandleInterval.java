@@ -0,0 +1,40 @@
+package com.griddynamics.internship.stonksjh.candle;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Bar lengths served, with how many of the latest bars are kept per symbol.
+ */
+@Getter
+public enum CandleInterval {
+
+    SECOND("1s", Duration.ofSeconds(1), 3_600),
+    MINUTE("1m", Duration.ofMinutes(1), 1_440),
+    FIVE_MINUTES("5m", Duration.ofMinutes(5), 2_016),
+    HOUR("1h", Duration.ofHours(1), 720);
+
+    private final String label;
+    private final long millis;
+    private final int capacity;
+
+    CandleInterval(String label, Duration length, int capacity) {
+        this.label = label;
+        this.millis = length.toMillis();
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the interval with the given label, {@code null} if there is none
+     */
+    public static CandleInterval of(String label) {
+        for (CandleInterval interval : values()) {
+            if (interval.label.equals(label)) {
+                return interval;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.griddynamics.internship.stonksjh.candle;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The latest bars of one symbol and interval in a ring of primitive arrays, the oldest bar is overwritten
+ * once the ring is full. Intervals without any price get no bar. Not thread-safe.
+ */
+final class CandleSeries {
+
+    private final long intervalMillis;
+    private final long[] starts;
+    private final long[] opens;
+    private final long[] highs;
+    private final long[] lows;
+    private final long[] closes;
+    private final long[] volumes;
+    private int newest = -1;
+    private int size;
+
+    CandleSeries(CandleInterval interval) {
+        this.intervalMillis = interval.getMillis();
+        this.starts = new long[interval.getCapacity()];
+        this.opens = new long[interval.getCapacity()];
+        this.highs = new long[interval.getCapacity()];
+        this.lows = new long[interval.getCapacity()];
+        this.closes = new long[interval.getCapacity()];
+        this.volumes = new long[interval.getCapacity()];
+    }
+
+    /**
+     * Prices older than the newest bar are dropped, rewriting a closed bar would change what was already served.
+     */
+    void add(long epochMillis, long price, long volume) {
+        long start = epochMillis - Math.floorMod(epochMillis, intervalMillis);
+        if (size > 0 && start == starts[newest]) {
+            highs[newest] = Math.max(highs[newest], price);
+            lows[newest] = Math.min(lows[newest], price);
+            closes[newest] = price;
+            volumes[newest] += volume;
+            return;
+        }
+        if (size > 0 && start < starts[newest]) {
+            return;
+        }
+        newest = (newest + 1) % starts.length;
+        size = Math.min(size + 1, starts.length);
+        starts[newest] = start;
+        opens[newest] = price;
+        highs[newest] = price;
+        lows[newest] = price;
+        closes[newest] = price;
+        volumes[newest] = volume;
+    }
+
+    /**
+     * @return up to {@code limit} of the latest bars, oldest first
+     */
+    List<Candle> recent(int limit) {
+        int count = Math.min(limit, size);
+        List<Candle> candles = new ArrayList<>(count);
+        for (int age = count - 1; age >= 0; age--) {
+            int i = Math.floorMod(newest - age, starts.length);
+            candles.add(new Candle(Instant.ofEpochMilli(starts[i]), opens[i], highs[i], lows[i], closes[i], volumes[i]));
+        }
+        return candles;
+    }
+
+}
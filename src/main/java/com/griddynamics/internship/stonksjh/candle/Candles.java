@@ -0,0 +1,70 @@
+package com.griddynamics.internship.stonksjh.candle;
+
+import com.griddynamics.internship.stonksjh.matching.MatchResult;
+import com.griddynamics.internship.stonksjh.matching.Ticks;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.price.Quote;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * OHLCV bars of every symbol and {@link CandleInterval}, built as prices come in instead of from the order history.
+ * <ul>
+ *     <li>trades move the price and add their amount to the volume, they are added once they are committed</li>
+ *     <li>quotes of the price provider move the price only, so symbols nobody trades still get bars</li>
+ * </ul>
+ * Every symbol has its own lock, held for updating all of its intervals at once, so readers never see a trade
+ * in one interval but not yet in another.
+ */
+@Component
+public class Candles {
+
+    private static final CandleInterval[] INTERVALS = CandleInterval.values();
+
+    private final CandleSeries[][] series = new CandleSeries[Order.Symbol.values().length][INTERVALS.length];
+
+    public Candles() {
+        for (val symbolSeries : series) {
+            for (int i = 0; i < INTERVALS.length; i++) {
+                symbolSeries[i] = new CandleSeries(INTERVALS[i]);
+            }
+        }
+    }
+
+    public void add(MatchResult matchResult) {
+        for (val trade : matchResult.trades()) {
+            add(trade.symbol(), trade.executedAt(), trade.price(), trade.amount());
+        }
+    }
+
+    public void add(Quote quote) {
+        val timestamp = quote.timestamp() != null ? quote.timestamp() : Instant.now();
+        val price = Ticks.fromPrice(quote.price().setScale(Ticks.SCALE, RoundingMode.HALF_UP));
+        add(quote.symbol(), timestamp, price, 0);
+    }
+
+    public void add(Order.Symbol symbol, Instant timestamp, long price, long volume) {
+        val symbolSeries = series[symbol.ordinal()];
+        val epochMillis = timestamp.toEpochMilli();
+        synchronized (symbolSeries) {
+            for (val intervalSeries : symbolSeries) {
+                intervalSeries.add(epochMillis, price, volume);
+            }
+        }
+    }
+
+    /**
+     * @return up to {@code limit} of the latest bars, oldest first
+     */
+    public List<Candle> recent(Order.Symbol symbol, CandleInterval interval, int limit) {
+        val symbolSeries = series[symbol.ordinal()];
+        synchronized (symbolSeries) {
+            return symbolSeries[interval.ordinal()].recent(limit);
+        }
+    }
+
+}
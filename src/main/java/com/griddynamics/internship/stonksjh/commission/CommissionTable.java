@@ -0,0 +1,196 @@
+package com.griddynamics.internship.stonksjh.commission;
+
+import com.griddynamics.internship.stonksjh.dto.commission.CommissionBracketDTO;
+import com.griddynamics.internship.stonksjh.exception.commission.InvalidCommissionTableException;
+import com.griddynamics.internship.stonksjh.matching.Ticks;
+import com.griddynamics.internship.stonksjh.model.User;
+import lombok.val;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Commission brackets of every tier, precomputed into arrays of scaled longs when the table is loaded,
+ * so that calculating a commission allocates nothing.
+ * <ul>
+ *     <li>money is kept in ticks, see {@link Ticks}</li>
+ *     <li>rates are kept in millionths of the notional, so a rate may have up to four decimals in percent</li>
+ *     <li>the commission is the notional times the rate of the bracket it falls into, rounded half up to a tick,
+ *     but at least the minimum of that bracket</li>
+ * </ul>
+ * The table is read from lines of {@code tier,from notional,rate percent,minimum}, lines starting with {@code #}
+ * are comments. Every tier needs a bracket starting at a notional of 0.
+ */
+public final class CommissionTable {
+
+    static final long RATE_SCALE = 1_000_000;
+
+    private static final int RATE_PERCENT_SCALE = 4;
+    private static final User.Tier[] TIERS = User.Tier.values();
+
+    private final long[][] fromNotional = new long[TIERS.length][];
+    private final long[][] rate = new long[TIERS.length][];
+    private final long[][] minimum = new long[TIERS.length][];
+    private final List<CommissionBracketDTO> brackets;
+
+    private CommissionTable(List<CommissionBracketDTO> brackets) {
+        this.brackets = List.copyOf(brackets);
+        for (val tier : TIERS) {
+            val tierBrackets = brackets.stream()
+                    .filter(bracket -> bracket.tier() == tier)
+                    .toList();
+            val i = tier.ordinal();
+            fromNotional[i] = new long[tierBrackets.size()];
+            rate[i] = new long[tierBrackets.size()];
+            minimum[i] = new long[tierBrackets.size()];
+            for (int j = 0; j < tierBrackets.size(); j++) {
+                val bracket = tierBrackets.get(j);
+                fromNotional[i][j] = Ticks.fromPrice(bracket.fromNotional());
+                rate[i][j] = bracket.ratePercent().movePointRight(RATE_PERCENT_SCALE).longValueExact();
+                minimum[i][j] = Ticks.fromPrice(bracket.minimum());
+            }
+        }
+    }
+
+    public static CommissionTable parse(Reader reader) {
+        List<CommissionBracketDTO> brackets = new ArrayList<>();
+        val lines = new BufferedReader(reader);
+        try {
+            int lineNumber = 0;
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                brackets.add(parseBracket(line, lineNumber));
+            }
+        } catch (IOException e) {
+            throw new InvalidCommissionTableException("they could not be read", e);
+        }
+        return of(brackets);
+    }
+
+    public static CommissionTable of(List<CommissionBracketDTO> brackets) {
+        Map<User.Tier, List<CommissionBracketDTO>> byTier = new EnumMap<>(User.Tier.class);
+        for (val bracket : brackets) {
+            byTier.computeIfAbsent(bracket.tier(), tier -> new ArrayList<>()).add(bracket);
+        }
+        List<CommissionBracketDTO> sorted = new ArrayList<>();
+        for (val tier : TIERS) {
+            List<CommissionBracketDTO> tierBrackets = byTier.getOrDefault(tier, new ArrayList<>());
+            tierBrackets.sort(Comparator.comparing(CommissionBracketDTO::fromNotional));
+            if (tierBrackets.isEmpty() || tierBrackets.get(0).fromNotional().signum() != 0) {
+                throw new InvalidCommissionTableException(String.format("tier %s has no bracket from 0", tier));
+            }
+            for (int i = 1; i < tierBrackets.size(); i++) {
+                if (tierBrackets.get(i).fromNotional().compareTo(tierBrackets.get(i - 1).fromNotional()) == 0) {
+                    throw new InvalidCommissionTableException(String.format(
+                            "tier %s has two brackets from %s", tier, tierBrackets.get(i).fromNotional()
+                    ));
+                }
+            }
+            sorted.addAll(tierBrackets);
+        }
+        return new CommissionTable(sorted);
+    }
+
+    public List<CommissionBracketDTO> brackets() {
+        return brackets;
+    }
+
+    /**
+     * @return commission in ticks for {@code amount} shares at {@code priceTicks}
+     */
+    public long commission(User.Tier tier, long priceTicks, int amount) {
+        return commission(tier, notional(priceTicks, amount));
+    }
+
+    /**
+     * @return commission in ticks of an order worth {@code notional} ticks
+     */
+    public long commission(User.Tier tier, long notional) {
+        val i = tier.ordinal();
+        val j = bracket(fromNotional[i], notional);
+        val rate = this.rate[i][j];
+        long commission;
+        if (notional <= Long.MAX_VALUE / RATE_SCALE) {
+            commission = (notional * rate + RATE_SCALE / 2) / RATE_SCALE;
+        } else {
+            commission = BigInteger.valueOf(notional)
+                    .multiply(BigInteger.valueOf(rate))
+                    .add(BigInteger.valueOf(RATE_SCALE / 2))
+                    .divide(BigInteger.valueOf(RATE_SCALE))
+                    .longValueExact();
+        }
+        return Math.max(commission, minimum[i][j]);
+    }
+
+    /**
+     * @return rate in millionths of the notional
+     */
+    public long rate(User.Tier tier, long notional) {
+        val i = tier.ordinal();
+        return rate[i][bracket(fromNotional[i], notional)];
+    }
+
+    public static BigDecimal ratePercent(long rate) {
+        return BigDecimal.valueOf(rate, RATE_PERCENT_SCALE);
+    }
+
+    /**
+     * @throws ArithmeticException if the notional does not fit into a long, which validated orders cannot reach,
+     *                             see {@link com.griddynamics.internship.stonksjh.service.OrderService#MAX_AMOUNT}
+     */
+    public static long notional(long priceTicks, int amount) {
+        return Math.multiplyExact(priceTicks, amount);
+    }
+
+    /**
+     * Tiers have a handful of brackets, scanning them beats a binary search.
+     */
+    private static int bracket(long[] fromNotional, long notional) {
+        int j = fromNotional.length - 1;
+        while (fromNotional[j] > notional) {
+            j--;
+        }
+        return j;
+    }
+
+    private static CommissionBracketDTO parseBracket(String line, int lineNumber) {
+        val columns = line.split(",");
+        if (columns.length != 4) {
+            throw new InvalidCommissionTableException(String.format(
+                    "line %d does not have 4 columns [line=%s]", lineNumber, line
+            ));
+        }
+        try {
+            val bracket = CommissionBracketDTO.builder()
+                    .tier(User.Tier.valueOf(columns[0].trim()))
+                    .fromNotional(new BigDecimal(columns[1].trim()).setScale(Ticks.SCALE, RoundingMode.UNNECESSARY))
+                    .ratePercent(new BigDecimal(columns[2].trim()).setScale(RATE_PERCENT_SCALE, RoundingMode.UNNECESSARY))
+                    .minimum(new BigDecimal(columns[3].trim()).setScale(Ticks.SCALE, RoundingMode.UNNECESSARY))
+                    .build();
+            if (bracket.fromNotional().signum() < 0 || bracket.minimum().signum() < 0
+                    || bracket.ratePercent().signum() < 0 || bracket.ratePercent().compareTo(BigDecimal.valueOf(100)) > 0) {
+                throw new InvalidCommissionTableException(String.format(
+                        "line %d is out of range [line=%s]", lineNumber, line
+                ));
+            }
+            return bracket;
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new InvalidCommissionTableException(String.format(
+                    "line %d could not be parsed [line=%s]", lineNumber, line
+            ), e);
+        }
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.griddynamics.internship.stonksjh.config;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.sequencer.OrderSequencer;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@link io.micrometer.core.annotation.Timed} on Spring beans and exposes the sequencer queues.
+ * Controllers and repositories are timed by Spring Boot itself
+ * ({@code http.server.requests}, {@code spring.data.repository.invocations}).
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder orderSequencerMetrics(OrderSequencer orderSequencer) {
+        return meterRegistry -> {
+            for (Order.Symbol symbol : Order.Symbol.values()) {
+                Gauge.builder("stonks.sequencer.queue.depth", orderSequencer, sequencer -> sequencer.queueDepth(symbol))
+                        .tag("symbol", symbol.name())
+                        .register(meterRegistry);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.griddynamics.internship.stonksjh.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat's request handling and Spring's application task executor (async MVC responses such as
+ * the NDJSON user stream) on virtual threads, so requests blocked on JPA no longer hold a platform thread.
+ * Concurrency against the database is then bounded by the connection pool alone.
+ * <p>
+ * Enabled with {@code stonks.threads.virtual=true}, which needs a Java 21 runtime. The code still compiles
+ * for Java 17, so the executor is looked up reflectively and startup fails if the runtime lacks it.
+ * <p>
+ * The sequencer shards, the execution writer and the quote stream senders stay on platform threads. The shards
+ * and the writer are a fixed set of long-lived threads, one per symbol and one for the database, so there is
+ * nothing to spread over fewer carriers, and the shards hold the ledger's account monitors, which pin anyway.
+ * The senders block in {@code SseEmitter.send}, which is {@code synchronized} in Spring 6.0 and would pin
+ * a carrier thread for as long as a slow client takes.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "stonks.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer(
+            AsyncTaskExecutor applicationTaskExecutor
+    ) {
+        return protocolHandler -> protocolHandler.setExecutor(applicationTaskExecutor);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Virtual threads need Java 21 or newer, running on " + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.griddynamics.internship.stonksjh.controller;
+
+import com.griddynamics.internship.stonksjh.dto.commission.CommissionBracketDTO;
+import com.griddynamics.internship.stonksjh.service.CommissionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("api/commissions")
+@RequiredArgsConstructor
+public class CommissionController {
+
+    private final CommissionService commissionService;
+
+    @GetMapping(
+            value = "/tiers",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<List<CommissionBracketDTO>> tiers() {
+        return ResponseEntity.ok(commissionService.brackets());
+    }
+
+    @PostMapping(
+            value = "/tiers/reload",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<List<CommissionBracketDTO>> reload() {
+        return ResponseEntity.ok(commissionService.reload());
+    }
+
+}
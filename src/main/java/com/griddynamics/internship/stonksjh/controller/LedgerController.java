@@ -0,0 +1,54 @@
+package com.griddynamics.internship.stonksjh.controller;
+
+import com.griddynamics.internship.stonksjh.dto.ledger.AccountDTO;
+import com.griddynamics.internship.stonksjh.dto.ledger.DepositDTO;
+import com.griddynamics.internship.stonksjh.dto.ledger.LedgerMismatchDTO;
+import com.griddynamics.internship.stonksjh.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("api/ledger")
+@RequiredArgsConstructor
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+
+    @GetMapping(
+            value = "/accounts/{userUuid}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<AccountDTO> account(@PathVariable UUID userUuid) {
+        return ResponseEntity.ok(ledgerService.account(userUuid));
+    }
+
+    @PostMapping(
+            value = "/accounts/{userUuid}/deposits",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<AccountDTO> deposit(@PathVariable UUID userUuid, @RequestBody DepositDTO depositDTO) {
+        return ResponseEntity.ok(ledgerService.deposit(userUuid, depositDTO));
+    }
+
+    @GetMapping(
+            value = "/reconciliation",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<List<LedgerMismatchDTO>> reconcile() {
+        return ResponseEntity.ok(ledgerService.reconcile());
+    }
+
+}
@@ -1,9 +1,17 @@
 package com.griddynamics.internship.stonksjh.controller;
 
+import com.griddynamics.internship.stonksjh.dto.commission.CommissionDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderBatchItemDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderPageDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderQueryDTO;
 import com.griddynamics.internship.stonksjh.dto.order.OrderRequestDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderStatusDTO;
+import com.griddynamics.internship.stonksjh.service.CommissionService;
 import com.griddynamics.internship.stonksjh.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -13,27 +21,61 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("api/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
+    /**
+     * Retries of a request carrying this header return the order of its first attempt.
+     */
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final OrderService crudService;
+    private final CommissionService commissionService;
 
     @PostMapping(
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<?> create(@RequestBody OrderRequestDTO orderRequestDTO) {
-        val orderDTO = crudService.create(orderRequestDTO);
+    public ResponseEntity<?> create(
+            @RequestBody OrderRequestDTO orderRequestDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
+        if (crudService.acknowledgesOnAcceptance()) {
+            val statusDTO = crudService.accept(orderRequestDTO, idempotencyKey);
+            val statusUri = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/{uuid}/status")
+                    .buildAndExpand(statusDTO.uuid())
+                    .toUri();
+            return ResponseEntity.accepted().location(statusUri).body(statusDTO);
+        }
+        val orderDTO = crudService.create(orderRequestDTO, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(orderDTO);
     }
 
+    @PostMapping(
+            value = "/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<List<OrderBatchItemDTO>> createAll(@RequestBody List<OrderRequestDTO> orderRequestDTOs) {
+        val items = crudService.createAll(orderRequestDTOs);
+        val allCreated = items.stream().allMatch(item -> item.error() == null);
+        return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(items);
+    }
+
     @GetMapping(
             value = "/{uuid}",
             produces = MediaType.APPLICATION_JSON_VALUE
@@ -43,6 +85,48 @@ public class OrderController {
         return ResponseEntity.ok(readOrderDto);
     }
 
+    @GetMapping(
+            value = "/{uuid}/status",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<OrderStatusDTO> status(@PathVariable UUID uuid) {
+        return ResponseEntity.ok(crudService.status(uuid));
+    }
+
+    @GetMapping(
+            value = "/{uuid}/commission",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<CommissionDTO> commission(@PathVariable UUID uuid) {
+        return ResponseEntity.ok(commissionService.commission(crudService.read(uuid)));
+    }
+
+    @GetMapping(
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<OrderPageDTO> read(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) UUID user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant afterCreatedAt,
+            @RequestParam(defaultValue = "100") int size
+    ) {
+        val orderQueryDTO = OrderQueryDTO.builder()
+                .symbol(symbol)
+                .type(type)
+                .userUuid(user)
+                .from(from)
+                .to(to)
+                .after(after)
+                .afterCreatedAt(afterCreatedAt)
+                .size(size)
+                .build();
+        return ResponseEntity.ok(crudService.read(orderQueryDTO));
+    }
+
     @PutMapping(
             value = "/{uuid}",
             consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -0,0 +1,48 @@
+package com.griddynamics.internship.stonksjh.controller;
+
+import com.griddynamics.internship.stonksjh.dto.position.PositionDTO;
+import com.griddynamics.internship.stonksjh.dto.position.ShareDepositDTO;
+import com.griddynamics.internship.stonksjh.service.PositionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("api/positions")
+@RequiredArgsConstructor
+public class PositionController {
+
+    private final PositionService positionService;
+
+    @GetMapping(
+            value = "/{userUuid}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<List<PositionDTO>> positions(@PathVariable UUID userUuid) {
+        return ResponseEntity.ok(positionService.positions(userUuid));
+    }
+
+    @PostMapping(
+            value = "/{userUuid}/deposits",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<List<PositionDTO>> deposit(
+            @PathVariable UUID userUuid,
+            @RequestBody ShareDepositDTO shareDepositDTO
+    ) {
+        return ResponseEntity.ok(positionService.deposit(userUuid, shareDepositDTO));
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.griddynamics.internship.stonksjh.controller;
+
+import com.griddynamics.internship.stonksjh.dto.candle.CandleDTO;
+import com.griddynamics.internship.stonksjh.price.Quote;
+import com.griddynamics.internship.stonksjh.service.CandleService;
+import com.griddynamics.internship.stonksjh.service.QuoteStreamService;
+import com.griddynamics.internship.stonksjh.service.StockPriceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("api/prices")
+@RequiredArgsConstructor
+public class PriceController {
+
+    private final StockPriceService stockPriceService;
+    private final QuoteStreamService quoteStreamService;
+    private final CandleService candleService;
+
+    @GetMapping(
+            value = "/{symbol}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<Quote> read(@PathVariable String symbol) {
+        return ResponseEntity.ok(stockPriceService.getQuote(symbol));
+    }
+
+    @GetMapping(
+            value = "/{symbol}/candles",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<List<CandleDTO>> candles(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "1m") String interval,
+            @RequestParam(defaultValue = "60") int limit
+    ) {
+        return ResponseEntity.ok(candleService.candles(symbol, interval, limit));
+    }
+
+    @GetMapping(
+            value = "/stream",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter stream(@RequestParam(required = false) List<String> symbols) {
+        return quoteStreamService.subscribe(symbols);
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.griddynamics.internship.stonksjh.controller;
+
+import com.griddynamics.internship.stonksjh.dto.order.OrderBatchItemDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderPageDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderQueryDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderRequestDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderStatusDTO;
+import com.griddynamics.internship.stonksjh.service.ReactiveOrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Same API as {@link OrderController}, served by WebFlux when the application runs with the {@code reactive} profile.
+ * Orders are always acknowledged once written.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("api/orders")
+@RequiredArgsConstructor
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService crudService;
+
+    @PostMapping(
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<OrderResponseDTO>> create(@RequestBody OrderRequestDTO orderRequestDTO) {
+        return crudService.create(orderRequestDTO)
+                .map(orderDTO -> ResponseEntity.status(HttpStatus.CREATED).body(orderDTO));
+    }
+
+    @PostMapping(
+            value = "/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<List<OrderBatchItemDTO>>> createAll(@RequestBody List<OrderRequestDTO> orderRequestDTOs) {
+        return crudService.createAll(orderRequestDTOs)
+                .map(items -> {
+                    boolean allCreated = items.stream().allMatch(item -> item.error() == null);
+                    return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(items);
+                });
+    }
+
+    @GetMapping(
+            value = "/{uuid}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<OrderResponseDTO>> read(@PathVariable UUID uuid) {
+        return crudService.read(uuid)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(
+            value = "/{uuid}/status",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<OrderStatusDTO>> status(@PathVariable UUID uuid) {
+        return crudService.status(uuid)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<OrderPageDTO>> read(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) UUID user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant afterCreatedAt,
+            @RequestParam(defaultValue = "100") int size
+    ) {
+        val orderQueryDTO = OrderQueryDTO.builder()
+                .symbol(symbol)
+                .type(type)
+                .userUuid(user)
+                .from(from)
+                .to(to)
+                .after(after)
+                .afterCreatedAt(afterCreatedAt)
+                .size(size)
+                .build();
+        return crudService.read(orderQueryDTO)
+                .map(ResponseEntity::ok);
+    }
+
+    @PutMapping(
+            value = "/{uuid}",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<OrderResponseDTO>> update(@PathVariable UUID uuid, @RequestBody OrderRequestDTO orderRequestDTO) {
+        return crudService.update(uuid, orderRequestDTO)
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping(
+            value = "/{uuid}"
+    )
+    public Mono<ResponseEntity<Void>> delete(@PathVariable UUID uuid) {
+        return crudService.delete(uuid)
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+    }
+
+}
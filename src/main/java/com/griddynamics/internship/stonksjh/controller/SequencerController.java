@@ -0,0 +1,29 @@
+package com.griddynamics.internship.stonksjh.controller;
+
+import com.griddynamics.internship.stonksjh.sequencer.OrderSequencer;
+import com.griddynamics.internship.stonksjh.sequencer.ShardStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/sequencer")
+@RequiredArgsConstructor
+public class SequencerController {
+
+    private final OrderSequencer orderSequencer;
+
+    @GetMapping(
+            value = "/shards",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<List<ShardStats>> shards() {
+        return ResponseEntity.ok(orderSequencer.stats());
+    }
+
+}
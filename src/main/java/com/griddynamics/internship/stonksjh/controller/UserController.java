@@ -1,10 +1,14 @@
 package com.griddynamics.internship.stonksjh.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.griddynamics.internship.stonksjh.dto.user.UserPageDTO;
 import com.griddynamics.internship.stonksjh.dto.user.UserRequestDTO;
 import com.griddynamics.internship.stonksjh.dto.user.UserResponseDTO;
 import com.griddynamics.internship.stonksjh.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -15,17 +19,22 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.UUID;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserController {
 
     private final UserService crudService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping(
             consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -48,8 +57,37 @@ public class UserController {
     @GetMapping(
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<List<UserResponseDTO>> read() {
-        return ResponseEntity.ok(crudService.read());
+    public ResponseEntity<UserPageDTO> read(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int size
+    ) {
+        return ResponseEntity.ok(crudService.read(after, size));
+    }
+
+    /**
+     * Streams all users as newline-delimited JSON, one user per line.
+     */
+    @GetMapping(
+            value = "/stream",
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                crudService.readAll(user -> {
+                    try {
+                        writer.write(user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PutMapping(
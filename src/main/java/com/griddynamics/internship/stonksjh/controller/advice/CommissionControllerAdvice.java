@@ -0,0 +1,25 @@
+package com.griddynamics.internship.stonksjh.controller.advice;
+
+import com.griddynamics.internship.stonksjh.controller.CommissionController;
+import com.griddynamics.internship.stonksjh.exception.ApiExceptionDTO;
+import com.griddynamics.internship.stonksjh.exception.commission.InvalidCommissionTableException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice(basePackageClasses = CommissionController.class)
+@RequiredArgsConstructor
+public class CommissionControllerAdvice {
+
+    private final ErrorMetrics errorMetrics;
+
+    @ExceptionHandler(InvalidCommissionTableException.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ApiExceptionDTO handleInvalidCommissionTableException(Exception e) {
+        errorMetrics.count(e, HttpStatus.INTERNAL_SERVER_ERROR);
+        return ApiExceptionDTO.of(e.getMessage());
+    }
+
+}
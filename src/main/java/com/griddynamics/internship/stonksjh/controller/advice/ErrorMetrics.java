@@ -0,0 +1,28 @@
+package com.griddynamics.internship.stonksjh.controller.advice;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts exceptions turned into error responses. Handled exceptions do not show up in the
+ * {@code exception} tag of {@code http.server.requests}, so they are counted separately.
+ */
+@Component
+@RequiredArgsConstructor
+public class ErrorMetrics {
+
+    static final String NAME = "stonks.api.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    void count(Exception e, HttpStatus status) {
+        meterRegistry.counter(
+                NAME,
+                "exception", e.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())
+        ).increment();
+    }
+
+}
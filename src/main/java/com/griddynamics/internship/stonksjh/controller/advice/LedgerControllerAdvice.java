@@ -0,0 +1,29 @@
+package com.griddynamics.internship.stonksjh.controller.advice;
+
+import com.griddynamics.internship.stonksjh.controller.LedgerController;
+import com.griddynamics.internship.stonksjh.exception.ApiExceptionDTO;
+import com.griddynamics.internship.stonksjh.exception.ledger.InvalidDepositException;
+import com.griddynamics.internship.stonksjh.exception.position.InvalidShareDepositException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice(basePackageClasses = LedgerController.class)
+@RequiredArgsConstructor
+public class LedgerControllerAdvice {
+
+    private final ErrorMetrics errorMetrics;
+
+    @ExceptionHandler({
+            InvalidDepositException.class,
+            InvalidShareDepositException.class
+    })
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiExceptionDTO handleInvalidDepositException(Exception e) {
+        errorMetrics.count(e, HttpStatus.BAD_REQUEST);
+        return ApiExceptionDTO.of(e.getMessage());
+    }
+
+}
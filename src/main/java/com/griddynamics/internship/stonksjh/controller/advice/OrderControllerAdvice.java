@@ -2,27 +2,76 @@ package com.griddynamics.internship.stonksjh.controller.advice;
 
 import com.griddynamics.internship.stonksjh.controller.OrderController;
 import com.griddynamics.internship.stonksjh.exception.ApiExceptionDTO;
+import com.griddynamics.internship.stonksjh.exception.InvalidPageSizeException;
+import com.griddynamics.internship.stonksjh.exception.ledger.InsufficientFundsException;
+import com.griddynamics.internship.stonksjh.exception.order.IdempotencyKeyReusedException;
+import com.griddynamics.internship.stonksjh.exception.order.IdempotencyKeyWithoutOwnerException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidCursorException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidIdempotencyKeyException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidOrderTypeException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidPriceException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidStockAmountException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidSymbolException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidTimeRangeException;
+import com.griddynamics.internship.stonksjh.exception.order.MissingOrderException;
+import com.griddynamics.internship.stonksjh.exception.order.OrderBatchTooLargeException;
 import com.griddynamics.internship.stonksjh.exception.order.OrderNotFoundException;
+import com.griddynamics.internship.stonksjh.exception.order.OrderNotModifiableException;
+import com.griddynamics.internship.stonksjh.exception.order.OrderQueueFullException;
+import com.griddynamics.internship.stonksjh.exception.position.InsufficientSharesException;
+import com.griddynamics.internship.stonksjh.exception.price.InvalidCandleIntervalException;
+import com.griddynamics.internship.stonksjh.exception.price.QuoteUnavailableException;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @RestControllerAdvice(basePackageClasses = OrderController.class)
+@RequiredArgsConstructor
 public class OrderControllerAdvice {
 
+    private final ErrorMetrics errorMetrics;
+
     @ExceptionHandler(OrderNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ApiExceptionDTO handleOrderNotFoundException(Exception e) {
+        errorMetrics.count(e, HttpStatus.NOT_FOUND);
+        return ApiExceptionDTO.of(e.getMessage());
+    }
+
+    @ExceptionHandler({
+            OrderNotModifiableException.class,
+            InsufficientFundsException.class,
+            InsufficientSharesException.class
+    })
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiExceptionDTO handleConflictExceptions(Exception e) {
+        errorMetrics.count(e, HttpStatus.CONFLICT);
+        return ApiExceptionDTO.of(e.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ApiExceptionDTO handleIdempotencyKeyReusedException(Exception e) {
+        errorMetrics.count(e, HttpStatus.UNPROCESSABLE_ENTITY);
+        return ApiExceptionDTO.of(e.getMessage());
+    }
+
+    @ExceptionHandler({
+            OrderQueueFullException.class,
+            QuoteUnavailableException.class
+    })
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiExceptionDTO handleOrderQueueFullException(Exception e) {
+        errorMetrics.count(e, HttpStatus.SERVICE_UNAVAILABLE);
         return ApiExceptionDTO.of(e.getMessage());
     }
 
     @ExceptionHandler(NoSuchMethodException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ApiExceptionDTO handleNoSuchMethodException(Exception e) {
+        errorMetrics.count(e, HttpStatus.INTERNAL_SERVER_ERROR);
         return ApiExceptionDTO.of(e.getMessage());
     }
 
@@ -30,10 +79,20 @@ public class OrderControllerAdvice {
             InvalidStockAmountException.class,
             InvalidSymbolException.class,
             InvalidOrderTypeException.class,
+            InvalidPriceException.class,
+            MissingOrderException.class,
+            OrderBatchTooLargeException.class,
+            InvalidTimeRangeException.class,
+            InvalidCursorException.class,
+            InvalidPageSizeException.class,
+            InvalidCandleIntervalException.class,
+            InvalidIdempotencyKeyException.class,
+            IdempotencyKeyWithoutOwnerException.class,
             IllegalArgumentException.class
     })
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiExceptionDTO handleIllegalArgumentException(Exception e) {
+        errorMetrics.count(e, HttpStatus.BAD_REQUEST);
         return ApiExceptionDTO.of(e.getMessage());
     }
 
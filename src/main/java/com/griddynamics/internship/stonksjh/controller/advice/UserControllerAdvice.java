@@ -2,22 +2,28 @@ package com.griddynamics.internship.stonksjh.controller.advice;
 
 import com.griddynamics.internship.stonksjh.controller.UserController;
 import com.griddynamics.internship.stonksjh.exception.ApiExceptionDTO;
+import com.griddynamics.internship.stonksjh.exception.InvalidPageSizeException;
 import com.griddynamics.internship.stonksjh.exception.user.EmailFormatException;
 import com.griddynamics.internship.stonksjh.exception.user.EmailTakenException;
 import com.griddynamics.internship.stonksjh.exception.user.UserNotFoundException;
 import com.griddynamics.internship.stonksjh.exception.user.UsernameFormatException;
 import com.griddynamics.internship.stonksjh.exception.user.UsernameTakenException;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @RestControllerAdvice(basePackageClasses = UserController.class)
+@RequiredArgsConstructor
 public class UserControllerAdvice {
 
+    private final ErrorMetrics errorMetrics;
+
     @ExceptionHandler(UserNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ApiExceptionDTO handleUserNotFoundException(Exception e) {
+        errorMetrics.count(e, HttpStatus.NOT_FOUND);
         return ApiExceptionDTO.of(e.getMessage());
     }
 
@@ -27,21 +33,25 @@ public class UserControllerAdvice {
     })
     @ResponseStatus(HttpStatus.CONFLICT)
     public ApiExceptionDTO handleConflictExceptions(Exception e) {
+        errorMetrics.count(e, HttpStatus.CONFLICT);
         return ApiExceptionDTO.of(e.getMessage());
     }
 
     @ExceptionHandler({
             UsernameFormatException.class,
-            EmailFormatException.class
+            EmailFormatException.class,
+            InvalidPageSizeException.class
     })
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiExceptionDTO handleDataFormatException(Exception e) {
+        errorMetrics.count(e, HttpStatus.BAD_REQUEST);
         return ApiExceptionDTO.of(e.getMessage());
     }
 
     @ExceptionHandler(NoSuchMethodException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ApiExceptionDTO handleNoSuchMethodException(Exception e) {
+        errorMetrics.count(e, HttpStatus.INTERNAL_SERVER_ERROR);
         return ApiExceptionDTO.of(e.getMessage());
     }
 
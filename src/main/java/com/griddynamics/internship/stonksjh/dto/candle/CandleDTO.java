@@ -0,0 +1,17 @@
+package com.griddynamics.internship.stonksjh.dto.candle;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Builder
+public record CandleDTO(
+        Instant start,
+        BigDecimal open,
+        BigDecimal high,
+        BigDecimal low,
+        BigDecimal close,
+        long volume
+) {
+}
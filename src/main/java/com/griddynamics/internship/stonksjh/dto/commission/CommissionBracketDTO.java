@@ -0,0 +1,20 @@
+package com.griddynamics.internship.stonksjh.dto.commission;
+
+import com.griddynamics.internship.stonksjh.model.User;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+/**
+ * @param fromNotional lowest order value the bracket applies to
+ * @param ratePercent  commission in percent of the order value
+ * @param minimum      lowest commission charged for an order in the bracket
+ */
+@Builder
+public record CommissionBracketDTO(
+        User.Tier tier,
+        BigDecimal fromNotional,
+        BigDecimal ratePercent,
+        BigDecimal minimum
+) {
+}
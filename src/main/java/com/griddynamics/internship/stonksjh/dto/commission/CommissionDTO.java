@@ -0,0 +1,21 @@
+package com.griddynamics.internship.stonksjh.dto.commission;
+
+import com.griddynamics.internship.stonksjh.model.User;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * @param notional    amount times the limit price, or the current price for market orders
+ * @param ratePercent rate of the bracket the notional falls into
+ */
+@Builder
+public record CommissionDTO(
+        UUID orderUuid,
+        User.Tier tier,
+        BigDecimal notional,
+        BigDecimal ratePercent,
+        BigDecimal commission
+) {
+}
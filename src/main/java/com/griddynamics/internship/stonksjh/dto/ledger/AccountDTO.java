@@ -0,0 +1,20 @@
+package com.griddynamics.internship.stonksjh.dto.ledger;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * @param balance   money owned, including orders matched but not written yet
+ * @param reserved  part of the balance set aside for open buy orders
+ * @param available part of the balance new buy orders can reserve
+ */
+@Builder
+public record AccountDTO(
+        UUID userUuid,
+        BigDecimal balance,
+        BigDecimal reserved,
+        BigDecimal available
+) {
+}
@@ -0,0 +1,11 @@
+package com.griddynamics.internship.stonksjh.dto.ledger;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+@Builder
+public record DepositDTO(
+        BigDecimal amount
+) {
+}
@@ -0,0 +1,22 @@
+package com.griddynamics.internship.stonksjh.dto.ledger;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A user whose stored balance does not add up with their ledger entries.
+ *
+ * @param balance       balance stored with the user
+ * @param ledgerBalance balance summed up from the ledger entries
+ * @param reserved      reserved money summed up from the ledger entries
+ */
+@Builder
+public record LedgerMismatchDTO(
+        UUID userUuid,
+        BigDecimal balance,
+        BigDecimal ledgerBalance,
+        BigDecimal reserved
+) {
+}
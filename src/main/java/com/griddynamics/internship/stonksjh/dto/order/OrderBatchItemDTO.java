@@ -0,0 +1,32 @@
+package com.griddynamics.internship.stonksjh.dto.order;
+
+import com.griddynamics.internship.stonksjh.exception.ApiExceptionDTO;
+import lombok.Builder;
+
+/**
+ * Result of a single order of a batch, either the created order or the reason it was rejected.
+ *
+ * @param index position of the order in the submitted batch
+ */
+@Builder
+public record OrderBatchItemDTO(
+        int index,
+        OrderResponseDTO order,
+        ApiExceptionDTO error
+) {
+
+    public static OrderBatchItemDTO created(int index, OrderResponseDTO order) {
+        return OrderBatchItemDTO.builder()
+                .index(index)
+                .order(order)
+                .build();
+    }
+
+    public static OrderBatchItemDTO rejected(int index, String message) {
+        return OrderBatchItemDTO.builder()
+                .index(index)
+                .error(ApiExceptionDTO.of(message))
+                .build();
+    }
+
+}
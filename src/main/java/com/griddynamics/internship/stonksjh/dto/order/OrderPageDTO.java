@@ -0,0 +1,20 @@
+package com.griddynamics.internship.stonksjh.dto.order;
+
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @param nextCursor    value of the {@code after} parameter that fetches the next page,
+ *                      {@code null} when there are no more orders
+ * @param nextCreatedAt value of the {@code afterCreatedAt} parameter that goes with it,
+ *                      only set when the search has a time range
+ */
+@Builder
+public record OrderPageDTO(
+        List<OrderResponseDTO> orders,
+        Long nextCursor,
+        Instant nextCreatedAt
+) {
+}
@@ -0,0 +1,23 @@
+package com.griddynamics.internship.stonksjh.dto.order;
+
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * @param after          id of the last order of the previous page
+ * @param afterCreatedAt creation time of that order, required with {@code after} when a time range is given
+ */
+@Builder
+public record OrderQueryDTO(
+        String symbol,
+        String type,
+        UUID userUuid,
+        Instant from,
+        Instant to,
+        Long after,
+        Instant afterCreatedAt,
+        int size
+) {
+}
@@ -2,10 +2,19 @@ package com.griddynamics.internship.stonksjh.dto.order;
 
 import lombok.Builder;
 
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * @param userUuid owner of the order, {@code null} places it without an account: it is then neither checked
+ *                 for funds or shares nor settled against anyone's balance or holdings
+ */
 @Builder
 public record OrderRequestDTO(
         String symbol,
         int amount,
-        String type
+        String type,
+        BigDecimal price,
+        UUID userUuid
 ) {
 }
@@ -3,6 +3,8 @@ package com.griddynamics.internship.stonksjh.dto.order;
 import com.griddynamics.internship.stonksjh.model.Order;
 import lombok.Builder;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
 @Builder
@@ -10,6 +12,11 @@ public record OrderResponseDTO(
         UUID uuid,
         Order.Type type,
         int amount,
-        Order.Symbol symbol
+        Order.Symbol symbol,
+        BigDecimal price,
+        int filled,
+        Order.Status status,
+        UUID userUuid,
+        Instant createdAt
 ) {
 }
@@ -0,0 +1,52 @@
+package com.griddynamics.internship.stonksjh.dto.order;
+
+import com.griddynamics.internship.stonksjh.exception.ApiExceptionDTO;
+import lombok.Builder;
+
+import java.util.UUID;
+
+/**
+ * Progress of an order accepted without waiting for its write.
+ *
+ * @param error reason the order could not be persisted, only set for {@link State#FAILED}
+ */
+@Builder
+public record OrderStatusDTO(
+        UUID uuid,
+        State state,
+        ApiExceptionDTO error
+) {
+
+    public static OrderStatusDTO accepted(UUID uuid) {
+        return OrderStatusDTO.builder()
+                .uuid(uuid)
+                .state(State.ACCEPTED)
+                .build();
+    }
+
+    public static OrderStatusDTO persisted(UUID uuid) {
+        return OrderStatusDTO.builder()
+                .uuid(uuid)
+                .state(State.PERSISTED)
+                .build();
+    }
+
+    public static OrderStatusDTO failed(UUID uuid, String message) {
+        return OrderStatusDTO.builder()
+                .uuid(uuid)
+                .state(State.FAILED)
+                .error(ApiExceptionDTO.of(message))
+                .build();
+    }
+
+    public enum State {
+        /**
+         * Validated and matched or queued for matching, but not written yet.
+         * An accepted order is lost if the service stops before it is written.
+         */
+        ACCEPTED,
+        PERSISTED,
+        FAILED
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.griddynamics.internship.stonksjh.dto.position;
+
+import lombok.Builder;
+
+/**
+ * @param amount    shares held, including orders matched but not written yet
+ * @param reserved  part of the shares offered by open sell orders
+ * @param available part of the shares new sell orders can offer
+ */
+@Builder
+public record PositionDTO(
+        String symbol,
+        long amount,
+        long reserved,
+        long available
+) {
+}
@@ -0,0 +1,13 @@
+package com.griddynamics.internship.stonksjh.dto.position;
+
+import lombok.Builder;
+
+/**
+ * @param amount shares brought in from outside the exchange
+ */
+@Builder
+public record ShareDepositDTO(
+        String symbol,
+        long amount
+) {
+}
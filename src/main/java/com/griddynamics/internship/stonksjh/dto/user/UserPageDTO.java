@@ -0,0 +1,16 @@
+package com.griddynamics.internship.stonksjh.dto.user;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * @param nextCursor value of the {@code after} parameter that fetches the next page,
+ *                   {@code null} when there are no more users
+ */
+@Builder
+public record UserPageDTO(
+        List<UserResponseDTO> users,
+        Long nextCursor
+) {
+}
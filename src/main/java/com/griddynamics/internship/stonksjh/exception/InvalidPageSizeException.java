@@ -0,0 +1,9 @@
+package com.griddynamics.internship.stonksjh.exception;
+
+public class InvalidPageSizeException extends RuntimeException {
+
+    public InvalidPageSizeException(int size, int maxSize) {
+        super(String.format("Page size has to be between 1 and %d [size=%d]", maxSize, size));
+    }
+
+}
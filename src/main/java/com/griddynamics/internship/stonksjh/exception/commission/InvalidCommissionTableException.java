@@ -0,0 +1,13 @@
+package com.griddynamics.internship.stonksjh.exception.commission;
+
+public class InvalidCommissionTableException extends RuntimeException {
+
+    public InvalidCommissionTableException(String reason) {
+        super(String.format("Commission tiers could not be loaded, %s", reason));
+    }
+
+    public InvalidCommissionTableException(String reason, Throwable cause) {
+        super(String.format("Commission tiers could not be loaded, %s", reason), cause);
+    }
+
+}
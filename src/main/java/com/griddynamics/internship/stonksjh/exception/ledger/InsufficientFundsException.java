@@ -0,0 +1,14 @@
+package com.griddynamics.internship.stonksjh.exception.ledger;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public class InsufficientFundsException extends RuntimeException {
+
+    public InsufficientFundsException(UUID userUuid, BigDecimal required, BigDecimal available) {
+        super(String.format(
+                "User has insufficient funds [uuid=%s, required=%s, available=%s]", userUuid, required, available
+        ));
+    }
+
+}
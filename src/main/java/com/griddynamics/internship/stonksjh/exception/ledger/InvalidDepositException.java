@@ -0,0 +1,13 @@
+package com.griddynamics.internship.stonksjh.exception.ledger;
+
+import java.math.BigDecimal;
+
+public class InvalidDepositException extends RuntimeException {
+
+    public InvalidDepositException(BigDecimal amount, BigDecimal maxAmount) {
+        super(String.format(
+                "Deposit must be positive, at most %s and have at most 2 decimal places, was %s", maxAmount, amount
+        ));
+    }
+
+}
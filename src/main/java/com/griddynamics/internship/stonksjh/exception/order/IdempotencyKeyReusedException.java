@@ -0,0 +1,9 @@
+package com.griddynamics.internship.stonksjh.exception.order;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super(String.format("Idempotency key = %s was already used for a different order", idempotencyKey));
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.griddynamics.internship.stonksjh.exception.order;
+
+public class IdempotencyKeyWithoutOwnerException extends RuntimeException {
+
+    public IdempotencyKeyWithoutOwnerException(String idempotencyKey) {
+        super(String.format("Idempotency key %s can only be used for an order with a userUuid", idempotencyKey));
+    }
+
+}
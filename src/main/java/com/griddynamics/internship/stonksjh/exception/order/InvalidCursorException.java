@@ -0,0 +1,9 @@
+package com.griddynamics.internship.stonksjh.exception.order;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(long after) {
+        super(String.format("A search with a time range continues after %d only together with afterCreatedAt", after));
+    }
+
+}
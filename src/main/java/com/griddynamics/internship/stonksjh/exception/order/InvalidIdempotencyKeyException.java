@@ -0,0 +1,9 @@
+package com.griddynamics.internship.stonksjh.exception.order;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    public InvalidIdempotencyKeyException(int maxLength) {
+        super(String.format("Idempotency key has to have between 1 and %d non-blank characters", maxLength));
+    }
+
+}
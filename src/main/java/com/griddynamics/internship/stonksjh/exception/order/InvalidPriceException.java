@@ -0,0 +1,11 @@
+package com.griddynamics.internship.stonksjh.exception.order;
+
+import java.math.BigDecimal;
+
+public class InvalidPriceException extends RuntimeException {
+
+    public InvalidPriceException(BigDecimal price) {
+        super(String.format("Price must be positive, at most 99999999.99 and have at most 2 decimal places, was %s", price));
+    }
+
+}
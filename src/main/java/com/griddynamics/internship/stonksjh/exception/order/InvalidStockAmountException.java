@@ -2,8 +2,8 @@ package com.griddynamics.internship.stonksjh.exception.order;
 
 public class InvalidStockAmountException extends RuntimeException {
 
-    public InvalidStockAmountException(int amount) {
-        super(String.format("Stock amount cannot be nonpositive, was %d", amount));
+    public InvalidStockAmountException(int amount, int maxAmount) {
+        super(String.format("Stock amount must be positive and at most %d, was %d", maxAmount, amount));
     }
 
 }
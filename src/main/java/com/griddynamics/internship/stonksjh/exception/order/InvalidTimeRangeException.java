@@ -0,0 +1,11 @@
+package com.griddynamics.internship.stonksjh.exception.order;
+
+import java.time.Instant;
+
+public class InvalidTimeRangeException extends RuntimeException {
+
+    public InvalidTimeRangeException(Instant from, Instant to) {
+        super(String.format("Time range start %s has to be before its end %s", from, to));
+    }
+
+}
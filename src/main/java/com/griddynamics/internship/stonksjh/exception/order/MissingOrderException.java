@@ -0,0 +1,9 @@
+package com.griddynamics.internship.stonksjh.exception.order;
+
+public class MissingOrderException extends RuntimeException {
+
+    public MissingOrderException() {
+        super("Order cannot be null");
+    }
+
+}
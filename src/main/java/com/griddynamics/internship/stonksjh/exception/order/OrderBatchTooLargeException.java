@@ -0,0 +1,9 @@
+package com.griddynamics.internship.stonksjh.exception.order;
+
+public class OrderBatchTooLargeException extends RuntimeException {
+
+    public OrderBatchTooLargeException(int size, int maxSize) {
+        super(String.format("Batch cannot contain more than %d orders, contained %d", maxSize, size));
+    }
+
+}
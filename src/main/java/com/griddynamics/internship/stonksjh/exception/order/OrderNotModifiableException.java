@@ -0,0 +1,11 @@
+package com.griddynamics.internship.stonksjh.exception.order;
+
+import java.util.UUID;
+
+public class OrderNotModifiableException extends RuntimeException {
+
+    public OrderNotModifiableException(UUID uuid, String reason) {
+        super(String.format("Order with UUID = %s cannot be modified, %s", uuid.toString(), reason));
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.griddynamics.internship.stonksjh.exception.order;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+
+public class OrderQueueFullException extends RuntimeException {
+
+    public OrderQueueFullException(Order.Symbol symbol) {
+        super(String.format("Too many pending orders for %s, try again later", symbol));
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.griddynamics.internship.stonksjh.exception.position;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+
+import java.util.UUID;
+
+public class InsufficientSharesException extends RuntimeException {
+
+    public InsufficientSharesException(UUID userUuid, Order.Symbol symbol, long required, long available) {
+        super(String.format(
+                "User holds too few shares [uuid=%s, symbol=%s, required=%d, available=%d]",
+                userUuid, symbol, required, available
+        ));
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.griddynamics.internship.stonksjh.exception.position;
+
+public class InvalidShareDepositException extends RuntimeException {
+
+    public InvalidShareDepositException(long amount, int maxAmount) {
+        super(String.format("Share deposit must be positive and at most %d, was %d", maxAmount, amount));
+    }
+
+}
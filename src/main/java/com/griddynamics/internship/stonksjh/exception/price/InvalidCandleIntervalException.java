@@ -0,0 +1,9 @@
+package com.griddynamics.internship.stonksjh.exception.price;
+
+public class InvalidCandleIntervalException extends RuntimeException {
+
+    public InvalidCandleIntervalException(String interval) {
+        super(String.format("Candle interval %s is not supported", interval));
+    }
+
+}
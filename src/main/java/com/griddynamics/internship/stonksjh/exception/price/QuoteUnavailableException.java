@@ -0,0 +1,15 @@
+package com.griddynamics.internship.stonksjh.exception.price;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+
+public class QuoteUnavailableException extends RuntimeException {
+
+    public QuoteUnavailableException(Order.Symbol symbol) {
+        super(String.format("Price of %s is currently unavailable", symbol));
+    }
+
+    public QuoteUnavailableException(Order.Symbol symbol, Throwable cause) {
+        super(String.format("Price of %s is currently unavailable", symbol), cause);
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.griddynamics.internship.stonksjh.journal;
+
+import com.griddynamics.internship.stonksjh.matching.OrderSnapshot;
+import com.griddynamics.internship.stonksjh.matching.Ticks;
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.Builder;
+import lombok.val;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Change of a single order as written to the {@link OrderJournal}.
+ * Created and updated events carry the whole order, fills only its execution state and deletes only its uuid.
+ *
+ * @param sequence  position in the journal, assigned when the event is appended
+ * @param timestamp when the change was written, in microseconds
+ */
+@Builder
+public record OrderEvent(
+        Type type,
+        long sequence,
+        Instant timestamp,
+        UUID uuid,
+        UUID userUuid,
+        Order.Type orderType,
+        Order.Symbol symbol,
+        int amount,
+        BigDecimal price,
+        int filled,
+        Order.Status status,
+        Instant createdAt
+) {
+
+    /*
+     * Layout of a record:
+     *  0 crc32c of the bytes after it (4)  4 event type (1)   5 order type (1)   6 symbol (1)
+     *  7 status (1)       8 flags (1)      12 amount (4)      16 filled (4)      20 sequence (8)
+     * 28 uuid (16)       44 user uuid (16) 60 price ticks (8) 68 created at micros (8)
+     * 76 timestamp micros (8)              84 unused (4)
+     * An event type of 0 marks the end of the written records.
+     */
+    static final int RECORD_BYTES = 88;
+
+    private static final byte HAS_PRICE = 1;
+    private static final byte HAS_USER = 1 << 1;
+    private static final byte NONE = -1;
+    private static final Type[] TYPES = Type.values();
+    private static final Order.Type[] ORDER_TYPES = Order.Type.values();
+    private static final Order.Symbol[] SYMBOLS = Order.Symbol.values();
+    private static final Order.Status[] STATUSES = Order.Status.values();
+
+    public static OrderEvent placed(Type type, Order order) {
+        return OrderEvent.builder()
+                .type(type)
+                .timestamp(now())
+                .uuid(order.getUuid())
+                .userUuid(order.getUserUuid())
+                .orderType(order.getType())
+                .symbol(order.getSymbol())
+                .amount(order.getAmount())
+                .price(order.getPrice())
+                .filled(order.getFilled())
+                .status(order.getStatus())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+
+    public static OrderEvent filled(OrderSnapshot snapshot) {
+        return OrderEvent.builder()
+                .type(Type.FILLED)
+                .timestamp(now())
+                .uuid(snapshot.uuid())
+                .filled(snapshot.filled())
+                .status(snapshot.status())
+                .build();
+    }
+
+    public static OrderEvent deleted(UUID uuid) {
+        return OrderEvent.builder()
+                .type(Type.DELETED)
+                .timestamp(now())
+                .uuid(uuid)
+                .build();
+    }
+
+    /**
+     * @return a detached entity of a created or updated order, as it was after the event
+     */
+    public Order toOrder() {
+        val order = new Order();
+        order.setUuid(uuid);
+        order.setUserUuid(userUuid);
+        order.setType(orderType);
+        order.setSymbol(symbol);
+        order.setAmount(amount);
+        order.setPrice(price);
+        order.setFilled(filled);
+        order.setStatus(status);
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+
+    OrderEvent withExecution(int filled, Order.Status status) {
+        return new OrderEvent(type, sequence, timestamp, uuid, userUuid, orderType, symbol,
+                amount, price, filled, status, createdAt);
+    }
+
+    /**
+     * Writes the event at {@code offset} without moving the position of the buffer.
+     */
+    static void encode(OrderEvent event, long sequence, ByteBuffer buffer, int offset) {
+        byte flags = 0;
+        if (event.price() != null) {
+            flags |= HAS_PRICE;
+        }
+        if (event.userUuid() != null) {
+            flags |= HAS_USER;
+        }
+        buffer.put(offset + 4, (byte) (event.type().ordinal() + 1))
+                .put(offset + 5, event.orderType() == null ? NONE : (byte) event.orderType().ordinal())
+                .put(offset + 6, event.symbol() == null ? NONE : (byte) event.symbol().ordinal())
+                .put(offset + 7, event.status() == null ? NONE : (byte) event.status().ordinal())
+                .put(offset + 8, flags)
+                .putInt(offset + 12, event.amount())
+                .putInt(offset + 16, event.filled())
+                .putLong(offset + 20, sequence)
+                .putLong(offset + 28, event.uuid().getMostSignificantBits())
+                .putLong(offset + 36, event.uuid().getLeastSignificantBits())
+                .putLong(offset + 44, event.userUuid() == null ? 0 : event.userUuid().getMostSignificantBits())
+                .putLong(offset + 52, event.userUuid() == null ? 0 : event.userUuid().getLeastSignificantBits())
+                .putLong(offset + 60, event.price() == null ? 0 : Ticks.fromPrice(event.price()))
+                .putLong(offset + 68, event.createdAt() == null ? Long.MIN_VALUE : toMicros(event.createdAt()))
+                .putLong(offset + 76, toMicros(event.timestamp()));
+        // the checksum goes last, a record is only valid once it is complete
+        buffer.putInt(offset, checksum(buffer, offset));
+    }
+
+    /**
+     * @return the event at {@code offset}, {@code null} if no complete record was written there
+     */
+    static OrderEvent decode(ByteBuffer buffer, int offset) {
+        val type = buffer.get(offset + 4);
+        if (type <= 0 || type > TYPES.length || buffer.getInt(offset) != checksum(buffer, offset)) {
+            return null;
+        }
+        val flags = buffer.get(offset + 8);
+        val createdAt = buffer.getLong(offset + 68);
+        return new OrderEvent(
+                TYPES[type - 1],
+                buffer.getLong(offset + 20),
+                fromMicros(buffer.getLong(offset + 76)),
+                new UUID(buffer.getLong(offset + 28), buffer.getLong(offset + 36)),
+                (flags & HAS_USER) != 0 ? new UUID(buffer.getLong(offset + 44), buffer.getLong(offset + 52)) : null,
+                lookup(ORDER_TYPES, buffer.get(offset + 5)),
+                lookup(SYMBOLS, buffer.get(offset + 6)),
+                buffer.getInt(offset + 12),
+                (flags & HAS_PRICE) != 0 ? Ticks.toPrice(buffer.getLong(offset + 60)) : null,
+                buffer.getInt(offset + 16),
+                lookup(STATUSES, buffer.get(offset + 7)),
+                createdAt == Long.MIN_VALUE ? null : fromMicros(createdAt)
+        );
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        val crc = new CRC32C();
+        crc.update(buffer.slice(offset + 4, RECORD_BYTES - 4));
+        return (int) crc.getValue();
+    }
+
+    private static <E> E lookup(E[] values, byte ordinal) {
+        return ordinal == NONE ? null : values[ordinal];
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static long toMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    public enum Type {
+        CREATED,
+        /**
+         * Order changed by its owner, it lost its time priority and was matched again.
+         */
+        UPDATED,
+        /**
+         * Resting order traded against a newer order.
+         */
+        FILLED,
+        DELETED
+    }
+
+}
@@ -0,0 +1,254 @@
+package com.griddynamics.internship.stonksjh.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of every change to an order, written to memory-mapped segment files.
+ * <ul>
+ *     <li>events are fixed-size records appended one after another, so writing one is a copy into the page cache
+ *     and the disk only ever sees sequential writes</li>
+ *     <li>a segment is named after the sequence of its first event, once full the next one is started</li>
+ *     <li>a segment is forced to disk when it is full and on shutdown. Events written after that survive a crash
+ *     of the application but not of the machine, the database stays the system of record</li>
+ *     <li>a record that was not completely written ends the journal, it is overwritten by the next append</li>
+ * </ul>
+ * Disabled unless {@code stonks.journal.enabled=true}, appending is then a no-op.
+ */
+@Component
+@Slf4j
+public class OrderJournal implements DisposableBean {
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private MappedByteBuffer segment;
+    private long nextSequence = 1;
+    private volatile long lastSequence;
+
+    @Autowired
+    public OrderJournal(
+            @Value("${stonks.journal.enabled:false}") boolean enabled,
+            @Value("${stonks.journal.directory:journal}") Path directory,
+            @Value("${stonks.journal.segment-size:64MB}") DataSize segmentSize
+    ) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentBytes = (int) (segmentSize.toBytes() / OrderEvent.RECORD_BYTES * OrderEvent.RECORD_BYTES);
+        if (enabled) {
+            open();
+        }
+    }
+
+    public static OrderJournal disabled() {
+        return new OrderJournal(false, Path.of("journal"), DataSize.ofMegabytes(64));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * @return sequence of the last appended event, 0 if nothing was appended yet
+     */
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    public boolean isEmpty() {
+        return lastSequence == 0;
+    }
+
+    /**
+     * @return sequence assigned to the event, 0 if the journal is disabled
+     */
+    public synchronized long append(OrderEvent event) {
+        if (!enabled) {
+            return 0;
+        }
+        if (segment == null || !segment.hasRemaining()) {
+            roll();
+        }
+        val sequence = nextSequence++;
+        OrderEvent.encode(event, sequence, segment, segment.position());
+        segment.position(segment.position() + OrderEvent.RECORD_BYTES);
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Appends the events in order, with nothing appended in between.
+     */
+    public synchronized void appendAll(List<OrderEvent> events) {
+        for (val event : events) {
+            append(event);
+        }
+    }
+
+    /**
+     * Reads the events appended after {@code afterSequence} in order, up to the last one appended so far.
+     *
+     * @return sequence of the last event read, {@code afterSequence} if there was none
+     */
+    public long replay(long afterSequence, Consumer<OrderEvent> consumer) {
+        if (!enabled) {
+            return afterSequence;
+        }
+        val upToSequence = lastSequence;
+        long sequence = afterSequence;
+        val segments = segments();
+        for (int i = 0; i < segments.size() && sequence < upToSequence; i++) {
+            if (i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= sequence + 1) {
+                continue;
+            }
+            val firstSequence = firstSequence(segments.get(i));
+            if (firstSequence > sequence + 1) {
+                throw new IllegalStateException(String.format(
+                        "Journal has no events between %d and %d, the segments were removed", sequence + 1, firstSequence
+                ));
+            }
+            val buffer = map(segments.get(i), FileChannel.MapMode.READ_ONLY);
+            for (int offset = (int) (sequence + 1 - firstSequence) * OrderEvent.RECORD_BYTES;
+                 offset < buffer.capacity() && sequence < upToSequence;
+                 offset += OrderEvent.RECORD_BYTES) {
+                val event = OrderEvent.decode(buffer, offset);
+                if (event == null || event.sequence() != sequence + 1) {
+                    break;
+                }
+                consumer.accept(event);
+                sequence = event.sequence();
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * Deletes the segments holding only events up to {@code sequence}, the segment being written is kept.
+     */
+    public void deleteUpTo(long sequence) {
+        val segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSequence(segments.get(i + 1)) > sequence + 1) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(segments.get(i));
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}", segments.get(i), e);
+            }
+        }
+    }
+
+    /**
+     * Continues after the last complete record of the newest segment.
+     */
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        val segments = segments();
+        if (segments.isEmpty()) {
+            return;
+        }
+        val last = segments.get(segments.size() - 1);
+        segment = map(last, FileChannel.MapMode.READ_WRITE);
+        nextSequence = firstSequence(last);
+        int offset = 0;
+        for (; offset < segment.capacity(); offset += OrderEvent.RECORD_BYTES) {
+            val event = OrderEvent.decode(segment, offset);
+            if (event == null || event.sequence() != nextSequence) {
+                break;
+            }
+            nextSequence++;
+        }
+        lastSequence = nextSequence - 1;
+        segment.position(offset);
+        if (offset < segment.capacity() && !isBlank(segment, offset)) {
+            log.warn("Journal segment {} ends with an incomplete event after sequence {}, discarding it", last, lastSequence);
+            while (segment.hasRemaining()) {
+                segment.put((byte) 0);
+            }
+            segment.position(offset);
+        }
+    }
+
+    private void roll() {
+        if (segment != null) {
+            segment.force();
+        }
+        val path = directory.resolve(String.format("%020d%s", nextSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MappedByteBuffer map(Path path, FileChannel.MapMode mode) {
+        val options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(mode, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isBlank(MappedByteBuffer buffer, int offset) {
+        for (int i = offset; i < offset + OrderEvent.RECORD_BYTES; i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long firstSequence(Path segment) {
+        val fileName = segment.getFileName().toString();
+        return Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+}
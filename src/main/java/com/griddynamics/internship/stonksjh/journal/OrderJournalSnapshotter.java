@@ -0,0 +1,119 @@
+package com.griddynamics.internship.stonksjh.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recovers the resting orders from the latest snapshot and the journal events after it,
+ * then keeps taking snapshots in the background so that the next recovery has little to replay.
+ * <p>
+ * Snapshots are built by replaying the journal, never by reading the live order books,
+ * so taking one does not stop matching. Journal segments older than the oldest kept snapshot are deleted.
+ */
+@Component
+@Slf4j
+public class OrderJournalSnapshotter implements DisposableBean {
+
+    private final OrderJournal orderJournal;
+    private final Duration interval;
+    private ScheduledExecutorService executor;
+    private OrderSnapshotStore snapshotStore;
+    private RestingOrders restingOrders;
+
+    public OrderJournalSnapshotter(
+            OrderJournal orderJournal,
+            @Value("${stonks.journal.snapshot-interval:1m}") Duration interval
+    ) {
+        this.orderJournal = orderJournal;
+        this.interval = interval;
+    }
+
+    /**
+     * Called once on startup, before any order is matched.
+     *
+     * @return the resting orders in time priority
+     */
+    public synchronized List<OrderEvent> recover() {
+        if (restingOrders != null) {
+            throw new IllegalStateException("Orders were already recovered from the journal");
+        }
+        val startedAt = System.nanoTime();
+        snapshotStore = new OrderSnapshotStore(orderJournal.directory());
+        restingOrders = snapshotStore.loadLatest().orElseGet(RestingOrders::new);
+        val snapshotSequence = restingOrders.sequence();
+        orderJournal.replay(snapshotSequence, restingOrders::apply);
+        log.info("Recovered {} resting orders from the snapshot at sequence {} and {} journal events in {} ms",
+                restingOrders.size(), snapshotSequence, restingOrders.sequence() - snapshotSequence,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "journal-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::snapshot, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        return restingOrders.orders();
+    }
+
+    /**
+     * Replaces the recovered orders by the given ones and snapshots them at the last sequence of the journal,
+     * so that the events before it are no longer replayed. Used when the journal lost events the database has,
+     * called on startup after {@link #recover()} and before any order is matched.
+     *
+     * @param orders the resting orders in time priority
+     */
+    public synchronized void rebase(List<OrderEvent> orders) {
+        if (restingOrders == null) {
+            throw new IllegalStateException("Orders have to be recovered from the journal first");
+        }
+        restingOrders = new RestingOrders(orderJournal.lastSequence());
+        orders.forEach(restingOrders::restore);
+        snapshotStore.write(restingOrders);
+        orderJournal.deleteUpTo(snapshotStore.oldestSequence());
+    }
+
+    /**
+     * Catches up with the journal and writes a snapshot, unless nothing was appended since the last one.
+     */
+    synchronized void snapshot() {
+        if (restingOrders == null) {
+            return;
+        }
+        try {
+            val previousSequence = restingOrders.sequence();
+            orderJournal.replay(previousSequence, restingOrders::apply);
+            if (restingOrders.sequence() == previousSequence) {
+                return;
+            }
+            restingOrders.expireDeletedAhead(previousSequence);
+            snapshotStore.write(restingOrders);
+            orderJournal.deleteUpTo(snapshotStore.oldestSequence());
+            log.debug("Wrote a snapshot of {} resting orders at sequence {}", restingOrders.size(), restingOrders.sequence());
+        } catch (RuntimeException e) {
+            log.error("Could not write a journal snapshot", e);
+        }
+    }
+
+    /**
+     * Takes a last snapshot, so that the next startup replays as little as possible.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        executor.awaitTermination(interval.toMillis(), TimeUnit.MILLISECONDS);
+        snapshot();
+    }
+
+}
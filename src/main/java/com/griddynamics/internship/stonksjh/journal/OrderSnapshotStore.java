@@ -0,0 +1,161 @@
+package com.griddynamics.internship.stonksjh.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Snapshot files of the {@link RestingOrders}, named after the sequence of the last event they include.
+ * A snapshot is a header followed by the orders in the record layout of the journal, so that a corrupt
+ * snapshot is detected and the one before it is used instead. The last {@value #RETAINED} snapshots are kept.
+ */
+@Slf4j
+class OrderSnapshotStore {
+
+    static final int RETAINED = 2;
+
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final int MAGIC = 0x53544B53;
+    // magic (4), number of orders (4), sequence (8)
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORDS_PER_WRITE = 8192;
+
+    private final Path directory;
+
+    OrderSnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Writes the snapshot to a temporary file first and moves it into place once it is on disk,
+     * so a crash never leaves a partial snapshot behind.
+     */
+    void write(RestingOrders restingOrders) {
+        val orders = restingOrders.orders();
+        val path = path(restingOrders.sequence());
+        val temporary = directory.resolve(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            val buffer = ByteBuffer.allocateDirect(RECORDS_PER_WRITE * OrderEvent.RECORD_BYTES);
+            buffer.putInt(MAGIC)
+                    .putInt(orders.size())
+                    .putLong(restingOrders.sequence())
+                    .flip();
+            writeFully(channel, buffer);
+            for (int i = 0; i < orders.size(); i += RECORDS_PER_WRITE) {
+                buffer.clear();
+                val count = Math.min(RECORDS_PER_WRITE, orders.size() - i);
+                for (int j = 0; j < count; j++) {
+                    val order = orders.get(i + j);
+                    OrderEvent.encode(order, order.sequence(), buffer, j * OrderEvent.RECORD_BYTES);
+                }
+                buffer.limit(count * OrderEvent.RECORD_BYTES);
+                writeFully(channel, buffer);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        val snapshots = snapshots();
+        for (int i = RETAINED; i < snapshots.size(); i++) {
+            try {
+                Files.deleteIfExists(snapshots.get(i));
+            } catch (IOException e) {
+                log.warn("Could not delete snapshot {}", snapshots.get(i), e);
+            }
+        }
+    }
+
+    /**
+     * @return the newest snapshot that can be read completely
+     */
+    Optional<RestingOrders> loadLatest() {
+        for (val snapshot : snapshots()) {
+            val restingOrders = load(snapshot);
+            if (restingOrders != null) {
+                return Optional.of(restingOrders);
+            }
+            log.warn("Snapshot {} is incomplete, falling back to the one before", snapshot);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return sequence of the oldest snapshot kept, the journal has to be kept from there on
+     */
+    long oldestSequence() {
+        val snapshots = snapshots();
+        return snapshots.isEmpty() ? 0 : sequence(snapshots.get(snapshots.size() - 1));
+    }
+
+    private RestingOrders load(Path snapshot) {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return null;
+            }
+            val buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            val count = buffer.getInt(4);
+            if (buffer.getInt(0) != MAGIC || channel.size() != HEADER_BYTES + (long) count * OrderEvent.RECORD_BYTES) {
+                return null;
+            }
+            val restingOrders = new RestingOrders(buffer.getLong(8));
+            for (int i = 0; i < count; i++) {
+                val order = OrderEvent.decode(buffer, HEADER_BYTES + i * OrderEvent.RECORD_BYTES);
+                if (order == null) {
+                    return null;
+                }
+                restingOrders.restore(order);
+            }
+            return restingOrders;
+        } catch (IOException e) {
+            log.warn("Could not read snapshot {}", snapshot, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the snapshots, newest first
+     */
+    private List<Path> snapshots() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SNAPSHOT_SUFFIX))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path path(long sequence) {
+        return directory.resolve(String.format("%020d%s", sequence, SNAPSHOT_SUFFIX));
+    }
+
+    private static long sequence(Path snapshot) {
+        val fileName = snapshot.getFileName().toString();
+        return Long.parseLong(fileName.substring(0, fileName.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+}
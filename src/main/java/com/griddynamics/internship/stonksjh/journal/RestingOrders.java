@@ -0,0 +1,103 @@
+package com.griddynamics.internship.stonksjh.journal;
+
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Orders still resting in a book, rebuilt by applying journal events in order.
+ * They are kept in time priority: an updated order moves behind the orders placed before its update.
+ * Not thread-safe, it is owned by the {@link OrderJournalSnapshotter}.
+ */
+public class RestingOrders {
+
+    private final Map<UUID, OrderEvent> orders = new LinkedHashMap<>();
+    /**
+     * Orders deleted before they were journaled: an order can be read and deleted as soon as its
+     * transaction committed, which is just before the execution writer journals it.
+     * The order follows within a few events, so they are dropped one snapshot interval later and not snapshotted.
+     */
+    private final Map<UUID, Long> deletedAhead = new HashMap<>();
+    private long sequence;
+
+    public RestingOrders() {
+        this(0);
+    }
+
+    RestingOrders(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return sequence of the last event applied
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    /**
+     * @return the resting orders in time priority
+     */
+    public List<OrderEvent> orders() {
+        return new ArrayList<>(orders.values());
+    }
+
+    public void apply(OrderEvent event) {
+        sequence = event.sequence();
+        switch (event.type()) {
+            case CREATED, UPDATED -> place(event);
+            case FILLED -> fill(event);
+            case DELETED -> delete(event);
+        }
+    }
+
+    /**
+     * Adds an order read from a snapshot, in the order of the snapshot.
+     */
+    void restore(OrderEvent event) {
+        orders.put(event.uuid(), event);
+    }
+
+    /**
+     * Drops the orders deleted ahead of their creation at or before {@code sequence}.
+     */
+    void expireDeletedAhead(long sequence) {
+        deletedAhead.values().removeIf(deletedAt -> deletedAt <= sequence);
+    }
+
+    private void place(OrderEvent event) {
+        if (deletedAhead.remove(event.uuid()) != null) {
+            return;
+        }
+        orders.remove(event.uuid());
+        if (!event.status().isTerminal()) {
+            orders.put(event.uuid(), event);
+        }
+    }
+
+    private void fill(OrderEvent event) {
+        orders.computeIfPresent(event.uuid(), (uuid, order) -> {
+            if (order.filled() > event.filled()) {
+                return order;
+            }
+            return event.status().isTerminal() ? null : order.withExecution(event.filled(), event.status());
+        });
+    }
+
+    private void delete(OrderEvent event) {
+        val removed = orders.remove(event.uuid());
+        if (removed == null) {
+            deletedAhead.put(event.uuid(), event.sequence());
+        }
+    }
+
+}
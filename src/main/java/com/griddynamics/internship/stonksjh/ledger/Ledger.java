@@ -0,0 +1,253 @@
+package com.griddynamics.internship.stonksjh.ledger;
+
+import com.griddynamics.internship.stonksjh.exception.ledger.InsufficientFundsException;
+import com.griddynamics.internship.stonksjh.matching.MatchResult;
+import com.griddynamics.internship.stonksjh.matching.Ticks;
+import com.griddynamics.internship.stonksjh.model.LedgerEntry;
+import com.griddynamics.internship.stonksjh.repository.LedgerEntryRepository;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Balances and reserved money of the users, kept in memory in ticks and changed by creating {@link LedgerEntry}s.
+ * <ul>
+ *     <li>an account is loaded from the sum of its entries the first time it is used and kept until it was not used
+ *     for {@code stonks.accounts.idle-timeout} and has nothing reserved, see {@link #evictIdle()}</li>
+ *     <li>every account is its own lock, so orders of different users never wait for each other,
+ *     and an account is only ever locked on its own</li>
+ *     <li>the entries are applied here first and written by the caller afterwards, a caller whose write
+ *     fails has to {@link #revert(List)} them</li>
+ * </ul>
+ * Buy orders reserve their limit price, or their protection price for market orders, times their remaining amount.
+ * That reservation is released share by share as they are filled, so that nothing has to be remembered per order.
+ * Orders placed without an account are not accounted for.
+ */
+@Component
+public class Ledger {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final long idleTimeoutNanos;
+    private final ConcurrentHashMap<UUID, Account> accounts = new ConcurrentHashMap<>();
+
+    public Ledger(
+            LedgerEntryRepository ledgerEntryRepository,
+            @Value("${stonks.accounts.idle-timeout:10m}") Duration idleTimeout
+    ) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    public Balance balance(UUID userUuid) {
+        return locked(userUuid, account -> new Balance(account.balance, account.reserved));
+    }
+
+    /**
+     * Loads the account unless it was used before, so that a sequencer shard never waits for it.
+     */
+    public void preload(UUID userUuid) {
+        load(userUuid);
+    }
+
+    public boolean isLoaded(UUID userUuid) {
+        return accounts.containsKey(userUuid);
+    }
+
+    public List<LedgerEntry> deposit(UUID userUuid, long amount) {
+        val entry = entry(LedgerEntry.Type.DEPOSIT, userUuid, null, amount, Instant.now());
+        apply(entry);
+        return List.of(entry);
+    }
+
+    /**
+     * @throws InsufficientFundsException if less than {@code amount} is available, nothing is reserved then
+     */
+    public List<LedgerEntry> reserve(UUID userUuid, UUID orderUuid, long amount) {
+        return replace(userUuid, orderUuid, 0, amount);
+    }
+
+    /**
+     * Releases the reservation of an order and reserves {@code reserve} for it instead, in one step.
+     *
+     * @throws InsufficientFundsException if the released money and the available money do not cover {@code reserve},
+     *                                    the previous reservation is kept then
+     */
+    public List<LedgerEntry> replace(UUID userUuid, UUID orderUuid, long release, long reserve) {
+        if (userUuid == null || release == 0 && reserve == 0) {
+            return List.of();
+        }
+        val now = Instant.now();
+        locked(userUuid, account -> {
+            val available = account.balance - account.reserved + release;
+            if (available < reserve) {
+                throw new InsufficientFundsException(userUuid, Ticks.toPrice(reserve), Ticks.toPrice(available));
+            }
+            account.reserved += reserve - release;
+            return null;
+        });
+        List<LedgerEntry> entries = new ArrayList<>(2);
+        if (release != 0) {
+            entries.add(entry(LedgerEntry.Type.RELEASE, userUuid, orderUuid, release, now));
+        }
+        if (reserve != 0) {
+            entries.add(entry(LedgerEntry.Type.RESERVE, userUuid, orderUuid, reserve, now));
+        }
+        return entries;
+    }
+
+    public List<LedgerEntry> release(UUID userUuid, UUID orderUuid, long amount) {
+        if (userUuid == null || amount == 0) {
+            return List.of();
+        }
+        val entry = entry(LedgerEntry.Type.RELEASE, userUuid, orderUuid, amount, Instant.now());
+        apply(entry);
+        return List.of(entry);
+    }
+
+    /**
+     * Buyers pay for the shares they bought out of their reservation, sellers are paid for the shares they sold.
+     */
+    public List<LedgerEntry> settle(MatchResult matchResult) {
+        List<LedgerEntry> entries = new ArrayList<>();
+        for (val trade : matchResult.trades()) {
+            val value = Math.multiplyExact(trade.price(), (long) trade.amount());
+            if (trade.buyUserUuid() != null) {
+                val reserved = Math.multiplyExact(trade.buyLimitPrice(), (long) trade.amount());
+                entries.add(entry(LedgerEntry.Type.DEBIT, trade.buyUserUuid(), trade.buyOrderUuid(), value,
+                        trade.executedAt()));
+                entries.add(entry(LedgerEntry.Type.RELEASE, trade.buyUserUuid(), trade.buyOrderUuid(), reserved,
+                        trade.executedAt()));
+            }
+            if (trade.sellUserUuid() != null) {
+                entries.add(entry(LedgerEntry.Type.CREDIT, trade.sellUserUuid(), trade.sellOrderUuid(), value,
+                        trade.executedAt()));
+            }
+        }
+        entries.forEach(this::apply);
+        return entries;
+    }
+
+    /**
+     * Takes back entries whose write failed, in reverse order.
+     */
+    public void revert(List<LedgerEntry> entries) {
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            apply(entries.get(i), -1);
+        }
+    }
+
+    private void apply(LedgerEntry entry) {
+        apply(entry, 1);
+    }
+
+    private void apply(LedgerEntry entry, int sign) {
+        val amount = sign * Ticks.fromPrice(entry.getAmount());
+        locked(entry.getUserUuid(), account -> {
+            switch (entry.getType()) {
+                case DEPOSIT, CREDIT -> account.balance += amount;
+                case DEBIT -> account.balance -= amount;
+                case RESERVE -> account.reserved += amount;
+                case RELEASE -> account.reserved -= amount;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Drops the accounts that were not used for the idle timeout and have nothing reserved, so that the accounts
+     * of users who stopped trading do not stay in memory. They are loaded from their entries again when used next.
+     * An account with money reserved has open orders and is kept. The timeout has to be far longer than writing
+     * an execution takes: an account loaded again while some of its entries are still being written misses them.
+     */
+    @Scheduled(fixedDelayString = "${stonks.accounts.eviction-interval-millis:60000}")
+    public void evictIdle() {
+        val now = System.nanoTime();
+        for (val entry : accounts.entrySet()) {
+            val account = entry.getValue();
+            synchronized (account) {
+                if (account.reserved == 0 && now - account.lastUsed >= idleTimeoutNanos) {
+                    account.evicted = true;
+                    accounts.remove(entry.getKey(), account);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the action holding the account's lock. An account evicted after it was looked up is loaded again,
+     * so nothing is ever applied to an account that is no longer in the map.
+     */
+    private <T> T locked(UUID userUuid, Function<Account, T> action) {
+        while (true) {
+            val account = load(userUuid);
+            synchronized (account) {
+                if (!account.evicted) {
+                    return action.apply(account);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads outside of any lock. Of two threads loading the same account, the first one to finish wins;
+     * nothing is applied to an account before it is in the map, so both loaded the same sums.
+     */
+    private Account load(UUID userUuid) {
+        val account = accounts.get(userUuid);
+        if (account != null) {
+            account.lastUsed = System.nanoTime();
+            return account;
+        }
+        val totals = ledgerEntryRepository.findTotals(userUuid);
+        val loaded = new Account();
+        if (totals != null) {
+            loaded.balance = Ticks.fromPrice(totals.getBalance());
+            loaded.reserved = Ticks.fromPrice(totals.getReserved());
+        }
+        val previous = accounts.putIfAbsent(userUuid, loaded);
+        return previous != null ? previous : loaded;
+    }
+
+    private static LedgerEntry entry(LedgerEntry.Type type, UUID userUuid, UUID orderUuid, long amount, Instant createdAt) {
+        val entry = new LedgerEntry();
+        entry.setType(type);
+        entry.setUserUuid(userUuid);
+        entry.setOrderUuid(orderUuid);
+        entry.setAmount(Ticks.toPrice(amount));
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+
+    /**
+     * Money of a user in ticks, including the entries not written yet.
+     */
+    public record Balance(long balance, long reserved) {
+
+        public long available() {
+            return balance - reserved;
+        }
+
+    }
+
+    /**
+     * Guarded by its own monitor, except for the time it was last looked up.
+     */
+    private static final class Account {
+
+        private long balance;
+        private long reserved;
+        private boolean evicted;
+        private volatile long lastUsed = System.nanoTime();
+
+    }
+
+}
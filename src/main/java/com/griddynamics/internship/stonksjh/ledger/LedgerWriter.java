@@ -0,0 +1,66 @@
+package com.griddynamics.internship.stonksjh.ledger;
+
+import com.griddynamics.internship.stonksjh.matching.Ticks;
+import com.griddynamics.internship.stonksjh.model.LedgerEntry;
+import com.griddynamics.internship.stonksjh.repository.LedgerEntryRepository;
+import com.griddynamics.internship.stonksjh.repository.UserRepository;
+import com.griddynamics.internship.stonksjh.service.UserCache;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Inserts ledger entries and moves the balance stored with each user by the same amount,
+ * joining the transaction of the caller if there is one.
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerWriter {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+
+    @Transactional
+    public void write(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        ledgerEntryRepository.saveAll(entries);
+        Map<UUID, Long> balanceChanges = new HashMap<>();
+        for (val entry : entries) {
+            val amount = Ticks.fromPrice(entry.getAmount());
+            switch (entry.getType()) {
+                case DEPOSIT, CREDIT -> balanceChanges.merge(entry.getUserUuid(), amount, Long::sum);
+                case DEBIT -> balanceChanges.merge(entry.getUserUuid(), -amount, Long::sum);
+                default -> {
+                }
+            }
+        }
+        balanceChanges.forEach((userUuid, change) -> {
+            if (change != 0) {
+                userRepository.addToBalance(userUuid, Ticks.toPrice(change));
+            }
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            balanceChanges.keySet().forEach(userCache::invalidate);
+            return;
+        }
+        // cached users show their balance, they are read again once the new one is committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                balanceChanges.keySet().forEach(userCache::invalidate);
+            }
+        });
+    }
+
+}
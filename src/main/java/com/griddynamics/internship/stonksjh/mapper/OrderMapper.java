@@ -3,6 +3,7 @@ package com.griddynamics.internship.stonksjh.mapper;
 import com.griddynamics.internship.stonksjh.dto.order.OrderRequestDTO;
 import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
 import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.repository.OrderView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -13,7 +14,13 @@ public interface OrderMapper {
 
     Order dtoToEntity(OrderResponseDTO dto);
 
+    OrderResponseDTO viewToResponseDTO(OrderView view);
+
     @Mapping(target = "uuid", ignore = true)
+    @Mapping(target = "filled", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "idempotencyKey", ignore = true)
     Order requestDtoToEntity(OrderRequestDTO orderRequestDTO);
 
 }
@@ -11,10 +11,12 @@ public interface UserMapper {
 
     UserResponseDTO entityToResponseDTO(User user);
 
+    @Mapping(target = "tier", ignore = true)
     User dtoToEntity(UserResponseDTO userResponseDTO);
 
     @Mapping(target = "uuid", ignore = true)
     @Mapping(target = "balance", ignore = true)
+    @Mapping(target = "tier", ignore = true)
     User requestDtoToEntity(UserRequestDTO userRequestDTO);
 
 }
@@ -0,0 +1,113 @@
+package com.griddynamics.internship.stonksjh.matching;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Mutable view of an order while it lives in an {@link OrderBook}.
+ * Instances are owned by the book and must only be touched by the thread currently matching that book.
+ */
+@Getter
+public final class BookOrder {
+
+    private final UUID uuid;
+    /**
+     * Owner of the order, {@code null} for orders placed without an account.
+     */
+    private final UUID userUuid;
+    private final Order.Type type;
+    private final boolean market;
+    private final long price;
+    private final int amount;
+    private int filled;
+    private boolean cancelled;
+
+    /**
+     * @param price limit price in ticks, {@code null} for a market order without price protection
+     */
+    public BookOrder(UUID uuid, Order.Type type, Long price, int amount, int filled) {
+        this(uuid, null, type, price == null, price == null ? worstPrice(type) : price, amount, filled);
+    }
+
+    BookOrder(UUID uuid, UUID userUuid, Order.Type type, boolean market, long price, int amount, int filled) {
+        this.uuid = uuid;
+        this.userUuid = userUuid;
+        this.type = type;
+        this.market = market;
+        this.price = price;
+        this.amount = amount;
+        this.filled = filled;
+    }
+
+    /**
+     * Market order that does not trade beyond the protection price, its remainder is cancelled either way.
+     */
+    public static BookOrder market(UUID uuid, Order.Type type, long protectionPrice, int amount, int filled) {
+        return new BookOrder(uuid, null, type, true, protectionPrice, amount, filled);
+    }
+
+    public static BookOrder of(Order order) {
+        return of(order, null);
+    }
+
+    /**
+     * @param protectionPrice worst acceptable price of a market order, ignored for limit orders
+     */
+    public static BookOrder of(Order order, BigDecimal protectionPrice) {
+        if (order.getPrice() != null) {
+            return new BookOrder(order.getUuid(), order.getUserUuid(), order.getType(), false,
+                    Ticks.fromPrice(order.getPrice()), order.getAmount(), order.getFilled());
+        }
+        if (protectionPrice != null) {
+            return new BookOrder(order.getUuid(), order.getUserUuid(), order.getType(), true,
+                    Ticks.fromPrice(protectionPrice), order.getAmount(), order.getFilled());
+        }
+        return new BookOrder(order.getUuid(), order.getUserUuid(), order.getType(), true,
+                worstPrice(order.getType()), order.getAmount(), order.getFilled());
+    }
+
+    private static long worstPrice(Order.Type type) {
+        return type == Order.Type.BUY ? Long.MAX_VALUE : 0;
+    }
+
+    public int remaining() {
+        return amount - filled;
+    }
+
+    void fill(int quantity) {
+        filled += quantity;
+    }
+
+    void unfill(int quantity) {
+        filled -= quantity;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether this order is willing to trade at the given price level of the opposite side.
+     */
+    boolean crosses(long levelPrice) {
+        return type == Order.Type.BUY ? levelPrice <= price : levelPrice >= price;
+    }
+
+    public Order.Status status() {
+        if (remaining() == 0) {
+            return Order.Status.FILLED;
+        }
+        if (cancelled) {
+            return Order.Status.CANCELLED;
+        }
+        return filled > 0 ? Order.Status.PARTIALLY_FILLED : Order.Status.OPEN;
+    }
+
+    public OrderSnapshot snapshot() {
+        return new OrderSnapshot(uuid, filled, status());
+    }
+
+}
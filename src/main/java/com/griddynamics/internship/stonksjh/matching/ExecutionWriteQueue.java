@@ -0,0 +1,211 @@
+package com.griddynamics.internship.stonksjh.matching;
+
+import com.griddynamics.internship.stonksjh.journal.OrderEvent;
+import com.griddynamics.internship.stonksjh.journal.OrderJournal;
+import com.griddynamics.internship.stonksjh.model.LedgerEntry;
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands matched orders over to a single background writer, which commits whatever has queued up
+ * since its last write in one {@link ExecutionWriter} transaction.
+ * <p>
+ * Every execution is written through this queue, in the order the shards enqueued it. A fill against
+ * a resting order is therefore never written before the resting order itself, and the shards never
+ * wait for the database. When the queue is full, enqueueing blocks, which slows the shards down
+ * to the pace of the writer instead of dropping executions.
+ * <p>
+ * Once committed, the orders, the fills of their counterparts and the deletions are appended to the
+ * {@link OrderJournal} in the same order, before anyone waiting for them is notified.
+ */
+@Component
+@Slf4j
+public class ExecutionWriteQueue implements DisposableBean {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final ExecutionWriter executionWriter;
+    private final OrderJournal orderJournal;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int maxBatchSize;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public ExecutionWriteQueue(
+            ExecutionWriter executionWriter,
+            OrderJournal orderJournal,
+            @Value("${stonks.orders.write-queue.capacity:10000}") int capacity,
+            @Value("${stonks.orders.write-queue.max-batch-size:500}") int maxBatchSize
+    ) {
+        this.executionWriter = executionWriter;
+        this.orderJournal = orderJournal;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.writer = new Thread(this::writeLoop, "execution-writer");
+        this.writer.start();
+    }
+
+    /**
+     * @param ledgerEntries money moved for the order, committed together with it
+     * @return completes with the persisted order once its transaction committed
+     */
+    public CompletableFuture<Order> enqueue(Order order, MatchResult matchResult, List<LedgerEntry> ledgerEntries) {
+        return enqueue(new ExecutionWriter.Executions(
+                List.of(order), List.of(matchResult), ledgerEntries, List.of(), false
+        )).thenApply(orders -> orders.get(0));
+    }
+
+    /**
+     * Queues the deletion of an order the shard took out of its book.
+     *
+     * @param ledgerEntries money released for the order, committed together with the deletion
+     * @return completes once the order is deleted
+     */
+    public CompletableFuture<Void> enqueueDeletion(Order order, List<LedgerEntry> ledgerEntries) {
+        return enqueue(new ExecutionWriter.Executions(List.of(), List.of(), ledgerEntries, List.of(order), false))
+                .thenApply(orders -> null);
+    }
+
+    /**
+     * Queues orders matched one after another, they are always committed in the same transaction.
+     *
+     * @param ledgerEntries money moved for the orders, committed together with them
+     * @return completes with the persisted orders once their transaction committed
+     */
+    public CompletableFuture<List<Order>> enqueue(
+            List<Order> orders,
+            List<MatchResult> matchResults,
+            List<LedgerEntry> ledgerEntries
+    ) {
+        return enqueue(new ExecutionWriter.Executions(orders, matchResults, ledgerEntries, List.of(), true));
+    }
+
+    private CompletableFuture<List<Order>> enqueue(ExecutionWriter.Executions executions) {
+        // orders that were never written have no id yet, the others are updated
+        val created = executions.orders().stream().allMatch(order -> order.getId() == 0);
+        val pendingWrite = new PendingWrite(executions, created, new CompletableFuture<>());
+        try {
+            if (!running) {
+                throw new IllegalStateException("Execution writer is shut down");
+            }
+            queue.put(pendingWrite);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        } catch (IllegalStateException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return pendingWrite.persisted();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                val first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                running = false;
+                queue.drainTo(batch);
+                batch.forEach(pendingWrite -> pendingWrite.persisted().completeExceptionally(e));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the batch in one transaction. If that fails, writes every pending write on its own,
+     * so that one bad order does not fail the orders queued next to it.
+     */
+    private void write(List<PendingWrite> batch) {
+        List<List<Order>> saved;
+        try {
+            saved = executionWriter.write(batch.stream()
+                    .map(PendingWrite::executions)
+                    .toList());
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).persisted().completeExceptionally(e);
+                return;
+            }
+            log.warn("Writing a batch of {} executions failed, writing them one by one", batch.size(), e);
+            for (val pendingWrite : batch) {
+                write(List.of(pendingWrite));
+            }
+            return;
+        }
+        journal(batch, saved);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).persisted().complete(saved.get(i));
+        }
+    }
+
+    /**
+     * The orders are committed at this point, a journal that cannot be written does not fail them.
+     */
+    private void journal(List<PendingWrite> batch, List<List<Order>> saved) {
+        if (!orderJournal.isEnabled()) {
+            return;
+        }
+        List<OrderEvent> events = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            val pendingWrite = batch.get(i);
+            val type = pendingWrite.created() ? OrderEvent.Type.CREATED : OrderEvent.Type.UPDATED;
+            for (int j = 0; j < saved.get(i).size(); j++) {
+                events.add(OrderEvent.placed(type, saved.get(i).get(j)));
+                for (val counterpart : pendingWrite.executions().matchResults().get(j).counterparts()) {
+                    events.add(OrderEvent.filled(counterpart));
+                }
+            }
+            for (val deleted : pendingWrite.executions().deletedOrders()) {
+                events.add(OrderEvent.deleted(deleted.getUuid()));
+            }
+        }
+        try {
+            orderJournal.appendAll(events);
+        } catch (RuntimeException e) {
+            log.error("Could not journal {} events of committed executions", events.size(), e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        if (writer.isAlive()) {
+            log.warn("Execution writer did not drain {} pending writes within {}s", queue.size(), SHUTDOWN_TIMEOUT_SECONDS);
+            writer.interrupt();
+        }
+    }
+
+    private record PendingWrite(
+            ExecutionWriter.Executions executions,
+            boolean created,
+            CompletableFuture<List<Order>> persisted
+    ) {
+    }
+
+}
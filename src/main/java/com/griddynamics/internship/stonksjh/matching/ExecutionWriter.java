@@ -0,0 +1,136 @@
+package com.griddynamics.internship.stonksjh.matching;
+
+import com.griddynamics.internship.stonksjh.exception.order.OrderNotFoundException;
+import com.griddynamics.internship.stonksjh.ledger.LedgerWriter;
+import com.griddynamics.internship.stonksjh.model.Fill;
+import com.griddynamics.internship.stonksjh.model.LedgerEntry;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.position.PositionWriter;
+import com.griddynamics.internship.stonksjh.repository.FillRepository;
+import com.griddynamics.internship.stonksjh.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persists the outcome of matching: the submitted orders, their fills, the execution state
+ * of every resting order they traded against, and the money and shares that moved for them.
+ * Deleted orders are removed here as well, together with the money released for them.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExecutionWriter {
+
+    private final OrderRepository orderRepository;
+    private final FillRepository fillRepository;
+    private final LedgerWriter ledgerWriter;
+    private final PositionWriter positionWriter;
+
+    /**
+     * Writes the executions of one or more shards in one transaction, inserting the orders and the fills
+     * in JDBC batches. The orders of every {@link Executions} are saved the way they were queued,
+     * so the repository sees the same calls however many of them are written together.
+     *
+     * @return the persisted orders of every {@link Executions}, in the same order
+     * @throws OrderNotFoundException if an order to replace or delete is no longer in the partition it was read from
+     */
+    @Transactional
+    public List<List<Order>> write(List<Executions> executions) {
+        List<List<Order>> saved = new ArrayList<>(executions.size());
+        List<MatchResult> matchResults = new ArrayList<>();
+        List<LedgerEntry> ledgerEntries = new ArrayList<>();
+        for (val execution : executions) {
+            if (execution.orders().isEmpty()) {
+                saved.add(List.of());
+            } else {
+                saved.add(execution.batch()
+                        ? orderRepository.saveAll(execution.orders())
+                        : List.of(save(execution.orders().get(0))));
+            }
+            matchResults.addAll(execution.matchResults());
+            ledgerEntries.addAll(execution.ledgerEntries());
+            execution.deletedOrders().forEach(this::delete);
+        }
+        writeExecutions(matchResults);
+        ledgerWriter.write(ledgerEntries);
+        return saved;
+    }
+
+    /**
+     * Orders read from the database are written by id and symbol, a merge would look them up by id alone
+     * and search every partition twice.
+     *
+     * @throws OrderNotFoundException if the order was deleted meanwhile
+     */
+    private Order save(Order order) {
+        if (order.getWrittenSymbol() == null) {
+            return orderRepository.save(order);
+        }
+        if (orderRepository.replace(order) == 0) {
+            throw new OrderNotFoundException(order.getUuid());
+        }
+        return order;
+    }
+
+    /**
+     * @throws OrderNotFoundException if the order was deleted or moved to another symbol meanwhile
+     */
+    private void delete(Order order) {
+        if (orderRepository.deleteByIdAndSymbol(order.getId(), order.getSymbol()) == 0) {
+            throw new OrderNotFoundException(order.getUuid());
+        }
+    }
+
+    private void writeExecutions(List<MatchResult> matchResults) {
+        val fills = matchResults.stream()
+                .flatMap(matchResult -> matchResult.trades().stream())
+                .map(ExecutionWriter::toFill)
+                .toList();
+        if (fills.isEmpty()) {
+            return;
+        }
+        fillRepository.saveAll(fills);
+        positionWriter.write(matchResults);
+        // every counterpart traded once, in the partition of the trade's symbol
+        for (val matchResult : matchResults) {
+            for (int i = 0; i < matchResult.counterparts().size(); i++) {
+                val snapshot = matchResult.counterparts().get(i);
+                orderRepository.updateExecution(
+                        snapshot.uuid(), matchResult.trades().get(i).symbol(), snapshot.filled(), snapshot.status()
+                );
+            }
+        }
+    }
+
+    private static Fill toFill(Trade trade) {
+        val fill = new Fill();
+        fill.setBuyOrderUuid(trade.buyOrderUuid());
+        fill.setSellOrderUuid(trade.sellOrderUuid());
+        fill.setSymbol(trade.symbol());
+        fill.setPrice(Ticks.toPrice(trade.price()));
+        fill.setAmount(trade.amount());
+        fill.setExecutedAt(trade.executedAt());
+        return fill;
+    }
+
+    /**
+     * Orders a shard matched one after another, with the money moved for them.
+     *
+     * @param deletedOrders orders a shard took out of its book for good, {@code ledgerEntries} release their money
+     * @param batch         whether the orders were queued as a batch and are saved with one {@code saveAll},
+     *                      a single order is saved on its own
+     */
+    public record Executions(
+            List<Order> orders,
+            List<MatchResult> matchResults,
+            List<LedgerEntry> ledgerEntries,
+            List<Order> deletedOrders,
+            boolean batch
+    ) {
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.griddynamics.internship.stonksjh.matching;
+
+import java.util.List;
+
+/**
+ * Outcome of submitting a single order to an {@link OrderBook}.
+ *
+ * @param order        state of the submitted order after matching
+ * @param trades       trades executed, in execution order
+ * @param counterparts resting orders whose state changed, one snapshot per order
+ */
+public record MatchResult(
+        OrderSnapshot order,
+        List<Trade> trades,
+        List<OrderSnapshot> counterparts
+) {
+}
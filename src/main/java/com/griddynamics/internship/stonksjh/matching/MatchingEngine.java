@@ -0,0 +1,75 @@
+package com.griddynamics.internship.stonksjh.matching;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps one {@link OrderBook} per {@link Order.Symbol} in memory and matches orders against them.
+ * <p>
+ * Books are not guarded by locks, every call touching a symbol's book has to run on that symbol's
+ * {@link com.griddynamics.internship.stonksjh.sequencer.OrderSequencer} shard.
+ * The only exception is {@link #restore(Order)}, which is called before any shard accepts work.
+ */
+@Component
+public class MatchingEngine {
+
+    private final Map<Order.Symbol, OrderBook> books = new EnumMap<>(Order.Symbol.class);
+
+    public MatchingEngine() {
+        for (val symbol : Order.Symbol.values()) {
+            books.put(symbol, new OrderBook(symbol));
+        }
+    }
+
+    public MatchResult submit(Order order) {
+        return submit(order, null);
+    }
+
+    /**
+     * Matches the order and writes the resulting execution state back into the entity.
+     *
+     * @param protectionPrice worst price a market order may trade at, {@code null} for no protection
+     */
+    public MatchResult submit(Order order, BigDecimal protectionPrice) {
+        val result = book(order.getSymbol()).submit(BookOrder.of(order, protectionPrice));
+        order.setFilled(result.order().filled());
+        order.setStatus(result.order().status());
+        return result;
+    }
+
+    public void restore(Order order) {
+        book(order.getSymbol()).rest(BookOrder.of(order));
+    }
+
+    public Optional<OrderSnapshot> find(Order order) {
+        return book(order.getSymbol()).find(order.getUuid());
+    }
+
+    public Optional<OrderSnapshot> cancel(Order order) {
+        return book(order.getSymbol()).cancel(order.getUuid());
+    }
+
+    /**
+     * Undoes matches of the symbol whose executions could not be written, see {@link OrderBook#revert(MatchResult)}.
+     *
+     * @param matchResults matches in the order they happened
+     */
+    public void revert(Order.Symbol symbol, List<MatchResult> matchResults) {
+        val book = book(symbol);
+        for (int i = matchResults.size() - 1; i >= 0; i--) {
+            book.revert(matchResults.get(i));
+        }
+    }
+
+    public OrderBook book(Order.Symbol symbol) {
+        return books.get(symbol);
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.griddynamics.internship.stonksjh.matching;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.val;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Limit order book of a single symbol with price-time priority.
+ * <p>
+ * Each side is a ladder of price levels, every level being a FIFO queue of resting orders.
+ * Incoming orders trade against the best opposite level first and, within a level, against the oldest order first.
+ * Trades execute at the resting order's price. Unfilled remainders of limit orders rest in the book,
+ * unfilled remainders of market orders are cancelled.
+ * <p>
+ * The book is not thread-safe.
+ */
+public class OrderBook {
+
+    private final Order.Symbol symbol;
+    private final NavigableMap<Long, ArrayDeque<BookOrder>> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final NavigableMap<Long, ArrayDeque<BookOrder>> asks = new TreeMap<>();
+    private final Map<UUID, BookOrder> resting = new HashMap<>();
+
+    public OrderBook(Order.Symbol symbol) {
+        this.symbol = symbol;
+    }
+
+    public Order.Symbol getSymbol() {
+        return symbol;
+    }
+
+    public MatchResult submit(BookOrder incoming) {
+        val opposite = incoming.getType() == Order.Type.BUY ? asks : bids;
+        val executedAt = Instant.now();
+        List<Trade> trades = new ArrayList<>();
+        List<OrderSnapshot> counterparts = new ArrayList<>();
+
+        while (incoming.remaining() > 0 && !opposite.isEmpty()) {
+            val level = opposite.firstEntry();
+            if (!incoming.crosses(level.getKey())) {
+                break;
+            }
+            val queue = level.getValue();
+            while (incoming.remaining() > 0 && !queue.isEmpty()) {
+                val counterpart = queue.peekFirst();
+                val quantity = Math.min(incoming.remaining(), counterpart.remaining());
+                incoming.fill(quantity);
+                counterpart.fill(quantity);
+                trades.add(trade(incoming, counterpart, level.getKey(), quantity, executedAt));
+                counterparts.add(counterpart.snapshot());
+                if (counterpart.remaining() == 0) {
+                    queue.pollFirst();
+                    resting.remove(counterpart.getUuid());
+                }
+            }
+            if (queue.isEmpty()) {
+                opposite.pollFirstEntry();
+            }
+        }
+
+        if (incoming.remaining() > 0) {
+            if (incoming.isMarket()) {
+                incoming.cancel();
+            } else {
+                rest(incoming);
+            }
+        }
+        return new MatchResult(incoming.snapshot(), trades, counterparts);
+    }
+
+    /**
+     * Places an order straight into the book without matching it, used to rebuild the book from persisted state.
+     * Orders have to be restored in their original time order to keep time priority.
+     */
+    public void rest(BookOrder order) {
+        if (order.isMarket() || order.remaining() <= 0) {
+            throw new IllegalArgumentException("Only unfilled limit orders can rest in the book");
+        }
+        val side = order.getType() == Order.Type.BUY ? bids : asks;
+        side.computeIfAbsent(order.getPrice(), price -> new ArrayDeque<>()).addLast(order);
+        resting.put(order.getUuid(), order);
+    }
+
+    /**
+     * Undoes a match whose executions could not be written. The submitted order is taken out of the book,
+     * the resting orders it traded against get the traded amount back, and those it filled completely are put
+     * back at the front of their price level. Matches have to be reverted latest first. Orders that traded
+     * against the reverted orders in the meantime keep their trades.
+     */
+    public void revert(MatchResult matchResult) {
+        cancel(matchResult.order().uuid());
+        val trades = matchResult.trades();
+        val counterparts = matchResult.counterparts();
+        for (int i = trades.size() - 1; i >= 0; i--) {
+            val trade = trades.get(i);
+            val counterpart = counterparts.get(i);
+            val order = resting.get(counterpart.uuid());
+            if (order != null) {
+                order.unfill(trade.amount());
+            } else if (counterpart.status() == Order.Status.FILLED) {
+                val restored = restored(trade, counterpart);
+                val side = restored.getType() == Order.Type.BUY ? bids : asks;
+                side.computeIfAbsent(restored.getPrice(), price -> new ArrayDeque<>()).addFirst(restored);
+                resting.put(restored.getUuid(), restored);
+            }
+        }
+    }
+
+    public Optional<OrderSnapshot> find(UUID uuid) {
+        return Optional.ofNullable(resting.get(uuid))
+                .map(BookOrder::snapshot);
+    }
+
+    public Optional<OrderSnapshot> cancel(UUID uuid) {
+        val order = resting.remove(uuid);
+        if (order == null) {
+            return Optional.empty();
+        }
+        val side = order.getType() == Order.Type.BUY ? bids : asks;
+        val queue = side.get(order.getPrice());
+        queue.remove(order);
+        if (queue.isEmpty()) {
+            side.remove(order.getPrice());
+        }
+        order.cancel();
+        return Optional.of(order.snapshot());
+    }
+
+    public OptionalLong bestBid() {
+        return bids.isEmpty() ? OptionalLong.empty() : OptionalLong.of(bids.firstKey());
+    }
+
+    public OptionalLong bestAsk() {
+        return asks.isEmpty() ? OptionalLong.empty() : OptionalLong.of(asks.firstKey());
+    }
+
+    public int size() {
+        return resting.size();
+    }
+
+    /**
+     * Resting order as it was before the trade filled it completely, it traded at its own price.
+     */
+    private static BookOrder restored(Trade trade, OrderSnapshot counterpart) {
+        val sell = counterpart.uuid().equals(trade.sellOrderUuid());
+        return new BookOrder(
+                counterpart.uuid(),
+                sell ? trade.sellUserUuid() : trade.buyUserUuid(),
+                sell ? Order.Type.SELL : Order.Type.BUY,
+                false,
+                trade.price(),
+                counterpart.filled(),
+                counterpart.filled() - trade.amount()
+        );
+    }
+
+    private Trade trade(BookOrder incoming, BookOrder counterpart, long price, int quantity, Instant executedAt) {
+        val buy = incoming.getType() == Order.Type.BUY ? incoming : counterpart;
+        val sell = buy == incoming ? counterpart : incoming;
+        return new Trade(symbol, buy.getUuid(), sell.getUuid(), price, quantity, executedAt,
+                buy.getPrice(), buy.getUserUuid(), sell.getUserUuid());
+    }
+
+}
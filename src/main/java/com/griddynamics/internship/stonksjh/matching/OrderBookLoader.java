@@ -0,0 +1,104 @@
+package com.griddynamics.internship.stonksjh.matching;
+
+import com.griddynamics.internship.stonksjh.journal.OrderEvent;
+import com.griddynamics.internship.stonksjh.journal.OrderJournal;
+import com.griddynamics.internship.stonksjh.journal.OrderJournalSnapshotter;
+import com.griddynamics.internship.stonksjh.ledger.Ledger;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.position.Positions;
+import com.griddynamics.internship.stonksjh.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds the in-memory order books from the persisted resting orders on startup.
+ * Runs once all singletons exist, before the web server starts accepting orders.
+ * <p>
+ * With the {@link OrderJournal} enabled, the resting orders are recovered from its latest snapshot and the events
+ * after it instead of reading them from the database. The first startup with the journal still reads the database
+ * and starts the journal with the orders it found.
+ * <p>
+ * The journal is appended to after the database committed and forced to disk only now and then, so it can miss
+ * the last executions. The recovered orders are therefore checked against the number of resting orders in the
+ * database and the amount they have left. If either differs, the books are rebuilt from the database and the
+ * journal continues from a snapshot of them.
+ * <p>
+ * The accounts of the owners of the restored orders are loaded right away, a trade against a resting order
+ * then never reads the database on the sequencer shard.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBookLoader implements SmartInitializingSingleton {
+
+    private final OrderRepository orderRepository;
+    private final MatchingEngine matchingEngine;
+    private final OrderJournal orderJournal;
+    private final OrderJournalSnapshotter orderJournalSnapshotter;
+    private final Ledger ledger;
+    private final Positions positions;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (orderJournal.isEnabled() && !orderJournal.isEmpty()) {
+            val recovered = orderJournalSnapshotter.recover();
+            val remaining = recovered.stream()
+                    .mapToLong(event -> event.amount() - event.filled())
+                    .sum();
+            val totals = orderRepository.findRestingTotals();
+            if (recovered.size() == totals.getOrders() && remaining == totals.getRemaining()) {
+                recovered.forEach(event -> matchingEngine.restore(event.toOrder()));
+                log.info("Restored {} resting orders from the journal into the order books", recovered.size());
+                preloadAccounts(recovered.stream().map(OrderEvent::userUuid));
+                return;
+            }
+            log.warn("The journal recovered {} resting orders with {} left, the database has {} with {} left, "
+                            + "restoring from the database",
+                    recovered.size(), remaining, totals.getOrders(), totals.getRemaining());
+            orderJournalSnapshotter.rebase(toEvents(restoreFromDatabase()));
+            return;
+        }
+        val restingOrders = restoreFromDatabase();
+        if (orderJournal.isEnabled()) {
+            orderJournal.appendAll(toEvents(restingOrders));
+            orderJournalSnapshotter.recover();
+        }
+    }
+
+    private List<Order> restoreFromDatabase() {
+        val restingOrders = orderRepository.findByStatusInOrderByCreatedAtAscIdAsc(
+                EnumSet.of(Order.Status.OPEN, Order.Status.PARTIALLY_FILLED)
+        );
+        restingOrders.forEach(matchingEngine::restore);
+        log.info("Restored {} resting orders into the order books", restingOrders.size());
+        preloadAccounts(restingOrders.stream().map(Order::getUserUuid));
+        return restingOrders;
+    }
+
+    private void preloadAccounts(Stream<UUID> owners) {
+        val userUuids = owners.filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        userUuids.forEach(userUuid -> {
+            ledger.preload(userUuid);
+            positions.preload(userUuid);
+        });
+        log.info("Loaded the accounts of {} users with resting orders", userUuids.size());
+    }
+
+    private static List<OrderEvent> toEvents(List<Order> orders) {
+        return orders.stream()
+                .map(order -> OrderEvent.placed(OrderEvent.Type.CREATED, order))
+                .toList();
+    }
+
+}
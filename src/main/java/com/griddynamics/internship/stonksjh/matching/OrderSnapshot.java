@@ -0,0 +1,15 @@
+package com.griddynamics.internship.stonksjh.matching;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+
+import java.util.UUID;
+
+/**
+ * Immutable execution state of an order, safe to hand over to other threads for persistence.
+ */
+public record OrderSnapshot(
+        UUID uuid,
+        int filled,
+        Order.Status status
+) {
+}
@@ -0,0 +1,24 @@
+package com.griddynamics.internship.stonksjh.matching;
+
+import java.math.BigDecimal;
+
+/**
+ * Prices inside the engine are kept as whole cents in a {@code long},
+ * so the matching loop compares and stores primitives instead of {@link BigDecimal}s.
+ */
+public final class Ticks {
+
+    public static final int SCALE = 2;
+
+    private Ticks() {
+    }
+
+    public static long fromPrice(BigDecimal price) {
+        return price.movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toPrice(long ticks) {
+        return BigDecimal.valueOf(ticks, SCALE);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.griddynamics.internship.stonksjh.matching;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * @param price         execution price in ticks
+ * @param buyLimitPrice limit price of the buy order in ticks, its protection price for a market order,
+ *                      which is what its owner's funds were reserved at
+ * @param buyUserUuid   owner of the buy order, {@code null} for orders placed without an account
+ * @param sellUserUuid  owner of the sell order, {@code null} for orders placed without an account
+ */
+public record Trade(
+        Order.Symbol symbol,
+        UUID buyOrderUuid,
+        UUID sellOrderUuid,
+        long price,
+        int amount,
+        Instant executedAt,
+        long buyLimitPrice,
+        UUID buyUserUuid,
+        UUID sellUserUuid
+) {
+}
@@ -0,0 +1,79 @@
+package com.griddynamics.internship.stonksjh.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static jakarta.persistence.GenerationType.SEQUENCE;
+
+@Entity
+@Table(name = "fill")
+@NoArgsConstructor
+@Getter
+@Setter
+public class Fill {
+
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = "fill_seq")
+    @SequenceGenerator(
+            name = "fill_seq",
+            sequenceName = "fill_seq",
+            allocationSize = 50
+    )
+    @Column(updatable = false)
+    @Setter(AccessLevel.NONE)
+    private long id;
+
+    @Column(
+            updatable = false,
+            nullable = false
+    )
+    private UUID buyOrderUuid;
+
+    @Column(
+            updatable = false,
+            nullable = false
+    )
+    private UUID sellOrderUuid;
+
+    @Column(
+            updatable = false,
+            nullable = false
+    )
+    @Enumerated(value = EnumType.STRING)
+    private Order.Symbol symbol;
+
+    @Column(
+            updatable = false,
+            nullable = false,
+            columnDefinition = "Decimal(10,2)"
+    )
+    private BigDecimal price;
+
+    @Column(
+            updatable = false,
+            nullable = false
+    )
+    private int amount;
+
+    @Column(
+            updatable = false,
+            nullable = false,
+            columnDefinition = "timestamptz"
+    )
+    private Instant executedAt;
+
+}
@@ -0,0 +1,107 @@
+package com.griddynamics.internship.stonksjh.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static jakarta.persistence.GenerationType.SEQUENCE;
+
+/**
+ * A single movement of a user's money. Entries are only ever inserted, the balance of a user
+ * is the sum of their entries, see {@link Type}.
+ */
+@Entity
+@Table(
+        name = "ledger_entry",
+        indexes = @Index(name = "idx_ledger_entry_user_uuid", columnList = "user_uuid")
+)
+@NoArgsConstructor
+@Getter
+@Setter
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = "ledger_entry_seq")
+    @SequenceGenerator(
+            name = "ledger_entry_seq",
+            sequenceName = "ledger_entry_seq",
+            allocationSize = 50
+    )
+    @Column(updatable = false)
+    @Setter(AccessLevel.NONE)
+    private long id;
+
+    @Column(
+            updatable = false,
+            nullable = false
+    )
+    private UUID userUuid;
+
+    /**
+     * Order the money moved for, {@code null} for deposits.
+     */
+    @Column(updatable = false)
+    private UUID orderUuid;
+
+    @Column(
+            updatable = false,
+            nullable = false
+    )
+    @Enumerated(value = EnumType.STRING)
+    private Type type;
+
+    /**
+     * Always positive, the {@link #type} tells which way the money moved.
+     */
+    @Column(
+            updatable = false,
+            nullable = false,
+            columnDefinition = "Decimal(18,2)"
+    )
+    private BigDecimal amount;
+
+    @Column(
+            updatable = false,
+            nullable = false,
+            columnDefinition = "timestamptz"
+    )
+    private Instant createdAt;
+
+    public enum Type {
+        /**
+         * Adds to the balance.
+         */
+        DEPOSIT,
+        /**
+         * Sets aside part of the balance for a buy order, it can no longer be spent on other orders.
+         */
+        RESERVE,
+        /**
+         * Gives back reserved money, when the order is filled, cancelled, changed or deleted.
+         */
+        RELEASE,
+        /**
+         * Takes the price of shares bought from the balance.
+         */
+        DEBIT,
+        /**
+         * Adds the price of shares sold to the balance.
+         */
+        CREDIT
+    }
+
+}
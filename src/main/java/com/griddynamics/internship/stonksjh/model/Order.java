@@ -1,39 +1,61 @@
 package com.griddynamics.internship.stonksjh.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 
-@Table(name = "order")
+/**
+ * Partitioned by symbol, the keys, indexes and partitions are created by the migrations in {@code db/migration}.
+ * Uuids are only unique per symbol. Written orders are updated and deleted by id and symbol through
+ * the {@link com.griddynamics.internship.stonksjh.repository.OrderRepository}, so only their partition is searched.
+ */
+@Entity
+@Table(name = "\"order\"") // "order" is a reserved keyword in PostgreSQL
 @NoArgsConstructor
 @Getter
 @Setter
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(
+            name = "order_seq",
+            sequenceName = "order_seq",
+            allocationSize = 50
+    )
     @Column(updatable = false)
     @Setter(AccessLevel.NONE)
     private long id;
 
     @Column(
             updatable = false,
-            nullable = false,
-            unique = true
+            nullable = false
     )
     private UUID uuid;
 
+    /**
+     * Owner of the order, {@code null} for orders placed without an account.
+     */
+    @Column(updatable = false)
+    private UUID userUuid;
+
     @Column(nullable = false)
     @Enumerated(value = EnumType.STRING)
     private Type type;
@@ -45,6 +67,44 @@ public class Order {
     @Enumerated(value = EnumType.STRING)
     private Symbol symbol;
 
+    /**
+     * Limit price, {@code null} for market orders.
+     */
+    @Column(columnDefinition = "Decimal(10,2)")
+    private BigDecimal price;
+
+    @Column(nullable = false)
+    private int filled;
+
+    @Column(nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private Status status = Status.OPEN;
+
+    @Column(
+            updatable = false,
+            nullable = false,
+            columnDefinition = "timestamptz"
+    )
+    private Instant createdAt;
+
+    /**
+     * {@code Idempotency-Key} the order was created with, only written if the keys are persistent.
+     */
+    @Column(updatable = false)
+    private String idempotencyKey;
+
+    /**
+     * Symbol of the partition the order was read from, {@code null} for orders that were never written.
+     */
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Symbol writtenSymbol;
+
+    @PostLoad
+    void loaded() {
+        writtenSymbol = symbol;
+    }
+
     public enum Type {
         BUY,
         SELL
@@ -61,4 +121,15 @@ public class Order {
         JNJ
     }
 
+    public enum Status {
+        OPEN,
+        PARTIALLY_FILLED,
+        FILLED,
+        CANCELLED;
+
+        public boolean isTerminal() {
+            return this == FILLED || this == CANCELLED;
+        }
+    }
+
 }
@@ -0,0 +1,58 @@
+package com.griddynamics.internship.stonksjh.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Shares of one symbol a user holds, moved by every fill the user takes part in.
+ */
+@Entity
+@Table(name = "user_position")
+@IdClass(Position.Key.class)
+@NoArgsConstructor
+@Getter
+@Setter
+public class Position {
+
+    @Id
+    @Column(
+            updatable = false,
+            nullable = false
+    )
+    private UUID userUuid;
+
+    @Id
+    @Column(
+            updatable = false,
+            nullable = false
+    )
+    @Enumerated(value = EnumType.STRING)
+    private Order.Symbol symbol;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        private UUID userUuid;
+        private Order.Symbol symbol;
+
+    }
+
+}
@@ -2,10 +2,14 @@ package com.griddynamics.internship.stonksjh.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,40 +19,66 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 @Entity
-@Table(name = "usr") // "user" is a reserved keyword in PostgreSQL
+@Table(
+        name = "usr", // "user" is a reserved keyword in PostgreSQL
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_usr_uuid", columnNames = "uuid"),
+                @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+                @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username")
+        }
+)
 @NoArgsConstructor
 @Getter
 @Setter
 public class User {
 
+    /**
+     * Names of the unique constraints, used to tell which value caused a conflict on insert or update.
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_usr_email";
+    public static final String USERNAME_CONSTRAINT = "uk_usr_username";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usr_seq")
+    @SequenceGenerator(
+            name = "usr_seq",
+            sequenceName = "usr_seq",
+            allocationSize = 50
+    )
+    @Column(updatable = false)
     @Setter(AccessLevel.NONE)
     private long id;
 
-    @Column(
-            nullable = false,
-            unique = true
-    )
+    @Column(nullable = false)
     private UUID uuid;
 
-    @Column(
-            nullable = false,
-            unique = true
-    )
+    @Column(nullable = false)
     private String email;
 
-    @Column(
-            nullable = false,
-            unique = true
-    )
+    @Column(nullable = false)
     private String username;
 
     @Column(
             nullable = false,
-            columnDefinition = "Decimal(10,2) default '0.00'"
+            columnDefinition = "Decimal(18,2) default '0.00'"
     )
     @Setter(AccessLevel.NONE)
     private BigDecimal balance = BigDecimal.ZERO;
 
+    /**
+     * Commission tier, assigned by the broker.
+     */
+    @Column(
+            nullable = false,
+            columnDefinition = "varchar(16) default 'STANDARD'"
+    )
+    @Enumerated(value = EnumType.STRING)
+    private Tier tier = Tier.STANDARD;
+
+    public enum Tier {
+        STANDARD,
+        ACTIVE,
+        PROFESSIONAL
+    }
+
 }
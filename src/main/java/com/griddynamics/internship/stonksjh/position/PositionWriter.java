@@ -0,0 +1,63 @@
+package com.griddynamics.internship.stonksjh.position;
+
+import com.griddynamics.internship.stonksjh.matching.MatchResult;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.repository.PositionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves the written positions by the fills of a batch of executions, joining the transaction of the caller
+ * if there is one. The fills are netted per user and symbol first, so a batch writes every position at most once.
+ */
+@Component
+@RequiredArgsConstructor
+public class PositionWriter {
+
+    private static final Order.Symbol[] SYMBOLS = Order.Symbol.values();
+
+    private final PositionRepository positionRepository;
+
+    @Transactional
+    public void write(List<MatchResult> matchResults) {
+        Map<UUID, long[]> changes = new HashMap<>();
+        for (val matchResult : matchResults) {
+            for (val trade : matchResult.trades()) {
+                val i = trade.symbol().ordinal();
+                if (trade.buyUserUuid() != null) {
+                    changes.computeIfAbsent(trade.buyUserUuid(), PositionWriter::noChanges)[i] += trade.amount();
+                }
+                if (trade.sellUserUuid() != null) {
+                    changes.computeIfAbsent(trade.sellUserUuid(), PositionWriter::noChanges)[i] -= trade.amount();
+                }
+            }
+        }
+        changes.forEach((userUuid, amounts) -> {
+            for (int i = 0; i < amounts.length; i++) {
+                if (amounts[i] != 0) {
+                    positionRepository.addToAmount(userUuid, SYMBOLS[i].name(), amounts[i]);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds shares deposited by the user to their written position.
+     */
+    @Transactional
+    public void deposit(UUID userUuid, Order.Symbol symbol, long amount) {
+        positionRepository.addToAmount(userUuid, symbol.name(), amount);
+    }
+
+    private static long[] noChanges(UUID userUuid) {
+        return new long[SYMBOLS.length];
+    }
+
+}
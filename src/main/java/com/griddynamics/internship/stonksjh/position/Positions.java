@@ -0,0 +1,265 @@
+package com.griddynamics.internship.stonksjh.position;
+
+import com.griddynamics.internship.stonksjh.exception.position.InsufficientSharesException;
+import com.griddynamics.internship.stonksjh.ledger.Ledger;
+import com.griddynamics.internship.stonksjh.matching.MatchResult;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.repository.OrderRepository;
+import com.griddynamics.internship.stonksjh.repository.PositionRepository;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Shares every user holds and has reserved for open sell orders, kept in memory and moved by every fill.
+ * <ul>
+ *     <li>an account is two {@code long} arrays indexed by {@link Order.Symbol#ordinal()}, so reading a portfolio
+ *     touches each symbol once and never the orders or fills</li>
+ *     <li>an account is loaded from its written positions and its open sell orders the first time it is used</li>
+ *     <li>every account is its own lock and is evicted when idle, like the accounts of the {@link Ledger}</li>
+ *     <li>changes are applied here first, a caller whose execution cannot be written has to {@link #revert(List)} them;
+ *     the held amounts are written by the {@link PositionWriter} together with the fills</li>
+ * </ul>
+ * Sell orders reserve their remaining amount, which is released share by share as they are filled.
+ * Orders placed without an account are not accounted for.
+ */
+@Component
+public class Positions {
+
+    private static final Order.Symbol[] SYMBOLS = Order.Symbol.values();
+
+    private final PositionRepository positionRepository;
+    private final OrderRepository orderRepository;
+    private final long idleTimeoutNanos;
+    private final ConcurrentHashMap<UUID, Account> accounts = new ConcurrentHashMap<>();
+
+    public Positions(
+            PositionRepository positionRepository,
+            OrderRepository orderRepository,
+            @Value("${stonks.accounts.idle-timeout:10m}") Duration idleTimeout
+    ) {
+        this.positionRepository = positionRepository;
+        this.orderRepository = orderRepository;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * @return every symbol the user holds or has reserved shares of, in symbol order
+     */
+    public List<Holding> holdings(UUID userUuid) {
+        List<Holding> holdings = new ArrayList<>();
+        locked(userUuid, account -> {
+            for (int i = 0; i < SYMBOLS.length; i++) {
+                if (account.amounts[i] != 0 || account.reserved[i] != 0) {
+                    holdings.add(new Holding(SYMBOLS[i], account.amounts[i], account.reserved[i]));
+                }
+            }
+            return null;
+        });
+        return holdings;
+    }
+
+    /**
+     * Loads the account unless it was used before, so that a sequencer shard never waits for it.
+     */
+    public void preload(UUID userUuid) {
+        load(userUuid);
+    }
+
+    public boolean isLoaded(UUID userUuid) {
+        return accounts.containsKey(userUuid);
+    }
+
+    /**
+     * Adds shares the user brought in from outside, the caller writes them with the {@link PositionWriter}.
+     */
+    public List<Change> deposit(UUID userUuid, Order.Symbol symbol, long amount) {
+        val change = new Change(userUuid, symbol, amount, 0);
+        apply(change, 1);
+        return List.of(change);
+    }
+
+    /**
+     * @throws InsufficientSharesException if fewer than {@code amount} shares are available, nothing is reserved then
+     */
+    public List<Change> reserve(UUID userUuid, Order.Symbol symbol, long amount) {
+        return replace(userUuid, symbol, 0, symbol, amount);
+    }
+
+    /**
+     * Releases the reservation of an order and reserves {@code reserve} shares for it instead, in one step.
+     * The symbols differ when the order is moved to another symbol.
+     *
+     * @throws InsufficientSharesException if the released and the available shares do not cover {@code reserve},
+     *                                     the previous reservation is kept then
+     */
+    public List<Change> replace(
+            UUID userUuid,
+            Order.Symbol releaseSymbol,
+            long release,
+            Order.Symbol reserveSymbol,
+            long reserve
+    ) {
+        if (userUuid == null || release == 0 && reserve == 0) {
+            return List.of();
+        }
+        val i = reserveSymbol.ordinal();
+        locked(userUuid, account -> {
+            val available = account.amounts[i] - account.reserved[i] + (releaseSymbol == reserveSymbol ? release : 0);
+            if (available < reserve) {
+                throw new InsufficientSharesException(userUuid, reserveSymbol, reserve, available);
+            }
+            account.reserved[releaseSymbol.ordinal()] -= release;
+            account.reserved[i] += reserve;
+            return null;
+        });
+        List<Change> changes = new ArrayList<>(2);
+        if (release != 0) {
+            changes.add(new Change(userUuid, releaseSymbol, 0, -release));
+        }
+        if (reserve != 0) {
+            changes.add(new Change(userUuid, reserveSymbol, 0, reserve));
+        }
+        return changes;
+    }
+
+    public List<Change> release(UUID userUuid, Order.Symbol symbol, long amount) {
+        if (userUuid == null || amount == 0) {
+            return List.of();
+        }
+        val change = new Change(userUuid, symbol, 0, -amount);
+        apply(change, 1);
+        return List.of(change);
+    }
+
+    /**
+     * Buyers receive the shares they bought, sellers hand over the shares they sold out of their reservation.
+     */
+    public List<Change> settle(MatchResult matchResult) {
+        List<Change> changes = new ArrayList<>();
+        for (val trade : matchResult.trades()) {
+            if (trade.buyUserUuid() != null) {
+                changes.add(new Change(trade.buyUserUuid(), trade.symbol(), trade.amount(), 0));
+            }
+            if (trade.sellUserUuid() != null) {
+                changes.add(new Change(trade.sellUserUuid(), trade.symbol(), -trade.amount(), -trade.amount()));
+            }
+        }
+        for (val change : changes) {
+            apply(change, 1);
+        }
+        return changes;
+    }
+
+    /**
+     * Takes back changes whose write failed, in reverse order.
+     */
+    public void revert(List<Change> changes) {
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            apply(changes.get(i), -1);
+        }
+    }
+
+    private void apply(Change change, int sign) {
+        val i = change.symbol().ordinal();
+        locked(change.userUuid(), account -> {
+            account.amounts[i] += sign * change.amount();
+            account.reserved[i] += sign * change.reserved();
+            return null;
+        });
+    }
+
+    /**
+     * Drops the accounts that were not used for the idle timeout and have no shares reserved, like
+     * {@link Ledger#evictIdle()}. They are loaded from their positions and open sell orders again when used next.
+     */
+    @Scheduled(fixedDelayString = "${stonks.accounts.eviction-interval-millis:60000}")
+    public void evictIdle() {
+        val now = System.nanoTime();
+        for (val entry : accounts.entrySet()) {
+            val account = entry.getValue();
+            synchronized (account) {
+                if (Arrays.stream(account.reserved).allMatch(reserved -> reserved == 0)
+                        && now - account.lastUsed >= idleTimeoutNanos) {
+                    account.evicted = true;
+                    accounts.remove(entry.getKey(), account);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the action holding the account's lock, on an account loaded again if it was evicted meanwhile.
+     */
+    private <T> T locked(UUID userUuid, Function<Account, T> action) {
+        while (true) {
+            val account = load(userUuid);
+            synchronized (account) {
+                if (!account.evicted) {
+                    return action.apply(account);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads outside of any lock, like the {@link Ledger}.
+     * This is the only time the orders of a user are read.
+     */
+    private Account load(UUID userUuid) {
+        val account = accounts.get(userUuid);
+        if (account != null) {
+            account.lastUsed = System.nanoTime();
+            return account;
+        }
+        val loaded = new Account();
+        for (val position : positionRepository.findByUserUuid(userUuid)) {
+            loaded.amounts[position.getSymbol().ordinal()] = position.getAmount();
+        }
+        for (val reservedShares : orderRepository.findReservedShares(userUuid)) {
+            loaded.reserved[Order.Symbol.valueOf(reservedShares.getSymbol()).ordinal()] = reservedShares.getReserved();
+        }
+        val previous = accounts.putIfAbsent(userUuid, loaded);
+        return previous != null ? previous : loaded;
+    }
+
+    /**
+     * @param amount   shares held, including fills not written yet
+     * @param reserved part of the held shares offered by open sell orders
+     */
+    public record Holding(Order.Symbol symbol, long amount, long reserved) {
+
+        public long available() {
+            return amount - reserved;
+        }
+
+    }
+
+    /**
+     * Shares moved for a user and symbol, added to the held and to the reserved amount.
+     */
+    public record Change(UUID userUuid, Order.Symbol symbol, long amount, long reserved) {
+    }
+
+    /**
+     * Guarded by its own monitor, except for the time it was last looked up.
+     */
+    private static final class Account {
+
+        private final long[] amounts = new long[SYMBOLS.length];
+        private final long[] reserved = new long[SYMBOLS.length];
+        private boolean evicted;
+        private volatile long lastUsed = System.nanoTime();
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.griddynamics.internship.stonksjh.price;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.griddynamics.internship.stonksjh.exception.price.QuoteUnavailableException;
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Fetches real-time quotes from <a href="https://finnhub.io/docs/api/quote">finnhub.io</a>.
+ */
+@Component
+@ConditionalOnProperty(name = "stonks.prices.provider", havingValue = "finnhub")
+public class FinnhubQuoteProvider implements QuoteProvider {
+
+    private final RestTemplate restTemplate;
+    private final String token;
+
+    public FinnhubQuoteProvider(
+            RestTemplateBuilder restTemplateBuilder,
+            @Value("${stonks.prices.finnhub.url:https://finnhub.io/api/v1}") String url,
+            @Value("${stonks.prices.finnhub.token}") String token,
+            @Value("${stonks.prices.finnhub.timeout:2s}") Duration timeout
+    ) {
+        this.restTemplate = restTemplateBuilder
+                .rootUri(url)
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+        this.token = token;
+    }
+
+    @Override
+    public Quote fetch(Order.Symbol symbol) {
+        FinnhubQuote response;
+        try {
+            response = restTemplate.getForObject("/quote?symbol={symbol}&token={token}", FinnhubQuote.class, symbol, token);
+        } catch (RestClientException e) {
+            throw new QuoteUnavailableException(symbol, e);
+        }
+        // Finnhub answers unknown symbols with an all-zero quote instead of an error
+        if (response == null || response.current() == null || response.current().signum() <= 0) {
+            throw new QuoteUnavailableException(symbol);
+        }
+        val timestamp = response.timestamp() > 0 ? Instant.ofEpochSecond(response.timestamp()) : Instant.now();
+        return Quote.builder()
+                .symbol(symbol)
+                .price(response.current())
+                .timestamp(timestamp)
+                .build();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record FinnhubQuote(
+            @JsonProperty("c") BigDecimal current,
+            @JsonProperty("t") long timestamp
+    ) {
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.griddynamics.internship.stonksjh.price;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Builder
+public record Quote(
+        Order.Symbol symbol,
+        BigDecimal price,
+        Instant timestamp
+) {
+}
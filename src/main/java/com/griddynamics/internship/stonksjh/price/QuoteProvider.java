@@ -0,0 +1,13 @@
+package com.griddynamics.internship.stonksjh.price;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+
+/**
+ * Upstream source of real-time stock prices. Calls may be slow and rate limited,
+ * so they should only ever be made through {@link com.griddynamics.internship.stonksjh.service.StockPriceService}.
+ */
+public interface QuoteProvider {
+
+    Quote fetch(Order.Symbol symbol);
+
+}
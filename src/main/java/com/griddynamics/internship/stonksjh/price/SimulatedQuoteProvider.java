@@ -0,0 +1,57 @@
+package com.griddynamics.internship.stonksjh.price;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.val;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Offline stand-in for a real quote provider. Prices oscillate around a fixed base price per symbol
+ * and depend only on the symbol and the current time, so the same clock always yields the same quotes.
+ */
+@Component
+@ConditionalOnProperty(name = "stonks.prices.provider", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedQuoteProvider implements QuoteProvider {
+
+    private static final double AMPLITUDE = 0.02;
+    private static final long PERIOD_MILLIS = 60_000;
+    private static final Map<Order.Symbol, Double> BASE_PRICES = new EnumMap<>(Map.of(
+            Order.Symbol.AAPL, 150.0,
+            Order.Symbol.META, 300.0,
+            Order.Symbol.NVDA, 450.0,
+            Order.Symbol.AMZN, 130.0,
+            Order.Symbol.GOOG, 135.0,
+            Order.Symbol.TSLA, 250.0,
+            Order.Symbol.MSFT, 330.0,
+            Order.Symbol.JNJ, 160.0
+    ));
+
+    private final Clock clock;
+
+    public SimulatedQuoteProvider() {
+        this(Clock.systemUTC());
+    }
+
+    public SimulatedQuoteProvider(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Quote fetch(Order.Symbol symbol) {
+        val now = clock.instant();
+        val phase = 2 * Math.PI * (now.toEpochMilli() % PERIOD_MILLIS) / PERIOD_MILLIS + symbol.ordinal();
+        val price = BASE_PRICES.get(symbol) * (1 + AMPLITUDE * Math.sin(phase));
+        return Quote.builder()
+                .symbol(symbol)
+                .price(BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP))
+                .timestamp(now)
+                .build();
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.griddynamics.internship.stonksjh.repository;
+
+import com.griddynamics.internship.stonksjh.model.Fill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FillRepository extends JpaRepository<Fill, Long> {
+
+}
@@ -0,0 +1,80 @@
+package com.griddynamics.internship.stonksjh.repository;
+
+import com.griddynamics.internship.stonksjh.model.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    /**
+     * Balance and reserved money of a user, summed up from their entries.
+     */
+    @Query(
+            value = """
+                    select coalesce(sum(case when type in ('DEPOSIT', 'CREDIT') then amount
+                                             when type = 'DEBIT' then -amount else 0 end), 0) as balance,
+                           coalesce(sum(case when type = 'RESERVE' then amount
+                                             when type = 'RELEASE' then -amount else 0 end), 0) as reserved
+                    from ledger_entry
+                    where user_uuid = :userUuid
+                    """,
+            nativeQuery = true
+    )
+    Totals findTotals(@Param("userUuid") UUID userUuid);
+
+    /**
+     * Users whose stored balance differs from the sum of their entries,
+     * or who have more money reserved than they own.
+     */
+    @Query(
+            value = """
+                    select u.uuid as userUuid,
+                           u.balance as balance,
+                           coalesce(e.balance, 0) as ledgerBalance,
+                           coalesce(e.reserved, 0) as reserved
+                    from usr u
+                    left join (
+                        select user_uuid,
+                               sum(case when type in ('DEPOSIT', 'CREDIT') then amount
+                                        when type = 'DEBIT' then -amount else 0 end) as balance,
+                               sum(case when type = 'RESERVE' then amount
+                                        when type = 'RELEASE' then -amount else 0 end) as reserved
+                        from ledger_entry
+                        group by user_uuid
+                    ) e on e.user_uuid = u.uuid
+                    where u.balance <> coalesce(e.balance, 0)
+                       or coalesce(e.reserved, 0) < 0
+                       or coalesce(e.reserved, 0) > u.balance
+                    """,
+            nativeQuery = true
+    )
+    List<Mismatch> findMismatches();
+
+    interface Totals {
+
+        BigDecimal getBalance();
+
+        BigDecimal getReserved();
+
+    }
+
+    interface Mismatch {
+
+        UUID getUserUuid();
+
+        BigDecimal getBalance();
+
+        BigDecimal getLedgerBalance();
+
+        BigDecimal getReserved();
+
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.griddynamics.internship.stonksjh.repository;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Criteria of an order search, {@code null} components do not restrict the result.
+ *
+ * @param from inclusive lower bound of the creation time
+ * @param to   exclusive upper bound of the creation time
+ */
+@Builder
+public record OrderFilter(
+        Order.Symbol symbol,
+        Order.Type type,
+        UUID userUuid,
+        Instant from,
+        Instant to
+) {
+
+    /**
+     * Searches with a time range are paged in {@code (created_at, id)} order, all others in id order.
+     */
+    public boolean hasTimeRange() {
+        return from != null || to != null;
+    }
+
+}
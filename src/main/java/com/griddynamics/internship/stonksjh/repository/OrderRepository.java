@@ -2,14 +2,108 @@ package com.griddynamics.internship.stonksjh.repository;
 
 import com.griddynamics.internship.stonksjh.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderSearchRepository {
 
+    /**
+     * Probes the uuid index of every partition, prefer {@link #findByUUIDAndSymbol} when the symbol is known.
+     */
     Optional<Order> findByUUID(UUID uuid);
 
+    Optional<Order> findByUUIDAndSymbol(UUID uuid, Order.Symbol symbol);
+
+    Optional<Order> findByUserUuidAndIdempotencyKey(UUID userUuid, String idempotencyKey);
+
+    List<Order> findByStatusInOrderByCreatedAtAscIdAsc(Collection<Order.Status> statuses);
+
+    /**
+     * Writes the execution state of a resting order without loading it first.
+     * The {@code filled} guard keeps the row from going backwards if two snapshots are written out of order.
+     */
+    @Modifying
+    @Query("""
+            update Order o set o.filled = :filled, o.status = :status
+            where o.uuid = :uuid and o.symbol = :symbol and o.filled < :filled
+            """)
+    int updateExecution(
+            @Param("uuid") UUID uuid,
+            @Param("symbol") Order.Symbol symbol,
+            @Param("filled") int filled,
+            @Param("status") Order.Status status
+    );
+
+    /**
+     * Writes a replaced order in the partition of its {@link Order#getWrittenSymbol() written symbol},
+     * a new symbol moves the row to the partition of that symbol.
+     */
+    @Modifying
+    @Query("""
+            update Order o
+            set o.symbol = :#{#order.symbol}, o.type = :#{#order.type}, o.amount = :#{#order.amount},
+                o.price = :#{#order.price}, o.filled = :#{#order.filled}, o.status = :#{#order.status}
+            where o.id = :#{#order.id} and o.symbol = :#{#order.writtenSymbol}
+            """)
+    int replace(@Param("order") Order order);
+
+    @Modifying
+    @Transactional
+    @Query("delete from Order o where o.id = :id and o.symbol = :symbol")
+    int deleteByIdAndSymbol(@Param("id") long id, @Param("symbol") Order.Symbol symbol);
+
+    /**
+     * Shares still offered by the open sell orders of a user, per symbol.
+     */
+    @Query(
+            value = """
+                    select symbol, sum(amount - filled) as reserved
+                    from "order"
+                    where user_uuid = :userUuid
+                      and type = 'SELL'
+                      and status in ('OPEN', 'PARTIALLY_FILLED')
+                    group by symbol
+                    """,
+            nativeQuery = true
+    )
+    List<ReservedShares> findReservedShares(@Param("userUuid") UUID userUuid);
+
+    /**
+     * Number of resting orders and the amount they have left, to check the orders recovered from the journal against.
+     */
+    @Query(
+            value = """
+                    select count(*) as orders, coalesce(sum(amount - filled), 0) as remaining
+                    from "order"
+                    where status in ('OPEN', 'PARTIALLY_FILLED')
+                    """,
+            nativeQuery = true
+    )
+    RestingTotals findRestingTotals();
+
+    interface ReservedShares {
+
+        String getSymbol();
+
+        long getReserved();
+
+    }
+
+    interface RestingTotals {
+
+        long getOrders();
+
+        long getRemaining();
+
+    }
+
 }
@@ -0,0 +1,19 @@
+package com.griddynamics.internship.stonksjh.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OrderSearchRepository {
+
+    /**
+     * Keyset page of the orders matching the filter, in id order, or in {@code (created_at, id)} order when
+     * the filter has a time range, so the page seeks on the creation time index instead of sorting the range.
+     * Only the restricted columns end up in the where clause, so every filter combination
+     * can use the matching index instead of a catch-all plan.
+     *
+     * @param after          id of the last order of the previous page
+     * @param afterCreatedAt creation time of that order, only used with a time range
+     */
+    List<OrderView> search(OrderFilter filter, long after, Instant afterCreatedAt, int limit);
+
+}
@@ -0,0 +1,75 @@
+package com.griddynamics.internship.stonksjh.repository;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<OrderView> search(OrderFilter filter, long after, Instant afterCreatedAt, int limit) {
+        val criteriaBuilder = entityManager.getCriteriaBuilder();
+        val query = criteriaBuilder.createQuery(OrderView.class);
+        val order = query.from(Order.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (!filter.hasTimeRange()) {
+            predicates.add(criteriaBuilder.greaterThan(order.<Long>get("id"), after));
+        } else if (afterCreatedAt != null) {
+            // (created_at, id) > (afterCreatedAt, after), the first condition bounds the index range
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(order.<Instant>get("createdAt"), afterCreatedAt));
+            predicates.add(criteriaBuilder.or(
+                    criteriaBuilder.greaterThan(order.<Instant>get("createdAt"), afterCreatedAt),
+                    criteriaBuilder.greaterThan(order.<Long>get("id"), after)
+            ));
+        }
+        if (filter.symbol() != null) {
+            predicates.add(criteriaBuilder.equal(order.get("symbol"), filter.symbol()));
+        }
+        if (filter.type() != null) {
+            predicates.add(criteriaBuilder.equal(order.get("type"), filter.type()));
+        }
+        if (filter.userUuid() != null) {
+            predicates.add(criteriaBuilder.equal(order.get("userUuid"), filter.userUuid()));
+        }
+        if (filter.from() != null) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(order.<Instant>get("createdAt"), filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(criteriaBuilder.lessThan(order.<Instant>get("createdAt"), filter.to()));
+        }
+
+        query.select(criteriaBuilder.construct(
+                        OrderView.class,
+                        order.get("id"),
+                        order.get("uuid"),
+                        order.get("userUuid"),
+                        order.get("type"),
+                        order.get("amount"),
+                        order.get("symbol"),
+                        order.get("price"),
+                        order.get("filled"),
+                        order.get("status"),
+                        order.get("createdAt")
+                ))
+                .where(predicates.toArray(Predicate[]::new));
+        if (filter.hasTimeRange()) {
+            query.orderBy(criteriaBuilder.asc(order.get("createdAt")), criteriaBuilder.asc(order.get("id")));
+        } else {
+            query.orderBy(criteriaBuilder.asc(order.get("id")));
+        }
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+}
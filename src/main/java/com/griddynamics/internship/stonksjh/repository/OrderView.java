@@ -0,0 +1,24 @@
+package com.griddynamics.internship.stonksjh.repository;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read-only projection of an {@link Order} row, selected column by column without hydrating the entity.
+ */
+public record OrderView(
+        long id,
+        UUID uuid,
+        UUID userUuid,
+        Order.Type type,
+        int amount,
+        Order.Symbol symbol,
+        BigDecimal price,
+        int filled,
+        Order.Status status,
+        Instant createdAt
+) {
+}
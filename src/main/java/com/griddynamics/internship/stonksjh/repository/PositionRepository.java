@@ -0,0 +1,32 @@
+package com.griddynamics.internship.stonksjh.repository;
+
+import com.griddynamics.internship.stonksjh.model.Position;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PositionRepository extends JpaRepository<Position, Position.Key> {
+
+    List<Position> findByUserUuid(UUID userUuid);
+
+    /**
+     * Moves a position by {@code amount} shares without loading it first, creating it on the first fill.
+     */
+    @Modifying
+    @Query(
+            value = """
+                    insert into user_position (user_uuid, symbol, amount)
+                    values (:userUuid, :symbol, :amount)
+                    on conflict (user_uuid, symbol) do update set amount = user_position.amount + excluded.amount
+                    """,
+            nativeQuery = true
+    )
+    int addToAmount(@Param("userUuid") UUID userUuid, @Param("symbol") String symbol, @Param("amount") long amount);
+
+}
@@ -0,0 +1,101 @@
+package com.griddynamics.internship.stonksjh.repository;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+
+/**
+ * Non-blocking reads of the {@code order} table over R2DBC, for the reactive order API.
+ * Writes stay on JPA, they go through the sequencer and the execution writer either way.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveOrderRepository {
+
+    private static final String SELECT = "select id, uuid, user_uuid, type, amount, symbol, price, filled, status, created_at"
+            + " from \"order\"";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<OrderView> findByUuid(UUID uuid) {
+        return databaseClient.sql(SELECT + " where uuid = :uuid")
+                .bind("uuid", uuid)
+                .map(ReactiveOrderRepository::toView)
+                .one();
+    }
+
+    /**
+     * Same keyset page as {@link OrderSearchRepository#search}, emitted row by row as the driver reads them.
+     *
+     * @param after          id of the last order of the previous page
+     * @param afterCreatedAt creation time of that order, only used with a time range
+     */
+    public Flux<OrderView> search(OrderFilter filter, long after, Instant afterCreatedAt, int limit) {
+        val sql = new StringBuilder(SELECT).append(" where true");
+        val bindings = new LinkedHashMap<String, Object>();
+        if (!filter.hasTimeRange()) {
+            sql.append(" and id > :after");
+            bindings.put("after", after);
+        } else if (afterCreatedAt != null) {
+            sql.append(" and (created_at, id) > (:afterCreatedAt, :after)");
+            bindings.put("afterCreatedAt", afterCreatedAt);
+            bindings.put("after", after);
+        }
+        if (filter.symbol() != null) {
+            sql.append(" and symbol = :symbol");
+            bindings.put("symbol", filter.symbol().name());
+        }
+        if (filter.type() != null) {
+            sql.append(" and type = :type");
+            bindings.put("type", filter.type().name());
+        }
+        if (filter.userUuid() != null) {
+            sql.append(" and user_uuid = :userUuid");
+            bindings.put("userUuid", filter.userUuid());
+        }
+        if (filter.from() != null) {
+            sql.append(" and created_at >= :from");
+            bindings.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            sql.append(" and created_at < :to");
+            bindings.put("to", filter.to());
+        }
+        sql.append(filter.hasTimeRange() ? " order by created_at, id" : " order by id").append(" limit :limit");
+        bindings.put("limit", limit);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (val binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec.map(ReactiveOrderRepository::toView).all();
+    }
+
+    private static OrderView toView(Readable row) {
+        return new OrderView(
+                row.get("id", Long.class),
+                row.get("uuid", UUID.class),
+                row.get("user_uuid", UUID.class),
+                Order.Type.valueOf(row.get("type", String.class)),
+                row.get("amount", Integer.class),
+                Order.Symbol.valueOf(row.get("symbol", String.class)),
+                row.get("price", BigDecimal.class),
+                row.get("filled", Integer.class),
+                Order.Status.valueOf(row.get("status", String.class)),
+                row.get("created_at", Instant.class)
+        );
+    }
+
+}
@@ -1,17 +1,58 @@
 package com.griddynamics.internship.stonksjh.repository;
 
+import com.griddynamics.internship.stonksjh.dto.user.UserResponseDTO;
 import com.griddynamics.internship.stonksjh.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUuid(UUID uuid);
 
-    Optional<User> findByEmail(String email);
+    boolean existsByUuid(UUID uuid);
 
-    Optional<User> findByUsername(String username);
+    @Query("select u.tier from User u where u.uuid = :uuid")
+    Optional<User.Tier> findTierByUuid(@Param("uuid") UUID uuid);
+
+    /**
+     * Changes the balance in place, the row lock is only held until the surrounding transaction ends.
+     */
+    @Modifying
+    @Query("update User u set u.balance = u.balance + :amount where u.uuid = :uuid")
+    int addToBalance(@Param("uuid") UUID uuid, @Param("amount") BigDecimal amount);
+
+    /**
+     * Finds the users holding the email or the username in a single query, at most two.
+     */
+    List<User> findByEmailOrUsername(String email, String username);
+
+    /**
+     * Keyset page: seeks past {@code id} on the primary key index instead of skipping rows with an offset.
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    /**
+     * Reads every user through a server-side cursor. Rows are projected straight into DTOs,
+     * so nothing piles up in the persistence context. Has to be consumed inside a transaction.
+     */
+    @Query("""
+            select new com.griddynamics.internship.stonksjh.dto.user.UserResponseDTO(u.uuid, u.email, u.username, u.balance)
+            from User u
+            order by u.id
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<UserResponseDTO> streamAll();
 
 }
@@ -0,0 +1,204 @@
+package com.griddynamics.internship.stonksjh.sequencer;
+
+import com.griddynamics.internship.stonksjh.exception.order.OrderQueueFullException;
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Routes work to one single-threaded shard per {@link Order.Symbol}.
+ * <p>
+ * All tasks of a symbol run one after another on the same thread, in submission order,
+ * which makes that thread the only writer of the symbol's order book. Different symbols
+ * run in parallel. Each shard has a bounded queue, submissions beyond its capacity are
+ * rejected with {@link OrderQueueFullException}.
+ */
+@Component
+@Slf4j
+public class OrderSequencer implements DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final Map<Order.Symbol, Shard> shards = new EnumMap<>(Order.Symbol.class);
+
+    public OrderSequencer(@Value("${stonks.sequencer.queue-capacity:10000}") int queueCapacity) {
+        for (val symbol : Order.Symbol.values()) {
+            shards.put(symbol, new Shard(symbol, queueCapacity));
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Order.Symbol symbol, Supplier<T> task) {
+        return shards.get(symbol).submit(task);
+    }
+
+    /**
+     * Runs the task on the symbol's shard and waits for its result.
+     * Runtime exceptions thrown by the task are rethrown as they are.
+     */
+    public <T> T execute(Order.Symbol symbol, Supplier<T> task) {
+        try {
+            return submit(symbol, task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void run(Order.Symbol symbol, Runnable task) {
+        execute(symbol, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the task on the symbol's shard before any task still waiting in its queue, without ever blocking
+     * the caller, also when the queue is full. Used to take back work whose outcome could not be kept.
+     *
+     * @return completes once the task ran, fails if the shard is shut down before that
+     */
+    public CompletableFuture<Void> runAhead(Order.Symbol symbol, Runnable task) {
+        return shards.get(symbol).runAhead(task);
+    }
+
+    public int queueDepth(Order.Symbol symbol) {
+        return shards.get(symbol).executor.getQueue().size();
+    }
+
+    public List<ShardStats> stats() {
+        return Arrays.stream(Order.Symbol.values())
+                .map(symbol -> shards.get(symbol).stats())
+                .toList();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        shards.values().forEach(shard -> shard.executor.shutdown());
+        for (val shard : shards.values()) {
+            if (!shard.executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Sequencer shard {} did not drain within {}s", shard.symbol, SHUTDOWN_TIMEOUT_SECONDS);
+                shard.executor.shutdownNow();
+            }
+        }
+    }
+
+    private static final class Shard {
+
+        private final Order.Symbol symbol;
+        private final ThreadPoolExecutor executor;
+        private final Queue<Runnable> priorityTasks = new ConcurrentLinkedQueue<>();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder serviceNanos = new LongAdder();
+        private final LongAccumulator maxLatencyNanos = new LongAccumulator(Long::max, 0);
+
+        private Shard(Order.Symbol symbol, int queueCapacity) {
+            this.symbol = symbol;
+            this.executor = new ThreadPoolExecutor(
+                    1, 1,
+                    0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> new Thread(runnable, "sequencer-" + symbol)
+            );
+        }
+
+        private <T> CompletableFuture<T> submit(Supplier<T> task) {
+            val future = new CompletableFuture<T>();
+            val enqueuedAt = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    runPriorityTasks();
+                    val startedAt = System.nanoTime();
+                    T result = null;
+                    Throwable failure = null;
+                    try {
+                        result = task.get();
+                    } catch (Throwable e) {
+                        failure = e;
+                    }
+                    record(enqueuedAt, startedAt, System.nanoTime());
+                    if (failure == null) {
+                        future.complete(result);
+                    } else {
+                        future.completeExceptionally(failure);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                throw new OrderQueueFullException(symbol);
+            }
+            return future;
+        }
+
+        private CompletableFuture<Void> runAhead(Runnable task) {
+            val future = new CompletableFuture<Void>();
+            Runnable priorityTask = () -> {
+                try {
+                    task.run();
+                    future.complete(null);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            };
+            priorityTasks.add(priorityTask);
+            try {
+                executor.execute(this::runPriorityTasks);
+            } catch (RejectedExecutionException e) {
+                // a full queue runs the task before its next task, a shut down shard may never run it
+                if (executor.isShutdown() && priorityTasks.remove(priorityTask)) {
+                    future.completeExceptionally(
+                            new IllegalStateException("Sequencer shard " + symbol + " is shut down"));
+                }
+            }
+            return future;
+        }
+
+        private void runPriorityTasks() {
+            Runnable task;
+            while ((task = priorityTasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        private void record(long enqueuedAt, long startedAt, long finishedAt) {
+            processed.increment();
+            waitNanos.add(startedAt - enqueuedAt);
+            serviceNanos.add(finishedAt - startedAt);
+            maxLatencyNanos.accumulate(finishedAt - enqueuedAt);
+        }
+
+        private ShardStats stats() {
+            val count = processed.sum();
+            return ShardStats.builder()
+                    .symbol(symbol)
+                    .queueDepth(executor.getQueue().size())
+                    .processed(count)
+                    .meanWaitMicros(count == 0 ? 0 : waitNanos.sum() / 1_000.0 / count)
+                    .meanServiceMicros(count == 0 ? 0 : serviceNanos.sum() / 1_000.0 / count)
+                    .maxLatencyMicros(maxLatencyNanos.get() / 1_000.0)
+                    .build();
+        }
+
+    }
+
+}
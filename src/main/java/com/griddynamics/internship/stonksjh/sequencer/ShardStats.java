@@ -0,0 +1,19 @@
+package com.griddynamics.internship.stonksjh.sequencer;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.Builder;
+
+/**
+ * Point-in-time statistics of a single sequencer shard.
+ * Wait time is measured from enqueueing a task until it starts, service time from start to completion.
+ */
+@Builder
+public record ShardStats(
+        Order.Symbol symbol,
+        int queueDepth,
+        long processed,
+        double meanWaitMicros,
+        double meanServiceMicros,
+        double maxLatencyMicros
+) {
+}
@@ -0,0 +1,61 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.candle.Candle;
+import com.griddynamics.internship.stonksjh.candle.CandleInterval;
+import com.griddynamics.internship.stonksjh.candle.Candles;
+import com.griddynamics.internship.stonksjh.dto.candle.CandleDTO;
+import com.griddynamics.internship.stonksjh.exception.InvalidPageSizeException;
+import com.griddynamics.internship.stonksjh.exception.price.InvalidCandleIntervalException;
+import com.griddynamics.internship.stonksjh.matching.Ticks;
+import io.micrometer.core.annotation.Timed;
+import lombok.val;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Serves the bars kept by {@link Candles}, which are fed with the quotes fetched by the {@link StockPriceService}
+ * and with the trades committed by the {@link OrderService}.
+ */
+@Service
+@Timed(value = "stonks.service", histogram = true)
+public class CandleService {
+
+    public static final int MAX_LIMIT = 1_000;
+
+    private final Candles candles;
+
+    public CandleService(Candles candles, StockPriceService stockPriceService) {
+        this.candles = candles;
+        stockPriceService.addListener(candles::add);
+    }
+
+    /**
+     * @return up to {@code limit} of the latest bars, oldest first
+     */
+    public List<CandleDTO> candles(String symbol, String interval, int limit) {
+        val validSymbol = StockPriceService.toSymbol(symbol);
+        val validInterval = CandleInterval.of(interval);
+        if (validInterval == null) {
+            throw new InvalidCandleIntervalException(interval);
+        }
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new InvalidPageSizeException(limit, MAX_LIMIT);
+        }
+        return candles.recent(validSymbol, validInterval, limit).stream()
+                .map(CandleService::toCandleDTO)
+                .toList();
+    }
+
+    private static CandleDTO toCandleDTO(Candle candle) {
+        return CandleDTO.builder()
+                .start(candle.start())
+                .open(Ticks.toPrice(candle.open()))
+                .high(Ticks.toPrice(candle.high()))
+                .low(Ticks.toPrice(candle.low()))
+                .close(Ticks.toPrice(candle.close()))
+                .volume(candle.volume())
+                .build();
+    }
+
+}
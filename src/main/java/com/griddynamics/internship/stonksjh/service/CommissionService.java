@@ -0,0 +1,115 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.griddynamics.internship.stonksjh.commission.CommissionTable;
+import com.griddynamics.internship.stonksjh.dto.commission.CommissionBracketDTO;
+import com.griddynamics.internship.stonksjh.dto.commission.CommissionDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.exception.commission.InvalidCommissionTableException;
+import com.griddynamics.internship.stonksjh.matching.Ticks;
+import com.griddynamics.internship.stonksjh.model.User;
+import com.griddynamics.internship.stonksjh.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Calculates commissions from the {@link CommissionTable} loaded from {@code stonks.commission.tiers}.
+ * <ul>
+ *     <li>the table is precomputed once and swapped as a whole on {@link #reload()}, so readers never see
+ *     a half-loaded table and a broken file keeps the previous one in place</li>
+ *     <li>tiers of users are cached for {@code ttl}, like the users themselves</li>
+ *     <li>orders without a user are charged the {@link User.Tier#STANDARD} rates</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class CommissionService {
+
+    private final Resource tiers;
+    private final UserRepository userRepository;
+    private final StockPriceService stockPriceService;
+    private final Cache<UUID, User.Tier> userTiers;
+    private volatile CommissionTable table;
+
+    public CommissionService(
+            @Value("${stonks.commission.tiers:classpath:commission-tiers.csv}") Resource tiers,
+            UserRepository userRepository,
+            StockPriceService stockPriceService,
+            @Value("${stonks.users.cache.ttl:10m}") Duration ttl
+    ) {
+        this.tiers = tiers;
+        this.userRepository = userRepository;
+        this.stockPriceService = stockPriceService;
+        this.userTiers = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .build();
+        this.table = load();
+    }
+
+    /**
+     * @return commission in ticks for {@code amount} shares at {@code priceTicks}
+     */
+    public long commission(User.Tier tier, long priceTicks, int amount) {
+        return table.commission(tier, priceTicks, amount);
+    }
+
+    /**
+     * Commission of the whole order, limit orders are valued at their limit price
+     * and market orders at the current price.
+     */
+    public CommissionDTO commission(OrderResponseDTO order) {
+        val table = this.table;
+        val tier = order.userUuid() == null ? User.Tier.STANDARD : tier(order.userUuid());
+        val price = order.price() != null ? order.price() : stockPriceService.getPrice(order.symbol());
+        val notional = CommissionTable.notional(Ticks.fromPrice(price), order.amount());
+        return CommissionDTO.builder()
+                .orderUuid(order.uuid())
+                .tier(tier)
+                .notional(Ticks.toPrice(notional))
+                .ratePercent(CommissionTable.ratePercent(table.rate(tier, notional)))
+                .commission(Ticks.toPrice(table.commission(tier, notional)))
+                .build();
+    }
+
+    public List<CommissionBracketDTO> brackets() {
+        return table.brackets();
+    }
+
+    /**
+     * Reads the tiers again and replaces the table once they were loaded completely.
+     *
+     * @throws InvalidCommissionTableException if the tiers could not be loaded, the current table is kept
+     */
+    public List<CommissionBracketDTO> reload() {
+        table = load();
+        userTiers.invalidateAll();
+        log.info("Reloaded {} commission brackets from {}", table.brackets().size(), tiers);
+        return table.brackets();
+    }
+
+    private User.Tier tier(UUID userUuid) {
+        return userTiers.get(userUuid, uuid -> userRepository.findTierByUuid(uuid).orElse(User.Tier.STANDARD));
+    }
+
+    private CommissionTable load() {
+        try (Reader reader = new InputStreamReader(tiers.getInputStream(), StandardCharsets.UTF_8)) {
+            return CommissionTable.parse(reader);
+        } catch (IOException e) {
+            throw new InvalidCommissionTableException(String.format("%s could not be read", tiers), e);
+        }
+    }
+
+}
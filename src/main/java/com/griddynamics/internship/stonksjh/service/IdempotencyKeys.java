@@ -0,0 +1,177 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.exception.order.IdempotencyKeyReusedException;
+import com.griddynamics.internship.stonksjh.exception.order.IdempotencyKeyWithoutOwnerException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidIdempotencyKeyException;
+import com.griddynamics.internship.stonksjh.mapper.OrderMapper;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.repository.OrderRepository;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the orders created with an {@code Idempotency-Key} per user, so that a retried request gets the order
+ * of its first attempt instead of creating another one.
+ * <ul>
+ *     <li>a key is claimed before its order is matched, concurrent duplicates wait for the first submission
+ *     instead of making their own</li>
+ *     <li>a key whose order could not be created is given up, so the request can be retried</li>
+ *     <li>a key is remembered for {@code ttl} after it was claimed and at most {@code maximum-size} keys are kept,
+ *     a retry after that creates a new order unless the keys are {@code persistent}</li>
+ *     <li>persistent keys are written with their orders and a key which is not in memory is looked up among them,
+ *     which costs a read for every new key</li>
+ * </ul>
+ * Keys are remembered by the instance that received them, reusing one for a different order is rejected.
+ * Orders without a {@code userUuid} cannot use a key, their clients could not tell their keys apart.
+ */
+@Component
+public class IdempotencyKeys {
+
+    public static final int MAX_LENGTH = 255;
+
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final boolean persistent;
+    private final Cache<Key, Entry> entries;
+
+    public IdempotencyKeys(
+            OrderRepository orderRepository,
+            OrderMapper orderMapper,
+            @Value("${stonks.orders.idempotency.persistent:false}") boolean persistent,
+            @Value("${stonks.orders.idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${stonks.orders.idempotency.ttl:24h}") Duration ttl
+    ) {
+        this.orderRepository = orderRepository;
+        this.orderMapper = orderMapper;
+        this.persistent = persistent;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean persistent() {
+        return persistent;
+    }
+
+    /**
+     * @param userUuid owner of the order sent with the key
+     * @throws InvalidIdempotencyKeyException      if the key is blank or longer than {@value #MAX_LENGTH} characters
+     * @throws IdempotencyKeyWithoutOwnerException if the order has no owner
+     */
+    public static void validate(String idempotencyKey, UUID userUuid) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_LENGTH) {
+            throw new InvalidIdempotencyKeyException(MAX_LENGTH);
+        }
+        if (userUuid == null) {
+            throw new IdempotencyKeyWithoutOwnerException(idempotencyKey);
+        }
+    }
+
+    /**
+     * Submits a new order unless its owner already used the key.
+     *
+     * @param orderEntity validated new order with an owner
+     * @param submit      submits the new order, only called if the key is claimed for it
+     * @return the submission of the first order created with the key
+     * @throws IdempotencyKeyReusedException if the key was used for a different order
+     */
+    public Submission submit(
+            String idempotencyKey,
+            Order orderEntity,
+            Supplier<CompletableFuture<OrderResponseDTO>> submit
+    ) {
+        val key = new Key(orderEntity.getUserUuid(), idempotencyKey);
+        val fingerprint = Fingerprint.of(orderEntity);
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null && persistent) {
+            entry = recover(key);
+        }
+        if (entry == null) {
+            val claimed = new Entry(fingerprint, new Submission(orderEntity.getUuid(), new CompletableFuture<>()));
+            entry = entries.asMap().putIfAbsent(key, claimed);
+            if (entry == null) {
+                complete(key, claimed, submit);
+                return claimed.submission();
+            }
+        }
+        if (entry.fingerprint() != null && !entry.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+        return entry.submission();
+    }
+
+    /**
+     * The key is given up before the failure is passed on, so a client retrying on it does not get it again.
+     */
+    private void complete(Key key, Entry entry, Supplier<CompletableFuture<OrderResponseDTO>> submit) {
+        val order = entry.submission().order();
+        try {
+            submit.get().whenComplete((created, e) -> {
+                if (e != null) {
+                    entries.asMap().remove(key, entry);
+                    order.completeExceptionally(e);
+                } else {
+                    order.complete(created);
+                }
+            });
+        } catch (RuntimeException e) {
+            entries.asMap().remove(key, entry);
+            order.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * A written order may have been changed since it was created, so it is not compared to the retried request.
+     */
+    private Entry recover(Key key) {
+        val written = orderRepository.findByUserUuidAndIdempotencyKey(key.userUuid(), key.idempotencyKey());
+        if (written.isEmpty()) {
+            return null;
+        }
+        val order = orderMapper.entityToResponseDTO(written.get());
+        val recovered = new Entry(null, new Submission(order.uuid(), CompletableFuture.completedFuture(order)));
+        val previous = entries.asMap().putIfAbsent(key, recovered);
+        return previous != null ? previous : recovered;
+    }
+
+    /**
+     * @param uuid  of the order created with the key
+     * @param order completes with the order once it is written
+     */
+    public record Submission(UUID uuid, CompletableFuture<OrderResponseDTO> order) {
+    }
+
+    private record Key(UUID userUuid, String idempotencyKey) {
+    }
+
+    /**
+     * @param fingerprint of the request the key was claimed by, {@code null} for keys read from written orders
+     */
+    private record Entry(Fingerprint fingerprint, Submission submission) {
+    }
+
+    /**
+     * What a retry has to repeat. Prices are compared by value, {@code 10.5} and {@code 10.50} are the same order.
+     */
+    private record Fingerprint(Order.Type type, Order.Symbol symbol, int amount, BigDecimal price) {
+
+        static Fingerprint of(Order orderEntity) {
+            val price = orderEntity.getPrice() == null ? null : orderEntity.getPrice().stripTrailingZeros();
+            return new Fingerprint(orderEntity.getType(), orderEntity.getSymbol(), orderEntity.getAmount(), price);
+        }
+
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.dto.ledger.AccountDTO;
+import com.griddynamics.internship.stonksjh.dto.ledger.DepositDTO;
+import com.griddynamics.internship.stonksjh.dto.ledger.LedgerMismatchDTO;
+import com.griddynamics.internship.stonksjh.exception.ledger.InvalidDepositException;
+import com.griddynamics.internship.stonksjh.exception.user.UserNotFoundException;
+import com.griddynamics.internship.stonksjh.ledger.Ledger;
+import com.griddynamics.internship.stonksjh.ledger.LedgerWriter;
+import com.griddynamics.internship.stonksjh.matching.Ticks;
+import com.griddynamics.internship.stonksjh.repository.LedgerEntryRepository;
+import com.griddynamics.internship.stonksjh.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Timed(value = "stonks.service", histogram = true)
+public class LedgerService {
+
+    /**
+     * Enough to pay for the largest order the validators accept, {@link OrderService#MAX_PRICE} times
+     * {@link OrderService#MAX_AMOUNT}. The {@code Decimal(18,2)} money columns hold a hundred times that.
+     */
+    public static final BigDecimal MAX_DEPOSIT = OrderService.MAX_PRICE.multiply(
+            BigDecimal.valueOf(OrderService.MAX_AMOUNT)
+    );
+
+    private final Ledger ledger;
+    private final LedgerWriter ledgerWriter;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final UserRepository userRepository;
+
+    public AccountDTO account(UUID userUuid) {
+        validateUser(userUuid);
+        return toAccountDTO(userUuid, ledger.balance(userUuid));
+    }
+
+    public AccountDTO deposit(UUID userUuid, DepositDTO depositDTO) {
+        validateDeposit(depositDTO.amount());
+        validateUser(userUuid);
+        val entries = ledger.deposit(userUuid, Ticks.fromPrice(depositDTO.amount()));
+        try {
+            ledgerWriter.write(entries);
+        } catch (RuntimeException e) {
+            ledger.revert(entries);
+            throw e;
+        }
+        return toAccountDTO(userUuid, ledger.balance(userUuid));
+    }
+
+    /**
+     * Checks the written entries against the balances stored with the users.
+     * Entries of executions still queued for writing are not part of either, so they never show up as a mismatch.
+     *
+     * @return users whose balance does not add up, none if the ledger is consistent
+     */
+    public List<LedgerMismatchDTO> reconcile() {
+        val mismatches = ledgerEntryRepository.findMismatches().stream()
+                .map(mismatch -> LedgerMismatchDTO.builder()
+                        .userUuid(mismatch.getUserUuid())
+                        .balance(mismatch.getBalance())
+                        .ledgerBalance(mismatch.getLedgerBalance())
+                        .reserved(mismatch.getReserved())
+                        .build())
+                .toList();
+        if (!mismatches.isEmpty()) {
+            log.warn("Ledger does not add up for {} users, first one is {}", mismatches.size(), mismatches.get(0));
+        }
+        return mismatches;
+    }
+
+    private void validateUser(UUID userUuid) {
+        if (!userRepository.existsByUuid(userUuid)) {
+            throw new UserNotFoundException(userUuid);
+        }
+    }
+
+    private static void validateDeposit(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0 || amount.compareTo(MAX_DEPOSIT) > 0
+                || amount.stripTrailingZeros().scale() > Ticks.SCALE) {
+            throw new InvalidDepositException(amount, MAX_DEPOSIT);
+        }
+    }
+
+    private static AccountDTO toAccountDTO(UUID userUuid, Ledger.Balance balance) {
+        return AccountDTO.builder()
+                .userUuid(userUuid)
+                .balance(Ticks.toPrice(balance.balance()))
+                .reserved(Ticks.toPrice(balance.reserved()))
+                .available(Ticks.toPrice(balance.available()))
+                .build();
+    }
+
+}
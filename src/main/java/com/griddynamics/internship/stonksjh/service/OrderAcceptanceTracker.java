@@ -0,0 +1,71 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.griddynamics.internship.stonksjh.dto.order.OrderStatusDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Decides when an order is acknowledged and remembers the progress of orders acknowledged before their write.
+ * Statuses are kept for {@code ttl} after their last change, afterwards the order itself is the status.
+ */
+@Component
+public class OrderAcceptanceTracker {
+
+    private final Acknowledgement acknowledgement;
+    private final Cache<UUID, OrderStatusDTO> statuses;
+
+    public OrderAcceptanceTracker(
+            @Value("${stonks.orders.acknowledge:PERSISTED}") Acknowledgement acknowledgement,
+            @Value("${stonks.orders.status.maximum-size:100000}") long maximumSize,
+            @Value("${stonks.orders.status.ttl:10m}") Duration ttl
+    ) {
+        this.acknowledgement = acknowledgement;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Acknowledgement acknowledgement() {
+        return acknowledgement;
+    }
+
+    public void accepted(UUID uuid) {
+        statuses.put(uuid, OrderStatusDTO.accepted(uuid));
+    }
+
+    public void persisted(UUID uuid) {
+        statuses.put(uuid, OrderStatusDTO.persisted(uuid));
+    }
+
+    public void failed(UUID uuid, String message) {
+        statuses.put(uuid, OrderStatusDTO.failed(uuid, message));
+    }
+
+    public void forget(UUID uuid) {
+        statuses.invalidate(uuid);
+    }
+
+    public Optional<OrderStatusDTO> find(UUID uuid) {
+        return Optional.ofNullable(statuses.getIfPresent(uuid));
+    }
+
+    public enum Acknowledgement {
+        /**
+         * Orders are acknowledged with {@code 201 Created} once their write committed.
+         */
+        PERSISTED,
+        /**
+         * Orders are acknowledged with {@code 202 Accepted} once they are validated and queued for matching.
+         * An acknowledged order is lost if the service stops before it is written, clients follow its status.
+         */
+        ACCEPTED
+    }
+
+}
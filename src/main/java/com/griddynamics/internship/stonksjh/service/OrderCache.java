@@ -0,0 +1,186 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.matching.OrderSnapshot;
+import com.griddynamics.internship.stonksjh.matching.Ticks;
+import com.griddynamics.internship.stonksjh.model.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Write-through cache of recent orders by uuid, so that clients polling an order they just placed
+ * do not reach the database.
+ * <ul>
+ *     <li>created and updated orders are put by {@link OrderService}, deleted ones are evicted</li>
+ *     <li>fills against a cached resting order are applied to its entry, never moving it backwards</li>
+ *     <li>entries are kept in a fixed {@value #ENTRY_BYTES} byte layout instead of DTOs, and the cache is bounded
+ *     by the bytes it holds, counting an estimate of the per-entry overhead</li>
+ *     <li>an entry expires {@code ttl} after it was written, which bounds staleness
+ *     when an order is changed by another instance</li>
+ * </ul>
+ */
+@Component
+public class OrderCache {
+
+    public static final String NAME = "orders";
+
+    /*
+     * Layout of an entry:
+     *  0 uuid (16)     16 type (1)        17 symbol (1)      18 status (1)    19 flags (1)
+     * 20 amount (4)    24 filled (4)      28 price ticks (8) 36 user uuid (16)
+     * 52 created at seconds (8)           60 created at nanos (4)
+     */
+    static final int ENTRY_BYTES = 64;
+    /**
+     * Estimated heap taken besides the entry bytes: array header, uuid key and cache node.
+     */
+    static final int ENTRY_OVERHEAD_BYTES = 112;
+
+    private static final int STATUS_OFFSET = 18;
+    private static final int FILLED_OFFSET = 24;
+    private static final byte HAS_PRICE = 1;
+    private static final byte HAS_USER = 1 << 1;
+    private static final byte HAS_CREATED_AT = 1 << 2;
+    private static final Order.Type[] TYPES = Order.Type.values();
+    private static final Order.Symbol[] SYMBOLS = Order.Symbol.values();
+    private static final Order.Status[] STATUSES = Order.Status.values();
+
+    private final Cache<UUID, byte[]> cache;
+
+    @Autowired
+    public OrderCache(
+            @Value("${stonks.orders.cache.max-memory:64MB}") DataSize maxMemory,
+            @Value("${stonks.orders.cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this(maxMemory, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    public OrderCache(DataSize maxMemory, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .<UUID, byte[]>weigher((uuid, entry) -> entry.length + ENTRY_OVERHEAD_BYTES)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param loader called on a miss, an exception it throws is passed on and nothing is cached
+     */
+    public OrderResponseDTO get(UUID uuid, Function<UUID, OrderResponseDTO> loader) {
+        return decode(cache.get(uuid, key -> encode(loader.apply(key))));
+    }
+
+    /**
+     * @return the cached order, without loading it on a miss
+     */
+    public Optional<OrderResponseDTO> find(UUID uuid) {
+        return Optional.ofNullable(cache.getIfPresent(uuid))
+                .map(OrderCache::decode);
+    }
+
+    public void put(OrderResponseDTO order) {
+        cache.put(order.uuid(), encode(order));
+    }
+
+    /**
+     * Applies the execution state of a resting order if it is cached and the state is not older than the cached one.
+     */
+    public void updateExecution(OrderSnapshot snapshot) {
+        cache.asMap().computeIfPresent(snapshot.uuid(), (uuid, entry) -> {
+            if (ByteBuffer.wrap(entry).getInt(FILLED_OFFSET) > snapshot.filled()) {
+                return entry;
+            }
+            val updated = entry.clone();
+            ByteBuffer.wrap(updated)
+                    .putInt(FILLED_OFFSET, snapshot.filled())
+                    .put(STATUS_OFFSET, (byte) snapshot.status().ordinal());
+            return updated;
+        });
+    }
+
+    public void invalidate(UUID uuid) {
+        cache.invalidate(uuid);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    static byte[] encode(OrderResponseDTO order) {
+        byte flags = 0;
+        if (order.price() != null) {
+            flags |= HAS_PRICE;
+        }
+        if (order.userUuid() != null) {
+            flags |= HAS_USER;
+        }
+        if (order.createdAt() != null) {
+            flags |= HAS_CREATED_AT;
+        }
+        val buffer = ByteBuffer.allocate(ENTRY_BYTES)
+                .putLong(order.uuid().getMostSignificantBits())
+                .putLong(order.uuid().getLeastSignificantBits())
+                .put((byte) order.type().ordinal())
+                .put((byte) order.symbol().ordinal())
+                .put((byte) order.status().ordinal())
+                .put(flags)
+                .putInt(order.amount())
+                .putInt(order.filled())
+                .putLong(order.price() == null ? 0 : Ticks.fromPrice(order.price()));
+        if (order.userUuid() != null) {
+            buffer.putLong(order.userUuid().getMostSignificantBits())
+                    .putLong(order.userUuid().getLeastSignificantBits());
+        } else {
+            buffer.putLong(0).putLong(0);
+        }
+        if (order.createdAt() != null) {
+            buffer.putLong(order.createdAt().getEpochSecond())
+                    .putInt(order.createdAt().getNano());
+        }
+        return buffer.array();
+    }
+
+    static OrderResponseDTO decode(byte[] entry) {
+        val buffer = ByteBuffer.wrap(entry);
+        val uuid = new UUID(buffer.getLong(), buffer.getLong());
+        val type = TYPES[buffer.get()];
+        val symbol = SYMBOLS[buffer.get()];
+        val status = STATUSES[buffer.get()];
+        val flags = buffer.get();
+        val amount = buffer.getInt();
+        val filled = buffer.getInt();
+        val price = buffer.getLong();
+        val userUuid = new UUID(buffer.getLong(), buffer.getLong());
+        val createdAtSeconds = buffer.getLong();
+        val createdAtNanos = buffer.getInt();
+        return OrderResponseDTO.builder()
+                .uuid(uuid)
+                .type(type)
+                .amount(amount)
+                .symbol(symbol)
+                .price((flags & HAS_PRICE) != 0 ? Ticks.toPrice(price) : null)
+                .filled(filled)
+                .status(status)
+                .userUuid((flags & HAS_USER) != 0 ? userUuid : null)
+                .createdAt((flags & HAS_CREATED_AT) != 0 ? Instant.ofEpochSecond(createdAtSeconds, createdAtNanos) : null)
+                .build();
+    }
+
+}
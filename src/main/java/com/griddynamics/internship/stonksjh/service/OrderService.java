@@ -1,83 +1,787 @@
 package com.griddynamics.internship.stonksjh.service;
 
+import com.griddynamics.internship.stonksjh.candle.Candles;
+import com.griddynamics.internship.stonksjh.dto.order.OrderBatchItemDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderPageDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderQueryDTO;
 import com.griddynamics.internship.stonksjh.dto.order.OrderRequestDTO;
 import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderStatusDTO;
+import com.griddynamics.internship.stonksjh.exception.InvalidPageSizeException;
+import com.griddynamics.internship.stonksjh.exception.ledger.InsufficientFundsException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidCursorException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidOrderTypeException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidPriceException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidStockAmountException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidSymbolException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidTimeRangeException;
+import com.griddynamics.internship.stonksjh.exception.order.MissingOrderException;
+import com.griddynamics.internship.stonksjh.exception.order.OrderBatchTooLargeException;
 import com.griddynamics.internship.stonksjh.exception.order.OrderNotFoundException;
+import com.griddynamics.internship.stonksjh.exception.order.OrderNotModifiableException;
+import com.griddynamics.internship.stonksjh.exception.order.OrderQueueFullException;
+import com.griddynamics.internship.stonksjh.exception.position.InsufficientSharesException;
+import com.griddynamics.internship.stonksjh.exception.price.QuoteUnavailableException;
+import com.griddynamics.internship.stonksjh.exception.user.UserNotFoundException;
+import com.griddynamics.internship.stonksjh.ledger.Ledger;
 import com.griddynamics.internship.stonksjh.mapper.OrderMapper;
+import com.griddynamics.internship.stonksjh.matching.BookOrder;
+import com.griddynamics.internship.stonksjh.matching.ExecutionWriteQueue;
+import com.griddynamics.internship.stonksjh.matching.MatchResult;
+import com.griddynamics.internship.stonksjh.matching.MatchingEngine;
+import com.griddynamics.internship.stonksjh.matching.Ticks;
+import com.griddynamics.internship.stonksjh.model.LedgerEntry;
 import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.position.Positions;
+import com.griddynamics.internship.stonksjh.repository.OrderFilter;
 import com.griddynamics.internship.stonksjh.repository.OrderRepository;
+import com.griddynamics.internship.stonksjh.repository.OrderView;
+import com.griddynamics.internship.stonksjh.repository.UserRepository;
+import com.griddynamics.internship.stonksjh.sequencer.OrderSequencer;
+import com.griddynamics.internship.stonksjh.uuid.UuidGenerator;
+import com.griddynamics.internship.stonksjh.validation.Validators;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
+@Timed(value = "stonks.service", histogram = true)
 public class OrderService {
 
+    public static final int MAX_BATCH_SIZE = 1_000;
+    public static final int MAX_PAGE_SIZE = 1_000;
+    /**
+     * How far from the cached reference price a market order may trade before its remainder is cancelled.
+     */
+    public static final BigDecimal MARKET_PROTECTION = new BigDecimal("0.05");
+    /**
+     * The largest price the {@code Decimal(10,2)} price column holds.
+     */
+    public static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+    /**
+     * Keeps the value of an order in ticks, {@link #MAX_PRICE} times the amount, well within a long,
+     * so that reservations, settlements and commissions cannot overflow.
+     */
+    public static final int MAX_AMOUNT = 1_000_000;
+
     private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
     private final OrderMapper orderMapper;
+    private final MatchingEngine matchingEngine;
+    private final OrderSequencer orderSequencer;
+    private final ExecutionWriteQueue executionWriteQueue;
+    private final StockPriceService stockPriceService;
+    private final OrderCache orderCache;
+    private final OrderAcceptanceTracker orderAcceptanceTracker;
+    private final Ledger ledger;
+    private final Positions positions;
+    private final Candles candles;
+    private final IdempotencyKeys idempotencyKeys;
+    private final UuidGenerator uuidGenerator;
 
+    /**
+     * Matches the order and waits until it is written.
+     */
     public OrderResponseDTO create(OrderRequestDTO orderRequestDTO) {
-        validateRequestDTO(orderRequestDTO);
-        Order orderEntity = orderMapper.requestDtoToEntity(orderRequestDTO);
-        orderEntity.setUuid(UUID.randomUUID());
-        orderEntity = orderRepository.save(orderEntity);
-        return orderMapper.entityToResponseDTO(orderEntity);
+        return create(orderRequestDTO, null);
+    }
+
+    /**
+     * Matches the order and waits until it is written, at most once per {@code idempotencyKey}.
+     *
+     * @param idempotencyKey {@code null} to create the order unconditionally
+     * @return the order created by the first request with the key
+     */
+    public OrderResponseDTO create(OrderRequestDTO orderRequestDTO, String idempotencyKey) {
+        return await(submit(orderRequestDTO, idempotencyKey));
+    }
+
+    public CompletableFuture<OrderResponseDTO> submit(OrderRequestDTO orderRequestDTO) {
+        return submit(orderRequestDTO, null);
+    }
+
+    /**
+     * Validates the order on the calling thread, anything after that happens without blocking it:
+     * a missing reference price is fetched in the background, matching runs on the symbol's shard
+     * and the write on the execution writer. A retry with the key of an earlier order waits for that order instead.
+     *
+     * @param idempotencyKey {@code null} to submit the order unconditionally
+     * @return completes with the order once it is written
+     */
+    public CompletableFuture<OrderResponseDTO> submit(OrderRequestDTO orderRequestDTO, String idempotencyKey) {
+        val orderEntity = toNewEntity(orderRequestDTO, idempotencyKey);
+        if (idempotencyKey == null) {
+            return submit(orderEntity);
+        }
+        return idempotencyKeys.submit(idempotencyKey, orderEntity, () -> submit(orderEntity)).order();
+    }
+
+    public OrderStatusDTO accept(OrderRequestDTO orderRequestDTO) {
+        return accept(orderRequestDTO, null);
+    }
+
+    /**
+     * Validates the order and queues it for matching without waiting for either matching or the write.
+     * Its progress is available through {@link #status(UUID)}.
+     *
+     * @param idempotencyKey {@code null} to queue the order unconditionally
+     * @return the status of the order queued by the first request with the key
+     */
+    public OrderStatusDTO accept(OrderRequestDTO orderRequestDTO, String idempotencyKey) {
+        val orderEntity = toNewEntity(orderRequestDTO, idempotencyKey);
+        if (idempotencyKey == null) {
+            accept(orderEntity);
+            return OrderStatusDTO.accepted(orderEntity.getUuid());
+        }
+        return status(idempotencyKeys.submit(idempotencyKey, orderEntity, () -> accept(orderEntity)).uuid());
+    }
+
+    public boolean acknowledgesOnAcceptance() {
+        return orderAcceptanceTracker.acknowledgement() == OrderAcceptanceTracker.Acknowledgement.ACCEPTED;
+    }
+
+    public OrderStatusDTO status(UUID uuid) {
+        return orderAcceptanceTracker.find(uuid)
+                .orElseGet(() -> OrderStatusDTO.persisted(read(uuid).uuid()));
+    }
+
+    /**
+     * Validates every order of the batch up front and matches the valid ones on their symbols' shards.
+     * Orders of one symbol keep their relative order and are written in a single transaction.
+     * Invalid orders are reported per item and do not affect the rest of the batch.
+     */
+    public List<OrderBatchItemDTO> createAll(List<OrderRequestDTO> orderRequestDTOs) {
+        if (orderRequestDTOs.size() > MAX_BATCH_SIZE) {
+            throw new OrderBatchTooLargeException(orderRequestDTOs.size(), MAX_BATCH_SIZE);
+        }
+        val items = new OrderBatchItemDTO[orderRequestDTOs.size()];
+        Map<Order.Symbol, List<PendingOrder>> pendingBySymbol = new EnumMap<>(Order.Symbol.class);
+        val createdAt = Instant.now();
+        for (int i = 0; i < orderRequestDTOs.size(); i++) {
+            val orderRequestDTO = orderRequestDTOs.get(i);
+            try {
+                validateRequestDTO(orderRequestDTO);
+            } catch (MissingOrderException | InvalidStockAmountException | InvalidSymbolException
+                     | InvalidOrderTypeException | InvalidPriceException e) {
+                items[i] = OrderBatchItemDTO.rejected(i, e.getMessage());
+                continue;
+            }
+            val orderEntity = orderMapper.requestDtoToEntity(orderRequestDTO);
+            orderEntity.setUuid(uuidGenerator.generate());
+            orderEntity.setCreatedAt(createdAt);
+            BigDecimal protectionPrice;
+            try {
+                protectionPrice = protectionPrice(orderEntity);
+            } catch (QuoteUnavailableException e) {
+                items[i] = OrderBatchItemDTO.rejected(i, e.getMessage());
+                continue;
+            }
+            loadAccounts(orderEntity.getUserUuid());
+            pendingBySymbol.computeIfAbsent(orderEntity.getSymbol(), symbol -> new ArrayList<>())
+                    .add(new PendingOrder(i, orderEntity, protectionPrice));
+        }
+
+        Map<Order.Symbol, CompletableFuture<List<OrderBatchItemDTO>>> futures = new EnumMap<>(Order.Symbol.class);
+        pendingBySymbol.forEach((symbol, pending) -> {
+            try {
+                futures.put(symbol, orderSequencer.submit(symbol, () -> matchAll(pending))
+                        .thenCompose(Function.identity()));
+            } catch (OrderQueueFullException e) {
+                futures.put(symbol, CompletableFuture.failedFuture(e));
+            }
+        });
+        futures.forEach((symbol, future) -> {
+            List<PendingOrder> pending = pendingBySymbol.get(symbol);
+            try {
+                future.join().forEach(item -> items[item.index()] = item);
+            } catch (CompletionException e) {
+                pending.forEach(order ->
+                        items[order.index()] = OrderBatchItemDTO.rejected(order.index(), e.getCause().getMessage()));
+            }
+        });
+        return Arrays.asList(items);
     }
 
     public OrderResponseDTO read(UUID uuid) {
-        Order orderEntity = orderRepository.findByUUID(uuid)
-                .orElseThrow(() -> new OrderNotFoundException(uuid));
-        return orderMapper.entityToResponseDTO(orderEntity);
+        return orderCache.get(uuid, key -> orderMapper.entityToResponseDTO(
+                orderRepository.findByUUID(key)
+                        .orElseThrow(() -> new OrderNotFoundException(key))
+        ));
+    }
+
+    public OrderPageDTO read(OrderQueryDTO orderQueryDTO) {
+        val filter = toFilter(orderQueryDTO);
+        if (filter.userUuid() != null) {
+            validateOwner(filter.userUuid());
+        }
+        val after = orderQueryDTO.after() == null ? 0 : orderQueryDTO.after();
+        val orders = orderRepository.search(filter, after, orderQueryDTO.afterCreatedAt(), orderQueryDTO.size());
+        return toPage(filter, orders, orderQueryDTO.size());
     }
 
+    private OrderPageDTO toPage(OrderFilter filter, List<OrderView> orders, int size) {
+        val last = orders.size() < size ? null : orders.get(orders.size() - 1);
+        return OrderPageDTO.builder()
+                .orders(orders.stream()
+                        .map(orderMapper::viewToResponseDTO)
+                        .toList())
+                .nextCursor(last == null ? null : last.id())
+                .nextCreatedAt(last == null || !filter.hasTimeRange() ? null : last.createdAt())
+                .build();
+    }
+
+    /**
+     * @throws UserNotFoundException if the user does not exist
+     */
+    public void validateOwner(UUID userUuid) {
+        if (!userRepository.existsByUuid(userUuid)) {
+            throw new UserNotFoundException(userUuid);
+        }
+    }
+
+    /**
+     * Replaces a resting order. The order is taken out of the book and matched again,
+     * so it loses its time priority. When the symbol changes, the order is withdrawn on the
+     * old symbol's shard first and matched on the new symbol's shard afterwards.
+     */
     public OrderResponseDTO update(UUID uuid, OrderRequestDTO orderRequestDTO) {
-        Order orderEntity = orderRepository.findByUUID(uuid)
+        Order orderEntity = findOrder(uuid)
                 .orElseThrow(() -> new OrderNotFoundException(uuid));
         validateRequestDTO(orderRequestDTO);
-        orderEntity.setAmount(orderRequestDTO.amount());
-        orderEntity.setSymbol(Order.Symbol.valueOf(orderRequestDTO.symbol()));
-        orderEntity.setType(Order.Type.valueOf(orderRequestDTO.type()));
-        orderEntity = orderRepository.save(orderEntity);
-        return orderMapper.entityToResponseDTO(orderEntity);
+        if (orderEntity.getStatus().isTerminal()) {
+            throw new OrderNotModifiableException(uuid, "it is already " + orderEntity.getStatus());
+        }
+        loadAccounts(orderEntity.getUserUuid());
+        val oldSymbol = orderEntity.getSymbol();
+        val newSymbol = validateSymbol(orderRequestDTO.symbol());
+        val newType = validateOrderType(orderRequestDTO.type());
+        val protectionPrice = protectionPrice(newSymbol, newType, orderRequestDTO.price());
+        Withdrawal withdrawn = oldSymbol == newSymbol
+                ? null
+                : orderSequencer.execute(oldSymbol, () ->
+                        withdraw(orderEntity, orderRequestDTO, newSymbol, newType, protectionPrice));
+        return await(orderSequencer.execute(newSymbol, () -> {
+            Withdrawal withdrawal = oldSymbol == newSymbol
+                    ? withdraw(orderEntity, orderRequestDTO, newSymbol, newType, protectionPrice)
+                    : withdrawn;
+            orderEntity.setAmount(orderRequestDTO.amount());
+            orderEntity.setSymbol(newSymbol);
+            orderEntity.setType(newType);
+            orderEntity.setPrice(orderRequestDTO.price());
+            val updated = match(orderEntity, protectionPrice, withdrawal.ledgerEntries(), withdrawal.positionChanges());
+            if (withdrawal.order() == null) {
+                return updated;
+            }
+            return revertOnFailure(updated, oldSymbol, () -> matchingEngine.book(oldSymbol).rest(withdrawal.order()));
+        }));
     }
 
+    /**
+     * Takes the order out of its book and releases what it reserved on its shard. The release and the deletion
+     * are committed together by the execution writer, if that fails the order is put back into its book.
+     *
+     * @throws OrderNotFoundException if the order was deleted or moved to another symbol meanwhile
+     */
     public void delete(UUID uuid) {
-        Order orderEntity = orderRepository.findByUUID(uuid)
+        Order orderEntity = findOrder(uuid)
                 .orElseThrow(() -> new OrderNotFoundException(uuid));
-        orderRepository.delete(orderEntity);
+        loadAccounts(orderEntity.getUserUuid());
+        val symbol = orderEntity.getSymbol();
+        await(orderSequencer.execute(symbol, () -> {
+            // only an order still in its book has money or shares reserved
+            val cancelled = matchingEngine.cancel(orderEntity);
+            cancelled.ifPresent(snapshot -> orderEntity.setFilled(snapshot.filled()));
+            int remaining = cancelled.isPresent() ? orderEntity.getAmount() - orderEntity.getFilled() : 0;
+            List<LedgerEntry> released = ledger.release(orderEntity.getUserUuid(), uuid, reservation(
+                    orderEntity.getUserUuid(), orderEntity.getType(), orderEntity.getPrice(), null, remaining
+            ));
+            List<Positions.Change> releasedShares = positions.release(orderEntity.getUserUuid(), symbol,
+                    shareReservation(orderEntity.getUserUuid(), orderEntity.getType(), remaining)
+            );
+            val withdrawn = cancelled.map(snapshot -> BookOrder.of(orderEntity));
+            val deleted = executionWriteQueue.enqueueDeletion(orderEntity, released);
+            return revertOnFailure(deleted, symbol, () -> {
+                ledger.revert(released);
+                positions.revert(releasedShares);
+                withdrawn.ifPresent(order -> matchingEngine.book(symbol).rest(order));
+            }).thenRun(() -> orderCache.invalidate(uuid));
+        }));
+    }
+
+    /**
+     * Orders are partitioned by symbol and a uuid alone is looked up in every partition. The symbol of a cached
+     * order narrows the lookup down to its partition, an order that moved to another symbol meanwhile is still found.
+     */
+    private Optional<Order> findOrder(UUID uuid) {
+        val cached = orderCache.find(uuid);
+        if (cached.isPresent()) {
+            val found = orderRepository.findByUUIDAndSymbol(uuid, cached.get().symbol());
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return orderRepository.findByUUID(uuid);
+    }
+
+    private CompletableFuture<OrderResponseDTO> submit(Order orderEntity) {
+        return protectionPriceAsync(orderEntity)
+                .thenCompose(protectionPrice ->
+                        orderSequencer.submit(orderEntity.getSymbol(), () -> match(orderEntity, protectionPrice)))
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * @return completes with the order once it is written, its progress is tracked either way
+     */
+    private CompletableFuture<OrderResponseDTO> accept(Order orderEntity) {
+        val protectionPrice = protectionPrice(orderEntity);
+        val uuid = orderEntity.getUuid();
+        orderAcceptanceTracker.accepted(uuid);
+        try {
+            return orderSequencer.submit(orderEntity.getSymbol(), () -> match(orderEntity, protectionPrice))
+                    .thenCompose(Function.identity())
+                    .whenComplete((order, e) -> {
+                        if (e == null) {
+                            orderAcceptanceTracker.persisted(uuid);
+                        } else {
+                            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                            orderAcceptanceTracker.failed(uuid, cause.getMessage());
+                        }
+                    });
+        } catch (OrderQueueFullException e) {
+            orderAcceptanceTracker.forget(uuid);
+            throw e;
+        }
+    }
+
+    /**
+     * Reserves the money a buy order may spend, or the shares a sell order offers, before matching it.
+     * Has to run on the order's shard.
+     *
+     * @return completes once the execution is written
+     * @throws InsufficientFundsException  if the owner of a buy order cannot pay for it
+     * @throws InsufficientSharesException if the owner of a sell order does not hold the shares
+     */
+    private CompletableFuture<OrderResponseDTO> match(Order orderEntity, BigDecimal protectionPrice) {
+        return match(orderEntity, protectionPrice, reserve(orderEntity, protectionPrice), reserveShares(orderEntity));
+    }
+
+    /**
+     * Has to run on the order's shard.
+     *
+     * @param ledgerEntries   money already moved for the order, written together with it
+     * @param positionChanges shares already reserved or released for the order
+     * @return completes once the execution is written
+     */
+    private CompletableFuture<OrderResponseDTO> match(
+            Order orderEntity,
+            BigDecimal protectionPrice,
+            List<LedgerEntry> ledgerEntries,
+            List<Positions.Change> positionChanges
+    ) {
+        val matchResult = matchingEngine.submit(orderEntity, protectionPrice);
+        List<LedgerEntry> entries = new ArrayList<>(ledgerEntries);
+        entries.addAll(settle(orderEntity, protectionPrice, matchResult));
+        List<Positions.Change> changes = new ArrayList<>(positionChanges);
+        changes.addAll(settleShares(orderEntity, matchResult));
+        val persisted = executionWriteQueue.enqueue(orderEntity, matchResult, entries);
+        return revertOnFailure(persisted, orderEntity.getSymbol(), List.of(matchResult), entries, changes)
+                .thenApply(saved -> publish(orderMapper.entityToResponseDTO(saved), matchResult));
+    }
+
+    /**
+     * Has to run on the orders' shard. Orders whose owner cannot pay for them or does not hold
+     * the shares they offer are rejected and the rest is matched in their order.
+     *
+     * @return completes with an item per pending order once the executions are written
+     */
+    private CompletableFuture<List<OrderBatchItemDTO>> matchAll(List<PendingOrder> pending) {
+        List<OrderBatchItemDTO> items = new ArrayList<>(pending.size());
+        List<PendingOrder> matched = new ArrayList<>(pending.size());
+        List<MatchResult> matchResults = new ArrayList<>(pending.size());
+        List<LedgerEntry> ledgerEntries = new ArrayList<>();
+        List<Positions.Change> positionChanges = new ArrayList<>();
+        for (val order : pending) {
+            try {
+                // an order reserves either money or shares, so neither has to be taken back if the other fails
+                ledgerEntries.addAll(reserve(order.order(), order.protectionPrice()));
+                positionChanges.addAll(reserveShares(order.order()));
+            } catch (InsufficientFundsException | InsufficientSharesException e) {
+                items.add(OrderBatchItemDTO.rejected(order.index(), e.getMessage()));
+                continue;
+            }
+            val matchResult = matchingEngine.submit(order.order(), order.protectionPrice());
+            ledgerEntries.addAll(settle(order.order(), order.protectionPrice(), matchResult));
+            positionChanges.addAll(settleShares(order.order(), matchResult));
+            matched.add(order);
+            matchResults.add(matchResult);
+        }
+        if (matched.isEmpty()) {
+            return CompletableFuture.completedFuture(items);
+        }
+        List<Order> orderEntities = matched.stream()
+                .map(PendingOrder::order)
+                .toList();
+        val persisted = executionWriteQueue.enqueue(orderEntities, matchResults, ledgerEntries);
+        val symbol = orderEntities.get(0).getSymbol();
+        return revertOnFailure(persisted, symbol, matchResults, ledgerEntries, positionChanges)
+                .thenApply(saved -> {
+                    for (int i = 0; i < saved.size(); i++) {
+                        val created = publish(orderMapper.entityToResponseDTO(saved.get(i)), matchResults.get(i));
+                        items.add(OrderBatchItemDTO.created(matched.get(i).index(), created));
+                    }
+                    return items;
+                });
+    }
+
+    private List<LedgerEntry> reserve(Order orderEntity, BigDecimal protectionPrice) {
+        return ledger.reserve(orderEntity.getUserUuid(), orderEntity.getUuid(), reservation(
+                orderEntity.getUserUuid(), orderEntity.getType(), orderEntity.getPrice(), protectionPrice,
+                orderEntity.getAmount() - orderEntity.getFilled()
+        ));
+    }
+
+    private List<Positions.Change> reserveShares(Order orderEntity) {
+        return positions.reserve(orderEntity.getUserUuid(), orderEntity.getSymbol(), shareReservation(
+                orderEntity.getUserUuid(), orderEntity.getType(), orderEntity.getAmount() - orderEntity.getFilled()
+        ));
+    }
+
+    /**
+     * Pays for the trades and releases what a buy order reserved for a remainder that was cancelled.
+     */
+    private List<LedgerEntry> settle(Order orderEntity, BigDecimal protectionPrice, MatchResult matchResult) {
+        val settled = ledger.settle(matchResult);
+        if (matchResult.order().status() != Order.Status.CANCELLED) {
+            return settled;
+        }
+        List<LedgerEntry> entries = new ArrayList<>(settled);
+        entries.addAll(ledger.release(orderEntity.getUserUuid(), orderEntity.getUuid(), reservation(
+                orderEntity.getUserUuid(), orderEntity.getType(), orderEntity.getPrice(), protectionPrice,
+                orderEntity.getAmount() - matchResult.order().filled()
+        )));
+        return entries;
+    }
+
+    /**
+     * Hands over the traded shares and releases what a sell order reserved for a remainder that was cancelled.
+     */
+    private List<Positions.Change> settleShares(Order orderEntity, MatchResult matchResult) {
+        val settled = positions.settle(matchResult);
+        if (matchResult.order().status() != Order.Status.CANCELLED) {
+            return settled;
+        }
+        List<Positions.Change> changes = new ArrayList<>(settled);
+        changes.addAll(positions.release(orderEntity.getUserUuid(), orderEntity.getSymbol(), shareReservation(
+                orderEntity.getUserUuid(), orderEntity.getType(), orderEntity.getAmount() - matchResult.order().filled()
+        )));
+        return changes;
+    }
+
+    /**
+     * Money the ledger holds back for the remaining amount of an order: buy orders of users reserve
+     * their limit price, or their protection price if they are market orders.
+     *
+     * @return reservation in ticks, 0 for sell orders and orders placed without an account
+     */
+    private static long reservation(
+            UUID userUuid,
+            Order.Type type,
+            BigDecimal limitPrice,
+            BigDecimal protectionPrice,
+            int remaining
+    ) {
+        val price = limitPrice != null ? limitPrice : protectionPrice;
+        if (userUuid == null || type != Order.Type.BUY || price == null || remaining <= 0) {
+            return 0;
+        }
+        return Math.multiplyExact(Ticks.fromPrice(price), (long) remaining);
+    }
+
+    /**
+     * Shares a sell order of a user offers for its remaining amount.
+     *
+     * @return 0 for buy orders and orders placed without an account
+     */
+    private static long shareReservation(UUID userUuid, Order.Type type, int remaining) {
+        if (userUuid == null || type != Order.Type.SELL || remaining <= 0) {
+            return 0;
+        }
+        return remaining;
+    }
+
+    /**
+     * Takes back everything matching changed for executions that could not be written: the trades in the book
+     * and the money and shares moved for them.
+     */
+    private <T> CompletableFuture<T> revertOnFailure(
+            CompletableFuture<T> persisted,
+            Order.Symbol symbol,
+            List<MatchResult> matchResults,
+            List<LedgerEntry> ledgerEntries,
+            List<Positions.Change> positionChanges
+    ) {
+        return revertOnFailure(persisted, symbol, () -> {
+            matchingEngine.revert(symbol, matchResults);
+            ledger.revert(ledgerEntries);
+            positions.revert(positionChanges);
+        });
+    }
+
+    /**
+     * Runs the revert on the symbol's shard when the write fails, ahead of the orders queued there, and passes
+     * the failure on once it is done. The writer thread completing the write never waits for the shard.
+     * Orders that traded against the reverted orders in the meantime keep their trades.
+     */
+    private <T> CompletableFuture<T> revertOnFailure(
+            CompletableFuture<T> persisted,
+            Order.Symbol symbol,
+            Runnable revert
+    ) {
+        return persisted.exceptionallyCompose(e -> orderSequencer.runAhead(symbol, revert)
+                .handle((reverted, revertFailure) -> {
+                    if (revertFailure != null) {
+                        log.error("Could not revert executions of {} that failed to be written", symbol, revertFailure);
+                    }
+                    return null;
+                })
+                .thenCompose(reverted -> CompletableFuture.<T>failedFuture(e)));
+    }
+
+    /**
+     * Runs after the execution was committed. Executions are committed in the order they happened,
+     * so the cache and the candles see them in that order as well.
+     */
+    private OrderResponseDTO publish(OrderResponseDTO order, MatchResult matchResult) {
+        orderCache.put(order);
+        matchResult.counterparts().forEach(orderCache::updateExecution);
+        candles.add(matchResult);
+        return order;
+    }
+
+    /**
+     * Waits for a write, rethrowing runtime exceptions as they are.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the order out of its book, using the book's execution state as it may be ahead of the database.
+     * What the order reserved is swapped for what the changed order needs before, so an order
+     * whose owner cannot pay for the change stays in its book. Has to run on the order's current shard.
+     *
+     * @return money and shares moved for the change
+     * @throws InsufficientFundsException  if the owner cannot pay for the changed order
+     * @throws InsufficientSharesException if the owner does not hold the shares the changed order offers
+     */
+    private Withdrawal withdraw(
+            Order orderEntity,
+            OrderRequestDTO orderRequestDTO,
+            Order.Symbol newSymbol,
+            Order.Type newType,
+            BigDecimal protectionPrice
+    ) {
+        matchingEngine.find(orderEntity)
+                .ifPresent(snapshot -> orderEntity.setFilled(snapshot.filled()));
+        if (orderRequestDTO.amount() <= orderEntity.getFilled()) {
+            throw new OrderNotModifiableException(
+                    orderEntity.getUuid(), "amount has to exceed the filled amount of " + orderEntity.getFilled()
+            );
+        }
+        val release = reservation(orderEntity.getUserUuid(), orderEntity.getType(), orderEntity.getPrice(), null,
+                orderEntity.getAmount() - orderEntity.getFilled());
+        val reserve = reservation(orderEntity.getUserUuid(), newType, orderRequestDTO.price(), protectionPrice,
+                orderRequestDTO.amount() - orderEntity.getFilled());
+        val positionChanges = positions.replace(
+                orderEntity.getUserUuid(),
+                orderEntity.getSymbol(),
+                shareReservation(orderEntity.getUserUuid(), orderEntity.getType(),
+                        orderEntity.getAmount() - orderEntity.getFilled()),
+                newSymbol,
+                shareReservation(orderEntity.getUserUuid(), newType, orderRequestDTO.amount() - orderEntity.getFilled())
+        );
+        List<LedgerEntry> ledgerEntries;
+        try {
+            ledgerEntries = ledger.replace(orderEntity.getUserUuid(), orderEntity.getUuid(), release, reserve);
+        } catch (InsufficientFundsException e) {
+            positions.revert(positionChanges);
+            throw e;
+        }
+        // put back into the book if the changed order cannot be written
+        val withdrawn = matchingEngine.cancel(orderEntity)
+                .map(snapshot -> BookOrder.of(orderEntity))
+                .orElse(null);
+        return new Withdrawal(ledgerEntries, positionChanges, withdrawn);
     }
 
-    private void validateRequestDTO(OrderRequestDTO orderRequestDTO) {
+    private Order toNewEntity(OrderRequestDTO orderRequestDTO, String idempotencyKey) {
+        validateRequestDTO(orderRequestDTO);
+        if (idempotencyKey != null) {
+            IdempotencyKeys.validate(idempotencyKey, orderRequestDTO.userUuid());
+        }
+        val orderEntity = orderMapper.requestDtoToEntity(orderRequestDTO);
+        orderEntity.setUuid(uuidGenerator.generate());
+        orderEntity.setCreatedAt(Instant.now());
+        if (idempotencyKey != null && idempotencyKeys.persistent()) {
+            orderEntity.setIdempotencyKey(idempotencyKey);
+        }
+        loadAccounts(orderEntity.getUserUuid());
+        return orderEntity;
+    }
+
+    /**
+     * Whether an order of the user reads their accounts from the database before it is queued,
+     * which only happens for the first order of a user after a restart.
+     */
+    public boolean loadsAccounts(UUID userUuid) {
+        return userUuid != null && !(ledger.isLoaded(userUuid) && positions.isLoaded(userUuid));
+    }
+
+    /**
+     * Loads the accounts on the calling thread, so that the shard never waits for the database.
+     * Orders without an owner do not touch the accounts.
+     */
+    private void loadAccounts(UUID userUuid) {
+        if (userUuid != null) {
+            ledger.preload(userUuid);
+            positions.preload(userUuid);
+        }
+    }
+
+    private BigDecimal protectionPrice(Order orderEntity) {
+        return protectionPrice(orderEntity.getSymbol(), orderEntity.getType(), orderEntity.getPrice());
+    }
+
+    /**
+     * Worst price a market order may trade at, derived from the cached price so that matching
+     * never waits for the quote provider. Limit orders carry their own price and need none.
+     */
+    private BigDecimal protectionPrice(Order.Symbol symbol, Order.Type type, BigDecimal limitPrice) {
+        if (limitPrice != null) {
+            return null;
+        }
+        return protectionPrice(type, stockPriceService.getPrice(symbol));
+    }
+
+    private CompletableFuture<BigDecimal> protectionPriceAsync(Order orderEntity) {
+        if (orderEntity.getPrice() != null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return stockPriceService.getPriceAsync(orderEntity.getSymbol())
+                .thenApply(referencePrice -> protectionPrice(orderEntity.getType(), referencePrice));
+    }
+
+    private static BigDecimal protectionPrice(Order.Type type, BigDecimal referencePrice) {
+        val factor = type == Order.Type.BUY
+                ? BigDecimal.ONE.add(MARKET_PROTECTION)
+                : BigDecimal.ONE.subtract(MARKET_PROTECTION);
+        return referencePrice.multiply(factor).setScale(Ticks.SCALE, RoundingMode.HALF_UP);
+    }
+
+    private record PendingOrder(int index, Order order, BigDecimal protectionPrice) {
+    }
+
+    /**
+     * @param order the order as it rested in its book, {@code null} if it was not resting
+     */
+    private record Withdrawal(
+            List<LedgerEntry> ledgerEntries,
+            List<Positions.Change> positionChanges,
+            BookOrder order
+    ) {
+    }
+
+    /**
+     * Also used by {@link ReactiveOrderService}, so that both APIs accept the same queries.
+     */
+    static OrderFilter toFilter(OrderQueryDTO orderQueryDTO) {
+        if (orderQueryDTO.size() <= 0 || orderQueryDTO.size() > MAX_PAGE_SIZE) {
+            throw new InvalidPageSizeException(orderQueryDTO.size(), MAX_PAGE_SIZE);
+        }
+        val filter = OrderFilter.builder()
+                .userUuid(orderQueryDTO.userUuid())
+                .from(orderQueryDTO.from())
+                .to(orderQueryDTO.to());
+        if (orderQueryDTO.symbol() != null) {
+            filter.symbol(validateSymbol(orderQueryDTO.symbol()));
+        }
+        if (orderQueryDTO.type() != null) {
+            filter.type(validateOrderType(orderQueryDTO.type()));
+        }
+        if (orderQueryDTO.from() != null && orderQueryDTO.to() != null
+                && !orderQueryDTO.from().isBefore(orderQueryDTO.to())) {
+            throw new InvalidTimeRangeException(orderQueryDTO.from(), orderQueryDTO.to());
+        }
+        val result = filter.build();
+        if (result.hasTimeRange() && orderQueryDTO.after() != null && orderQueryDTO.afterCreatedAt() == null) {
+            throw new InvalidCursorException(orderQueryDTO.after());
+        }
+        return result;
+    }
+
+    private static void validateRequestDTO(OrderRequestDTO orderRequestDTO) {
+        if (orderRequestDTO == null) {
+            throw new MissingOrderException();
+        }
         validateAmount(orderRequestDTO.amount());
         validateSymbol(orderRequestDTO.symbol());
         validateOrderType(orderRequestDTO.type());
+        validatePrice(orderRequestDTO.price());
     }
 
-    private void validateSymbol(String symbol) {
-        try {
-            Order.Symbol.valueOf(symbol);
-        } catch (IllegalArgumentException ignored) {
+    private static Order.Symbol validateSymbol(String symbol) {
+        val result = Validators.symbol(symbol);
+        if (result == null) {
             throw new InvalidSymbolException(symbol);
         }
+        return result;
     }
 
-    private void validateAmount(int amount) {
-        if (amount <= 0) {
-            throw new InvalidStockAmountException(amount);
+    private static void validateAmount(int amount) {
+        if (amount <= 0 || amount > MAX_AMOUNT) {
+            throw new InvalidStockAmountException(amount, MAX_AMOUNT);
         }
     }
 
-    private void validateOrderType(String type) {
-        try {
-            Order.Type.valueOf(type);
-        } catch (IllegalArgumentException ignored) {
+    private static Order.Type validateOrderType(String type) {
+        val result = Validators.orderType(type);
+        if (result == null) {
             throw new InvalidOrderTypeException(type);
         }
+        return result;
+    }
+
+    private static void validatePrice(BigDecimal price) {
+        if (price != null && (price.signum() <= 0 || price.compareTo(MAX_PRICE) > 0
+                || price.stripTrailingZeros().scale() > Ticks.SCALE)) {
+            throw new InvalidPriceException(price);
+        }
     }
 
 }
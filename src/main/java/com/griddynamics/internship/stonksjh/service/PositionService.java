@@ -0,0 +1,82 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.dto.position.PositionDTO;
+import com.griddynamics.internship.stonksjh.dto.position.ShareDepositDTO;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidSymbolException;
+import com.griddynamics.internship.stonksjh.exception.position.InvalidShareDepositException;
+import com.griddynamics.internship.stonksjh.exception.user.UserNotFoundException;
+import com.griddynamics.internship.stonksjh.position.PositionWriter;
+import com.griddynamics.internship.stonksjh.position.Positions;
+import com.griddynamics.internship.stonksjh.repository.UserRepository;
+import com.griddynamics.internship.stonksjh.validation.Validators;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Timed(value = "stonks.service", histogram = true)
+public class PositionService {
+
+    private final Positions positions;
+    private final PositionWriter positionWriter;
+    private final UserRepository userRepository;
+
+    /**
+     * Served from memory, only the first read of a user after a restart touches the database.
+     */
+    public List<PositionDTO> positions(UUID userUuid) {
+        validateUser(userUuid);
+        return toPositionDTOs(userUuid);
+    }
+
+    /**
+     * Credits shares the user brought in from outside the exchange, they can be sold right away.
+     *
+     * @return the positions of the user after the deposit
+     */
+    public List<PositionDTO> deposit(UUID userUuid, ShareDepositDTO shareDepositDTO) {
+        validateShareDeposit(shareDepositDTO.amount());
+        val symbol = Validators.symbol(shareDepositDTO.symbol());
+        if (symbol == null) {
+            throw new InvalidSymbolException(shareDepositDTO.symbol());
+        }
+        validateUser(userUuid);
+        val changes = positions.deposit(userUuid, symbol, shareDepositDTO.amount());
+        try {
+            positionWriter.deposit(userUuid, symbol, shareDepositDTO.amount());
+        } catch (RuntimeException e) {
+            positions.revert(changes);
+            throw e;
+        }
+        return toPositionDTOs(userUuid);
+    }
+
+    private void validateUser(UUID userUuid) {
+        if (!userRepository.existsByUuid(userUuid)) {
+            throw new UserNotFoundException(userUuid);
+        }
+    }
+
+    private static void validateShareDeposit(long amount) {
+        if (amount <= 0 || amount > OrderService.MAX_AMOUNT) {
+            throw new InvalidShareDepositException(amount, OrderService.MAX_AMOUNT);
+        }
+    }
+
+    private List<PositionDTO> toPositionDTOs(UUID userUuid) {
+        return positions.holdings(userUuid).stream()
+                .map(holding -> PositionDTO.builder()
+                        .symbol(holding.symbol().name())
+                        .amount(holding.amount())
+                        .reserved(holding.reserved())
+                        .available(holding.available())
+                        .build())
+                .toList();
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.price.Quote;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pushes price updates to Server-Sent Events subscribers.
+ * <p>
+ * Connections are held by the servlet container's async support, not by threads. A single scheduled tick
+ * reads the cached quotes of subscribed symbols and hands changed quotes to the subscribers, and a small
+ * shared pool writes them out. A quote missing from the cache is fetched in the background and published
+ * once it arrives, so the tick never waits for the provider.
+ * <p>
+ * Every subscriber holds at most one undelivered quote per symbol: a newer quote replaces the pending one,
+ * so a slow consumer skips intermediate ticks instead of building a backlog. A write to a consumer that
+ * stops reading blocks its sender thread, so a subscriber whose write has not returned within
+ * {@code slowConsumerTimeout} is disconnected by the tick and gets no further quotes. Its sender thread
+ * is released once the container gives up on the write.
+ */
+@Service
+@Slf4j
+public class QuoteStreamService implements DisposableBean {
+
+    private static final String EVENT_NAME = "quote";
+
+    private final StockPriceService stockPriceService;
+    private final Duration timeout;
+    private final long slowConsumerTimeoutNanos;
+    private final ExecutorService senderExecutor;
+    private final Map<Order.Symbol, Set<Subscriber>> subscribers = new EnumMap<>(Order.Symbol.class);
+    // written by the tick and by the background fetches of quotes missing from the cache
+    private final AtomicReferenceArray<Quote> lastPublished = new AtomicReferenceArray<>(Order.Symbol.values().length);
+
+    @Autowired
+    public QuoteStreamService(
+            StockPriceService stockPriceService,
+            @Value("${stonks.prices.stream.timeout:30m}") Duration timeout,
+            @Value("${stonks.prices.stream.slow-consumer-timeout:5s}") Duration slowConsumerTimeout,
+            @Value("${stonks.prices.stream.sender-threads:4}") int senderThreads
+    ) {
+        this.stockPriceService = stockPriceService;
+        this.timeout = timeout;
+        this.slowConsumerTimeoutNanos = slowConsumerTimeout.toNanos();
+        this.senderExecutor = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "quote-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (val symbol : Order.Symbol.values()) {
+            subscribers.put(symbol, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * @param symbols symbols to subscribe to, all symbols if {@code null} or empty
+     */
+    public SseEmitter subscribe(Collection<String> symbols) {
+        return subscribe(StockPriceService.toSymbols(symbols), new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Set<Order.Symbol> symbols, SseEmitter emitter) {
+        val subscriber = new Subscriber(emitter, symbols);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        for (val symbol : symbols) {
+            subscribers.get(symbol).add(subscriber);
+        }
+        // the current price is sent right away instead of waiting for the next change,
+        // a failed fetch is left to the next successful tick
+        for (val symbol : symbols) {
+            stockPriceService.getQuoteAsync(symbol).thenAccept(subscriber::offer);
+        }
+        return emitter;
+    }
+
+    public int subscriberCount(Order.Symbol symbol) {
+        return subscribers.get(symbol).size();
+    }
+
+    @Scheduled(fixedRateString = "${stonks.prices.stream.interval-millis:500}")
+    public void tick() {
+        val now = System.nanoTime();
+        for (val symbol : Order.Symbol.values()) {
+            if (subscribers.get(symbol).isEmpty()) {
+                continue;
+            }
+            for (val subscriber : subscribers.get(symbol)) {
+                if (subscriber.isStuck(now)) {
+                    subscriber.disconnect();
+                }
+            }
+            // a cached quote is published right away, a missing one by the fetching thread
+            stockPriceService.getQuoteAsync(symbol).thenAccept(this::publishIfChanged);
+        }
+    }
+
+    private void publishIfChanged(Quote quote) {
+        if (!quote.equals(lastPublished.getAndSet(quote.symbol().ordinal(), quote))) {
+            publish(quote);
+        }
+    }
+
+    void publish(Quote quote) {
+        for (val subscriber : subscribers.get(quote.symbol())) {
+            subscriber.offer(quote);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        senderExecutor.shutdownNow();
+        subscribers.values().forEach(symbolSubscribers ->
+                symbolSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        for (val symbol : subscriber.symbols) {
+            subscribers.get(symbol).remove(subscriber);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Order.Symbol> symbols;
+        private final AtomicReferenceArray<Quote> pending = new AtomicReferenceArray<>(Order.Symbol.values().length);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean disconnected = new AtomicBoolean();
+        // System.nanoTime() when the current write started, 0 while no write is running
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter, Set<Order.Symbol> symbols) {
+            this.emitter = emitter;
+            this.symbols = symbols;
+        }
+
+        /**
+         * Replaces the undelivered quote of the symbol, if any, and makes sure a drain is scheduled.
+         */
+        private void offer(Quote quote) {
+            if (disconnected.get()) {
+                return;
+            }
+            pending.set(quote.symbol().ordinal(), quote);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senderExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    for (int i = 0; i < pending.length() && !disconnected.get(); i++) {
+                        Quote quote = pending.getAndSet(i, null);
+                        if (quote != null) {
+                            sendingSince = System.nanoTime();
+                            try {
+                                emitter.send(SseEmitter.event()
+                                        .name(EVENT_NAME)
+                                        .data(quote, MediaType.APPLICATION_JSON));
+                            } finally {
+                                sendingSince = 0;
+                            }
+                        }
+                    }
+                    draining.set(false);
+                    // an offer may have slipped in after its slot was read but before the flag was cleared
+                } while (hasPending() && !disconnected.get() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping quote subscriber", e);
+                disconnected.set(true);
+                unsubscribe(this);
+                emitter.completeWithError(e);
+                return;
+            }
+            if (disconnected.get()) {
+                // disconnected by the tick while the write was blocked
+                emitter.complete();
+            }
+        }
+
+        private boolean isStuck(long now) {
+            val since = sendingSince;
+            return since != 0 && now - since > slowConsumerTimeoutNanos;
+        }
+
+        private void disconnect() {
+            if (disconnected.compareAndSet(false, true)) {
+                log.debug("Disconnecting quote subscriber whose write has not returned for {} ms",
+                        Duration.ofNanos(slowConsumerTimeoutNanos).toMillis());
+                unsubscribe(this);
+                // the emitter is locked by a running write, the sender completes it once the write returns
+                if (draining.compareAndSet(false, true)) {
+                    emitter.complete();
+                }
+            }
+        }
+
+        private boolean hasPending() {
+            for (int i = 0; i < pending.length(); i++) {
+                if (pending.get(i) != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+}
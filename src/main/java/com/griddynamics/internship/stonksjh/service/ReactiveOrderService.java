@@ -0,0 +1,108 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.dto.order.OrderBatchItemDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderPageDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderQueryDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderRequestDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderStatusDTO;
+import com.griddynamics.internship.stonksjh.exception.order.OrderNotFoundException;
+import com.griddynamics.internship.stonksjh.mapper.OrderMapper;
+import com.griddynamics.internship.stonksjh.repository.ReactiveOrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link OrderService} for the event loop: nothing here blocks the subscribing thread.
+ * <ul>
+ *     <li>new orders take the same path as in the servlet API, they are validated and mapped by {@link OrderService}
+ *     and complete once the execution writer committed them, the first order of a user after a restart loads their
+ *     accounts over JPA and is therefore submitted from the bounded elastic scheduler</li>
+ *     <li>reads are served from the {@link OrderCache} or over R2DBC</li>
+ *     <li>updates, deletes and batches need the JPA transaction of {@link OrderService}
+ *     and run on the bounded elastic scheduler</li>
+ * </ul>
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveOrderService {
+
+    private final OrderService orderService;
+    private final ReactiveOrderRepository reactiveOrderRepository;
+    private final OrderMapper orderMapper;
+    private final OrderCache orderCache;
+    private final OrderAcceptanceTracker orderAcceptanceTracker;
+
+    public Mono<OrderResponseDTO> create(OrderRequestDTO orderRequestDTO) {
+        val loadsAccounts = orderRequestDTO != null && orderService.loadsAccounts(orderRequestDTO.userUuid());
+        return Mono.defer(() -> Mono.fromFuture(orderService.submit(orderRequestDTO)))
+                .subscribeOn(loadsAccounts ? Schedulers.boundedElastic() : Schedulers.immediate());
+    }
+
+    public Mono<List<OrderBatchItemDTO>> createAll(List<OrderRequestDTO> orderRequestDTOs) {
+        return Mono.fromCallable(() -> orderService.createAll(orderRequestDTOs))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Orders read over R2DBC are not put into the cache: an execution written meanwhile could be overwritten
+     * by the older row, the servlet API fills the cache on reads.
+     */
+    public Mono<OrderResponseDTO> read(UUID uuid) {
+        return Mono.defer(() -> orderCache.find(uuid)
+                .map(Mono::just)
+                .orElseGet(() -> reactiveOrderRepository.findByUuid(uuid)
+                        .map(orderMapper::viewToResponseDTO)
+                        .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(uuid)))));
+    }
+
+    public Mono<OrderPageDTO> read(OrderQueryDTO orderQueryDTO) {
+        return Mono.defer(() -> {
+            val filter = OrderService.toFilter(orderQueryDTO);
+            val after = orderQueryDTO.after() == null ? 0 : orderQueryDTO.after();
+            // the owner is looked up over JPA
+            Mono<Void> ownerExists = filter.userUuid() == null
+                    ? Mono.empty()
+                    : Mono.<Void>fromRunnable(() -> orderService.validateOwner(filter.userUuid()))
+                    .subscribeOn(Schedulers.boundedElastic());
+            return ownerExists.then(reactiveOrderRepository
+                    .search(filter, after, orderQueryDTO.afterCreatedAt(), orderQueryDTO.size())
+                    .collectList()
+                    .map(orders -> {
+                        val last = orders.size() < orderQueryDTO.size() ? null : orders.get(orders.size() - 1);
+                        return OrderPageDTO.builder()
+                                .orders(orders.stream()
+                                        .map(orderMapper::viewToResponseDTO)
+                                        .toList())
+                                .nextCursor(last == null ? null : last.id())
+                                .nextCreatedAt(last == null || !filter.hasTimeRange() ? null : last.createdAt())
+                                .build();
+                    }));
+        });
+    }
+
+    public Mono<OrderStatusDTO> status(UUID uuid) {
+        return Mono.defer(() -> orderAcceptanceTracker.find(uuid)
+                .map(Mono::just)
+                .orElseGet(() -> read(uuid).map(order -> OrderStatusDTO.persisted(order.uuid()))));
+    }
+
+    public Mono<OrderResponseDTO> update(UUID uuid, OrderRequestDTO orderRequestDTO) {
+        return Mono.fromCallable(() -> orderService.update(uuid, orderRequestDTO))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Void> delete(UUID uuid) {
+        return Mono.<Void>fromRunnable(() -> orderService.delete(uuid))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+}
@@ -0,0 +1,253 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.exception.order.InvalidSymbolException;
+import com.griddynamics.internship.stonksjh.exception.price.QuoteUnavailableException;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.price.Quote;
+import com.griddynamics.internship.stonksjh.price.QuoteProvider;
+import com.griddynamics.internship.stonksjh.validation.Validators;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Serves stock prices from an in-process cache with one entry per {@link Order.Symbol}.
+ * <ul>
+ *     <li>a quote is served for {@code ttl} after it was fetched, an expired quote is never served</li>
+ *     <li>a quote older than {@code refreshAhead} is still served, but triggers a background refresh,
+ *     so frequently read symbols practically never expire</li>
+ *     <li>concurrent misses of one symbol share a single upstream call</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class StockPriceService implements DisposableBean {
+
+    private final QuoteProvider quoteProvider;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration refreshAhead;
+    private final ExecutorService refreshExecutor;
+    private final Map<Order.Symbol, CachedQuote> cache = new EnumMap<>(Order.Symbol.class);
+    private final List<Consumer<Quote>> listeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public StockPriceService(
+            QuoteProvider quoteProvider,
+            @Value("${stonks.prices.ttl:5s}") Duration ttl,
+            @Value("${stonks.prices.refresh-ahead:4s}") Duration refreshAhead
+    ) {
+        this(quoteProvider, Clock.systemUTC(), ttl, refreshAhead);
+    }
+
+    public StockPriceService(QuoteProvider quoteProvider, Clock clock, Duration ttl, Duration refreshAhead) {
+        if (refreshAhead.compareTo(ttl) > 0) {
+            throw new IllegalArgumentException("Refresh-ahead threshold cannot exceed the TTL");
+        }
+        this.quoteProvider = quoteProvider;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.refreshAhead = refreshAhead;
+        this.refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "price-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (val symbol : Order.Symbol.values()) {
+            cache.put(symbol, new CachedQuote(symbol));
+        }
+    }
+
+    /**
+     * Registers a listener that is called with every quote fetched from the provider, on the fetching thread.
+     */
+    public void addListener(Consumer<Quote> listener) {
+        listeners.add(listener);
+    }
+
+    public Quote getQuote(Order.Symbol symbol) {
+        val cachedQuote = cache.get(symbol);
+        val quote = servable(cachedQuote);
+        if (quote != null) {
+            return quote;
+        }
+        try {
+            // the caller that wins the race fetches on its own thread, the others wait for its result
+            return cachedQuote.refresh(Runnable::run).join();
+        } catch (CompletionException e) {
+            throw unavailable(symbol, e.getCause());
+        }
+    }
+
+    /**
+     * Same as {@link #getQuote(Order.Symbol)}, but a miss is fetched in the background
+     * instead of on the calling thread.
+     */
+    public CompletableFuture<Quote> getQuoteAsync(Order.Symbol symbol) {
+        val cachedQuote = cache.get(symbol);
+        val quote = servable(cachedQuote);
+        if (quote != null) {
+            return CompletableFuture.completedFuture(quote);
+        }
+        return cachedQuote.refresh(refreshExecutor)
+                .exceptionallyCompose(e -> CompletableFuture.failedFuture(
+                        unavailable(symbol, e instanceof CompletionException ? e.getCause() : e)
+                ));
+    }
+
+    public BigDecimal getPrice(Order.Symbol symbol) {
+        return getQuote(symbol).price();
+    }
+
+    public CompletableFuture<BigDecimal> getPriceAsync(Order.Symbol symbol) {
+        return getQuoteAsync(symbol).thenApply(Quote::price);
+    }
+
+    public Quote getQuote(String symbol) {
+        return getQuote(toSymbol(symbol));
+    }
+
+    static Order.Symbol toSymbol(String symbol) {
+        val result = Validators.symbol(symbol);
+        if (result == null) {
+            throw new InvalidSymbolException(symbol);
+        }
+        return result;
+    }
+
+    /**
+     * @return all symbols if none are given
+     */
+    static Set<Order.Symbol> toSymbols(Collection<String> symbols) {
+        if (symbols == null || symbols.isEmpty()) {
+            return EnumSet.allOf(Order.Symbol.class);
+        }
+        Set<Order.Symbol> result = EnumSet.noneOf(Order.Symbol.class);
+        for (val symbol : symbols) {
+            result.add(toSymbol(symbol));
+        }
+        return result;
+    }
+
+    /**
+     * @return the cached quote if it has not expired yet, starting a background refresh if it is due
+     */
+    private Quote servable(CachedQuote cachedQuote) {
+        val entry = cachedQuote.entry;
+        if (entry == null) {
+            return null;
+        }
+        val age = Duration.between(entry.fetchedAt(), clock.instant());
+        if (age.compareTo(ttl) >= 0) {
+            return null;
+        }
+        if (age.compareTo(refreshAhead) >= 0) {
+            cachedQuote.refresh(refreshExecutor);
+        }
+        return entry.quote();
+    }
+
+    private static QuoteUnavailableException unavailable(Order.Symbol symbol, Throwable cause) {
+        if (cause instanceof QuoteUnavailableException quoteUnavailable) {
+            return quoteUnavailable;
+        }
+        return new QuoteUnavailableException(symbol, cause);
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private record Entry(Quote quote, Instant fetchedAt) {
+    }
+
+    private final class CachedQuote {
+
+        private final Order.Symbol symbol;
+        private final AtomicReference<CompletableFuture<Quote>> inFlight = new AtomicReference<>();
+        private volatile Entry entry;
+
+        private CachedQuote(Order.Symbol symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * Starts a fetch on the given executor unless one is already running, returns the running fetch otherwise.
+         */
+        private CompletableFuture<Quote> refresh(Executor executor) {
+            while (true) {
+                val running = inFlight.get();
+                if (running != null) {
+                    return running;
+                }
+                val started = new CompletableFuture<Quote>();
+                if (inFlight.compareAndSet(null, started)) {
+                    try {
+                        executor.execute(() -> load(started));
+                    } catch (RejectedExecutionException e) {
+                        inFlight.set(null);
+                        started.completeExceptionally(e);
+                    }
+                    return started;
+                }
+            }
+        }
+
+        private void load(CompletableFuture<Quote> future) {
+            // a caller that saw a miss may get here just after another fetch completed
+            Entry current = entry;
+            if (current != null && Duration.between(current.fetchedAt(), clock.instant()).compareTo(refreshAhead) < 0) {
+                inFlight.set(null);
+                future.complete(current.quote());
+                return;
+            }
+            try {
+                Quote quote = quoteProvider.fetch(symbol);
+                entry = new Entry(quote, clock.instant());
+                inFlight.set(null);
+                future.complete(quote);
+                notifyListeners(quote);
+            } catch (RuntimeException e) {
+                log.warn("Failed to fetch quote of {}", symbol, e);
+                inFlight.set(null);
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void notifyListeners(Quote quote) {
+            for (val listener : listeners) {
+                try {
+                    listener.accept(quote);
+                } catch (RuntimeException e) {
+                    log.warn("Quote listener failed for {}", symbol, e);
+                }
+            }
+        }
+
+    }
+
+}
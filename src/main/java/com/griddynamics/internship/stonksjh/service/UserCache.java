@@ -0,0 +1,67 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.griddynamics.internship.stonksjh.dto.user.UserResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of users by uuid.
+ * <ul>
+ *     <li>holds at most {@code maximumSize} users, the least valuable ones are evicted first</li>
+ *     <li>an entry expires {@code ttl} after it was loaded, which bounds staleness
+ *     when a user is changed by another instance</li>
+ *     <li>concurrent misses of one uuid share a single load</li>
+ * </ul>
+ * Entries are immutable DTOs, so a cached user cannot be changed by its readers.
+ */
+@Component
+public class UserCache {
+
+    public static final String NAME = "users";
+
+    private final Cache<UUID, UserResponseDTO> cache;
+
+    @Autowired
+    public UserCache(
+            @Value("${stonks.users.cache.maximum-size:10000}") long maximumSize,
+            @Value("${stonks.users.cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this(maximumSize, ttl);
+        // hits, misses, evictions and size as cache.gets / cache.evictions / cache.size{cache="users"}
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    public UserCache(long maximumSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param loader called on a miss, an exception it throws is passed on and nothing is cached
+     */
+    public UserResponseDTO get(UUID uuid, Function<UUID, UserResponseDTO> loader) {
+        return cache.get(uuid, loader);
+    }
+
+    public void invalidate(UUID uuid) {
+        cache.invalidate(uuid);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+}
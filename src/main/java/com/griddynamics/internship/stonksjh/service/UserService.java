@@ -1,58 +1,92 @@
 package com.griddynamics.internship.stonksjh.service;
 
+import com.griddynamics.internship.stonksjh.dto.user.UserPageDTO;
 import com.griddynamics.internship.stonksjh.dto.user.UserRequestDTO;
 import com.griddynamics.internship.stonksjh.dto.user.UserResponseDTO;
+import com.griddynamics.internship.stonksjh.exception.InvalidPageSizeException;
 import com.griddynamics.internship.stonksjh.exception.user.EmailFormatException;
 import com.griddynamics.internship.stonksjh.exception.user.EmailTakenException;
 import com.griddynamics.internship.stonksjh.exception.user.UserNotFoundException;
 import com.griddynamics.internship.stonksjh.exception.user.UsernameFormatException;
 import com.griddynamics.internship.stonksjh.exception.user.UsernameTakenException;
 import com.griddynamics.internship.stonksjh.mapper.UserMapper;
+import com.griddynamics.internship.stonksjh.model.User;
 import com.griddynamics.internship.stonksjh.repository.UserRepository;
+import com.griddynamics.internship.stonksjh.uuid.UuidGenerator;
+import com.griddynamics.internship.stonksjh.validation.Validators;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "stonks.service", histogram = true)
 public class UserService {
 
+    public static final int MAX_PAGE_SIZE = 1_000;
+
     private final UserRepository repository;
     private final UserMapper mapper;
+    private final UserCache cache;
+    private final UuidGenerator uuidGenerator;
 
     public UUID create(UserRequestDTO userRequestDTO) {
         validateEmail(userRequestDTO.email());
         validateUsername(userRequestDTO.username());
 
-        if (repository.findByEmail(userRequestDTO.email()).isPresent()) {
-            throw new EmailTakenException(userRequestDTO.email());
-        }
-        if (repository.findByUsername(userRequestDTO.username()).isPresent()) {
-            throw new UsernameTakenException(userRequestDTO.username());
-        }
-
         val entity = mapper.requestDtoToEntity(userRequestDTO);
-        val uuid = UUID.randomUUID();
+        val uuid = uuidGenerator.generate();
         entity.setUuid(uuid);
-        repository.save(entity);
+        // no lookup up front: the unique constraints decide, which also holds for concurrent sign-ups
+        saveAndTranslateConflicts(entity);
 
         return uuid;
     }
 
     public UserResponseDTO read(UUID uuid) {
-        val user = repository.findByUuid(uuid)
-                .orElseThrow(() -> new UserNotFoundException(uuid));
+        return cache.get(uuid, key -> mapper.entityToResponseDTO(
+                repository.findByUuid(key)
+                        .orElseThrow(() -> new UserNotFoundException(key))
+        ));
+    }
 
-        return mapper.entityToResponseDTO(user);
+    /**
+     * @param after id of the last user of the previous page, {@code null} for the first page
+     */
+    public UserPageDTO read(Long after, int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new InvalidPageSizeException(size, MAX_PAGE_SIZE);
+        }
+        val users = repository.findByIdGreaterThanOrderByIdAsc(
+                after == null ? 0 : after, PageRequest.ofSize(size)
+        );
+        val nextCursor = users.size() < size ? null : users.get(users.size() - 1).getId();
+        return UserPageDTO.builder()
+                .users(users.stream()
+                        .map(mapper::entityToResponseDTO)
+                        .toList())
+                .nextCursor(nextCursor)
+                .build();
     }
 
-    public List<UserResponseDTO> read() {
-        return repository.findAll().stream()
-                .map(mapper::entityToResponseDTO)
-                .toList();
+    /**
+     * Hands every user to the consumer while rows come off the database cursor,
+     * so memory use does not depend on the number of users.
+     */
+    @Transactional(readOnly = true)
+    public void readAll(Consumer<UserResponseDTO> consumer) {
+        try (Stream<UserResponseDTO> users = repository.streamAll()) {
+            users.forEach(consumer);
+        }
     }
 
     public UserResponseDTO update(UUID uuid, UserRequestDTO userRequestDTO) {
@@ -62,19 +96,23 @@ public class UserService {
         validateEmail(userRequestDTO.email());
         validateUsername(userRequestDTO.username());
 
-        val emailOpt = repository.findByEmail(userRequestDTO.email());
-        val usernameOpt = repository.findByUsername(userRequestDTO.username());
-        if (emailOpt.isPresent() && !emailOpt.get().getUuid().equals(uuid)) {
+        val others = repository.findByEmailOrUsername(userRequestDTO.email(), userRequestDTO.username()).stream()
+                .filter(user -> !user.getUuid().equals(uuid))
+                .toList();
+        if (others.stream().anyMatch(user -> user.getEmail().equals(userRequestDTO.email()))) {
             throw new EmailTakenException(userRequestDTO.email());
         }
-        if (usernameOpt.isPresent() && !usernameOpt.get().getUuid().equals(uuid)) {
+        if (others.stream().anyMatch(user -> user.getUsername().equals(userRequestDTO.username()))) {
             throw new UsernameTakenException(userRequestDTO.username());
         }
 
         updated.setEmail(userRequestDTO.email());
         updated.setUsername(userRequestDTO.username());
 
-        return mapper.entityToResponseDTO(repository.save(updated));
+        val result = mapper.entityToResponseDTO(saveAndTranslateConflicts(updated));
+        cache.invalidate(uuid);
+
+        return result;
     }
 
     public void delete(UUID uuid) {
@@ -82,20 +120,45 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException(uuid));
 
         repository.delete(deleted);
+        cache.invalidate(uuid);
     }
 
-    private void validateEmail(String email) {
-        val regex = "\\w+@\\w+\\.\\w+";
+    /**
+     * Flushes right away so that a unique constraint violation surfaces here
+     * and can be reported as the matching conflict.
+     */
+    private User saveAndTranslateConflicts(User user) {
+        try {
+            return repository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            val constraintName = constraintName(e);
+            if (User.EMAIL_CONSTRAINT.equalsIgnoreCase(constraintName)) {
+                throw new EmailTakenException(user.getEmail());
+            }
+            if (User.USERNAME_CONSTRAINT.equalsIgnoreCase(constraintName)) {
+                throw new UsernameTakenException(user.getUsername());
+            }
+            throw e;
+        }
+    }
 
-        if (!email.matches(regex)) {
+    private static String constraintName(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
+
+    private void validateEmail(String email) {
+        if (!Validators.isEmail(email)) {
             throw new EmailFormatException(email);
         }
     }
 
     private void validateUsername(String username) {
-        val regex = "\\w+";
-
-        if (!username.matches(regex)) {
+        if (!Validators.isUsername(username)) {
             throw new UsernameFormatException(username);
         }
     }
@@ -0,0 +1,35 @@
+package com.griddynamics.internship.stonksjh.validation;
+
+import lombok.val;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves enum constants by name from a table built once, unlike {@link Enum#valueOf(Class, String)}
+ * it reports unknown names by returning {@code null} instead of throwing.
+ */
+public final class EnumLookup<E extends Enum<E>> {
+
+    private final Map<String, E> constants;
+
+    private EnumLookup(Class<E> enumClass) {
+        val values = enumClass.getEnumConstants();
+        constants = new HashMap<>(values.length * 2);
+        for (val value : values) {
+            constants.put(value.name(), value);
+        }
+    }
+
+    public static <E extends Enum<E>> EnumLookup<E> of(Class<E> enumClass) {
+        return new EnumLookup<>(enumClass);
+    }
+
+    /**
+     * @return the constant with exactly the given name, {@code null} if there is none
+     */
+    public E find(String name) {
+        return name == null ? null : constants.get(name);
+    }
+
+}
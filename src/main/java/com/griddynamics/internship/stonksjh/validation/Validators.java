@@ -0,0 +1,43 @@
+package com.griddynamics.internship.stonksjh.validation;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+
+import java.util.regex.Pattern;
+
+/**
+ * Input checks shared by the services. Patterns and lookup tables are built once,
+ * and none of the checks throws for invalid input, so callers decide how to report it.
+ */
+public final class Validators {
+
+    private static final Pattern EMAIL = Pattern.compile("\\w+@\\w+\\.\\w+");
+    private static final Pattern USERNAME = Pattern.compile("\\w+");
+    private static final EnumLookup<Order.Symbol> SYMBOLS = EnumLookup.of(Order.Symbol.class);
+    private static final EnumLookup<Order.Type> TYPES = EnumLookup.of(Order.Type.class);
+
+    private Validators() {
+    }
+
+    public static boolean isEmail(String email) {
+        return email != null && EMAIL.matcher(email).matches();
+    }
+
+    public static boolean isUsername(String username) {
+        return username != null && USERNAME.matcher(username).matches();
+    }
+
+    /**
+     * @return the symbol with the given name, {@code null} if it is not supported
+     */
+    public static Order.Symbol symbol(String symbol) {
+        return SYMBOLS.find(symbol);
+    }
+
+    /**
+     * @return the order type with the given name, {@code null} if there is none
+     */
+    public static Order.Type orderType(String type) {
+        return TYPES.find(type);
+    }
+
+}
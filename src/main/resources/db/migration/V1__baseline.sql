@@ -0,0 +1,72 @@
+-- Schema as Hibernate created it with ddl-auto=update. Databases created that way are baselined at this
+-- version by spring.flyway.baseline-on-migrate and only get the migrations after it.
+
+create sequence usr_seq increment by 50;
+create sequence order_seq increment by 50;
+create sequence fill_seq increment by 50;
+create sequence ledger_entry_seq increment by 50;
+
+create table usr (
+    id bigint not null,
+    uuid uuid not null,
+    email varchar(255) not null,
+    username varchar(255) not null,
+    balance Decimal(10,2) default '0.00' not null,
+    tier varchar(16) default 'STANDARD' not null,
+    primary key (id),
+    constraint uk_usr_uuid unique (uuid),
+    constraint uk_usr_email unique (email),
+    constraint uk_usr_username unique (username)
+);
+
+create table "order" (
+    id bigint not null,
+    uuid uuid not null,
+    user_uuid uuid,
+    type varchar(255) not null,
+    amount integer not null,
+    symbol varchar(255) not null,
+    price Decimal(10,2),
+    filled integer not null,
+    status varchar(255) not null,
+    created_at timestamptz not null,
+    idempotency_key varchar(255),
+    primary key (id),
+    constraint uk_order_uuid unique (uuid)
+);
+
+create index idx_order_symbol_id on "order" (symbol, id);
+create index idx_order_user_uuid_id on "order" (user_uuid, id);
+create index idx_order_created_at_id on "order" (created_at, id);
+create index idx_order_status_created_at on "order" (status, created_at);
+create index idx_order_user_uuid_idempotency_key on "order" (user_uuid, idempotency_key);
+
+create table fill (
+    id bigint not null,
+    buy_order_uuid uuid not null,
+    sell_order_uuid uuid not null,
+    symbol varchar(255) not null,
+    price Decimal(10,2) not null,
+    amount integer not null,
+    executed_at timestamptz not null,
+    primary key (id)
+);
+
+create table ledger_entry (
+    id bigint not null,
+    user_uuid uuid not null,
+    order_uuid uuid,
+    type varchar(255) not null,
+    amount Decimal(14,2) not null,
+    created_at timestamptz not null,
+    primary key (id)
+);
+
+create index idx_ledger_entry_user_uuid on ledger_entry (user_uuid);
+
+create table user_position (
+    user_uuid uuid not null,
+    symbol varchar(255) not null,
+    amount bigint not null,
+    primary key (user_uuid, symbol)
+);
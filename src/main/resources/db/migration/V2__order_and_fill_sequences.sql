@@ -0,0 +1,42 @@
+-- Brings "order" and fill to the columns the entities expect and moves their ids from identity columns to the
+-- pooled sequences batched inserts need. Databases from before the order book have neither table, those from
+-- before the order search and idempotency keys lack user_uuid and idempotency_key, and those from before the
+-- batch endpoint still have the identity columns. On databases that are already up to date it only skips some ids.
+--
+-- Hibernate takes every nextval as the upper end of a block of 50 ids, so each sequence is set 50 above
+-- both the highest id written and its own last value.
+
+create table if not exists "order" (
+    id bigint not null,
+    uuid uuid not null,
+    type varchar(255) not null,
+    amount integer not null,
+    symbol varchar(255) not null,
+    price Decimal(10,2),
+    filled integer not null,
+    status varchar(255) not null,
+    created_at timestamptz not null,
+    primary key (id)
+);
+
+alter table "order" add column if not exists user_uuid uuid;
+alter table "order" add column if not exists idempotency_key varchar(255);
+
+create table if not exists fill (
+    id bigint not null,
+    buy_order_uuid uuid not null,
+    sell_order_uuid uuid not null,
+    symbol varchar(255) not null,
+    price Decimal(10,2) not null,
+    amount integer not null,
+    executed_at timestamptz not null,
+    primary key (id)
+);
+
+create sequence if not exists order_seq increment by 50;
+alter table "order" alter column id drop identity if exists;
+select setval('order_seq', greatest((select coalesce(max(id), 0) from "order"), (select last_value from order_seq)) + 50);
+
+create sequence if not exists fill_seq increment by 50;
+alter table fill alter column id drop identity if exists;
+select setval('fill_seq', greatest((select coalesce(max(id), 0) from fill), (select last_value from fill_seq)) + 50);
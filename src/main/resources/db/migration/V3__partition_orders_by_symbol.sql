@@ -0,0 +1,68 @@
+-- Splits "order" into one partition per symbol, so searches, the order books and the maintenance of each
+-- symbol only touch the rows of that symbol, and replaces the indexes Hibernate created with the ones the
+-- order queries need.
+--
+-- Every unique key of a partitioned table has to contain the partition key, so the primary key becomes
+-- (id, symbol) and uuids are unique per symbol. Ids come from order_seq and uuids are generated, neither
+-- repeats across symbols. Lookups by uuid alone probe the uuid index of every partition, one per symbol.
+-- Orders whose symbol changes are moved between the partitions by the update.
+
+alter table "order" rename to order_unpartitioned;
+
+create table "order" (
+    id bigint not null,
+    uuid uuid not null,
+    user_uuid uuid,
+    type varchar(255) not null,
+    amount integer not null,
+    symbol varchar(255) not null,
+    price Decimal(10,2),
+    filled integer not null,
+    status varchar(255) not null,
+    created_at timestamptz not null,
+    idempotency_key varchar(255)
+) partition by list (symbol);
+
+create table order_aapl partition of "order" for values in ('AAPL');
+create table order_meta partition of "order" for values in ('META');
+create table order_nvda partition of "order" for values in ('NVDA');
+create table order_amzn partition of "order" for values in ('AMZN');
+create table order_goog partition of "order" for values in ('GOOG');
+create table order_tsla partition of "order" for values in ('TSLA');
+create table order_msft partition of "order" for values in ('MSFT');
+create table order_jnj partition of "order" for values in ('JNJ');
+-- symbols listed after this migration until they get their own partition
+create table order_default partition of "order" default;
+
+insert into "order" (id, uuid, user_uuid, type, amount, symbol, price, filled, status, created_at, idempotency_key)
+select id, uuid, user_uuid, type, amount, symbol, price, filled, status, created_at, idempotency_key
+from order_unpartitioned;
+
+drop table order_unpartitioned;
+
+-- Keys and indexes are built after the copy, each partition gets its own copy of them.
+-- The primary key also serves the keyset pages ordered by id, within a symbol or merged across all of them.
+alter table "order" add constraint order_pkey primary key (id, symbol);
+alter table "order" add constraint uk_order_uuid unique (uuid, symbol);
+
+-- Order history of a user, covering the columns of a search result so pages are read from the index alone
+create index idx_order_user_uuid_id on "order" (user_uuid, id)
+    include (uuid, type, amount, symbol, price, filled, status, created_at);
+
+-- Searches by time
+create index idx_order_created_at_id on "order" (created_at, id);
+
+-- Resting orders loaded into the order books on startup
+create index idx_order_resting_created_at_id on "order" (created_at, id)
+    where status in ('OPEN', 'PARTIALLY_FILLED');
+
+-- Shares reserved by the open sell orders of a user
+create index idx_order_reserved_shares on "order" (user_uuid)
+    include (symbol, amount, filled)
+    where type = 'SELL' and status in ('OPEN', 'PARTIALLY_FILLED');
+
+-- Idempotency keys, only written if they are persistent
+create index idx_order_user_uuid_idempotency_key on "order" (user_uuid, idempotency_key)
+    where idempotency_key is not null;
+
+analyze "order";
@@ -0,0 +1,9 @@
+-- Moves the ids of usr from the identity column to the pooled sequence of User.
+-- Databases created before the pooled sequence still have the identity column, on the others it only skips some ids.
+--
+-- Hibernate takes every nextval as the upper end of a block of 50 ids, so the sequence is set 50 above
+-- both the highest id written and its own last value.
+
+create sequence if not exists usr_seq increment by 50;
+alter table usr alter column id drop identity if exists;
+select setval('usr_seq', greatest((select coalesce(max(id), 0) from usr), (select last_value from usr_seq)) + 50);
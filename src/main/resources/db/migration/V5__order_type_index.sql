@@ -0,0 +1,5 @@
+-- Searches by type alone, in the id order of their keyset pages. Searches with a time range are paged in
+-- (created_at, id) order on idx_order_created_at_id.
+create index idx_order_type_id on "order" (type, id);
+
+analyze "order";
@@ -0,0 +1,25 @@
+-- Gives the unique constraints of usr the names UserService translates violations by. Databases created by
+-- ddl-auto=update have them under names Hibernate derived from a hash of the table and column, those created by
+-- V1 already have the new names. A constraint that is missing altogether is added.
+
+do $$
+declare
+    column_name text;
+    constraint_name text;
+begin
+    foreach column_name in array array['uuid', 'email', 'username'] loop
+        select c.conname into constraint_name
+        from pg_constraint c
+        join pg_attribute a on a.attrelid = c.conrelid and a.attnum = c.conkey[1]
+        where c.conrelid = 'usr'::regclass
+          and c.contype = 'u'
+          and cardinality(c.conkey) = 1
+          and a.attname = column_name;
+        if constraint_name is null then
+            execute format('alter table usr add constraint %I unique (%I)', 'uk_usr_' || column_name, column_name);
+        elsif constraint_name <> 'uk_usr_' || column_name then
+            execute format('alter table usr rename constraint %I to %I', constraint_name, 'uk_usr_' || column_name);
+        end if;
+    end loop;
+end
+$$;
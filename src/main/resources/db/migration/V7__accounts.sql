@@ -0,0 +1,30 @@
+-- Adds what the accounts need to databases baselined from ddl-auto=update before the ledger, the positions and
+-- the commission tiers: such a usr has no tier column, and ledger_entry and user_position do not exist yet.
+-- Databases created by V1 or by a later ddl-auto=update already have all of it and are left as they are.
+--
+-- Hibernate takes every nextval as the upper end of a block of 50 ids, so the sequence is set 50 above
+-- both the highest id written and its own last value.
+
+alter table usr add column if not exists tier varchar(16) default 'STANDARD' not null;
+
+create table if not exists ledger_entry (
+    id bigint not null,
+    user_uuid uuid not null,
+    order_uuid uuid,
+    type varchar(255) not null,
+    amount Decimal(14,2) not null,
+    created_at timestamptz not null,
+    primary key (id)
+);
+
+create index if not exists idx_ledger_entry_user_uuid on ledger_entry (user_uuid);
+
+create sequence if not exists ledger_entry_seq increment by 50;
+select setval('ledger_entry_seq', greatest((select coalesce(max(id), 0) from ledger_entry), (select last_value from ledger_entry_seq)) + 50);
+
+create table if not exists user_position (
+    user_uuid uuid not null,
+    symbol varchar(255) not null,
+    amount bigint not null,
+    primary key (user_uuid, symbol)
+);
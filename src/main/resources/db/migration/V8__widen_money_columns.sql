@@ -0,0 +1,6 @@
+-- Widens the balances and ledger amounts to hold the value of the largest order the validators accept,
+-- 99999999.99 times 1000000 amounts to 14 digits before the decimal point. Decimal(18,2) leaves room for
+-- a hundred of them in one balance and still fits the whole cents a long counts in memory.
+
+alter table usr alter column balance type Decimal(18,2);
+alter table ledger_entry alter column amount type Decimal(18,2);
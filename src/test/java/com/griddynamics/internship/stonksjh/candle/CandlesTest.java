@@ -0,0 +1,98 @@
+package com.griddynamics.internship.stonksjh.candle;
+
+import com.griddynamics.internship.stonksjh.matching.MatchResult;
+import com.griddynamics.internship.stonksjh.matching.Trade;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.price.Quote;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CandlesTest {
+
+    private static final Instant START = Instant.parse("2024-03-01T10:00:00Z");
+
+    private final Candles candles = new Candles();
+
+    private void trade(long offsetMillis, long price, int amount) {
+        val trade = new Trade(Order.Symbol.AAPL, UUID.randomUUID(), UUID.randomUUID(), price, amount,
+                START.plusMillis(offsetMillis), price, null, null);
+        candles.add(new MatchResult(null, List.of(trade), List.of()));
+    }
+
+    @Test
+    void add_TradesWithinOneInterval_ShouldAggregateIntoOneBar() {
+        trade(0, 100_00, 1);
+        trade(200, 103_00, 2);
+        trade(400, 99_50, 3);
+        trade(600, 101_00, 4);
+
+        assertThat(candles.recent(Order.Symbol.AAPL, CandleInterval.SECOND, 10))
+                .containsExactly(new Candle(START, 100_00, 103_00, 99_50, 101_00, 10));
+    }
+
+    @Test
+    void add_TradesAcrossIntervals_ShouldStartNewBarsPerInterval() {
+        trade(0, 100_00, 1);
+        trade(1_500, 102_00, 2);
+        trade(61_000, 98_00, 3);
+
+        assertThat(candles.recent(Order.Symbol.AAPL, CandleInterval.SECOND, 10))
+                .extracting(Candle::start)
+                .containsExactly(START, START.plusSeconds(1), START.plusSeconds(61));
+        assertThat(candles.recent(Order.Symbol.AAPL, CandleInterval.MINUTE, 10))
+                .containsExactly(
+                        new Candle(START, 100_00, 102_00, 100_00, 102_00, 3),
+                        new Candle(START.plusSeconds(60), 98_00, 98_00, 98_00, 98_00, 3)
+                );
+        assertThat(candles.recent(Order.Symbol.AAPL, CandleInterval.HOUR, 10))
+                .containsExactly(new Candle(START, 100_00, 102_00, 98_00, 98_00, 6));
+        assertThat(candles.recent(Order.Symbol.MSFT, CandleInterval.HOUR, 10))
+                .isEmpty();
+    }
+
+    @Test
+    void add_PriceIsOlderThanNewestBar_ShouldBeDropped() {
+        trade(5_000, 100_00, 1);
+        trade(1_000, 90_00, 1);
+
+        assertThat(candles.recent(Order.Symbol.AAPL, CandleInterval.SECOND, 10))
+                .containsExactly(new Candle(START.plusSeconds(5), 100_00, 100_00, 100_00, 100_00, 1));
+    }
+
+    @Test
+    void add_RingIsFull_ShouldOverwriteOldestBar() {
+        val capacity = CandleInterval.SECOND.getCapacity();
+        for (int second = 0; second <= capacity; second++) {
+            trade(second * 1_000L, 100_00 + second, 1);
+        }
+
+        val recent = candles.recent(Order.Symbol.AAPL, CandleInterval.SECOND, capacity + 10);
+        assertThat(recent)
+                .hasSize(capacity);
+        assertThat(recent.get(0).start())
+                .isEqualTo(START.plusSeconds(1));
+        assertThat(recent.get(capacity - 1).start())
+                .isEqualTo(START.plusSeconds(capacity));
+        assertThat(candles.recent(Order.Symbol.AAPL, CandleInterval.SECOND, 2))
+                .extracting(Candle::close)
+                .containsExactly(100_00L + capacity - 1, 100_00L + capacity);
+    }
+
+    @Test
+    void add_Quote_ShouldMovePriceWithoutVolume() {
+        trade(0, 100_00, 5);
+
+        candles.add(new Quote(Order.Symbol.AAPL, new BigDecimal("104.255"), START.plusMillis(300)));
+
+        assertThat(candles.recent(Order.Symbol.AAPL, CandleInterval.SECOND, 1))
+                .containsExactly(new Candle(START, 100_00, 104_26, 100_00, 104_26, 5));
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.griddynamics.internship.stonksjh.commission;
+
+import com.griddynamics.internship.stonksjh.exception.commission.InvalidCommissionTableException;
+import com.griddynamics.internship.stonksjh.model.User;
+import lombok.val;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommissionTableTest {
+
+    private static final String TIERS = """
+            # tier,from notional,rate %,minimum
+            STANDARD,0,0.25,1.00
+            STANDARD,10000,0.15,1.00
+            STANDARD,100000,0.10,1.00
+            ACTIVE,0,0.15,0.50
+            PROFESSIONAL,100000,0.04,0.00
+            PROFESSIONAL,0,0.0825,0.00
+            """;
+
+    private static CommissionTable parse(String tiers) {
+        return CommissionTable.parse(new StringReader(tiers));
+    }
+
+    @Nested
+    class Commission {
+
+        private final CommissionTable table = parse(TIERS);
+
+        @ParameterizedTest(name = "{index}: {0} buys {2} at {1}")
+        @CsvSource({
+                "STANDARD, 100.00, 10, 2.50",
+                "STANDARD, 100.00, 1, 1.00",
+                "STANDARD, 99.99, 100, 25.00",
+                "STANDARD, 100.00, 100, 15.00",
+                "STANDARD, 1000.00, 100, 100.00",
+                "ACTIVE, 1000.00, 1000, 1500.00",
+                "PROFESSIONAL, 123.45, 10, 1.02",
+                "PROFESSIONAL, 0.01, 1, 0.00"
+        })
+        void commission_ShouldApplyRateOfBracketAndMinimum(User.Tier tier, BigDecimal price, int amount, BigDecimal expected) {
+            val commission = table.commission(tier, price.movePointRight(2).longValueExact(), amount);
+
+            assertThat(BigDecimal.valueOf(commission, 2)).isEqualByComparingTo(expected);
+        }
+
+        @Test
+        void commission_ShouldMatchBigDecimalCalculation() {
+            for (long priceTicks = 1; priceTicks < 1_000_000; priceTicks += 997) {
+                for (int amount = 1; amount < 10_000; amount += 131) {
+                    val notional = BigDecimal.valueOf(priceTicks * amount, 2);
+                    val rate = notional.compareTo(BigDecimal.valueOf(100_000)) >= 0 ? "0.04" : "0.0825";
+                    val expected = notional.multiply(new BigDecimal(rate))
+                            .movePointLeft(2)
+                            .setScale(2, RoundingMode.HALF_UP);
+
+                    assertThat(table.commission(User.Tier.PROFESSIONAL, priceTicks, amount))
+                            .isEqualTo(expected.movePointRight(2).longValueExact());
+                }
+            }
+        }
+
+        @Test
+        void commission_NotionalOverflowsScaledRate_ShouldStillBeExact() {
+            val commission = table.commission(User.Tier.STANDARD, 99_999_999_99L, 100_000_000);
+
+            assertThat(commission).isEqualTo(BigDecimal.valueOf(99_999_999_99L)
+                    .multiply(BigDecimal.valueOf(100_000_000))
+                    .multiply(new BigDecimal("0.0010"))
+                    .setScale(0, RoundingMode.HALF_UP)
+                    .longValueExact());
+        }
+
+        @Test
+        void brackets_ShouldBeSortedByTierAndNotional() {
+            assertThat(table.brackets())
+                    .extracting(bracket -> bracket.tier() + " " + bracket.fromNotional())
+                    .containsExactly(
+                            "STANDARD 0.00", "STANDARD 10000.00", "STANDARD 100000.00",
+                            "ACTIVE 0.00",
+                            "PROFESSIONAL 0.00", "PROFESSIONAL 100000.00"
+                    );
+        }
+
+    }
+
+    @Nested
+    class Parse {
+
+        @ParameterizedTest(name = "{index}: line={0}")
+        @ValueSource(strings = {
+                "STANDARD,0,0.25",
+                "BASIC,0,0.25,1.00",
+                "STANDARD,0,0.123456,1.00",
+                "STANDARD,0,101,1.00",
+                "STANDARD,0,-0.25,1.00",
+                "STANDARD,0,0.25,1.001",
+                "STANDARD,zero,0.25,1.00"
+        })
+        void parse_LineIsInvalid_ShouldThrow(String line) {
+            assertThatThrownBy(() -> parse(TIERS + line))
+                    .isInstanceOf(InvalidCommissionTableException.class)
+                    .hasMessageContaining("line 8");
+        }
+
+        @Test
+        void parse_TierHasNoBracketFromZero_ShouldThrow() {
+            assertThatThrownBy(() -> parse(TIERS.replace("ACTIVE,0,", "ACTIVE,5,")))
+                    .isInstanceOf(InvalidCommissionTableException.class)
+                    .hasMessageContaining("tier ACTIVE has no bracket from 0");
+        }
+
+        @Test
+        void parse_TierHasDuplicateBracket_ShouldThrow() {
+            assertThatThrownBy(() -> parse(TIERS + "STANDARD,10000.00,0.12,1.00"))
+                    .isInstanceOf(InvalidCommissionTableException.class)
+                    .hasMessageContaining("tier STANDARD has two brackets from 10000.00");
+        }
+
+    }
+
+}
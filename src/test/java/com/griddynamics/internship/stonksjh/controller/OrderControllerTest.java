@@ -1,14 +1,25 @@
 package com.griddynamics.internship.stonksjh.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.griddynamics.internship.stonksjh.controller.advice.ErrorMetrics;
+import com.griddynamics.internship.stonksjh.dto.commission.CommissionDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderBatchItemDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderPageDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderQueryDTO;
 import com.griddynamics.internship.stonksjh.dto.order.OrderRequestDTO;
 import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderStatusDTO;
+import com.griddynamics.internship.stonksjh.exception.InvalidPageSizeException;
+import com.griddynamics.internship.stonksjh.exception.order.IdempotencyKeyReusedException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidOrderTypeException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidStockAmountException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidSymbolException;
 import com.griddynamics.internship.stonksjh.exception.order.OrderNotFoundException;
 import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.model.User;
+import com.griddynamics.internship.stonksjh.service.CommissionService;
 import com.griddynamics.internship.stonksjh.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import lombok.val;
 import org.junit.jupiter.api.Nested;
@@ -21,29 +32,38 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.text.MatchesPattern.matchesPattern;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @WebMvcTest(OrderController.class)
+@Import({ErrorMetrics.class, SimpleMeterRegistry.class})
 @ExtendWith(MockitoExtension.class)
 public class OrderControllerTest {
 
     private static final UUID VALID_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
     @MockBean
     private OrderService ORDER_SERVICE;
+    @MockBean
+    private CommissionService COMMISSION_SERVICE;
     @Autowired
     private MockMvc MVC;
 
@@ -60,7 +80,7 @@ public class OrderControllerTest {
                     .type(type)
                     .build();
 
-            when(ORDER_SERVICE.create(orderRequestDTO))
+            when(ORDER_SERVICE.create(orderRequestDTO, null))
                     .thenReturn(
                             OrderResponseDTO.builder()
                                     .uuid(VALID_UUID)
@@ -71,14 +91,41 @@ public class OrderControllerTest {
                     );
 
             MVC.perform(MockMvcRequestBuilders
-                            .post(linkTo(OrderController.class.getMethod("create", OrderRequestDTO.class), orderRequestDTO).toUri())
+                            .post(linkTo(OrderController.class.getMethod("create", OrderRequestDTO.class, String.class), orderRequestDTO, null).toUri())
                             .content(new ObjectMapper().writeValueAsString(orderRequestDTO))
                             .contentType(MediaType.APPLICATION_JSON)
                             .accept(MediaType.APPLICATION_JSON)
                     ).andExpect(status().isCreated())
                     .andExpect(jsonPath("$.uuid").value(VALID_UUID.toString()));
 
-            verify(ORDER_SERVICE).create(orderRequestDTO);
+            verify(ORDER_SERVICE).create(orderRequestDTO, null);
+        }
+
+        @Test
+        @SneakyThrows
+        void create_OrdersAreAcknowledgedOnAcceptance_ShouldReturnAcceptedResponseWithStatusLink() {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("AAPL")
+                    .type("BUY")
+                    .build();
+
+            when(ORDER_SERVICE.acknowledgesOnAcceptance())
+                    .thenReturn(true);
+            when(ORDER_SERVICE.accept(orderRequestDTO, null))
+                    .thenReturn(OrderStatusDTO.accepted(VALID_UUID));
+
+            MVC.perform(MockMvcRequestBuilders
+                            .post(linkTo(OrderController.class.getMethod("create", OrderRequestDTO.class, String.class), orderRequestDTO, null).toUri())
+                            .content(new ObjectMapper().writeValueAsString(orderRequestDTO))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                    ).andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", endsWith("/api/orders/" + VALID_UUID + "/status")))
+                    .andExpect(jsonPath("$.uuid").value(VALID_UUID.toString()))
+                    .andExpect(jsonPath("$.state").value("ACCEPTED"));
+
+            verify(ORDER_SERVICE).accept(orderRequestDTO, null);
         }
 
         @ParameterizedTest(name = "{index}: amount={0}")
@@ -91,11 +138,11 @@ public class OrderControllerTest {
                     .type("BUY")
                     .build();
 
-            when(ORDER_SERVICE.create(orderRequestDTO))
-                    .thenThrow(new InvalidStockAmountException(amount));
+            when(ORDER_SERVICE.create(orderRequestDTO, null))
+                    .thenThrow(new InvalidStockAmountException(amount, OrderService.MAX_AMOUNT));
 
             MVC.perform(MockMvcRequestBuilders
-                            .post(linkTo(OrderController.class.getMethod("create", OrderRequestDTO.class), orderRequestDTO).toUri())
+                            .post(linkTo(OrderController.class.getMethod("create", OrderRequestDTO.class, String.class), orderRequestDTO, null).toUri())
                             .content(new ObjectMapper().writeValueAsString(orderRequestDTO))
                             .contentType(MediaType.APPLICATION_JSON_VALUE)
                             .accept(MediaType.APPLICATION_JSON_VALUE)
@@ -103,7 +150,7 @@ public class OrderControllerTest {
                     .andExpect(jsonPath("$.message").isNotEmpty())
                     .andExpect(jsonPath("$.timestamp").isNotEmpty());
 
-            verify(ORDER_SERVICE).create(orderRequestDTO);
+            verify(ORDER_SERVICE).create(orderRequestDTO, null);
         }
 
         @ParameterizedTest(name = "{index}: type={0}")
@@ -116,11 +163,11 @@ public class OrderControllerTest {
                     .type("BUY")
                     .build();
 
-            when(ORDER_SERVICE.create(orderRequestDTO))
+            when(ORDER_SERVICE.create(orderRequestDTO, null))
                     .thenThrow(new InvalidSymbolException(symbol));
 
             MVC.perform(MockMvcRequestBuilders
-                            .post(linkTo(OrderController.class.getMethod("create", OrderRequestDTO.class), orderRequestDTO).toUri())
+                            .post(linkTo(OrderController.class.getMethod("create", OrderRequestDTO.class, String.class), orderRequestDTO, null).toUri())
                             .content(new ObjectMapper().writeValueAsString(orderRequestDTO))
                             .contentType(MediaType.APPLICATION_JSON_VALUE)
                             .accept(MediaType.APPLICATION_JSON_VALUE)
@@ -128,7 +175,7 @@ public class OrderControllerTest {
                     .andExpect(jsonPath("$.message").isNotEmpty())
                     .andExpect(jsonPath("$.timestamp").isNotEmpty());
 
-            verify(ORDER_SERVICE).create(orderRequestDTO);
+            verify(ORDER_SERVICE).create(orderRequestDTO, null);
         }
 
         @ParameterizedTest(name = "{index}: type={0}")
@@ -141,11 +188,11 @@ public class OrderControllerTest {
                     .type(type)
                     .build();
 
-            when(ORDER_SERVICE.create(orderRequestDTO))
+            when(ORDER_SERVICE.create(orderRequestDTO, null))
                     .thenThrow(new InvalidOrderTypeException(type));
 
             MVC.perform(MockMvcRequestBuilders
-                            .post(linkTo(OrderController.class.getMethod("create", OrderRequestDTO.class), orderRequestDTO).toUri())
+                            .post(linkTo(OrderController.class.getMethod("create", OrderRequestDTO.class, String.class), orderRequestDTO, null).toUri())
                             .content(new ObjectMapper().writeValueAsString(orderRequestDTO))
                             .contentType(MediaType.APPLICATION_JSON_VALUE)
                             .accept(MediaType.APPLICATION_JSON_VALUE)
@@ -153,7 +200,105 @@ public class OrderControllerTest {
                     .andExpect(jsonPath("$.message").isNotEmpty())
                     .andExpect(jsonPath("$.timestamp").isNotEmpty());
 
-            verify(ORDER_SERVICE).create(orderRequestDTO);
+            verify(ORDER_SERVICE).create(orderRequestDTO, null);
+        }
+
+        @Test
+        @SneakyThrows
+        void create_IdempotencyKeyIsSent_ShouldPassItToService() {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("AAPL")
+                    .type("BUY")
+                    .build();
+
+            when(ORDER_SERVICE.create(orderRequestDTO, "retry-1"))
+                    .thenReturn(OrderResponseDTO.builder().uuid(VALID_UUID).build());
+
+            MVC.perform(MockMvcRequestBuilders
+                            .post(linkTo(OrderController.class.getMethod("create", OrderRequestDTO.class, String.class), orderRequestDTO, null).toUri())
+                            .header(OrderController.IDEMPOTENCY_KEY, "retry-1")
+                            .content(new ObjectMapper().writeValueAsString(orderRequestDTO))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                    ).andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.uuid").value(VALID_UUID.toString()));
+
+            verify(ORDER_SERVICE).create(orderRequestDTO, "retry-1");
+        }
+
+        @Test
+        @SneakyThrows
+        void create_IdempotencyKeyWasUsedForDifferentOrder_ShouldReturnUnprocessableEntityResponse() {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("AAPL")
+                    .type("BUY")
+                    .build();
+
+            when(ORDER_SERVICE.create(orderRequestDTO, "retry-1"))
+                    .thenThrow(new IdempotencyKeyReusedException("retry-1"));
+
+            MVC.perform(MockMvcRequestBuilders
+                            .post(linkTo(OrderController.class.getMethod("create", OrderRequestDTO.class, String.class), orderRequestDTO, null).toUri())
+                            .header(OrderController.IDEMPOTENCY_KEY, "retry-1")
+                            .content(new ObjectMapper().writeValueAsString(orderRequestDTO))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                    ).andExpect(status().isUnprocessableEntity())
+                    .andExpect(jsonPath("$.message").isNotEmpty());
+        }
+
+    }
+
+    @Nested
+    class CreateAll {
+
+        @Test
+        @SneakyThrows
+        void createAll_AllOrdersValid_ShouldReturnCreatedResponse() {
+            val orderRequestDTOs = List.of(
+                    OrderRequestDTO.builder().amount(1).symbol("AAPL").type("BUY").build()
+            );
+
+            when(ORDER_SERVICE.createAll(orderRequestDTOs))
+                    .thenReturn(List.of(OrderBatchItemDTO.created(0, OrderResponseDTO.builder()
+                            .uuid(VALID_UUID)
+                            .amount(1)
+                            .symbol(Order.Symbol.AAPL)
+                            .type(Order.Type.BUY)
+                            .build())));
+
+            MVC.perform(MockMvcRequestBuilders
+                            .post(linkTo(OrderController.class.getMethod("createAll", List.class), orderRequestDTOs).toUri())
+                            .content(new ObjectMapper().writeValueAsString(orderRequestDTOs))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                    ).andExpect(status().isCreated())
+                    .andExpect(jsonPath("$[0].order.uuid").value(VALID_UUID.toString()));
+
+            verify(ORDER_SERVICE).createAll(orderRequestDTOs);
+        }
+
+        @Test
+        @SneakyThrows
+        void createAll_SomeOrdersInvalid_ShouldReturnMultiStatusResponse() {
+            val orderRequestDTOs = List.of(
+                    OrderRequestDTO.builder().amount(-1).symbol("AAPL").type("BUY").build()
+            );
+
+            when(ORDER_SERVICE.createAll(orderRequestDTOs))
+                    .thenReturn(List.of(OrderBatchItemDTO.rejected(0, new InvalidStockAmountException(-1, OrderService.MAX_AMOUNT).getMessage())));
+
+            MVC.perform(MockMvcRequestBuilders
+                            .post(linkTo(OrderController.class.getMethod("createAll", List.class), orderRequestDTOs).toUri())
+                            .content(new ObjectMapper().writeValueAsString(orderRequestDTOs))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                    ).andExpect(status().isMultiStatus())
+                    .andExpect(jsonPath("$[0].error.message").isNotEmpty());
+
+            verify(ORDER_SERVICE).createAll(orderRequestDTOs);
         }
 
     }
@@ -161,6 +306,31 @@ public class OrderControllerTest {
     @Nested
     class Read {
 
+        @Test
+        @SneakyThrows
+        void status_OrderIsPersisted_ShouldReturnOkResponse() {
+            when(ORDER_SERVICE.status(VALID_UUID))
+                    .thenReturn(OrderStatusDTO.persisted(VALID_UUID));
+
+            MVC.perform(MockMvcRequestBuilders
+                            .get(linkTo(OrderController.class.getMethod("status", UUID.class), VALID_UUID).toUri())
+                            .accept(MediaType.APPLICATION_JSON)
+                    ).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.state").value("PERSISTED"));
+        }
+
+        @Test
+        @SneakyThrows
+        void status_NoOrderWithGivenUuidExists_ShouldReturnNotFoundResponse() {
+            when(ORDER_SERVICE.status(VALID_UUID))
+                    .thenThrow(new OrderNotFoundException(VALID_UUID));
+
+            MVC.perform(MockMvcRequestBuilders
+                            .get(linkTo(OrderController.class.getMethod("status", UUID.class), VALID_UUID).toUri())
+                            .accept(MediaType.APPLICATION_JSON)
+                    ).andExpect(status().isNotFound());
+        }
+
         @ParameterizedTest(name = "{index}: orderData=[{0},{1},{2}]")
         @MethodSource("util.OrderFlowTestDataFactory#validOrderData")
         @SneakyThrows
@@ -206,6 +376,62 @@ public class OrderControllerTest {
                     .andExpect(jsonPath("$.timestamp").isNotEmpty());
         }
 
+        @Test
+        @SneakyThrows
+        void readPage_FiltersAreValid_ShouldReturnOkResponse() {
+            val userUuid = UUID.randomUUID();
+            val from = Instant.parse("2023-01-01T00:00:00Z");
+            val orderQueryDTO = OrderQueryDTO.builder()
+                    .symbol("AAPL")
+                    .type("BUY")
+                    .userUuid(userUuid)
+                    .from(from)
+                    .after(10L)
+                    .size(50)
+                    .build();
+
+            when(ORDER_SERVICE.read(orderQueryDTO))
+                    .thenReturn(new OrderPageDTO(
+                            List.of(OrderResponseDTO.builder()
+                                    .uuid(VALID_UUID)
+                                    .userUuid(userUuid)
+                                    .symbol(Order.Symbol.AAPL)
+                                    .type(Order.Type.BUY)
+                                    .amount(1)
+                                    .build()),
+                            11L,
+                            null
+                    ));
+
+            MVC.perform(MockMvcRequestBuilders
+                            .get("/api/orders")
+                            .param("symbol", "AAPL")
+                            .param("type", "BUY")
+                            .param("user", userUuid.toString())
+                            .param("from", from.toString())
+                            .param("after", "10")
+                            .param("size", "50")
+                    ).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.orders[0].uuid").value(VALID_UUID.toString()))
+                    .andExpect(jsonPath("$.orders[0].userUuid").value(userUuid.toString()))
+                    .andExpect(jsonPath("$.nextCursor").value(11));
+
+            verify(ORDER_SERVICE).read(orderQueryDTO);
+        }
+
+        @Test
+        @SneakyThrows
+        void readPage_PageSizeIsInvalid_ShouldReturnBadRequest() {
+            when(ORDER_SERVICE.read(OrderQueryDTO.builder().size(0).build()))
+                    .thenThrow(new InvalidPageSizeException(0, OrderService.MAX_PAGE_SIZE));
+
+            MVC.perform(MockMvcRequestBuilders
+                            .get("/api/orders")
+                            .param("size", "0")
+                    ).andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").isNotEmpty());
+        }
+
         @Test
         @SneakyThrows
         void readOne_NoOrderWithGivenUuidExists_ShouldReturnNotFound() {
@@ -221,6 +447,44 @@ public class OrderControllerTest {
 
             verify(ORDER_SERVICE).read(VALID_UUID);
         }
+
+        @Test
+        @SneakyThrows
+        void commission_OrderExists_ShouldReturnOkResponse() {
+            val orderResponseDTO = OrderResponseDTO.builder()
+                    .uuid(VALID_UUID)
+                    .amount(10)
+                    .symbol(Order.Symbol.AAPL)
+                    .type(Order.Type.BUY)
+                    .price(new BigDecimal("150.00"))
+                    .build();
+            when(ORDER_SERVICE.read(VALID_UUID)).thenReturn(orderResponseDTO);
+            when(COMMISSION_SERVICE.commission(orderResponseDTO))
+                    .thenReturn(CommissionDTO.builder()
+                            .orderUuid(VALID_UUID)
+                            .tier(User.Tier.STANDARD)
+                            .notional(new BigDecimal("1500.00"))
+                            .ratePercent(new BigDecimal("0.2500"))
+                            .commission(new BigDecimal("3.75"))
+                            .build());
+
+            MVC.perform(MockMvcRequestBuilders
+                            .get(linkTo(OrderController.class.getMethod("commission", UUID.class), VALID_UUID).toUri())
+                            .accept(MediaType.APPLICATION_JSON)
+                    ).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.tier").value("STANDARD"))
+                    .andExpect(jsonPath("$.commission").value(3.75));
+        }
+
+        @Test
+        @SneakyThrows
+        void commission_NoOrderWithGivenUuidExists_ShouldReturnNotFound() {
+            when(ORDER_SERVICE.read(VALID_UUID)).thenThrow(new OrderNotFoundException(VALID_UUID));
+
+            MVC.perform(MockMvcRequestBuilders
+                            .get(linkTo(OrderController.class.getMethod("commission", UUID.class), VALID_UUID).toUri())
+                    ).andExpect(status().isNotFound());
+        }
     }
 
     @Nested
@@ -278,7 +542,7 @@ public class OrderControllerTest {
                     .build();
 
             when(ORDER_SERVICE.update(VALID_UUID, orderRequestDTO))
-                    .thenThrow(new InvalidStockAmountException(amount));
+                    .thenThrow(new InvalidStockAmountException(amount, OrderService.MAX_AMOUNT));
 
             MVC.perform(MockMvcRequestBuilders
                             .put(linkTo(OrderController.class.getMethod("update", UUID.class, OrderRequestDTO.class),
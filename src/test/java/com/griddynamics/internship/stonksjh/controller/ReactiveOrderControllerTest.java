@@ -0,0 +1,203 @@
+package com.griddynamics.internship.stonksjh.controller;
+
+import com.griddynamics.internship.stonksjh.controller.advice.ErrorMetrics;
+import com.griddynamics.internship.stonksjh.dto.order.OrderPageDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderQueryDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderRequestDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderStatusDTO;
+import com.griddynamics.internship.stonksjh.exception.InvalidPageSizeException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidStockAmountException;
+import com.griddynamics.internship.stonksjh.exception.order.OrderNotFoundException;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.service.OrderService;
+import com.griddynamics.internship.stonksjh.service.ReactiveOrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WebFluxTest(ReactiveOrderController.class)
+@Import({ErrorMetrics.class, SimpleMeterRegistry.class})
+@ExtendWith(MockitoExtension.class)
+public class ReactiveOrderControllerTest {
+
+    private static final UUID VALID_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    @MockBean
+    private ReactiveOrderService ORDER_SERVICE;
+    @Autowired
+    private WebTestClient CLIENT;
+
+    @Nested
+    class Create {
+
+        @Test
+        void create_OrderDataIsValid_ShouldReturnCreatedResponse() {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("AAPL")
+                    .type("BUY")
+                    .build();
+
+            when(ORDER_SERVICE.create(orderRequestDTO))
+                    .thenReturn(Mono.just(
+                            OrderResponseDTO.builder()
+                                    .uuid(VALID_UUID)
+                                    .amount(1)
+                                    .symbol(Order.Symbol.AAPL)
+                                    .type(Order.Type.BUY)
+                                    .build()
+                    ));
+
+            CLIENT.post()
+                    .uri("/api/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .bodyValue(orderRequestDTO)
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectBody()
+                    .jsonPath("$.uuid").isEqualTo(VALID_UUID.toString());
+
+            verify(ORDER_SERVICE).create(orderRequestDTO);
+        }
+
+        @Test
+        void create_OrderStockAmountIsInvalid_ShouldReturnBadResponse() {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(-1)
+                    .symbol("AAPL")
+                    .type("BUY")
+                    .build();
+
+            when(ORDER_SERVICE.create(orderRequestDTO))
+                    .thenReturn(Mono.error(new InvalidStockAmountException(-1, OrderService.MAX_AMOUNT)));
+
+            CLIENT.post()
+                    .uri("/api/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .bodyValue(orderRequestDTO)
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody()
+                    .jsonPath("$.message").isNotEmpty()
+                    .jsonPath("$.timestamp").isNotEmpty();
+        }
+
+    }
+
+    @Nested
+    class Read {
+
+        @Test
+        void read_OrderExists_ShouldReturnOkResponse() {
+            when(ORDER_SERVICE.read(VALID_UUID))
+                    .thenReturn(Mono.just(OrderResponseDTO.builder().uuid(VALID_UUID).build()));
+
+            CLIENT.get()
+                    .uri("/api/orders/{uuid}", VALID_UUID)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.uuid").isEqualTo(VALID_UUID.toString());
+        }
+
+        @Test
+        void read_OrderDoesNotExist_ShouldReturnNotFoundResponse() {
+            when(ORDER_SERVICE.read(VALID_UUID))
+                    .thenReturn(Mono.error(new OrderNotFoundException(VALID_UUID)));
+
+            CLIENT.get()
+                    .uri("/api/orders/{uuid}", VALID_UUID)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectBody()
+                    .jsonPath("$.message").isNotEmpty();
+        }
+
+        @Test
+        void status_OrderIsPersisted_ShouldReturnOkResponse() {
+            when(ORDER_SERVICE.status(VALID_UUID))
+                    .thenReturn(Mono.just(OrderStatusDTO.persisted(VALID_UUID)));
+
+            CLIENT.get()
+                    .uri("/api/orders/{uuid}/status", VALID_UUID)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.state").isEqualTo("PERSISTED");
+        }
+
+        @Test
+        void readPage_FilterIsValid_ShouldReturnOkResponse() {
+            when(ORDER_SERVICE.read(any(OrderQueryDTO.class)))
+                    .thenReturn(Mono.just(OrderPageDTO.builder()
+                            .orders(List.of(OrderResponseDTO.builder().uuid(VALID_UUID).build()))
+                            .nextCursor(42L)
+                            .build()));
+
+            CLIENT.get()
+                    .uri("/api/orders?symbol=AAPL&size=1")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.orders[0].uuid").isEqualTo(VALID_UUID.toString())
+                    .jsonPath("$.nextCursor").isEqualTo(42);
+        }
+
+        @Test
+        void readPage_SizeIsInvalid_ShouldReturnBadResponse() {
+            when(ORDER_SERVICE.read(any(OrderQueryDTO.class)))
+                    .thenReturn(Mono.error(new InvalidPageSizeException(0, OrderService.MAX_PAGE_SIZE)));
+
+            CLIENT.get()
+                    .uri("/api/orders?size=0")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+
+    }
+
+    @Nested
+    class Delete {
+
+        @Test
+        void delete_OrderExists_ShouldReturnOkResponse() {
+            when(ORDER_SERVICE.delete(VALID_UUID))
+                    .thenReturn(Mono.empty());
+
+            CLIENT.delete()
+                    .uri("/api/orders/{uuid}", VALID_UUID)
+                    .exchange()
+                    .expectStatus().isOk();
+
+            verify(ORDER_SERVICE).delete(VALID_UUID);
+        }
+
+    }
+
+}
@@ -2,14 +2,18 @@ package com.griddynamics.internship.stonksjh.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.griddynamics.internship.stonksjh.controller.advice.ErrorMetrics;
+import com.griddynamics.internship.stonksjh.dto.user.UserPageDTO;
 import com.griddynamics.internship.stonksjh.dto.user.UserRequestDTO;
 import com.griddynamics.internship.stonksjh.dto.user.UserResponseDTO;
+import com.griddynamics.internship.stonksjh.exception.InvalidPageSizeException;
 import com.griddynamics.internship.stonksjh.exception.user.EmailFormatException;
 import com.griddynamics.internship.stonksjh.exception.user.EmailTakenException;
 import com.griddynamics.internship.stonksjh.exception.user.UserNotFoundException;
 import com.griddynamics.internship.stonksjh.exception.user.UsernameFormatException;
 import com.griddynamics.internship.stonksjh.exception.user.UsernameTakenException;
 import com.griddynamics.internship.stonksjh.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import lombok.val;
 import org.junit.jupiter.api.BeforeAll;
@@ -25,6 +29,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -32,17 +37,25 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @WebMvcTest(UserController.class)
+@Import({ErrorMetrics.class, SimpleMeterRegistry.class})
 @ExtendWith(MockitoExtension.class)
 class UserControllerTest {
 
@@ -255,38 +268,84 @@ class UserControllerTest {
         }
 
         @Test
-        @DisplayName("/get endpoint should return HTTP 200 response with non empty list in body when there are some users")
+        @DisplayName("/get endpoint should return HTTP 200 response with a page of users and the next cursor")
         @SneakyThrows
-        void readAll_shouldReturnOkResponse_andNonEmptyList_whenUsersExist() {
-            when(USR_CRUD_SERVICE.read())
-                    .thenReturn(List.of(PREDEFINED_USR));
+        void readPage_shouldReturnOkResponse_andNonEmptyPage_whenUsersExist() {
+            when(USR_CRUD_SERVICE.read(null, 100))
+                    .thenReturn(new UserPageDTO(List.of(PREDEFINED_USR), 7L));
 
             MVC.perform(MockMvcRequestBuilders
-                            .get(linkTo(UserController.class.getMethod("read")).toUri())
+                            .get(linkTo(UserController.class.getMethod("read", Long.class, int.class), null, 100).toUri())
                     )
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$[0].email").value(PREDEFINED_USR.email()))
-                    .andExpect(jsonPath("$[0].username").value(PREDEFINED_USR.username()));
+                    .andExpect(jsonPath("$.users[0].email").value(PREDEFINED_USR.email()))
+                    .andExpect(jsonPath("$.users[0].username").value(PREDEFINED_USR.username()))
+                    .andExpect(jsonPath("$.nextCursor").value(7));
 
             verify(USR_CRUD_SERVICE)
-                    .read();
+                    .read(null, 100);
         }
 
         @Test
-        @DisplayName("/get endpoint should return HTTP 200 response with empty list in body when there are no users")
+        @DisplayName("/get endpoint should return HTTP 200 response with an empty page when there are no users")
         @SneakyThrows
-        void readAll_shouldReturnOkResponse_andEmptyList_whenNoUsersExist() {
-            when(USR_CRUD_SERVICE.read())
-                    .thenReturn(List.of());
+        void readPage_shouldReturnOkResponse_andEmptyPage_whenNoUsersExist() {
+            when(USR_CRUD_SERVICE.read(5L, 100))
+                    .thenReturn(new UserPageDTO(List.of(), null));
 
             MVC.perform(MockMvcRequestBuilders
-                            .get(linkTo(UserController.class.getMethod("read")).toUri())
+                            .get(linkTo(UserController.class.getMethod("read", Long.class, int.class), 5L, 100).toUri())
                     )
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$").isEmpty());
+                    .andExpect(jsonPath("$.users").isEmpty())
+                    .andExpect(jsonPath("$.nextCursor").isEmpty());
 
             verify(USR_CRUD_SERVICE)
-                    .read();
+                    .read(5L, 100);
+        }
+
+        @Test
+        @DisplayName("/get endpoint should return HTTP 400 response when the page size is out of range")
+        @SneakyThrows
+        void readPage_shouldReturnBadRequestResponse_whenPageSizeIsInvalid() {
+            when(USR_CRUD_SERVICE.read(null, 0))
+                    .thenThrow(new InvalidPageSizeException(0, UserService.MAX_PAGE_SIZE));
+
+            MVC.perform(MockMvcRequestBuilders
+                            .get(linkTo(UserController.class.getMethod("read", Long.class, int.class), null, 0).toUri())
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").isNotEmpty());
+        }
+
+        @Test
+        @DisplayName("/stream endpoint should write one JSON document per user and line")
+        @SneakyThrows
+        void stream_shouldReturnNewlineDelimitedJson() {
+            doAnswer(i -> {
+                Consumer<UserResponseDTO> consumer = i.getArgument(0);
+                consumer.accept(PREDEFINED_USR);
+                consumer.accept(PREDEFINED_USR);
+                return null;
+            }).when(USR_CRUD_SERVICE).readAll(any());
+
+            val result = MVC.perform(MockMvcRequestBuilders
+                            .get(linkTo(UserController.class.getMethod("stream")).toUri())
+                            .accept(MediaType.APPLICATION_NDJSON)
+                    )
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            val lines = MVC.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString()
+                    .split("\n");
+            assertThat(lines)
+                    .hasSize(2)
+                    .allSatisfy(line -> assertThat(line).contains(PREDEFINED_USR.email()));
         }
     }
 
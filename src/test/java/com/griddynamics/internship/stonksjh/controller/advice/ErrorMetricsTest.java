@@ -0,0 +1,33 @@
+package com.griddynamics.internship.stonksjh.controller.advice;
+
+import com.griddynamics.internship.stonksjh.exception.order.OrderNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ErrorMetrics errorMetrics = new ErrorMetrics(meterRegistry);
+
+    @Test
+    void count_ExceptionIsHandled_ShouldCountItByTypeAndStatus() {
+        val e = new OrderNotFoundException(UUID.randomUUID());
+
+        errorMetrics.count(e, HttpStatus.NOT_FOUND);
+        errorMetrics.count(e, HttpStatus.NOT_FOUND);
+
+        assertThat(meterRegistry.get(ErrorMetrics.NAME)
+                .tag("exception", "OrderNotFoundException")
+                .tag("status", "404")
+                .counter()
+                .count())
+                .isEqualTo(2);
+    }
+
+}
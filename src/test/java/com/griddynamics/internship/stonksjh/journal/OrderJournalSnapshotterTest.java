@@ -0,0 +1,118 @@
+package com.griddynamics.internship.stonksjh.journal;
+
+import com.griddynamics.internship.stonksjh.matching.OrderSnapshot;
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderJournalSnapshotterTest {
+
+    @TempDir
+    private Path directory;
+
+    private OrderJournal openJournal() {
+        return new OrderJournal(true, directory, DataSize.ofBytes(8 * OrderEvent.RECORD_BYTES));
+    }
+
+    private static OrderEvent updated(OrderEvent order) {
+        return OrderEvent.placed(OrderEvent.Type.UPDATED, order.toOrder());
+    }
+
+    @Test
+    void recover_JournalHasEvents_ShouldReturnRestingOrdersInTimePriority() {
+        val journal = openJournal();
+        val first = OrderJournalTest.created(Order.Type.BUY);
+        val second = OrderJournalTest.created(Order.Type.BUY);
+        val third = OrderJournalTest.created(Order.Type.BUY);
+        val filled = OrderJournalTest.created(Order.Type.SELL);
+        val deleted = OrderJournalTest.created(Order.Type.SELL);
+        journal.appendAll(List.of(first, second, third, filled, deleted));
+        journal.append(OrderEvent.filled(new OrderSnapshot(first.uuid(), 3, Order.Status.PARTIALLY_FILLED)));
+        journal.append(OrderEvent.filled(new OrderSnapshot(filled.uuid(), 10, Order.Status.FILLED)));
+        journal.append(OrderEvent.deleted(deleted.uuid()));
+        journal.append(updated(second));
+
+        val restingOrders = new OrderJournalSnapshotter(journal, Duration.ofMinutes(1)).recover();
+
+        assertThat(restingOrders)
+                .extracting(OrderEvent::uuid)
+                .containsExactly(first.uuid(), third.uuid(), second.uuid());
+        assertThat(restingOrders.get(0).filled())
+                .isEqualTo(3);
+        assertThat(restingOrders.get(0).status())
+                .isEqualTo(Order.Status.PARTIALLY_FILLED);
+    }
+
+    @Test
+    void recover_SnapshotWasTaken_ShouldReplayOnlyLaterEvents() throws InterruptedException {
+        val journal = openJournal();
+        val first = OrderJournalTest.created(Order.Type.BUY);
+        journal.append(first);
+        for (int i = 0; i < 20; i++) {
+            val filled = OrderJournalTest.created(Order.Type.SELL);
+            journal.append(filled);
+            journal.append(OrderEvent.filled(new OrderSnapshot(filled.uuid(), 10, Order.Status.FILLED)));
+        }
+        val snapshotter = new OrderJournalSnapshotter(journal, Duration.ofMinutes(1));
+        snapshotter.recover();
+        val last = OrderJournalTest.created(Order.Type.SELL);
+        journal.append(last);
+        snapshotter.destroy();
+        journal.destroy();
+
+        val reopened = openJournal();
+        val restingOrders = new OrderJournalSnapshotter(reopened, Duration.ofMinutes(1)).recover();
+
+        assertThat(restingOrders)
+                .extracting(OrderEvent::uuid)
+                .containsExactly(first.uuid(), last.uuid());
+        assertThat(new OrderSnapshotStore(directory).oldestSequence())
+                .isEqualTo(42);
+    }
+
+    @Test
+    void recover_JournalWasRebased_ShouldReturnOnlyRebasedOrders() throws InterruptedException {
+        val journal = openJournal();
+        journal.appendAll(List.of(OrderJournalTest.created(Order.Type.BUY), OrderJournalTest.created(Order.Type.SELL)));
+        val snapshotter = new OrderJournalSnapshotter(journal, Duration.ofMinutes(1));
+        snapshotter.recover();
+        val fromDatabase = OrderJournalTest.created(Order.Type.SELL);
+        snapshotter.rebase(List.of(fromDatabase));
+        snapshotter.destroy();
+        journal.destroy();
+
+        val reopened = openJournal();
+        val restingOrders = new OrderJournalSnapshotter(reopened, Duration.ofMinutes(1)).recover();
+
+        assertThat(restingOrders)
+                .extracting(OrderEvent::uuid)
+                .containsExactly(fromDatabase.uuid());
+    }
+
+    @Test
+    void apply_OrderIsDeletedBeforeItIsJournaled_ShouldNotRestIt() {
+        val restingOrders = new RestingOrders();
+        val order = OrderJournalTest.created(Order.Type.BUY);
+
+        restingOrders.apply(withSequence(OrderEvent.deleted(order.uuid()), 1));
+        restingOrders.apply(withSequence(order, 2));
+
+        assertThat(restingOrders.orders())
+                .isEmpty();
+    }
+
+    private static OrderEvent withSequence(OrderEvent event, long sequence) {
+        return new OrderEvent(event.type(), sequence, event.timestamp(), event.uuid(), event.userUuid(),
+                event.orderType(), event.symbol(), event.amount(), event.price(), event.filled(),
+                event.status(), event.createdAt());
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.griddynamics.internship.stonksjh.journal;
+
+import com.griddynamics.internship.stonksjh.matching.OrderSnapshot;
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderJournalTest {
+
+    private static final DataSize FOUR_EVENTS_PER_SEGMENT = DataSize.ofBytes(4 * OrderEvent.RECORD_BYTES);
+
+    @TempDir
+    private Path directory;
+
+    static OrderEvent created(Order.Type type) {
+        val order = new Order();
+        order.setUuid(UUID.randomUUID());
+        order.setUserUuid(UUID.randomUUID());
+        order.setType(type);
+        order.setSymbol(Order.Symbol.NVDA);
+        order.setAmount(10);
+        order.setPrice(new BigDecimal("420.50"));
+        order.setCreatedAt(Instant.parse("2022-12-01T10:15:30.123456Z"));
+        return OrderEvent.placed(OrderEvent.Type.CREATED, order);
+    }
+
+    private OrderJournal open(DataSize segmentSize) {
+        return new OrderJournal(true, directory, segmentSize);
+    }
+
+    private static List<OrderEvent> replay(OrderJournal journal, long afterSequence) {
+        List<OrderEvent> events = new ArrayList<>();
+        journal.replay(afterSequence, events::add);
+        return events;
+    }
+
+    @SneakyThrows
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void replay_EventsWereAppended_ShouldReadThemBackInOrder() {
+        val journal = open(DataSize.ofKilobytes(64));
+        val created = created(Order.Type.BUY);
+        val filled = OrderEvent.filled(new OrderSnapshot(created.uuid(), 4, Order.Status.PARTIALLY_FILLED));
+        val deleted = OrderEvent.deleted(created.uuid());
+
+        journal.appendAll(List.of(created, filled, deleted));
+
+        val events = replay(journal, 0);
+        assertThat(events)
+                .extracting(OrderEvent::sequence)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(events.get(0))
+                .usingRecursiveComparison()
+                .ignoringFields("sequence")
+                .isEqualTo(created);
+        assertThat(events.get(1))
+                .usingRecursiveComparison()
+                .ignoringFields("sequence")
+                .isEqualTo(filled);
+        assertThat(events.get(2).type())
+                .isEqualTo(OrderEvent.Type.DELETED);
+        assertThat(replay(journal, 2))
+                .extracting(OrderEvent::sequence)
+                .containsExactly(3L);
+    }
+
+    @Test
+    void append_SegmentIsFull_ShouldContinueInNextSegment() {
+        val journal = open(FOUR_EVENTS_PER_SEGMENT);
+
+        for (int i = 0; i < 10; i++) {
+            journal.append(created(Order.Type.SELL));
+        }
+
+        assertThat(segments())
+                .hasSize(3);
+        assertThat(replay(journal, 3))
+                .extracting(OrderEvent::sequence)
+                .containsExactly(4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void open_JournalHasEvents_ShouldContinueAfterLastSequence() {
+        val journal = open(FOUR_EVENTS_PER_SEGMENT);
+        for (int i = 0; i < 6; i++) {
+            journal.append(created(Order.Type.BUY));
+        }
+        journal.destroy();
+
+        val reopened = open(FOUR_EVENTS_PER_SEGMENT);
+
+        assertThat(reopened.lastSequence())
+                .isEqualTo(6);
+        assertThat(reopened.append(created(Order.Type.SELL)))
+                .isEqualTo(7);
+        assertThat(replay(reopened, 0))
+                .hasSize(7);
+    }
+
+    @Test
+    @SneakyThrows
+    void open_LastEventIsIncomplete_ShouldDiscardIt() {
+        val journal = open(DataSize.ofKilobytes(64));
+        journal.appendAll(List.of(created(Order.Type.BUY), created(Order.Type.SELL)));
+        journal.destroy();
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), OrderEvent.RECORD_BYTES + 40);
+        }
+
+        val reopened = open(DataSize.ofKilobytes(64));
+
+        assertThat(reopened.lastSequence())
+                .isEqualTo(1);
+        val appended = created(Order.Type.BUY);
+        assertThat(reopened.append(appended))
+                .isEqualTo(2);
+        assertThat(replay(reopened, 1))
+                .extracting(OrderEvent::uuid)
+                .containsExactly(appended.uuid());
+    }
+
+    @Test
+    void deleteUpTo_SegmentsAreCovered_ShouldKeepLaterEvents() {
+        val journal = open(FOUR_EVENTS_PER_SEGMENT);
+        for (int i = 0; i < 10; i++) {
+            journal.append(created(Order.Type.BUY));
+        }
+
+        journal.deleteUpTo(5);
+
+        assertThat(segments())
+                .hasSize(2);
+        assertThat(replay(journal, 5))
+                .extracting(OrderEvent::sequence)
+                .containsExactly(6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void append_JournalIsDisabled_ShouldNotWriteAnything() {
+        val journal = OrderJournal.disabled();
+
+        assertThat(journal.append(created(Order.Type.BUY)))
+                .isZero();
+        assertThat(journal.isEmpty())
+                .isTrue();
+    }
+
+}
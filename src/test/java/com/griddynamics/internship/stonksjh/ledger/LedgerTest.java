@@ -0,0 +1,238 @@
+package com.griddynamics.internship.stonksjh.ledger;
+
+import com.griddynamics.internship.stonksjh.exception.ledger.InsufficientFundsException;
+import com.griddynamics.internship.stonksjh.matching.MatchResult;
+import com.griddynamics.internship.stonksjh.matching.Trade;
+import com.griddynamics.internship.stonksjh.model.LedgerEntry;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.repository.LedgerEntryRepository;
+import lombok.val;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LedgerTest {
+
+    private final LedgerEntryRepository ledgerEntryRepository = mock(LedgerEntryRepository.class);
+    private final Ledger ledger = new Ledger(ledgerEntryRepository, Duration.ZERO);
+    private final UUID buyer = UUID.randomUUID();
+    private final UUID seller = UUID.randomUUID();
+
+    @Nested
+    class Reserve {
+
+        @Test
+        void reserve_FundsAreAvailable_ShouldReserve() {
+            ledger.deposit(buyer, 100_00);
+
+            val entries = ledger.reserve(buyer, UUID.randomUUID(), 60_00);
+
+            assertThat(entries)
+                    .extracting(LedgerEntry::getType, LedgerEntry::getAmount)
+                    .containsExactly(tuple(LedgerEntry.Type.RESERVE, new BigDecimal("60.00")));
+            assertThat(ledger.balance(buyer))
+                    .isEqualTo(new Ledger.Balance(100_00, 60_00));
+        }
+
+        @Test
+        void reserve_MoreThanAvailable_ShouldThrowAndReserveNothing() {
+            ledger.deposit(buyer, 100_00);
+            ledger.reserve(buyer, UUID.randomUUID(), 60_00);
+
+            assertThatExceptionOfType(InsufficientFundsException.class)
+                    .isThrownBy(() -> ledger.reserve(buyer, UUID.randomUUID(), 40_01))
+                    .withMessageContaining("required=40.01, available=40.00");
+            assertThat(ledger.balance(buyer))
+                    .isEqualTo(new Ledger.Balance(100_00, 60_00));
+        }
+
+        @Test
+        void reserve_WithoutUser_ShouldNotAccount() {
+            assertThat(ledger.reserve(null, UUID.randomUUID(), 60_00))
+                    .isEmpty();
+        }
+
+        @Test
+        void replace_ReleasedFundsCoverNewReservation_ShouldSwapThem() {
+            val order = UUID.randomUUID();
+            ledger.deposit(buyer, 100_00);
+            ledger.reserve(buyer, order, 80_00);
+
+            val entries = ledger.replace(buyer, order, 80_00, 90_00);
+
+            assertThat(entries)
+                    .extracting(LedgerEntry::getType)
+                    .containsExactly(LedgerEntry.Type.RELEASE, LedgerEntry.Type.RESERVE);
+            assertThat(ledger.balance(buyer))
+                    .isEqualTo(new Ledger.Balance(100_00, 90_00));
+        }
+
+        @Test
+        void replace_NewReservationIsNotCovered_ShouldKeepPreviousReservation() {
+            val order = UUID.randomUUID();
+            ledger.deposit(buyer, 100_00);
+            ledger.reserve(buyer, order, 80_00);
+
+            assertThatExceptionOfType(InsufficientFundsException.class)
+                    .isThrownBy(() -> ledger.replace(buyer, order, 80_00, 100_01));
+            assertThat(ledger.balance(buyer))
+                    .isEqualTo(new Ledger.Balance(100_00, 80_00));
+        }
+
+        @Test
+        void reserve_ManyThreadsShareAnAccount_ShouldNeverReserveMoreThanTheBalance() throws Exception {
+            ledger.deposit(buyer, 1_000_00);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            List<Future<Boolean>> reservations = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                reservations.add(executor.submit(() -> {
+                    try {
+                        ledger.reserve(buyer, UUID.randomUUID(), 1_00);
+                        return true;
+                    } catch (InsufficientFundsException e) {
+                        return false;
+                    }
+                }));
+            }
+            executor.shutdown();
+
+            int reserved = 0;
+            for (val reservation : reservations) {
+                reserved += reservation.get() ? 1 : 0;
+            }
+            assertThat(reserved)
+                    .isEqualTo(1_000);
+            assertThat(ledger.balance(buyer))
+                    .isEqualTo(new Ledger.Balance(1_000_00, 1_000_00));
+        }
+
+    }
+
+    @Nested
+    class Settle {
+
+        @Test
+        void settle_BuyerPaysLessThanTheLimit_ShouldDebitPriceAndReleaseReservation() {
+            val buyOrder = UUID.randomUUID();
+            val sellOrder = UUID.randomUUID();
+            ledger.deposit(buyer, 100_00);
+            ledger.reserve(buyer, buyOrder, 10 * 10_50);
+            val trade = new Trade(Order.Symbol.AAPL, buyOrder, sellOrder, 10_00, 10, Instant.now(),
+                    10_50, buyer, seller);
+
+            val entries = ledger.settle(new MatchResult(null, List.of(trade), List.of()));
+
+            assertThat(entries)
+                    .extracting(entry -> entry.getType() + " " + entry.getAmount())
+                    .containsExactly("DEBIT 100.00", "RELEASE 105.00", "CREDIT 100.00");
+            assertThat(ledger.balance(buyer))
+                    .isEqualTo(new Ledger.Balance(0, 0));
+            assertThat(ledger.balance(seller))
+                    .isEqualTo(new Ledger.Balance(100_00, 0));
+        }
+
+        @Test
+        void revert_ShouldTakeBackTheSettlement() {
+            val buyOrder = UUID.randomUUID();
+            ledger.deposit(buyer, 100_00);
+            ledger.reserve(buyer, buyOrder, 50_00);
+            val trade = new Trade(Order.Symbol.AAPL, buyOrder, UUID.randomUUID(), 10_00, 5, Instant.now(),
+                    10_00, buyer, seller);
+            val entries = ledger.settle(new MatchResult(null, List.of(trade), List.of()));
+
+            ledger.revert(entries);
+
+            assertThat(ledger.balance(buyer))
+                    .isEqualTo(new Ledger.Balance(100_00, 50_00));
+            assertThat(ledger.balance(seller))
+                    .isEqualTo(new Ledger.Balance(0, 0));
+        }
+
+    }
+
+    @Nested
+    class Load {
+
+        @Test
+        void balance_AccountHasEntries_ShouldStartFromTheirTotals() {
+            when(ledgerEntryRepository.findTotals(buyer))
+                    .thenReturn(totals("250.00", "40.50"));
+
+            assertThat(ledger.balance(buyer))
+                    .isEqualTo(new Ledger.Balance(250_00, 40_50));
+            assertThat(ledger.balance(buyer).available())
+                    .isEqualTo(209_50);
+        }
+
+    }
+
+    @Nested
+    class EvictIdle {
+
+        @Test
+        void evictIdle_AccountHasNothingReserved_ShouldLoadItFromItsEntriesAgain() {
+            ledger.deposit(buyer, 100_00);
+            val written = totals("100.00", "0.00");
+            when(ledgerEntryRepository.findTotals(buyer))
+                    .thenReturn(written);
+
+            ledger.evictIdle();
+
+            assertThat(ledger.isLoaded(buyer))
+                    .isFalse();
+            assertThat(ledger.balance(buyer))
+                    .isEqualTo(new Ledger.Balance(100_00, 0));
+            verify(ledgerEntryRepository, times(2)).findTotals(buyer);
+        }
+
+        @Test
+        void evictIdle_AccountHasMoneyReserved_ShouldKeepIt() {
+            ledger.deposit(buyer, 100_00);
+            ledger.reserve(buyer, UUID.randomUUID(), 60_00);
+
+            ledger.evictIdle();
+
+            assertThat(ledger.isLoaded(buyer))
+                    .isTrue();
+            assertThat(ledger.balance(buyer))
+                    .isEqualTo(new Ledger.Balance(100_00, 60_00));
+        }
+
+        @Test
+        void evictIdle_AccountWasUsedRecently_ShouldKeepIt() {
+            val ledger = new Ledger(ledgerEntryRepository, Duration.ofMinutes(10));
+            ledger.deposit(buyer, 100_00);
+
+            ledger.evictIdle();
+
+            assertThat(ledger.isLoaded(buyer))
+                    .isTrue();
+        }
+
+    }
+
+    private static LedgerEntryRepository.Totals totals(String balance, String reserved) {
+        val totals = mock(LedgerEntryRepository.Totals.class);
+        when(totals.getBalance()).thenReturn(new BigDecimal(balance));
+        when(totals.getReserved()).thenReturn(new BigDecimal(reserved));
+        return totals;
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.griddynamics.internship.stonksjh.matching;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class OrderBookTest {
+
+    private OrderBook orderBook;
+
+    @BeforeEach
+    void initOrderBook() {
+        orderBook = new OrderBook(Order.Symbol.AAPL);
+    }
+
+    private static BookOrder limit(Order.Type type, long price, int amount) {
+        return new BookOrder(UUID.randomUUID(), type, price, amount, 0);
+    }
+
+    private static BookOrder market(Order.Type type, int amount) {
+        return new BookOrder(UUID.randomUUID(), type, null, amount, 0);
+    }
+
+    @Nested
+    class Submit {
+
+        @Test
+        void submit_NoOppositeOrders_ShouldRestLimitOrder() {
+            val result = orderBook.submit(limit(Order.Type.BUY, 100_00, 10));
+
+            assertThat(result.trades())
+                    .isEmpty();
+            assertThat(result.order().status())
+                    .isEqualTo(Order.Status.OPEN);
+            assertThat(orderBook.bestBid())
+                    .hasValue(100_00);
+            assertThat(orderBook.size())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void submit_PricesDoNotCross_ShouldRestBothOrders() {
+            orderBook.submit(limit(Order.Type.SELL, 101_00, 10));
+            val result = orderBook.submit(limit(Order.Type.BUY, 100_00, 10));
+
+            assertThat(result.trades())
+                    .isEmpty();
+            assertThat(orderBook.bestBid())
+                    .hasValue(100_00);
+            assertThat(orderBook.bestAsk())
+                    .hasValue(101_00);
+        }
+
+        @Test
+        void submit_PricesCross_ShouldTradeAtRestingPrice() {
+            val sell = limit(Order.Type.SELL, 99_50, 10);
+            orderBook.submit(sell);
+            val buy = limit(Order.Type.BUY, 100_00, 10);
+
+            val result = orderBook.submit(buy);
+
+            assertThat(result.trades())
+                    .singleElement()
+                    .satisfies(trade -> {
+                        assertThat(trade.price()).isEqualTo(99_50);
+                        assertThat(trade.amount()).isEqualTo(10);
+                        assertThat(trade.buyOrderUuid()).isEqualTo(buy.getUuid());
+                        assertThat(trade.sellOrderUuid()).isEqualTo(sell.getUuid());
+                    });
+            assertThat(result.order().status())
+                    .isEqualTo(Order.Status.FILLED);
+            assertThat(result.counterparts())
+                    .containsExactly(new OrderSnapshot(sell.getUuid(), 10, Order.Status.FILLED));
+            assertThat(orderBook.size())
+                    .isZero();
+        }
+
+        @Test
+        void submit_MultipleLevels_ShouldTradeBestPriceFirst() {
+            orderBook.submit(limit(Order.Type.SELL, 102_00, 5));
+            orderBook.submit(limit(Order.Type.SELL, 101_00, 5));
+
+            val result = orderBook.submit(limit(Order.Type.BUY, 102_00, 8));
+
+            assertThat(result.trades())
+                    .extracting(Trade::price)
+                    .containsExactly(101_00L, 102_00L);
+            assertThat(result.trades())
+                    .extracting(Trade::amount)
+                    .containsExactly(5, 3);
+            assertThat(orderBook.bestAsk())
+                    .hasValue(102_00);
+        }
+
+        @Test
+        void submit_SamePriceLevel_ShouldTradeOldestOrderFirst() {
+            val older = limit(Order.Type.BUY, 100_00, 5);
+            val newer = limit(Order.Type.BUY, 100_00, 5);
+            orderBook.submit(older);
+            orderBook.submit(newer);
+
+            val result = orderBook.submit(limit(Order.Type.SELL, 100_00, 7));
+
+            assertThat(result.counterparts())
+                    .containsExactly(
+                            new OrderSnapshot(older.getUuid(), 5, Order.Status.FILLED),
+                            new OrderSnapshot(newer.getUuid(), 2, Order.Status.PARTIALLY_FILLED)
+                    );
+        }
+
+        @Test
+        void submit_IncomingOrderLargerThanBook_ShouldRestRemainder() {
+            orderBook.submit(limit(Order.Type.SELL, 100_00, 3));
+
+            val result = orderBook.submit(limit(Order.Type.BUY, 100_00, 10));
+
+            assertThat(result.order())
+                    .isEqualTo(new OrderSnapshot(result.order().uuid(), 3, Order.Status.PARTIALLY_FILLED));
+            assertThat(orderBook.bestBid())
+                    .hasValue(100_00);
+            assertThat(orderBook.bestAsk())
+                    .isEmpty();
+        }
+
+        @Test
+        void submit_MarketOrderExceedsLiquidity_ShouldCancelRemainder() {
+            orderBook.submit(limit(Order.Type.BUY, 100_00, 3));
+
+            val result = orderBook.submit(market(Order.Type.SELL, 5));
+
+            assertThat(result.order().filled())
+                    .isEqualTo(3);
+            assertThat(result.order().status())
+                    .isEqualTo(Order.Status.CANCELLED);
+            assertThat(orderBook.size())
+                    .isZero();
+        }
+
+        @Test
+        void submit_MarketOrderReachesProtectionPrice_ShouldStopAndCancelRemainder() {
+            orderBook.submit(limit(Order.Type.SELL, 100_00, 3));
+            orderBook.submit(limit(Order.Type.SELL, 110_00, 3));
+
+            val result = orderBook.submit(BookOrder.market(UUID.randomUUID(), Order.Type.BUY, 105_00, 5, 0));
+
+            assertThat(result.trades())
+                    .singleElement()
+                    .satisfies(trade -> assertThat(trade.price()).isEqualTo(100_00));
+            assertThat(result.order().status())
+                    .isEqualTo(Order.Status.CANCELLED);
+            assertThat(orderBook.bestAsk())
+                    .hasValue(110_00);
+        }
+
+    }
+
+    @Nested
+    class Cancel {
+
+        @Test
+        void cancel_OrderIsResting_ShouldRemoveItFromBook() {
+            val order = limit(Order.Type.SELL, 100_00, 3);
+            orderBook.submit(order);
+
+            assertThat(orderBook.cancel(order.getUuid()))
+                    .contains(new OrderSnapshot(order.getUuid(), 0, Order.Status.CANCELLED));
+            assertThat(orderBook.bestAsk())
+                    .isEmpty();
+            assertThat(order.status())
+                    .isEqualTo(Order.Status.CANCELLED);
+        }
+
+        @Test
+        void cancel_OrderIsUnknown_ShouldReturnEmpty() {
+            assertThat(orderBook.cancel(UUID.randomUUID()))
+                    .isEmpty();
+        }
+
+    }
+
+    @Nested
+    class Rest {
+
+        @Test
+        void rest_OrderIsMarketOrder_ShouldThrow() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> orderBook.rest(market(Order.Type.BUY, 1)));
+        }
+
+    }
+
+    @Nested
+    class Revert {
+
+        @Test
+        void revert_OrderFilledRestingOrders_ShouldRestoreThemInTimeOrder() {
+            val first = limit(Order.Type.SELL, 100_00, 3);
+            val second = limit(Order.Type.SELL, 100_00, 3);
+            orderBook.submit(first);
+            orderBook.submit(second);
+            val result = orderBook.submit(limit(Order.Type.BUY, 100_00, 4));
+
+            orderBook.revert(result);
+
+            assertThat(orderBook.find(first.getUuid()))
+                    .contains(new OrderSnapshot(first.getUuid(), 0, Order.Status.OPEN));
+            assertThat(orderBook.find(second.getUuid()))
+                    .contains(new OrderSnapshot(second.getUuid(), 0, Order.Status.OPEN));
+            assertThat(orderBook.submit(limit(Order.Type.BUY, 100_00, 3)).counterparts())
+                    .containsExactly(new OrderSnapshot(first.getUuid(), 3, Order.Status.FILLED));
+        }
+
+        @Test
+        void revert_OrderRests_ShouldTakeItOutOfBook() {
+            orderBook.submit(limit(Order.Type.SELL, 100_00, 3));
+            val buy = limit(Order.Type.BUY, 100_00, 10);
+            val result = orderBook.submit(buy);
+
+            orderBook.revert(result);
+
+            assertThat(orderBook.find(buy.getUuid()))
+                    .isEmpty();
+            assertThat(orderBook.bestBid())
+                    .isEmpty();
+            assertThat(orderBook.bestAsk())
+                    .hasValue(100_00);
+            assertThat(orderBook.size())
+                    .isEqualTo(1);
+        }
+
+    }
+
+}
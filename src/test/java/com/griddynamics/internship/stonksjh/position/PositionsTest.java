@@ -0,0 +1,236 @@
+package com.griddynamics.internship.stonksjh.position;
+
+import com.griddynamics.internship.stonksjh.exception.position.InsufficientSharesException;
+import com.griddynamics.internship.stonksjh.matching.MatchResult;
+import com.griddynamics.internship.stonksjh.matching.Trade;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.model.Position;
+import com.griddynamics.internship.stonksjh.repository.OrderRepository;
+import com.griddynamics.internship.stonksjh.repository.PositionRepository;
+import lombok.val;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PositionsTest {
+
+    private final PositionRepository positionRepository = mock(PositionRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final Positions positions = new Positions(positionRepository, orderRepository, Duration.ZERO);
+    private final UUID buyer = UUID.randomUUID();
+    private final UUID seller = UUID.randomUUID();
+
+    private void holds(UUID userUuid, Order.Symbol symbol, long amount) {
+        val position = new Position();
+        position.setUserUuid(userUuid);
+        position.setSymbol(symbol);
+        position.setAmount(amount);
+        when(positionRepository.findByUserUuid(userUuid))
+                .thenReturn(List.of(position));
+    }
+
+    private static MatchResult traded(Order.Symbol symbol, int amount, UUID buyUserUuid, UUID sellUserUuid) {
+        val trade = new Trade(symbol, UUID.randomUUID(), UUID.randomUUID(), 100_00, amount, Instant.now(),
+                100_00, buyUserUuid, sellUserUuid);
+        return new MatchResult(null, List.of(trade), List.of());
+    }
+
+    @Nested
+    class Reserve {
+
+        @Test
+        void reserve_SharesAreHeld_ShouldReserve() {
+            holds(seller, Order.Symbol.AAPL, 10);
+
+            positions.reserve(seller, Order.Symbol.AAPL, 4);
+
+            assertThat(positions.holdings(seller))
+                    .containsExactly(new Positions.Holding(Order.Symbol.AAPL, 10, 4));
+        }
+
+        @Test
+        void reserve_MoreThanAvailable_ShouldThrowAndReserveNothing() {
+            holds(seller, Order.Symbol.AAPL, 10);
+            positions.reserve(seller, Order.Symbol.AAPL, 4);
+
+            assertThatExceptionOfType(InsufficientSharesException.class)
+                    .isThrownBy(() -> positions.reserve(seller, Order.Symbol.AAPL, 7))
+                    .withMessageContaining("symbol=AAPL, required=7, available=6");
+            assertThat(positions.holdings(seller))
+                    .containsExactly(new Positions.Holding(Order.Symbol.AAPL, 10, 4));
+        }
+
+        @Test
+        void reserve_SharesOfAnotherSymbolAreHeld_ShouldThrow() {
+            holds(seller, Order.Symbol.AAPL, 10);
+
+            assertThatExceptionOfType(InsufficientSharesException.class)
+                    .isThrownBy(() -> positions.reserve(seller, Order.Symbol.TSLA, 1));
+        }
+
+        @Test
+        void replace_OrderMovesToAnotherSymbol_ShouldReleaseOldAndReserveNew() {
+            holds(seller, Order.Symbol.AAPL, 10);
+            positions.reserve(seller, Order.Symbol.AAPL, 10);
+            positions.settle(traded(Order.Symbol.TSLA, 3, seller, null));
+
+            positions.replace(seller, Order.Symbol.AAPL, 10, Order.Symbol.TSLA, 3);
+
+            assertThat(positions.holdings(seller))
+                    .containsExactly(
+                            new Positions.Holding(Order.Symbol.AAPL, 10, 0),
+                            new Positions.Holding(Order.Symbol.TSLA, 3, 3)
+                    );
+        }
+
+        @Test
+        void holdings_UserHasOpenSellOrders_ShouldStartWithTheirRemainingAmount() {
+            holds(seller, Order.Symbol.AAPL, 10);
+            val reservedShares = mock(OrderRepository.ReservedShares.class);
+            when(reservedShares.getSymbol()).thenReturn("AAPL");
+            when(reservedShares.getReserved()).thenReturn(6L);
+            when(orderRepository.findReservedShares(seller))
+                    .thenReturn(List.of(reservedShares));
+
+            assertThat(positions.holdings(seller))
+                    .containsExactly(new Positions.Holding(Order.Symbol.AAPL, 10, 6));
+        }
+
+    }
+
+    @Nested
+    class Settle {
+
+        @Test
+        void settle_ShouldMoveSharesFromSellerToBuyer() {
+            holds(seller, Order.Symbol.AAPL, 10);
+            positions.reserve(seller, Order.Symbol.AAPL, 10);
+
+            positions.settle(traded(Order.Symbol.AAPL, 4, buyer, seller));
+
+            assertThat(positions.holdings(buyer))
+                    .containsExactly(new Positions.Holding(Order.Symbol.AAPL, 4, 0));
+            assertThat(positions.holdings(seller))
+                    .containsExactly(new Positions.Holding(Order.Symbol.AAPL, 6, 6));
+        }
+
+        @Test
+        void revert_ShouldTakeBackTheSettlement() {
+            holds(seller, Order.Symbol.AAPL, 10);
+            val reserved = positions.reserve(seller, Order.Symbol.AAPL, 10);
+            val settled = positions.settle(traded(Order.Symbol.AAPL, 4, buyer, seller));
+
+            positions.revert(settled);
+            positions.revert(reserved);
+
+            assertThat(positions.holdings(buyer))
+                    .isEmpty();
+            assertThat(positions.holdings(seller))
+                    .containsExactly(new Positions.Holding(Order.Symbol.AAPL, 10, 0));
+        }
+
+    }
+
+    @Nested
+    class Deposit {
+
+        @Test
+        void deposit_ShouldAddAvailableShares() {
+            holds(seller, Order.Symbol.AAPL, 10);
+
+            positions.deposit(seller, Order.Symbol.AAPL, 5);
+            positions.reserve(seller, Order.Symbol.AAPL, 15);
+
+            assertThat(positions.holdings(seller))
+                    .containsExactly(new Positions.Holding(Order.Symbol.AAPL, 15, 15));
+        }
+
+        @Test
+        void revert_ShouldTakeBackTheDeposit() {
+            val deposited = positions.deposit(buyer, Order.Symbol.TSLA, 5);
+
+            positions.revert(deposited);
+
+            assertThat(positions.holdings(buyer))
+                    .isEmpty();
+        }
+
+    }
+
+    @Nested
+    class Preload {
+
+        @Test
+        void preload_ShouldReadTheAccountOnlyOnce() {
+            holds(seller, Order.Symbol.AAPL, 10);
+
+            positions.preload(seller);
+            positions.reserve(seller, Order.Symbol.AAPL, 4);
+            positions.preload(seller);
+
+            assertThat(positions.isLoaded(seller))
+                    .isTrue();
+            assertThat(positions.isLoaded(buyer))
+                    .isFalse();
+            verify(positionRepository).findByUserUuid(seller);
+            assertThat(positions.holdings(seller))
+                    .containsExactly(new Positions.Holding(Order.Symbol.AAPL, 10, 4));
+        }
+
+    }
+
+    @Nested
+    class EvictIdle {
+
+        @Test
+        void evictIdle_AccountHasNothingReserved_ShouldLoadItFromItsPositionsAgain() {
+            holds(buyer, Order.Symbol.AAPL, 10);
+            positions.preload(buyer);
+
+            positions.evictIdle();
+
+            assertThat(positions.isLoaded(buyer))
+                    .isFalse();
+            assertThat(positions.holdings(buyer))
+                    .containsExactly(new Positions.Holding(Order.Symbol.AAPL, 10, 0));
+            verify(positionRepository, times(2)).findByUserUuid(buyer);
+        }
+
+        @Test
+        void evictIdle_AccountHasSharesReserved_ShouldKeepIt() {
+            holds(seller, Order.Symbol.AAPL, 10);
+            positions.reserve(seller, Order.Symbol.AAPL, 4);
+
+            positions.evictIdle();
+
+            assertThat(positions.isLoaded(seller))
+                    .isTrue();
+            assertThat(positions.holdings(seller))
+                    .containsExactly(new Positions.Holding(Order.Symbol.AAPL, 10, 4));
+        }
+
+        @Test
+        void evictIdle_AccountWasUsedRecently_ShouldKeepIt() {
+            val positions = new Positions(positionRepository, orderRepository, Duration.ofMinutes(10));
+            positions.deposit(buyer, Order.Symbol.TSLA, 5);
+
+            positions.evictIdle();
+
+            assertThat(positions.isLoaded(buyer))
+                    .isTrue();
+        }
+
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.griddynamics.internship.stonksjh.repository;
+
+import com.griddynamics.internship.stonksjh.StonksJhApplication;
+import lombok.val;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application against the schema ddl-auto=update created before the migrations: a single usr table
+ * with an identity id, unique constraints named by Hibernate and no tier. Skipped without docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BaselineMigrationTest {
+
+    private static final String USER_UUID = "00000000-0000-4000-8000-000000000001";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    private static ConfigurableApplicationContext context;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startApplication() {
+        createBaseline(new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()
+        )));
+        // command line arguments take precedence over application.properties
+        context = new SpringApplicationBuilder(StonksJhApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                        "--spring.datasource.username=" + POSTGRES.getUsername(),
+                        "--spring.datasource.password=" + POSTGRES.getPassword()
+                );
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void startup_ShouldBaselineAndApplyLaterMigrations() {
+        val info = context.getBean(Flyway.class).info();
+
+        assertThat(info.pending())
+                .isEmpty();
+        assertThat(info.current().getVersion().getVersion())
+                .isEqualTo("8");
+    }
+
+    @Test
+    void usr_ShouldKeepItsUsersWithDefaultTier() {
+        val tier = jdbcTemplate.queryForObject(
+                "select tier from usr where uuid = '%s'".formatted(USER_UUID), String.class
+        );
+
+        assertThat(tier)
+                .isEqualTo("STANDARD");
+    }
+
+    @Test
+    void usr_ShouldHaveRenamedUniqueConstraints() {
+        val constraints = jdbcTemplate.queryForList(
+                "select conname from pg_constraint where conrelid = 'usr'::regclass and contype = 'u'",
+                String.class
+        );
+
+        assertThat(constraints)
+                .containsExactlyInAnyOrder("uk_usr_uuid", "uk_usr_email", "uk_usr_username");
+    }
+
+    @Test
+    void accountTables_ShouldExist() {
+        val tables = jdbcTemplate.queryForList(
+                "select tablename from pg_tables where schemaname = 'public'", String.class
+        );
+        val sequences = jdbcTemplate.queryForList(
+                "select sequencename from pg_sequences where schemaname = 'public'", String.class
+        );
+
+        assertThat(tables)
+                .contains("usr", "fill", "ledger_entry", "user_position");
+        assertThat(sequences)
+                .contains("usr_seq", "order_seq", "fill_seq", "ledger_entry_seq");
+    }
+
+    /**
+     * The DDL Hibernate 6.1 ran for the first version of {@code User}, with one user in it.
+     */
+    private static void createBaseline(JdbcTemplate baseline) {
+        baseline.execute("""
+                create table usr (
+                    id bigint generated by default as identity,
+                    balance Decimal(10,2) default '0.00' not null,
+                    email varchar(255) not null,
+                    username varchar(255) not null,
+                    uuid uuid not null,
+                    primary key (id)
+                )
+                """);
+        baseline.execute("alter table if exists usr add constraint UK_4bakctviobmdk6ddh2nwg08c2 unique (email)");
+        baseline.execute("alter table if exists usr add constraint UK_dfui7gxngrgwn9ewee3ogtgym unique (username)");
+        baseline.execute("alter table if exists usr add constraint UK_qleu8ddawkdltal07p8e6hgva unique (uuid)");
+        baseline.update("""
+                insert into usr (balance, email, username, uuid)
+                values (0.00, 'baseline@example.com', 'baseline', '%s')
+                """.formatted(USER_UUID));
+    }
+
+}
@@ -0,0 +1,307 @@
+package com.griddynamics.internship.stonksjh.repository;
+
+import com.griddynamics.internship.stonksjh.StonksJhApplication;
+import com.griddynamics.internship.stonksjh.ledger.LedgerWriter;
+import com.griddynamics.internship.stonksjh.model.LedgerEntry;
+import com.griddynamics.internship.stonksjh.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application against an empty PostgreSQL twice, once migrating the schema and once validating it
+ * like every later start, and checks the plans of the order queries on a few hundred thousand orders.
+ * Skipped without docker.
+ */
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTest {
+
+    private static final int ORDERS = 200_000;
+    private static final int USERS = 1_000;
+    private static final String USER_UUID = "00000000-0000-4000-8000-00000000002b";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    private static ConfigurableApplicationContext context;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startApplication() {
+        long started = System.nanoTime();
+        start().close();
+        val migrating = Duration.ofNanos(System.nanoTime() - started);
+
+        started = System.nanoTime();
+        context = start();
+        val validating = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Startup migrating the schema took {} ms, validating it {} ms",
+                migrating.toMillis(), validating.toMillis());
+
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        insertOrders();
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void startup_ShouldOnlyValidateMigratedSchema() {
+        val info = context.getBean(Flyway.class).info();
+
+        assertThat(info.pending())
+                .isEmpty();
+        assertThat(info.current().getVersion().getVersion())
+                .isEqualTo("8");
+    }
+
+    @Test
+    void orderTable_ShouldBePartitionedBySymbol() {
+        val partitions = jdbcTemplate.queryForList(
+                "select inhrelid::regclass::text from pg_inherits where inhparent = '\"order\"'::regclass",
+                String.class
+        );
+
+        assertThat(partitions)
+                .containsExactlyInAnyOrder(
+                        "order_aapl", "order_meta", "order_nvda", "order_amzn",
+                        "order_goog", "order_tsla", "order_msft", "order_jnj", "order_default"
+                );
+    }
+
+    @Test
+    void moneyColumns_ShouldHoldHundredTimesLargestOrderValue() {
+        val userUuid = UUID.randomUUID();
+        val largestOrderValue = OrderService.MAX_PRICE.multiply(BigDecimal.valueOf(OrderService.MAX_AMOUNT));
+        jdbcTemplate.update(
+                "insert into usr (id, uuid, email, username) values (nextval('usr_seq'), ?, 'rich@example.com', 'rich')",
+                userUuid
+        );
+
+        // as many sells of the largest order as fit, each credited on its own
+        for (int i = 0; i < 100; i++) {
+            val credit = new LedgerEntry();
+            credit.setUserUuid(userUuid);
+            credit.setType(LedgerEntry.Type.CREDIT);
+            credit.setAmount(largestOrderValue);
+            credit.setCreatedAt(Instant.now());
+            context.getBean(LedgerWriter.class).write(List.of(credit));
+        }
+
+        assertThat(jdbcTemplate.queryForObject("select balance from usr where uuid = ?", BigDecimal.class, userUuid))
+                .isEqualByComparingTo(largestOrderValue.multiply(BigDecimal.valueOf(100)));
+        assertThat(jdbcTemplate.queryForObject(
+                "select max(amount) from ledger_entry where user_uuid = ?", BigDecimal.class, userUuid
+        )).isEqualByComparingTo(largestOrderValue);
+    }
+
+    @Nested
+    class QueryPlans {
+
+        @Test
+        void searchBySymbol_ShouldOnlyScanPartitionOfSymbol() {
+            val plan = explain("""
+                    select id, uuid, user_uuid, type, amount, symbol, price, filled, status, created_at
+                    from "order"
+                    where id > 1000 and symbol = 'AAPL'
+                    order by id
+                    limit 50
+                    """);
+
+            assertThat(plan)
+                    .contains("order_aapl")
+                    .doesNotContain("order_msft", "order_default", "Seq Scan");
+        }
+
+        @Test
+        void searchByUser_ShouldReadIndexOnly() {
+            val plan = explain("""
+                    select id, uuid, user_uuid, type, amount, symbol, price, filled, status, created_at
+                    from "order"
+                    where id > 1000 and user_uuid = '%s'
+                    order by id
+                    limit 50
+                    """.formatted(USER_UUID));
+
+            assertThat(plan)
+                    .contains("Index Only Scan")
+                    .doesNotContain("Seq Scan");
+        }
+
+        @Test
+        void searchByTimeRange_ShouldSeekCreationTimeIndex() {
+            val plan = explain("""
+                    select id, uuid, user_uuid, type, amount, symbol, price, filled, status, created_at
+                    from "order"
+                    where created_at >= now() - interval '1 day'
+                      and created_at >= now() - interval '1 hour'
+                      and (created_at > now() - interval '1 hour' or id > 1000)
+                    order by created_at, id
+                    limit 50
+                    """);
+
+            // indexes of the partitions are named after the partition and the columns
+            assertThat(plan)
+                    .contains("created_at_id_idx")
+                    .doesNotContain("Seq Scan");
+        }
+
+        @Test
+        void searchByType_ShouldUseIndex() {
+            val plan = explain("""
+                    select id, uuid, user_uuid, type, amount, symbol, price, filled, status, created_at
+                    from "order"
+                    where id > 1000 and type = 'SELL'
+                    order by id
+                    limit 50
+                    """);
+
+            assertThat(plan)
+                    .doesNotContain("Seq Scan");
+        }
+
+        @Test
+        void findByUuid_ShouldUseIndex() {
+            val plan = explain("select * from \"order\" where uuid = md5('42')::uuid");
+
+            assertThat(plan)
+                    .doesNotContain("Seq Scan");
+        }
+
+        @Test
+        void findByUuidAndSymbol_ShouldOnlyScanPartitionOfSymbol() {
+            val plan = explain("select * from \"order\" where uuid = md5('42')::uuid and symbol = 'AAPL'");
+
+            assertThat(plan)
+                    .contains("order_aapl")
+                    .doesNotContain("order_msft", "order_default", "Seq Scan");
+        }
+
+        @Test
+        void updateExecution_ShouldOnlyScanPartitionOfSymbol() {
+            val plan = explain("""
+                    update "order" set filled = 10, status = 'FILLED'
+                    where uuid = md5('42')::uuid and symbol = 'AAPL' and filled < 10
+                    """);
+
+            assertThat(plan)
+                    .contains("order_aapl")
+                    .doesNotContain("order_msft", "order_default", "Seq Scan");
+        }
+
+        @Test
+        void replace_ShouldOnlyScanPartitionOfWrittenSymbol() {
+            val plan = explain("""
+                    update "order" set symbol = 'MSFT', type = 'SELL', amount = 5, price = 10.00, filled = 0,
+                        status = 'OPEN'
+                    where id = 42 and symbol = 'AAPL'
+                    """);
+
+            assertThat(plan)
+                    .contains("order_aapl")
+                    .doesNotContain("order_goog", "order_default", "Seq Scan");
+        }
+
+        @Test
+        void deleteByIdAndSymbol_ShouldOnlyScanPartitionOfSymbol() {
+            val plan = explain("delete from \"order\" where id = 42 and symbol = 'AAPL'");
+
+            assertThat(plan)
+                    .contains("order_aapl")
+                    .doesNotContain("order_msft", "order_default", "Seq Scan");
+        }
+
+        @Test
+        void findReservedShares_ShouldUsePartialIndex() {
+            val plan = explain("""
+                    select symbol, sum(amount - filled) as reserved
+                    from "order"
+                    where user_uuid = '%s'
+                      and type = 'SELL'
+                      and status in ('OPEN', 'PARTIALLY_FILLED')
+                    group by symbol
+                    """.formatted(USER_UUID));
+
+            assertThat(plan)
+                    .contains("Index Only Scan")
+                    .doesNotContain("Seq Scan");
+        }
+
+        @Test
+        void findRestingOrders_ShouldUsePartialIndex() {
+            val plan = explain("""
+                    select * from "order"
+                    where status in ('OPEN', 'PARTIALLY_FILLED')
+                    order by created_at, id
+                    """);
+
+            assertThat(plan)
+                    .doesNotContain("Seq Scan");
+        }
+
+    }
+
+    private static ConfigurableApplicationContext start() {
+        // command line arguments take precedence over application.properties
+        return new SpringApplicationBuilder(StonksJhApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                        "--spring.datasource.username=" + POSTGRES.getUsername(),
+                        "--spring.datasource.password=" + POSTGRES.getPassword()
+                );
+    }
+
+    /**
+     * One in twenty orders is still resting, spread over all symbols and users.
+     */
+    private static void insertOrders() {
+        jdbcTemplate.update("""
+                insert into "order" (id, uuid, user_uuid, type, amount, symbol, price, filled, status, created_at)
+                select i,
+                       md5(i::text)::uuid,
+                       ('00000000-0000-4000-8000-' || lpad(to_hex(i %% %d), 12, '0'))::uuid,
+                       case when i / 8 %% 2 = 0 then 'BUY' else 'SELL' end,
+                       10,
+                       (array['AAPL', 'META', 'NVDA', 'AMZN', 'GOOG', 'TSLA', 'MSFT', 'JNJ'])[i %% 8 + 1],
+                       100.00,
+                       case when i %% 20 = 3 then 0 else 10 end,
+                       case when i %% 20 = 3 then 'OPEN' else 'FILLED' end,
+                       now() - (%d - i) * interval '1 second'
+                from generate_series(1, %d) as i
+                """.formatted(USERS, ORDERS, ORDERS));
+        jdbcTemplate.execute("vacuum analyze \"order\"");
+    }
+
+    private static String explain(String query) {
+        val plan = String.join("\n", jdbcTemplate.queryForList("explain " + query, String.class));
+        log.info("Plan of\n{}\n{}", query, plan);
+        return plan;
+    }
+
+}
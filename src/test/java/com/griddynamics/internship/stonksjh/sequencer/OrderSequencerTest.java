@@ -0,0 +1,139 @@
+package com.griddynamics.internship.stonksjh.sequencer;
+
+import com.griddynamics.internship.stonksjh.exception.order.InvalidSymbolException;
+import com.griddynamics.internship.stonksjh.exception.order.OrderQueueFullException;
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class OrderSequencerTest {
+
+    private OrderSequencer orderSequencer;
+
+    @AfterEach
+    void shutdownOrderSequencer() throws InterruptedException {
+        orderSequencer.destroy();
+    }
+
+    @Test
+    void execute_TasksForOneSymbol_ShouldRunInSubmissionOrderOnOneThread() {
+        orderSequencer = new OrderSequencer(1_000);
+        List<Integer> executionOrder = new ArrayList<>();
+        List<String> threads = new ArrayList<>();
+
+        val futures = IntStream.range(0, 500)
+                .mapToObj(i -> orderSequencer.submit(Order.Symbol.TSLA, () -> {
+                    executionOrder.add(i);
+                    threads.add(Thread.currentThread().getName());
+                    return i;
+                }))
+                .toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(executionOrder)
+                .isSorted()
+                .hasSize(500);
+        assertThat(threads)
+                .containsOnly("sequencer-TSLA");
+    }
+
+    @Test
+    void execute_TaskThrows_ShouldRethrowOriginalException() {
+        orderSequencer = new OrderSequencer(16);
+
+        assertThatExceptionOfType(InvalidSymbolException.class)
+                .isThrownBy(() -> orderSequencer.execute(Order.Symbol.AAPL, () -> {
+                    throw new InvalidSymbolException("*");
+                }));
+    }
+
+    @Test
+    void submit_ShardQueueIsFull_ShouldThrow() throws InterruptedException {
+        orderSequencer = new OrderSequencer(1);
+        val release = new CountDownLatch(1);
+        val started = new CountDownLatch(1);
+
+        orderSequencer.run(Order.Symbol.NVDA, () -> {
+        });
+        orderSequencer.submit(Order.Symbol.NVDA, () -> {
+            started.countDown();
+            await(release);
+            return null;
+        });
+        started.await();
+        orderSequencer.submit(Order.Symbol.NVDA, () -> null);
+
+        assertThatExceptionOfType(OrderQueueFullException.class)
+                .isThrownBy(() -> orderSequencer.submit(Order.Symbol.NVDA, () -> null));
+        assertThat(orderSequencer.stats())
+                .filteredOn(stats -> stats.symbol() == Order.Symbol.NVDA)
+                .singleElement()
+                .satisfies(stats -> assertThat(stats.queueDepth()).isEqualTo(1));
+
+        release.countDown();
+    }
+
+    @Test
+    void runAhead_ShardQueueIsFull_ShouldRunBeforeQueuedTasks() throws InterruptedException {
+        orderSequencer = new OrderSequencer(1);
+        val release = new CountDownLatch(1);
+        val started = new CountDownLatch(1);
+        List<String> executionOrder = new ArrayList<>();
+
+        orderSequencer.submit(Order.Symbol.MSFT, () -> {
+            started.countDown();
+            await(release);
+            return null;
+        });
+        started.await();
+        val queued = orderSequencer.submit(Order.Symbol.MSFT, () -> executionOrder.add("queued"));
+        val ranAhead = orderSequencer.runAhead(Order.Symbol.MSFT, () -> executionOrder.add("ahead"));
+
+        assertThat(ranAhead)
+                .isNotDone();
+        release.countDown();
+        CompletableFuture.allOf(queued, ranAhead).join();
+
+        assertThat(executionOrder)
+                .containsExactly("ahead", "queued");
+    }
+
+    @Test
+    void stats_AfterProcessingTasks_ShouldReportEveryShard() {
+        orderSequencer = new OrderSequencer(16);
+
+        orderSequencer.run(Order.Symbol.AAPL, () -> {
+        });
+        orderSequencer.run(Order.Symbol.AAPL, () -> {
+        });
+
+        assertThat(orderSequencer.stats())
+                .hasSize(Order.Symbol.values().length);
+        assertThat(orderSequencer.stats())
+                .filteredOn(stats -> stats.symbol() == Order.Symbol.AAPL)
+                .singleElement()
+                .satisfies(stats -> {
+                    assertThat(stats.processed()).isEqualTo(2);
+                    assertThat(stats.queueDepth()).isZero();
+                });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
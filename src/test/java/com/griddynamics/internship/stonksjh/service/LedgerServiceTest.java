@@ -0,0 +1,67 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.dto.ledger.DepositDTO;
+import com.griddynamics.internship.stonksjh.exception.ledger.InvalidDepositException;
+import com.griddynamics.internship.stonksjh.ledger.Ledger;
+import com.griddynamics.internship.stonksjh.ledger.LedgerWriter;
+import com.griddynamics.internship.stonksjh.repository.LedgerEntryRepository;
+import com.griddynamics.internship.stonksjh.repository.UserRepository;
+import lombok.val;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LedgerServiceTest {
+
+    private final LedgerEntryRepository ledgerEntryRepository = mock(LedgerEntryRepository.class);
+    private final LedgerWriter ledgerWriter = mock(LedgerWriter.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final LedgerService ledgerService = new LedgerService(
+            new Ledger(ledgerEntryRepository, Duration.ofMinutes(10)), ledgerWriter, ledgerEntryRepository, userRepository
+    );
+    private final UUID userUuid = UUID.randomUUID();
+
+    @Nested
+    class Deposit {
+
+        @Test
+        void deposit_AmountIsLargestOrderValue_ShouldCredit() {
+            when(userRepository.existsByUuid(userUuid))
+                    .thenReturn(true);
+
+            val account = ledgerService.deposit(userUuid, new DepositDTO(LedgerService.MAX_DEPOSIT));
+
+            assertThat(LedgerService.MAX_DEPOSIT)
+                    .isEqualByComparingTo(OrderService.MAX_PRICE.multiply(BigDecimal.valueOf(OrderService.MAX_AMOUNT)));
+            assertThat(account.balance())
+                    .isEqualByComparingTo(LedgerService.MAX_DEPOSIT);
+            verify(ledgerWriter).write(anyList());
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"99999999990000.01", "100000000000000", "1e30", "0", "-1.00", "1.001"})
+        void deposit_AmountIsOutOfRange_ShouldThrowBeforeWriting(String amount) {
+            when(userRepository.existsByUuid(userUuid))
+                    .thenReturn(true);
+
+            assertThatExceptionOfType(InvalidDepositException.class)
+                    .isThrownBy(() -> ledgerService.deposit(userUuid, new DepositDTO(new BigDecimal(amount))));
+            verify(ledgerWriter, never()).write(anyList());
+        }
+
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.matching.OrderSnapshot;
+import com.griddynamics.internship.stonksjh.model.Order;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderCacheTest {
+
+    private final OrderCache orderCache = new OrderCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+
+    private static OrderResponseDTO limitOrder() {
+        return OrderResponseDTO.builder()
+                .uuid(UUID.randomUUID())
+                .type(Order.Type.SELL)
+                .amount(10)
+                .symbol(Order.Symbol.MSFT)
+                .price(new BigDecimal("250.25"))
+                .filled(0)
+                .status(Order.Status.OPEN)
+                .userUuid(UUID.randomUUID())
+                .createdAt(Instant.parse("2022-12-01T10:15:30.123456789Z"))
+                .build();
+    }
+
+    private OrderResponseDTO read(UUID uuid) {
+        return orderCache.get(uuid, key -> {
+            throw new AssertionError("order should have been cached");
+        });
+    }
+
+    @Test
+    void encode_OrderHasAllFields_ShouldDecodeToEqualOrder() {
+        val order = limitOrder();
+
+        val entry = OrderCache.encode(order);
+
+        assertThat(entry)
+                .hasSize(OrderCache.ENTRY_BYTES);
+        assertThat(OrderCache.decode(entry))
+                .isEqualTo(order);
+    }
+
+    @Test
+    void encode_MarketOrderWithoutOwner_ShouldDecodeNullsBack() {
+        val order = OrderResponseDTO.builder()
+                .uuid(UUID.randomUUID())
+                .type(Order.Type.BUY)
+                .amount(1)
+                .symbol(Order.Symbol.AAPL)
+                .status(Order.Status.CANCELLED)
+                .build();
+
+        assertThat(OrderCache.decode(OrderCache.encode(order)))
+                .isEqualTo(order);
+    }
+
+    @Test
+    void updateExecution_OrderIsCached_ShouldApplyNewerStateOnly() {
+        val order = limitOrder();
+        orderCache.put(order);
+
+        orderCache.updateExecution(new OrderSnapshot(order.uuid(), 6, Order.Status.PARTIALLY_FILLED));
+        orderCache.updateExecution(new OrderSnapshot(order.uuid(), 4, Order.Status.PARTIALLY_FILLED));
+
+        val result = read(order.uuid());
+        assertThat(result.filled())
+                .isEqualTo(6);
+        assertThat(result.status())
+                .isEqualTo(Order.Status.PARTIALLY_FILLED);
+        assertThat(result.amount())
+                .isEqualTo(order.amount());
+    }
+
+    @Test
+    void updateExecution_OrderIsNotCached_ShouldNotCacheIt() {
+        val uuid = UUID.randomUUID();
+        val loaded = limitOrder();
+
+        orderCache.updateExecution(new OrderSnapshot(uuid, 6, Order.Status.PARTIALLY_FILLED));
+
+        assertThat(orderCache.get(uuid, key -> loaded))
+                .isEqualTo(loaded);
+    }
+
+}
@@ -1,34 +1,91 @@
 package com.griddynamics.internship.stonksjh.service;
 
+import com.griddynamics.internship.stonksjh.candle.CandleInterval;
+import com.griddynamics.internship.stonksjh.candle.Candles;
+import com.griddynamics.internship.stonksjh.dto.order.OrderBatchItemDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderQueryDTO;
 import com.griddynamics.internship.stonksjh.dto.order.OrderRequestDTO;
 import com.griddynamics.internship.stonksjh.dto.order.OrderResponseDTO;
+import com.griddynamics.internship.stonksjh.dto.order.OrderStatusDTO;
+import com.griddynamics.internship.stonksjh.exception.InvalidPageSizeException;
+import com.griddynamics.internship.stonksjh.exception.ledger.InsufficientFundsException;
+import com.griddynamics.internship.stonksjh.exception.order.IdempotencyKeyReusedException;
+import com.griddynamics.internship.stonksjh.exception.order.IdempotencyKeyWithoutOwnerException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidCursorException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidIdempotencyKeyException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidOrderTypeException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidPriceException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidStockAmountException;
 import com.griddynamics.internship.stonksjh.exception.order.InvalidSymbolException;
+import com.griddynamics.internship.stonksjh.exception.order.InvalidTimeRangeException;
+import com.griddynamics.internship.stonksjh.exception.order.OrderBatchTooLargeException;
 import com.griddynamics.internship.stonksjh.exception.order.OrderNotFoundException;
+import com.griddynamics.internship.stonksjh.exception.order.OrderNotModifiableException;
+import com.griddynamics.internship.stonksjh.exception.position.InsufficientSharesException;
+import com.griddynamics.internship.stonksjh.exception.user.UserNotFoundException;
+import com.griddynamics.internship.stonksjh.journal.OrderJournal;
+import com.griddynamics.internship.stonksjh.ledger.Ledger;
+import com.griddynamics.internship.stonksjh.ledger.LedgerWriter;
 import com.griddynamics.internship.stonksjh.mapper.OrderMapper;
+import com.griddynamics.internship.stonksjh.matching.ExecutionWriteQueue;
+import com.griddynamics.internship.stonksjh.matching.ExecutionWriter;
+import com.griddynamics.internship.stonksjh.matching.MatchingEngine;
+import com.griddynamics.internship.stonksjh.matching.OrderSnapshot;
+import com.griddynamics.internship.stonksjh.model.LedgerEntry;
 import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.model.Position;
+import com.griddynamics.internship.stonksjh.position.PositionWriter;
+import com.griddynamics.internship.stonksjh.position.Positions;
+import com.griddynamics.internship.stonksjh.price.SimulatedQuoteProvider;
+import com.griddynamics.internship.stonksjh.repository.FillRepository;
+import com.griddynamics.internship.stonksjh.repository.LedgerEntryRepository;
+import com.griddynamics.internship.stonksjh.repository.OrderFilter;
 import com.griddynamics.internship.stonksjh.repository.OrderRepository;
+import com.griddynamics.internship.stonksjh.repository.OrderView;
+import com.griddynamics.internship.stonksjh.repository.PositionRepository;
+import com.griddynamics.internship.stonksjh.repository.UserRepository;
+import com.griddynamics.internship.stonksjh.sequencer.OrderSequencer;
+import com.griddynamics.internship.stonksjh.uuid.UuidGenerator;
 import lombok.val;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.unit.DataSize;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatNoException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,16 +95,74 @@ public class OrderServiceTest {
 
     private final OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
     private final UUID VALID_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
-    private final OrderResponseDTO PREDEFINED_ORDER = new OrderResponseDTO(VALID_UUID, Order.Type.BUY, 1, Order.Symbol.AAPL);
+    private final OrderResponseDTO PREDEFINED_ORDER = new OrderResponseDTO(
+            VALID_UUID, Order.Type.BUY, 1, Order.Symbol.AAPL, null, 0, Order.Status.OPEN, null, null
+    );
     @MockBean
     private OrderRepository ORDER_REPOSITORY;
     @MockBean
+    private UserRepository USER_REPOSITORY;
+    @MockBean
+    private FillRepository FILL_REPOSITORY;
+    @MockBean
     private OrderMapper INJECTED_MAPPER;
+    @MockBean
+    private LedgerEntryRepository LEDGER_ENTRY_REPOSITORY;
+    @MockBean
+    private LedgerWriter LEDGER_WRITER;
+    @MockBean
+    private PositionRepository POSITION_REPOSITORY;
+    private final MatchingEngine matchingEngine = new MatchingEngine();
+    private final OrderSequencer orderSequencer = new OrderSequencer(16);
+    private final StockPriceService stockPriceService = new StockPriceService(
+            new SimulatedQuoteProvider(), Duration.ofSeconds(5), Duration.ofSeconds(4)
+    );
+    private ExecutionWriteQueue executionWriteQueue;
+    private final OrderAcceptanceTracker orderAcceptanceTracker = new OrderAcceptanceTracker(
+            OrderAcceptanceTracker.Acknowledgement.ACCEPTED, 100, Duration.ofMinutes(1)
+    );
+    private final OrderCache orderCache = new OrderCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+    private Ledger ledger;
+    private Positions positions;
+    private final Candles candles = new Candles();
     private OrderService orderService;
 
     @BeforeAll
     void initOrderService() {
-        orderService = new OrderService(ORDER_REPOSITORY, INJECTED_MAPPER);
+        executionWriteQueue = new ExecutionWriteQueue(
+                new ExecutionWriter(ORDER_REPOSITORY, FILL_REPOSITORY, LEDGER_WRITER, new PositionWriter(POSITION_REPOSITORY)),
+                OrderJournal.disabled(), 100, 50
+        );
+        ledger = new Ledger(LEDGER_ENTRY_REPOSITORY, Duration.ofMinutes(10));
+        positions = new Positions(POSITION_REPOSITORY, ORDER_REPOSITORY, Duration.ofMinutes(10));
+        orderService = new OrderService(
+                ORDER_REPOSITORY,
+                USER_REPOSITORY,
+                INJECTED_MAPPER,
+                matchingEngine,
+                orderSequencer,
+                executionWriteQueue,
+                stockPriceService,
+                orderCache,
+                orderAcceptanceTracker,
+                ledger,
+                positions,
+                candles,
+                new IdempotencyKeys(ORDER_REPOSITORY, INJECTED_MAPPER, false, 100, Duration.ofMinutes(1)),
+                new UuidGenerator(UuidGenerator.Version.V7)
+        );
+    }
+
+    @BeforeEach
+    void clearOrderCache() {
+        orderCache.invalidateAll();
+    }
+
+    @AfterAll
+    void shutdownExecutors() throws InterruptedException {
+        orderSequencer.destroy();
+        executionWriteQueue.destroy();
+        stockPriceService.destroy();
     }
 
     @Nested
@@ -123,6 +238,665 @@ public class OrderServiceTest {
                     .isThrownBy(() -> orderService.create(orderRequestDTO));
         }
 
+        @ParameterizedTest(name = "{index}: price={0}")
+        @MethodSource("util.OrderFlowTestDataFactory#invalidPrices")
+        void create_OrderPriceIsInvalid_ShouldThrow(BigDecimal price) {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("AAPL")
+                    .type("BUY")
+                    .price(price)
+                    .build();
+
+            assertThatExceptionOfType(InvalidPriceException.class)
+                    .isThrownBy(() -> orderService.create(orderRequestDTO));
+        }
+
+        @Test
+        void create_OrderCrossesRestingOrder_ShouldPersistFillAndCounterpartState() {
+            val sellRequestDTO = OrderRequestDTO.builder()
+                    .amount(5)
+                    .symbol("JNJ")
+                    .type("SELL")
+                    .price(new BigDecimal("150.00"))
+                    .build();
+            val buyRequestDTO = OrderRequestDTO.builder()
+                    .amount(5)
+                    .symbol("JNJ")
+                    .type("BUY")
+                    .price(new BigDecimal("151.00"))
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(any(OrderRequestDTO.class)))
+                    .thenAnswer(i -> orderMapper.requestDtoToEntity((OrderRequestDTO) i.getArguments()[0]));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> i.getArguments()[0]);
+
+            val sell = orderService.create(sellRequestDTO);
+            val buy = orderService.create(buyRequestDTO);
+
+            assertThat(sell.status())
+                    .isEqualTo(Order.Status.OPEN);
+            assertThat(buy.status())
+                    .isEqualTo(Order.Status.FILLED);
+            assertThat(buy.filled())
+                    .isEqualTo(5);
+
+            verify(FILL_REPOSITORY).saveAll(anyList());
+            verify(ORDER_REPOSITORY)
+                    .updateExecution(eq(sell.uuid()), eq(Order.Symbol.JNJ), eq(5), eq(Order.Status.FILLED));
+            assertThat(candles.recent(Order.Symbol.JNJ, CandleInterval.SECOND, 1))
+                    .singleElement()
+                    .satisfies(candle -> {
+                        assertThat(candle.close()).isEqualTo(150_00);
+                        assertThat(candle.volume()).isGreaterThanOrEqualTo(5);
+                    });
+        }
+
+        @Test
+        void create_UsersTradeWithEachOther_ShouldMoveMoneyWithTheFill() {
+            val sellerUuid = UUID.randomUUID();
+            val buyerUuid = UUID.randomUUID();
+            ledger.deposit(buyerUuid, 1_000_00);
+            when(POSITION_REPOSITORY.findByUserUuid(sellerUuid))
+                    .thenReturn(List.of(position(sellerUuid, Order.Symbol.MSFT, 5)));
+            val sellRequestDTO = OrderRequestDTO.builder()
+                    .amount(5)
+                    .symbol("MSFT")
+                    .type("SELL")
+                    .price(new BigDecimal("150.00"))
+                    .userUuid(sellerUuid)
+                    .build();
+            val buyRequestDTO = OrderRequestDTO.builder()
+                    .amount(5)
+                    .symbol("MSFT")
+                    .type("BUY")
+                    .price(new BigDecimal("151.00"))
+                    .userUuid(buyerUuid)
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(any(OrderRequestDTO.class)))
+                    .thenAnswer(i -> orderMapper.requestDtoToEntity((OrderRequestDTO) i.getArguments()[0]));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> i.getArguments()[0]);
+
+            orderService.create(sellRequestDTO);
+            orderService.create(buyRequestDTO);
+
+            // paid at the resting order's price, the difference to the limit price is released
+            assertThat(ledger.balance(buyerUuid))
+                    .isEqualTo(new Ledger.Balance(250_00, 0));
+            assertThat(ledger.balance(sellerUuid))
+                    .isEqualTo(new Ledger.Balance(750_00, 0));
+            verify(LEDGER_WRITER).write(argThat(entries -> entries.stream()
+                    .map(LedgerEntry::getType)
+                    .toList()
+                    .equals(List.of(
+                            LedgerEntry.Type.RESERVE, LedgerEntry.Type.DEBIT,
+                            LedgerEntry.Type.RELEASE, LedgerEntry.Type.CREDIT
+                    ))));
+            assertThat(positions.holdings(buyerUuid))
+                    .containsExactly(new Positions.Holding(Order.Symbol.MSFT, 5, 0));
+            assertThat(positions.holdings(sellerUuid))
+                    .isEmpty();
+            verify(POSITION_REPOSITORY).addToAmount(buyerUuid, "MSFT", 5);
+            verify(POSITION_REPOSITORY).addToAmount(sellerUuid, "MSFT", -5);
+        }
+
+        @Test
+        void create_WriteFails_ShouldRevertFillsMoneyAndShares() {
+            val sellerUuid = UUID.randomUUID();
+            val buyerUuid = UUID.randomUUID();
+            ledger.deposit(buyerUuid, 450_000_00);
+            when(POSITION_REPOSITORY.findByUserUuid(sellerUuid))
+                    .thenReturn(List.of(position(sellerUuid, Order.Symbol.MSFT, 5)));
+            val sellRequestDTO = OrderRequestDTO.builder()
+                    .amount(5)
+                    .symbol("MSFT")
+                    .type("SELL")
+                    .price(new BigDecimal("90000.00"))
+                    .userUuid(sellerUuid)
+                    .build();
+            val buyRequestDTO = OrderRequestDTO.builder()
+                    .amount(5)
+                    .symbol("MSFT")
+                    .type("BUY")
+                    .price(new BigDecimal("90000.00"))
+                    .userUuid(buyerUuid)
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(any(OrderRequestDTO.class)))
+                    .thenAnswer(i -> orderMapper.requestDtoToEntity((OrderRequestDTO) i.getArguments()[0]));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> i.getArguments()[0])
+                    .thenThrow(new IllegalStateException("database is down"));
+
+            val sell = orderService.create(sellRequestDTO);
+            assertThatExceptionOfType(IllegalStateException.class)
+                    .isThrownBy(() -> orderService.create(buyRequestDTO));
+
+            assertThat(matchingEngine.book(Order.Symbol.MSFT).find(sell.uuid()))
+                    .contains(new OrderSnapshot(sell.uuid(), 0, Order.Status.OPEN));
+            assertThat(ledger.balance(buyerUuid))
+                    .isEqualTo(new Ledger.Balance(450_000_00, 0));
+            assertThat(positions.holdings(sellerUuid))
+                    .containsExactly(new Positions.Holding(Order.Symbol.MSFT, 5, 5));
+            assertThat(positions.holdings(buyerUuid))
+                    .isEmpty();
+
+            matchingEngine.book(Order.Symbol.MSFT).cancel(sell.uuid());
+        }
+
+        @Test
+        void create_FirstOrderOfUser_ShouldLoadAccountsOnCallingThread() {
+            val sellerUuid = UUID.randomUUID();
+            List<Thread> loadingThreads = new CopyOnWriteArrayList<>();
+            when(POSITION_REPOSITORY.findByUserUuid(sellerUuid))
+                    .thenAnswer(i -> {
+                        loadingThreads.add(Thread.currentThread());
+                        return List.of(position(sellerUuid, Order.Symbol.MSFT, 5));
+                    });
+            val sellRequestDTO = OrderRequestDTO.builder()
+                    .amount(5)
+                    .symbol("MSFT")
+                    .type("SELL")
+                    .price(new BigDecimal("90000.00"))
+                    .userUuid(sellerUuid)
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(any(OrderRequestDTO.class)))
+                    .thenAnswer(i -> orderMapper.requestDtoToEntity((OrderRequestDTO) i.getArguments()[0]));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> i.getArguments()[0]);
+
+            assertThat(orderService.loadsAccounts(sellerUuid))
+                    .isTrue();
+            val sell = orderService.create(sellRequestDTO);
+
+            assertThat(orderService.loadsAccounts(sellerUuid))
+                    .isFalse();
+            assertThat(loadingThreads)
+                    .containsExactly(Thread.currentThread());
+
+            matchingEngine.book(Order.Symbol.MSFT).cancel(sell.uuid());
+        }
+
+        @Test
+        void create_SellerDoesNotHoldTheShares_ShouldThrowAndReserveNothing() {
+            val sellerUuid = UUID.randomUUID();
+            when(POSITION_REPOSITORY.findByUserUuid(sellerUuid))
+                    .thenReturn(List.of(position(sellerUuid, Order.Symbol.MSFT, 3)));
+            val sellRequestDTO = OrderRequestDTO.builder()
+                    .amount(4)
+                    .symbol("MSFT")
+                    .type("SELL")
+                    .price(new BigDecimal("150.00"))
+                    .userUuid(sellerUuid)
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(sellRequestDTO))
+                    .thenReturn(orderMapper.requestDtoToEntity(sellRequestDTO));
+
+            assertThatExceptionOfType(InsufficientSharesException.class)
+                    .isThrownBy(() -> orderService.create(sellRequestDTO));
+            assertThat(positions.holdings(sellerUuid))
+                    .containsExactly(new Positions.Holding(Order.Symbol.MSFT, 3, 0));
+            verify(ORDER_REPOSITORY, never()).save(any(Order.class));
+        }
+
+        @Test
+        void create_BuyerCannotPayForOrder_ShouldThrowAndReserveNothing() {
+            val buyerUuid = UUID.randomUUID();
+            ledger.deposit(buyerUuid, 100_00);
+            val buyRequestDTO = OrderRequestDTO.builder()
+                    .amount(2)
+                    .symbol("MSFT")
+                    .type("BUY")
+                    .price(new BigDecimal("50.01"))
+                    .userUuid(buyerUuid)
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(buyRequestDTO))
+                    .thenReturn(orderMapper.requestDtoToEntity(buyRequestDTO));
+
+            assertThatExceptionOfType(InsufficientFundsException.class)
+                    .isThrownBy(() -> orderService.create(buyRequestDTO));
+            assertThat(ledger.balance(buyerUuid))
+                    .isEqualTo(new Ledger.Balance(100_00, 0));
+            verify(ORDER_REPOSITORY, never()).save(any(Order.class));
+        }
+
+        @Test
+        void create_OrderIsCreatedAndFilledLater_ShouldServeReadsFromCache() {
+            val sellRequestDTO = OrderRequestDTO.builder()
+                    .amount(3)
+                    .symbol("JNJ")
+                    .type("SELL")
+                    .price(new BigDecimal("140.00"))
+                    .build();
+            val buyRequestDTO = OrderRequestDTO.builder()
+                    .amount(3)
+                    .symbol("JNJ")
+                    .type("BUY")
+                    .price(new BigDecimal("140.00"))
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(any(OrderRequestDTO.class)))
+                    .thenAnswer(i -> orderMapper.requestDtoToEntity((OrderRequestDTO) i.getArguments()[0]));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> i.getArguments()[0]);
+
+            val sell = orderService.create(sellRequestDTO);
+            assertThat(orderService.read(sell.uuid()))
+                    .isEqualTo(sell);
+
+            orderService.create(buyRequestDTO);
+            val result = orderService.read(sell.uuid());
+
+            assertThat(result.status())
+                    .isEqualTo(Order.Status.FILLED);
+            assertThat(result.filled())
+                    .isEqualTo(3);
+
+            verify(ORDER_REPOSITORY, never()).findByUUID(any(UUID.class));
+        }
+
+        @Test
+        void create_MarketOrderFindsNoLiquidity_ShouldCancelRemainder() {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("META")
+                    .type("BUY")
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(orderRequestDTO))
+                    .thenReturn(orderMapper.requestDtoToEntity(orderRequestDTO));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> i.getArguments()[0]);
+
+            val result = orderService.create(orderRequestDTO);
+
+            assertThat(result.status())
+                    .isEqualTo(Order.Status.CANCELLED);
+            assertThat(result.filled())
+                    .isZero();
+        }
+
+        @Test
+        void create_MarketOrderBeyondProtectionPrice_ShouldNotTrade() {
+            val sellRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("TSLA")
+                    .type("SELL")
+                    .price(new BigDecimal("10000.00"))
+                    .build();
+            val buyRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("TSLA")
+                    .type("BUY")
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(sellRequestDTO))
+                    .thenReturn(orderMapper.requestDtoToEntity(sellRequestDTO));
+            when(INJECTED_MAPPER.requestDtoToEntity(buyRequestDTO))
+                    .thenReturn(orderMapper.requestDtoToEntity(buyRequestDTO));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> i.getArguments()[0]);
+
+            orderService.create(sellRequestDTO);
+            val result = orderService.create(buyRequestDTO);
+
+            assertThat(result.status())
+                    .isEqualTo(Order.Status.CANCELLED);
+            assertThat(result.filled())
+                    .isZero();
+        }
+
+    }
+
+    @Nested
+    class Accept {
+
+        @Test
+        void accept_OrderDataIsValid_ShouldAcknowledgeBeforeWriteAndTrackStatus() throws InterruptedException {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("NVDA")
+                    .type("BUY")
+                    .price(new BigDecimal("1.00"))
+                    .build();
+            val writeStarted = new CountDownLatch(1);
+            val releaseWrite = new CountDownLatch(1);
+
+            when(INJECTED_MAPPER.requestDtoToEntity(orderRequestDTO))
+                    .thenReturn(orderMapper.requestDtoToEntity(orderRequestDTO));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> {
+                        writeStarted.countDown();
+                        releaseWrite.await();
+                        return i.getArguments()[0];
+                    });
+
+            val accepted = orderService.accept(orderRequestDTO);
+
+            assertThat(accepted.state())
+                    .isEqualTo(OrderStatusDTO.State.ACCEPTED);
+            assertThat(writeStarted.await(5, TimeUnit.SECONDS))
+                    .isTrue();
+            assertThat(orderService.status(accepted.uuid()).state())
+                    .isEqualTo(OrderStatusDTO.State.ACCEPTED);
+
+            releaseWrite.countDown();
+
+            assertThat(awaitState(accepted.uuid(), OrderStatusDTO.State.PERSISTED))
+                    .isTrue();
+            assertThat(orderService.read(accepted.uuid()).uuid())
+                    .isEqualTo(accepted.uuid());
+        }
+
+        @Test
+        void accept_WriteFails_ShouldReportFailedStatus() throws InterruptedException {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("NVDA")
+                    .type("SELL")
+                    .price(new BigDecimal("100000.00"))
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(orderRequestDTO))
+                    .thenReturn(orderMapper.requestDtoToEntity(orderRequestDTO));
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenThrow(new IllegalStateException("database is down"));
+
+            val accepted = orderService.accept(orderRequestDTO);
+
+            assertThat(awaitState(accepted.uuid(), OrderStatusDTO.State.FAILED))
+                    .isTrue();
+            assertThat(orderService.status(accepted.uuid()).error().message())
+                    .isEqualTo("database is down");
+            assertThat(matchingEngine.book(Order.Symbol.NVDA).find(accepted.uuid()))
+                    .isEmpty();
+        }
+
+        private boolean awaitState(UUID uuid, OrderStatusDTO.State state) throws InterruptedException {
+            val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (System.nanoTime() < deadline) {
+                if (orderService.status(uuid).state() == state) {
+                    return true;
+                }
+                Thread.sleep(10);
+            }
+            return false;
+        }
+
+    }
+
+    @Nested
+    class Idempotency {
+
+        private final UUID sellerUuid = UUID.randomUUID();
+
+        private OrderRequestDTO restingSell() {
+            when(POSITION_REPOSITORY.findByUserUuid(sellerUuid))
+                    .thenReturn(List.of(position(sellerUuid, Order.Symbol.META, 10)));
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("META")
+                    .type("SELL")
+                    .price(new BigDecimal("100000.00"))
+                    .userUuid(sellerUuid)
+                    .build();
+            when(INJECTED_MAPPER.requestDtoToEntity(orderRequestDTO))
+                    .thenAnswer(i -> orderMapper.requestDtoToEntity(orderRequestDTO));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            return orderRequestDTO;
+        }
+
+        @Test
+        void create_KeyIsRetried_ShouldReturnFirstOrderWithoutWritingAgain() {
+            val orderRequestDTO = restingSell();
+            val idempotencyKey = UUID.randomUUID().toString();
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> i.getArguments()[0]);
+
+            val first = orderService.create(orderRequestDTO, idempotencyKey);
+            val retried = orderService.create(orderRequestDTO, idempotencyKey);
+
+            assertThat(retried)
+                    .isEqualTo(first);
+            assertThat(orderService.create(orderRequestDTO, UUID.randomUUID().toString()).uuid())
+                    .isNotEqualTo(first.uuid());
+            verify(ORDER_REPOSITORY, times(2)).save(any(Order.class));
+        }
+
+        @Test
+        void submit_DuplicatesAreConcurrent_ShouldCreateOneOrder() throws InterruptedException {
+            val orderRequestDTO = restingSell();
+            val idempotencyKey = UUID.randomUUID().toString();
+            val writeStarted = new CountDownLatch(1);
+            val releaseWrite = new CountDownLatch(1);
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> {
+                        writeStarted.countDown();
+                        releaseWrite.await();
+                        return i.getArguments()[0];
+                    });
+
+            val first = orderService.submit(orderRequestDTO, idempotencyKey);
+            assertThat(writeStarted.await(5, TimeUnit.SECONDS))
+                    .isTrue();
+            val duplicate = orderService.submit(orderRequestDTO, idempotencyKey);
+            assertThat(duplicate)
+                    .isNotDone();
+
+            releaseWrite.countDown();
+
+            assertThat(duplicate.join().uuid())
+                    .isEqualTo(first.join().uuid());
+            verify(ORDER_REPOSITORY).save(any(Order.class));
+        }
+
+        @Test
+        void create_KeyIsReusedForDifferentOrder_ShouldThrow() {
+            val orderRequestDTO = restingSell();
+            val idempotencyKey = UUID.randomUUID().toString();
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> i.getArguments()[0]);
+            orderService.create(orderRequestDTO, idempotencyKey);
+
+            val changedRequestDTO = OrderRequestDTO.builder()
+                    .amount(2)
+                    .symbol("META")
+                    .type("SELL")
+                    .price(new BigDecimal("100000.00"))
+                    .userUuid(sellerUuid)
+                    .build();
+            when(INJECTED_MAPPER.requestDtoToEntity(changedRequestDTO))
+                    .thenAnswer(i -> orderMapper.requestDtoToEntity(changedRequestDTO));
+
+            assertThatExceptionOfType(IdempotencyKeyReusedException.class)
+                    .isThrownBy(() -> orderService.create(changedRequestDTO, idempotencyKey));
+        }
+
+        @Test
+        void create_FirstAttemptFails_ShouldCreateOrderOnRetry() {
+            val orderRequestDTO = restingSell();
+            val idempotencyKey = UUID.randomUUID().toString();
+            List<UUID> attempts = new CopyOnWriteArrayList<>();
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> {
+                        attempts.add(((Order) i.getArguments()[0]).getUuid());
+                        throw new IllegalStateException("database is down");
+                    })
+                    .thenAnswer(i -> {
+                        attempts.add(((Order) i.getArguments()[0]).getUuid());
+                        return i.getArguments()[0];
+                    });
+
+            assertThatExceptionOfType(IllegalStateException.class)
+                    .isThrownBy(() -> orderService.create(orderRequestDTO, idempotencyKey));
+            val retried = orderService.create(orderRequestDTO, idempotencyKey);
+
+            assertThat(retried.symbol())
+                    .isEqualTo(Order.Symbol.META);
+            assertThat(attempts)
+                    .hasSize(2)
+                    .endsWith(retried.uuid());
+            val book = matchingEngine.book(Order.Symbol.META);
+            assertThat(book.find(attempts.get(0)))
+                    .isEmpty();
+            assertThat(book.find(retried.uuid()))
+                    .contains(new OrderSnapshot(retried.uuid(), 0, Order.Status.OPEN));
+            assertThat(book.size())
+                    .isEqualTo(1);
+            assertThat(positions.holdings(sellerUuid))
+                    .containsExactly(new Positions.Holding(Order.Symbol.META, 10, 1));
+            verify(ORDER_REPOSITORY, times(2)).save(any(Order.class));
+        }
+
+        @Test
+        void create_OrderHasNoOwner_ShouldThrow() {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("META")
+                    .type("SELL")
+                    .price(new BigDecimal("100000.00"))
+                    .build();
+
+            assertThatExceptionOfType(IdempotencyKeyWithoutOwnerException.class)
+                    .isThrownBy(() -> orderService.create(orderRequestDTO, UUID.randomUUID().toString()));
+            verify(ORDER_REPOSITORY, never()).save(any(Order.class));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"", "   "})
+        void create_KeyIsBlank_ShouldThrow(String idempotencyKey) {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("META")
+                    .type("SELL")
+                    .build();
+
+            assertThatExceptionOfType(InvalidIdempotencyKeyException.class)
+                    .isThrownBy(() -> orderService.create(orderRequestDTO, idempotencyKey));
+        }
+
+    }
+
+    @Nested
+    class CreateAll {
+
+        @Test
+        void createAll_BatchContainsInvalidOrders_ShouldRejectOnlyInvalidOrders() {
+            val orderRequestDTOs = List.of(
+                    OrderRequestDTO.builder().amount(1).symbol("AMZN").type("BUY").build(),
+                    OrderRequestDTO.builder().amount(-1).symbol("AMZN").type("BUY").build(),
+                    OrderRequestDTO.builder().amount(2).symbol("GOOG").type("SELL").build(),
+                    OrderRequestDTO.builder().amount(3).symbol("*").type("SELL").build()
+            );
+
+            when(INJECTED_MAPPER.requestDtoToEntity(any(OrderRequestDTO.class)))
+                    .thenAnswer(i -> orderMapper.requestDtoToEntity((OrderRequestDTO) i.getArguments()[0]));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.saveAll(anyList()))
+                    .thenAnswer(i -> i.getArguments()[0]);
+
+            val result = orderService.createAll(orderRequestDTOs);
+
+            assertThat(result)
+                    .extracting(OrderBatchItemDTO::index)
+                    .containsExactly(0, 1, 2, 3);
+            assertThat(result)
+                    .extracting(item -> item.error() == null)
+                    .containsExactly(true, false, true, false);
+            assertThat(result.get(2).order().amount())
+                    .isEqualTo(2);
+
+            verify(ORDER_REPOSITORY, times(2)).saveAll(anyList());
+        }
+
+        @Test
+        void createAll_BuyerCannotPayForOneOrder_ShouldRejectOnlyThatOrder() {
+            val buyerUuid = UUID.randomUUID();
+            ledger.deposit(buyerUuid, 100_00);
+            val orderRequestDTOs = List.of(
+                    OrderRequestDTO.builder().amount(1).symbol("MSFT").type("BUY")
+                            .price(new BigDecimal("60.00")).userUuid(buyerUuid).build(),
+                    OrderRequestDTO.builder().amount(1).symbol("MSFT").type("BUY")
+                            .price(new BigDecimal("60.00")).userUuid(buyerUuid).build(),
+                    OrderRequestDTO.builder().amount(1).symbol("MSFT").type("BUY")
+                            .price(new BigDecimal("40.00")).userUuid(buyerUuid).build()
+            );
+
+            when(INJECTED_MAPPER.requestDtoToEntity(any(OrderRequestDTO.class)))
+                    .thenAnswer(i -> orderMapper.requestDtoToEntity((OrderRequestDTO) i.getArguments()[0]));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.saveAll(anyList()))
+                    .thenAnswer(i -> i.getArguments()[0]);
+
+            val result = orderService.createAll(orderRequestDTOs);
+
+            assertThat(result)
+                    .extracting(item -> item.error() == null)
+                    .containsExactly(true, false, true);
+            assertThat(ledger.balance(buyerUuid))
+                    .isEqualTo(new Ledger.Balance(100_00, 100_00));
+        }
+
+        @Test
+        void createAll_BatchContainsNull_ShouldRejectOnlyNull() {
+            val orderRequestDTOs = Arrays.asList(
+                    null,
+                    OrderRequestDTO.builder().amount(1).symbol("TSLA").type("SELL")
+                            .price(new BigDecimal("100000.00")).build()
+            );
+
+            when(INJECTED_MAPPER.requestDtoToEntity(any(OrderRequestDTO.class)))
+                    .thenAnswer(i -> orderMapper.requestDtoToEntity((OrderRequestDTO) i.getArguments()[0]));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.saveAll(anyList()))
+                    .thenAnswer(i -> i.getArguments()[0]);
+
+            val result = orderService.createAll(orderRequestDTOs);
+
+            assertThat(result)
+                    .extracting(item -> item.error() == null)
+                    .containsExactly(false, true);
+            assertThat(result.get(0).error().message())
+                    .isEqualTo("Order cannot be null");
+        }
+
+        @Test
+        void createAll_BatchExceedsMaxSize_ShouldThrow() {
+            val orderRequestDTOs = Collections.nCopies(
+                    OrderService.MAX_BATCH_SIZE + 1,
+                    OrderRequestDTO.builder().amount(1).symbol("AAPL").type("BUY").build()
+            );
+
+            assertThatExceptionOfType(OrderBatchTooLargeException.class)
+                    .isThrownBy(() -> orderService.createAll(orderRequestDTOs));
+        }
+
     }
 
     @Nested
@@ -148,6 +922,22 @@ public class OrderServiceTest {
             verify(INJECTED_MAPPER).entityToResponseDTO(any(Order.class));
         }
 
+        @Test
+        void readOneOrder_OrderWasRead_ShouldNotReachRepositoryAgain() {
+            when(ORDER_REPOSITORY.findByUUID(any(UUID.class)))
+                    .thenReturn(Optional.of(orderMapper.dtoToEntity(PREDEFINED_ORDER)));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+
+            val first = orderService.read(PREDEFINED_ORDER.uuid());
+            val second = orderService.read(PREDEFINED_ORDER.uuid());
+
+            assertThat(second)
+                    .isEqualTo(first);
+
+            verify(ORDER_REPOSITORY).findByUUID(PREDEFINED_ORDER.uuid());
+        }
+
         @Test
         void readOneOrder_NoOrderWithGivenUuidExists_ShouldThrow() {
             when(ORDER_REPOSITORY.findByUUID(any(UUID.class)))
@@ -159,6 +949,141 @@ public class OrderServiceTest {
             verify(ORDER_REPOSITORY).findByUUID(PREDEFINED_ORDER.uuid());
         }
 
+        @Test
+        void readPage_FiltersAreValid_ShouldSearchWithFilterAndReturnCursor() {
+            val userUuid = UUID.randomUUID();
+            val orderQueryDTO = OrderQueryDTO.builder()
+                    .symbol("AAPL")
+                    .type("BUY")
+                    .userUuid(userUuid)
+                    .after(10L)
+                    .size(1)
+                    .build();
+            val expectedFilter = OrderFilter.builder()
+                    .symbol(Order.Symbol.AAPL)
+                    .type(Order.Type.BUY)
+                    .userUuid(userUuid)
+                    .build();
+            val view = new OrderView(
+                    11, VALID_UUID, userUuid, Order.Type.BUY, 1, Order.Symbol.AAPL,
+                    null, 0, Order.Status.OPEN, Instant.EPOCH
+            );
+
+            when(USER_REPOSITORY.existsByUuid(userUuid))
+                    .thenReturn(true);
+            when(ORDER_REPOSITORY.search(expectedFilter, 10, null, 1))
+                    .thenReturn(List.of(view));
+            when(INJECTED_MAPPER.viewToResponseDTO(any(OrderView.class)))
+                    .thenAnswer(i -> orderMapper.viewToResponseDTO((OrderView) i.getArguments()[0]));
+
+            val result = orderService.read(orderQueryDTO);
+
+            assertThat(result.orders())
+                    .singleElement()
+                    .satisfies(order -> {
+                        assertThat(order.uuid()).isEqualTo(VALID_UUID);
+                        assertThat(order.userUuid()).isEqualTo(userUuid);
+                    });
+            assertThat(result.nextCursor())
+                    .isEqualTo(11L);
+            assertThat(result.nextCreatedAt())
+                    .isNull();
+        }
+
+        @Test
+        void readPage_TimeRangeIsGiven_ShouldReturnCreationTimeWithCursor() {
+            val from = Instant.parse("2023-01-01T00:00:00Z");
+            val afterCreatedAt = Instant.parse("2023-01-02T00:00:00Z");
+            val orderQueryDTO = OrderQueryDTO.builder()
+                    .from(from)
+                    .after(10L)
+                    .afterCreatedAt(afterCreatedAt)
+                    .size(1)
+                    .build();
+            val view = new OrderView(
+                    7, VALID_UUID, null, Order.Type.BUY, 1, Order.Symbol.AAPL,
+                    null, 0, Order.Status.OPEN, afterCreatedAt.plusSeconds(1)
+            );
+
+            when(ORDER_REPOSITORY.search(OrderFilter.builder().from(from).build(), 10, afterCreatedAt, 1))
+                    .thenReturn(List.of(view));
+            when(INJECTED_MAPPER.viewToResponseDTO(any(OrderView.class)))
+                    .thenAnswer(i -> orderMapper.viewToResponseDTO((OrderView) i.getArguments()[0]));
+
+            val result = orderService.read(orderQueryDTO);
+
+            assertThat(result.nextCursor())
+                    .isEqualTo(7L);
+            assertThat(result.nextCreatedAt())
+                    .isEqualTo(afterCreatedAt.plusSeconds(1));
+        }
+
+        @Test
+        void readPage_TimeRangeCursorLacksCreationTime_ShouldThrow() {
+            val orderQueryDTO = OrderQueryDTO.builder()
+                    .from(Instant.parse("2023-01-01T00:00:00Z"))
+                    .after(10L)
+                    .size(1)
+                    .build();
+
+            assertThatExceptionOfType(InvalidCursorException.class)
+                    .isThrownBy(() -> orderService.read(orderQueryDTO));
+        }
+
+        @Test
+        void readPage_UserDoesNotExist_ShouldThrow() {
+            val userUuid = UUID.randomUUID();
+            when(USER_REPOSITORY.existsByUuid(userUuid))
+                    .thenReturn(false);
+
+            assertThatExceptionOfType(UserNotFoundException.class)
+                    .isThrownBy(() -> orderService.read(OrderQueryDTO.builder().userUuid(userUuid).size(1).build()));
+        }
+
+        @Test
+        void readPage_LastPageIsNotFull_ShouldNotReturnCursor() {
+            when(ORDER_REPOSITORY.search(OrderFilter.builder().build(), 0, null, 100))
+                    .thenReturn(List.of());
+
+            val result = orderService.read(OrderQueryDTO.builder().size(100).build());
+
+            assertThat(result.orders())
+                    .isEmpty();
+            assertThat(result.nextCursor())
+                    .isNull();
+        }
+
+        @ParameterizedTest(name = "{index}: size={0}")
+        @ValueSource(ints = {0, -1, OrderService.MAX_PAGE_SIZE + 1})
+        void readPage_PageSizeIsInvalid_ShouldThrow(int size) {
+            assertThatExceptionOfType(InvalidPageSizeException.class)
+                    .isThrownBy(() -> orderService.read(OrderQueryDTO.builder().size(size).build()));
+        }
+
+        @Test
+        void readPage_SymbolIsInvalid_ShouldThrow() {
+            val orderQueryDTO = OrderQueryDTO.builder()
+                    .symbol("*")
+                    .size(100)
+                    .build();
+
+            assertThatExceptionOfType(InvalidSymbolException.class)
+                    .isThrownBy(() -> orderService.read(orderQueryDTO));
+        }
+
+        @Test
+        void readPage_TimeRangeIsEmpty_ShouldThrow() {
+            val now = Instant.now();
+            val orderQueryDTO = OrderQueryDTO.builder()
+                    .from(now)
+                    .to(now)
+                    .size(100)
+                    .build();
+
+            assertThatExceptionOfType(InvalidTimeRangeException.class)
+                    .isThrownBy(() -> orderService.read(orderQueryDTO));
+        }
+
     }
 
     @Nested
@@ -261,6 +1186,26 @@ public class OrderServiceTest {
             verify(ORDER_REPOSITORY).findByUUID(PREDEFINED_ORDER.uuid());
         }
 
+        @Test
+        void updateOrder_OrderIsAlreadyFilled_ShouldThrow() {
+            val orderRequestDTO = OrderRequestDTO.builder()
+                    .amount(1)
+                    .symbol("AAPL")
+                    .type("BUY")
+                    .build();
+            val filledOrder = orderMapper.dtoToEntity(PREDEFINED_ORDER);
+            filledOrder.setFilled(1);
+            filledOrder.setStatus(Order.Status.FILLED);
+
+            when(ORDER_REPOSITORY.findByUUID(any(UUID.class)))
+                    .thenReturn(Optional.of(filledOrder));
+
+            assertThatExceptionOfType(OrderNotModifiableException.class)
+                    .isThrownBy(() -> orderService.update(PREDEFINED_ORDER.uuid(), orderRequestDTO));
+
+            verify(ORDER_REPOSITORY).findByUUID(PREDEFINED_ORDER.uuid());
+        }
+
     }
 
     @Nested
@@ -270,11 +1215,90 @@ public class OrderServiceTest {
         void deleteOrder_OrderExists_ShouldDeleteOrderCorrectly() {
             when(ORDER_REPOSITORY.findByUUID(any(UUID.class)))
                     .thenReturn(Optional.of(orderMapper.dtoToEntity(PREDEFINED_ORDER)));
+            when(ORDER_REPOSITORY.deleteByIdAndSymbol(anyLong(), any(Order.Symbol.class)))
+                    .thenReturn(1);
 
             assertThatNoException()
                     .isThrownBy(() -> orderService.delete(PREDEFINED_ORDER.uuid()));
 
             verify(ORDER_REPOSITORY).findByUUID(PREDEFINED_ORDER.uuid());
+            verify(ORDER_REPOSITORY).deleteByIdAndSymbol(0L, Order.Symbol.AAPL);
+        }
+
+        @Test
+        void deleteOrder_OrderIsCached_ShouldLookItUpInItsPartitionOnly() {
+            when(ORDER_REPOSITORY.findByUUID(any(UUID.class)))
+                    .thenReturn(Optional.of(orderMapper.dtoToEntity(PREDEFINED_ORDER)));
+            when(ORDER_REPOSITORY.findByUUIDAndSymbol(any(UUID.class), any(Order.Symbol.class)))
+                    .thenReturn(Optional.of(orderMapper.dtoToEntity(PREDEFINED_ORDER)));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.deleteByIdAndSymbol(anyLong(), any(Order.Symbol.class)))
+                    .thenReturn(1);
+
+            orderService.read(PREDEFINED_ORDER.uuid());
+            orderService.delete(PREDEFINED_ORDER.uuid());
+
+            // once by the read, which had nothing cached
+            verify(ORDER_REPOSITORY).findByUUID(PREDEFINED_ORDER.uuid());
+            verify(ORDER_REPOSITORY).findByUUIDAndSymbol(PREDEFINED_ORDER.uuid(), Order.Symbol.AAPL);
+            verify(ORDER_REPOSITORY).deleteByIdAndSymbol(0L, Order.Symbol.AAPL);
+        }
+
+        @Test
+        void deleteOrder_OrderIsCached_ShouldEvictIt() {
+            when(ORDER_REPOSITORY.findByUUID(any(UUID.class)))
+                    .thenReturn(Optional.of(orderMapper.dtoToEntity(PREDEFINED_ORDER)))
+                    .thenReturn(Optional.of(orderMapper.dtoToEntity(PREDEFINED_ORDER)))
+                    .thenReturn(Optional.empty());
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.deleteByIdAndSymbol(anyLong(), any(Order.Symbol.class)))
+                    .thenReturn(1);
+
+            orderService.read(PREDEFINED_ORDER.uuid());
+            orderService.delete(PREDEFINED_ORDER.uuid());
+
+            assertThatExceptionOfType(OrderNotFoundException.class)
+                    .isThrownBy(() -> orderService.read(PREDEFINED_ORDER.uuid()));
+        }
+
+        @Test
+        void deleteOrder_OrderIsGoneFromItsPartition_ShouldThrowAndPutItBackIntoBook() {
+            val buyerUuid = UUID.randomUUID();
+            ledger.deposit(buyerUuid, 100_00);
+            val buyRequestDTO = OrderRequestDTO.builder()
+                    .amount(2)
+                    .symbol("GOOG")
+                    .type("BUY")
+                    .price(new BigDecimal("1.00"))
+                    .userUuid(buyerUuid)
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(buyRequestDTO))
+                    .thenReturn(orderMapper.requestDtoToEntity(buyRequestDTO));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(Order.class)))
+                    .thenAnswer(i -> orderMapper.entityToResponseDTO((Order) i.getArguments()[0]));
+            when(ORDER_REPOSITORY.save(any(Order.class)))
+                    .thenAnswer(i -> i.getArguments()[0]);
+
+            val buy = orderService.create(buyRequestDTO);
+            val saved = ArgumentCaptor.forClass(Order.class);
+            verify(ORDER_REPOSITORY).save(saved.capture());
+            when(ORDER_REPOSITORY.findByUUID(buy.uuid()))
+                    .thenReturn(Optional.of(saved.getValue()));
+            when(ORDER_REPOSITORY.deleteByIdAndSymbol(anyLong(), any(Order.Symbol.class)))
+                    .thenReturn(0);
+
+            assertThatExceptionOfType(OrderNotFoundException.class)
+                    .isThrownBy(() -> orderService.delete(buy.uuid()));
+
+            assertThat(matchingEngine.book(Order.Symbol.GOOG).find(buy.uuid()))
+                    .contains(new OrderSnapshot(buy.uuid(), 0, Order.Status.OPEN));
+            assertThat(ledger.balance(buyerUuid))
+                    .isEqualTo(new Ledger.Balance(100_00, 2_00));
+
+            matchingEngine.book(Order.Symbol.GOOG).cancel(buy.uuid());
         }
 
         @Test
@@ -290,4 +1314,12 @@ public class OrderServiceTest {
 
     }
 
+    private static Position position(UUID userUuid, Order.Symbol symbol, long amount) {
+        val position = new Position();
+        position.setUserUuid(userUuid);
+        position.setSymbol(symbol);
+        position.setAmount(amount);
+        return position;
+    }
+
 }
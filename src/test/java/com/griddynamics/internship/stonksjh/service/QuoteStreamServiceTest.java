@@ -0,0 +1,238 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.exception.order.InvalidSymbolException;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.price.Quote;
+import com.griddynamics.internship.stonksjh.price.SimulatedQuoteProvider;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import util.MutableClock;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class QuoteStreamServiceTest {
+
+    private static final Duration SLOW_CONSUMER_TIMEOUT = Duration.ofMillis(200);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2023-01-02T10:00:00Z"));
+    private final StockPriceService stockPriceService = new StockPriceService(
+            new SimulatedQuoteProvider(clock), clock, Duration.ofSeconds(5), Duration.ofSeconds(4)
+    );
+    private final QuoteStreamService quoteStreamService = new QuoteStreamService(
+            stockPriceService, Duration.ofMinutes(1), SLOW_CONSUMER_TIMEOUT, 2
+    );
+
+    @AfterEach
+    void shutdownServices() {
+        quoteStreamService.destroy();
+        stockPriceService.destroy();
+    }
+
+    private static Quote quote(Order.Symbol symbol, String price) {
+        return Quote.builder()
+                .symbol(symbol)
+                .price(new BigDecimal(price))
+                .timestamp(Instant.now())
+                .build();
+    }
+
+    @Nested
+    class Subscribe {
+
+        @Test
+        void subscribe_SymbolIsValid_ShouldSendCurrentQuote() throws InterruptedException {
+            val emitter = new RecordingEmitter();
+
+            quoteStreamService.subscribe(EnumSet.of(Order.Symbol.AAPL), emitter);
+
+            assertThat(emitter.awaitReceived(1))
+                    .singleElement()
+                    .isEqualTo(stockPriceService.getQuote(Order.Symbol.AAPL));
+            assertThat(quoteStreamService.subscriberCount(Order.Symbol.AAPL))
+                    .isEqualTo(1);
+            assertThat(quoteStreamService.subscriberCount(Order.Symbol.TSLA))
+                    .isZero();
+        }
+
+        @Test
+        void subscribe_SymbolIsInvalid_ShouldThrow() {
+            assertThatExceptionOfType(InvalidSymbolException.class)
+                    .isThrownBy(() -> quoteStreamService.subscribe(List.of("AAPL", "*")));
+        }
+
+    }
+
+    @Nested
+    class Publish {
+
+        @Test
+        void publish_OtherSymbol_ShouldNotBeDelivered() throws InterruptedException {
+            val emitter = new RecordingEmitter();
+            quoteStreamService.subscribe(EnumSet.of(Order.Symbol.AAPL), emitter);
+            emitter.awaitReceived(1);
+
+            quoteStreamService.publish(quote(Order.Symbol.TSLA, "250.00"));
+            val aapl = quote(Order.Symbol.AAPL, "151.00");
+            quoteStreamService.publish(aapl);
+
+            assertThat(emitter.awaitReceived(2))
+                    .last()
+                    .isEqualTo(aapl);
+        }
+
+        @Test
+        void publish_ConsumerIsSlow_ShouldDeliverOnlyLatestQuote() throws InterruptedException {
+            val emitter = new RecordingEmitter();
+            emitter.block();
+            quoteStreamService.subscribe(EnumSet.of(Order.Symbol.AAPL), emitter);
+            emitter.awaitBlocked();
+
+            quoteStreamService.publish(quote(Order.Symbol.AAPL, "151.00"));
+            quoteStreamService.publish(quote(Order.Symbol.AAPL, "152.00"));
+            val latest = quote(Order.Symbol.AAPL, "153.00");
+            quoteStreamService.publish(latest);
+            emitter.unblock();
+
+            assertThat(emitter.awaitReceived(2))
+                    .hasSize(2)
+                    .last()
+                    .isEqualTo(latest);
+        }
+
+        @Test
+        void publish_ConsumerIsGone_ShouldUnsubscribe() throws InterruptedException {
+            val emitter = new RecordingEmitter();
+            quoteStreamService.subscribe(EnumSet.of(Order.Symbol.AAPL), emitter);
+            emitter.awaitReceived(1);
+            emitter.fail();
+
+            quoteStreamService.publish(quote(Order.Symbol.AAPL, "151.00"));
+
+            for (int i = 0; i < 100 && quoteStreamService.subscriberCount(Order.Symbol.AAPL) > 0; i++) {
+                Thread.sleep(10);
+            }
+            assertThat(quoteStreamService.subscriberCount(Order.Symbol.AAPL))
+                    .isZero();
+        }
+
+    }
+
+    @Nested
+    class Tick {
+
+        @Test
+        void tick_QuoteDidNotChange_ShouldNotPublishAgain() throws InterruptedException {
+            val emitter = new RecordingEmitter();
+            quoteStreamService.subscribe(EnumSet.of(Order.Symbol.AAPL), emitter);
+            emitter.awaitReceived(1);
+            quoteStreamService.tick();
+            emitter.awaitReceived(2);
+
+            quoteStreamService.tick();
+
+            assertThat(emitter.awaitReceived(3))
+                    .hasSize(2);
+        }
+
+        @Test
+        void tick_QuoteChanged_ShouldPublishNewQuote() throws InterruptedException {
+            val emitter = new RecordingEmitter();
+            quoteStreamService.subscribe(EnumSet.of(Order.Symbol.AAPL), emitter);
+            emitter.awaitReceived(1);
+            quoteStreamService.tick();
+            emitter.awaitReceived(2);
+
+            clock.advance(Duration.ofSeconds(5));
+            quoteStreamService.tick();
+
+            assertThat(emitter.awaitReceived(3))
+                    .hasSize(3)
+                    .last()
+                    .isEqualTo(stockPriceService.getQuote(Order.Symbol.AAPL));
+        }
+
+        @Test
+        void tick_ConsumerIsStuck_ShouldDisconnect() throws InterruptedException {
+            val emitter = new RecordingEmitter();
+            emitter.block();
+            quoteStreamService.subscribe(EnumSet.of(Order.Symbol.AAPL), emitter);
+            emitter.awaitBlocked();
+            Thread.sleep(SLOW_CONSUMER_TIMEOUT.toMillis() + 50);
+
+            quoteStreamService.tick();
+
+            assertThat(quoteStreamService.subscriberCount(Order.Symbol.AAPL))
+                    .isZero();
+            emitter.unblock();
+        }
+
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Quote> received = new CopyOnWriteArrayList<>();
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private volatile CountDownLatch release = new CountDownLatch(0);
+        private volatile boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            blocked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(Quote.class::isInstance)
+                    .map(Quote.class::cast)
+                    .forEach(received::add);
+        }
+
+        private void block() {
+            release = new CountDownLatch(1);
+        }
+
+        private void awaitBlocked() throws InterruptedException {
+            blocked.await(5, TimeUnit.SECONDS);
+        }
+
+        private void unblock() {
+            release.countDown();
+        }
+
+        private void fail() {
+            failing = true;
+        }
+
+        private List<Quote> awaitReceived(int expected) throws InterruptedException {
+            for (int i = 0; i < 100 && received.size() < expected; i++) {
+                Thread.sleep(10);
+            }
+            // leaves room for unexpected extra deliveries to show up
+            Thread.sleep(20);
+            return received;
+        }
+
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.griddynamics.internship.stonksjh.service;
+
+import com.griddynamics.internship.stonksjh.exception.price.QuoteUnavailableException;
+import com.griddynamics.internship.stonksjh.model.Order;
+import com.griddynamics.internship.stonksjh.price.Quote;
+import com.griddynamics.internship.stonksjh.price.QuoteProvider;
+import com.griddynamics.internship.stonksjh.price.SimulatedQuoteProvider;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import util.MutableClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class StockPriceServiceTest {
+
+    private static final Duration TTL = Duration.ofSeconds(5);
+    private static final Duration REFRESH_AHEAD = Duration.ofSeconds(4);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2023-01-02T10:00:00Z"));
+    private final CountingQuoteProvider quoteProvider = new CountingQuoteProvider(new SimulatedQuoteProvider(clock));
+    private final StockPriceService stockPriceService = new StockPriceService(quoteProvider, clock, TTL, REFRESH_AHEAD);
+
+    @AfterEach
+    void shutdownStockPriceService() {
+        stockPriceService.destroy();
+    }
+
+    @Test
+    void constructor_RefreshAheadExceedsTtl_ShouldThrow() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new StockPriceService(quoteProvider, clock, TTL, TTL.plusSeconds(1)));
+    }
+
+    @Nested
+    class GetQuote {
+
+        @Test
+        void getQuote_QuoteIsFresh_ShouldNotCallProvider() {
+            val first = stockPriceService.getQuote(Order.Symbol.AAPL);
+            clock.advance(Duration.ofSeconds(1));
+            val second = stockPriceService.getQuote(Order.Symbol.AAPL);
+
+            assertThat(second)
+                    .isEqualTo(first);
+            assertThat(quoteProvider.calls())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void getQuote_QuoteExpired_ShouldFetchAgain() {
+            stockPriceService.getQuote(Order.Symbol.AAPL);
+            clock.advance(TTL);
+            val quote = stockPriceService.getQuote(Order.Symbol.AAPL);
+
+            assertThat(quote.timestamp())
+                    .isEqualTo(clock.instant());
+            assertThat(quoteProvider.calls())
+                    .isEqualTo(2);
+        }
+
+        @Test
+        void getQuote_QuoteIsDueForRefresh_ShouldServeCachedQuoteAndRefreshInBackground() throws InterruptedException {
+            val first = stockPriceService.getQuote(Order.Symbol.AAPL);
+            clock.advance(REFRESH_AHEAD);
+
+            val second = stockPriceService.getQuote(Order.Symbol.AAPL);
+
+            assertThat(second)
+                    .isEqualTo(first);
+            assertThat(quoteProvider.awaitCalls(2))
+                    .isTrue();
+            Quote refreshed = null;
+            for (int i = 0; i < 100 && (refreshed == null || refreshed.equals(first)); i++) {
+                Thread.sleep(10);
+                refreshed = stockPriceService.getQuote(Order.Symbol.AAPL);
+            }
+            assertThat(refreshed.timestamp())
+                    .isEqualTo(clock.instant());
+        }
+
+        @Test
+        void getQuote_SymbolsAreCachedSeparately_ShouldFetchEachSymbolOnce() {
+            stockPriceService.getQuote(Order.Symbol.AAPL);
+            stockPriceService.getQuote(Order.Symbol.TSLA);
+            stockPriceService.getQuote(Order.Symbol.AAPL);
+
+            assertThat(quoteProvider.calls())
+                    .isEqualTo(2);
+        }
+
+        @Test
+        void getQuote_ConcurrentMisses_ShouldCallProviderOnce() throws Exception {
+            val threads = 1_000;
+            val executor = Executors.newFixedThreadPool(64);
+            val start = new CountDownLatch(1);
+            try {
+                List<Future<Quote>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return stockPriceService.getQuote(Order.Symbol.AAPL);
+                    }));
+                }
+                start.countDown();
+                for (val future : futures) {
+                    assertThat(future.get(10, TimeUnit.SECONDS).symbol())
+                            .isEqualTo(Order.Symbol.AAPL);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(quoteProvider.calls())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void getQuote_ProviderFails_ShouldThrowAndRetryOnNextLookup() {
+            quoteProvider.failNext();
+
+            assertThatExceptionOfType(QuoteUnavailableException.class)
+                    .isThrownBy(() -> stockPriceService.getQuote(Order.Symbol.AAPL));
+            assertThat(stockPriceService.getQuote(Order.Symbol.AAPL).symbol())
+                    .isEqualTo(Order.Symbol.AAPL);
+        }
+
+    }
+
+    private static class CountingQuoteProvider implements QuoteProvider {
+
+        private final QuoteProvider delegate;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean failNext;
+
+        private CountingQuoteProvider(QuoteProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Quote fetch(Order.Symbol symbol) {
+            calls.incrementAndGet();
+            if (failNext) {
+                failNext = false;
+                throw new QuoteUnavailableException(symbol);
+            }
+            // widens the window in which concurrent lookups pile up behind a single fetch
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return delegate.fetch(symbol);
+        }
+
+        private int calls() {
+            return calls.get();
+        }
+
+        private boolean awaitCalls(int expected) throws InterruptedException {
+            for (int i = 0; i < 100 && calls.get() < expected; i++) {
+                Thread.sleep(10);
+            }
+            return calls.get() >= expected;
+        }
+
+        private void failNext() {
+            failNext = true;
+        }
+
+    }
+
+}
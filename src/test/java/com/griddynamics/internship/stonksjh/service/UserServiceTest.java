@@ -2,6 +2,7 @@ package com.griddynamics.internship.stonksjh.service;
 
 import com.griddynamics.internship.stonksjh.dto.user.UserRequestDTO;
 import com.griddynamics.internship.stonksjh.dto.user.UserResponseDTO;
+import com.griddynamics.internship.stonksjh.exception.InvalidPageSizeException;
 import com.griddynamics.internship.stonksjh.exception.user.EmailFormatException;
 import com.griddynamics.internship.stonksjh.exception.user.EmailTakenException;
 import com.griddynamics.internship.stonksjh.exception.user.UserNotFoundException;
@@ -10,8 +11,11 @@ import com.griddynamics.internship.stonksjh.exception.user.UsernameTakenExceptio
 import com.griddynamics.internship.stonksjh.mapper.UserMapper;
 import com.griddynamics.internship.stonksjh.model.User;
 import com.griddynamics.internship.stonksjh.repository.UserRepository;
+import com.griddynamics.internship.stonksjh.uuid.UuidGenerator;
 import lombok.val;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -23,12 +27,19 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mapstruct.factory.Mappers;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -49,12 +60,18 @@ class UserServiceTest {
     private UserRepository USR_REPOSITORY;
     @MockBean
     private UserMapper INJECTED_MAPPER;
+    private final UserCache USER_CACHE = new UserCache(100, Duration.ofMinutes(1));
     private UserService CRUD_SERVICE;
     private UserResponseDTO PREDEFINED_USER;
 
     @BeforeAll
     void initUserService() {
-        CRUD_SERVICE = new UserService(USR_REPOSITORY, INJECTED_MAPPER);
+        CRUD_SERVICE = new UserService(USR_REPOSITORY, INJECTED_MAPPER, USER_CACHE, new UuidGenerator(UuidGenerator.Version.V7));
+    }
+
+    @BeforeEach
+    void clearUserCache() {
+        USER_CACHE.invalidateAll();
     }
 
     @BeforeAll
@@ -76,6 +93,13 @@ class UserServiceTest {
                 .build();
     }
 
+    private static DataIntegrityViolationException constraintViolation(String constraintName) {
+        return new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("duplicate key value", new SQLException(), constraintName)
+        );
+    }
+
     @Nested
     class Create {
 
@@ -133,10 +157,10 @@ class UserServiceTest {
                     .username(username)
                     .build();
 
-            when(USR_REPOSITORY.findByEmail(PREDEFINED_USER.email()))
-                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
-            when(USR_REPOSITORY.findByUsername(PREDEFINED_USER.username()))
-                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
+            when(INJECTED_MAPPER.requestDtoToEntity(userRequestDTO))
+                    .thenReturn(MAPPER.requestDtoToEntity(userRequestDTO));
+            when(USR_REPOSITORY.saveAndFlush(any(User.class)))
+                    .thenThrow(constraintViolation(User.EMAIL_CONSTRAINT));
 
             assertThatExceptionOfType(EmailTakenException.class)
                     .isThrownBy(() -> CRUD_SERVICE.create(userRequestDTO));
@@ -151,15 +175,32 @@ class UserServiceTest {
                     .username(username)
                     .build();
 
-            when(USR_REPOSITORY.findByEmail(PREDEFINED_USER.email()))
-                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
-            when(USR_REPOSITORY.findByUsername(PREDEFINED_USER.username()))
-                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
+            when(INJECTED_MAPPER.requestDtoToEntity(userRequestDTO))
+                    .thenReturn(MAPPER.requestDtoToEntity(userRequestDTO));
+            when(USR_REPOSITORY.saveAndFlush(any(User.class)))
+                    .thenThrow(constraintViolation(User.USERNAME_CONSTRAINT));
 
             assertThatExceptionOfType(UsernameTakenException.class)
                     .isThrownBy(() -> CRUD_SERVICE.create(userRequestDTO));
         }
 
+        @Test
+        @DisplayName("UserService#create should rethrow violations of other constraints")
+        void create_shouldRethrow_whenOtherConstraintIsViolated() {
+            val userRequestDTO = UserRequestDTO.builder()
+                    .email("valid@email.com")
+                    .username("valid_username")
+                    .build();
+
+            when(INJECTED_MAPPER.requestDtoToEntity(userRequestDTO))
+                    .thenReturn(MAPPER.requestDtoToEntity(userRequestDTO));
+            when(USR_REPOSITORY.saveAndFlush(any(User.class)))
+                    .thenThrow(constraintViolation("uk_usr_uuid"));
+
+            assertThatExceptionOfType(DataIntegrityViolationException.class)
+                    .isThrownBy(() -> CRUD_SERVICE.create(userRequestDTO));
+        }
+
     }
 
     @Nested
@@ -180,12 +221,33 @@ class UserServiceTest {
             assertThat(CRUD_SERVICE.read(uuid))
                     .isEqualTo(PREDEFINED_USER);
 
-            verify(USR_REPOSITORY, times(2))
+            // the second read is served from the cache
+            verify(USR_REPOSITORY)
                     .findByUuid(uuid);
-            verify(INJECTED_MAPPER, times(2))
+            verify(INJECTED_MAPPER)
                     .entityToResponseDTO(any(User.class));
         }
 
+        @Test
+        @DisplayName("UserService#read should not cache a user that does not exist")
+        void readOne_shouldLoadAgain_whenUserDidNotExist() {
+            val uuid = UUID.fromString(PREDEFINED_UUID);
+
+            when(USR_REPOSITORY.findByUuid(uuid))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(User.class)))
+                    .thenReturn(PREDEFINED_USER);
+
+            assertThatExceptionOfType(UserNotFoundException.class)
+                    .isThrownBy(() -> CRUD_SERVICE.read(uuid));
+            assertThat(CRUD_SERVICE.read(uuid))
+                    .isEqualTo(PREDEFINED_USER);
+
+            verify(USR_REPOSITORY, times(2))
+                    .findByUuid(uuid);
+        }
+
         @ParameterizedTest(name = "{index}: uuid={0}")
         @DisplayName("UserService#read should throw UserNotFoundException when user with given uuid does not exist")
         @ValueSource(strings = NONEXISTENT_UUID)
@@ -203,37 +265,68 @@ class UserServiceTest {
         }
 
         @Test
-        @DisplayName("UserService#read (no args overload) should return an empty list when no users exist")
-        void readAll_shouldReturnEmptyList_whenNoUsersExist() {
-            when(USR_REPOSITORY.findAll())
+        @DisplayName("UserService#read (page overload) should return an empty page without cursor when no users exist")
+        void readPage_shouldReturnEmptyPage_whenNoUsersExist() {
+            when(USR_REPOSITORY.findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(10)))
                     .thenReturn(List.of());
 
-            assertThat(CRUD_SERVICE.read())
+            val page = CRUD_SERVICE.read(null, 10);
+
+            assertThat(page.users())
                     .isEmpty();
+            assertThat(page.nextCursor())
+                    .isNull();
+        }
 
-            verify(USR_REPOSITORY)
-                    .findAll();
+        @Test
+        @DisplayName("UserService#read (page overload) should return the id of the last user as cursor when the page is full")
+        void readPage_shouldReturnCursor_whenPageIsFull() {
+            val user = MAPPER.dtoToEntity(PREDEFINED_USER);
+            ReflectionTestUtils.setField(user, "id", 42L);
+            when(USR_REPOSITORY.findByIdGreaterThanOrderByIdAsc(41, PageRequest.ofSize(1)))
+                    .thenReturn(List.of(user));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(User.class)))
+                    .thenReturn(PREDEFINED_USER);
+
+            val page = CRUD_SERVICE.read(41L, 1);
+
+            assertThat(page.users())
+                    .isEqualTo(List.of(PREDEFINED_USER));
+            assertThat(page.nextCursor())
+                    .isEqualTo(42L);
         }
 
         @Test
-        @DisplayName("UserService#read (no args overload) should return a non-empty list when any users exist")
-        void readAll_shouldReturnNonEmptyList_whenUsersExist() {
-            when(USR_REPOSITORY.findAll())
+        @DisplayName("UserService#read (page overload) should not return a cursor when the last page is not full")
+        void readPage_shouldNotReturnCursor_whenPageIsNotFull() {
+            when(USR_REPOSITORY.findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(10)))
                     .thenReturn(List.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
             when(INJECTED_MAPPER.entityToResponseDTO(any(User.class)))
                     .thenReturn(PREDEFINED_USER);
 
-            assertDoesNotThrow(() -> CRUD_SERVICE.read());
-            val list = CRUD_SERVICE.read();
-            assertThat(list)
-                    .isNotEmpty();
-            assertThat(list)
-                    .isEqualTo(List.of(PREDEFINED_USER));
+            assertThat(CRUD_SERVICE.read(null, 10).nextCursor())
+                    .isNull();
+        }
 
-            verify(USR_REPOSITORY, times(2))
-                    .findAll();
-            verify(INJECTED_MAPPER, times(2))
-                    .entityToResponseDTO(any(User.class));
+        @ParameterizedTest(name = "{index}: size={0}")
+        @DisplayName("UserService#read (page overload) should throw when the page size is out of range")
+        @ValueSource(ints = {0, -1, UserService.MAX_PAGE_SIZE + 1})
+        void readPage_shouldThrow_whenPageSizeIsInvalid(int size) {
+            assertThatExceptionOfType(InvalidPageSizeException.class)
+                    .isThrownBy(() -> CRUD_SERVICE.read(null, size));
+        }
+
+        @Test
+        @DisplayName("UserService#readAll should pass every streamed user to the consumer")
+        void readAll_shouldPassEveryUserToConsumer() {
+            when(USR_REPOSITORY.streamAll())
+                    .thenReturn(Stream.of(PREDEFINED_USER, PREDEFINED_USER));
+            List<UserResponseDTO> users = new ArrayList<>();
+
+            CRUD_SERVICE.readAll(users::add);
+
+            assertThat(users)
+                    .containsExactly(PREDEFINED_USER, PREDEFINED_USER);
         }
 
     }
@@ -252,11 +345,9 @@ class UserServiceTest {
 
             when(USR_REPOSITORY.findByUuid(PREDEFINED_USER.uuid()))
                     .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
-            when(USR_REPOSITORY.findByEmail(PREDEFINED_USER.email()))
-                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
-            when(USR_REPOSITORY.findByUsername(PREDEFINED_USER.username()))
-                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
-            when(USR_REPOSITORY.save(any(User.class)))
+            when(USR_REPOSITORY.findByEmailOrUsername(email, "valid_username"))
+                    .thenReturn(List.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
+            when(USR_REPOSITORY.saveAndFlush(any(User.class)))
                     .thenReturn(MAPPER.requestDtoToEntity(userRequestDTO));
             when(INJECTED_MAPPER.entityToResponseDTO(any(User.class)))
                     .thenReturn(toResponseDTO(userRequestDTO));
@@ -268,11 +359,36 @@ class UserServiceTest {
             verify(USR_REPOSITORY, times(2))
                     .findByUuid(PREDEFINED_USER.uuid());
             verify(USR_REPOSITORY, times(2))
-                    .save(any(User.class));
+                    .saveAndFlush(any(User.class));
             verify(INJECTED_MAPPER, times(2))
                     .entityToResponseDTO(any(User.class));
         }
 
+        @Test
+        @DisplayName("UserService#update should evict the cached user so that the next read sees the update")
+        void update_shouldEvictCachedUser() {
+            val userRequestDTO = UserRequestDTO.builder()
+                    .email("updated@example.com")
+                    .username("updated")
+                    .build();
+
+            when(USR_REPOSITORY.findByUuid(PREDEFINED_USER.uuid()))
+                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
+            when(USR_REPOSITORY.saveAndFlush(any(User.class)))
+                    .thenReturn(MAPPER.requestDtoToEntity(userRequestDTO));
+            when(INJECTED_MAPPER.entityToResponseDTO(any(User.class)))
+                    .thenReturn(PREDEFINED_USER)
+                    .thenReturn(toResponseDTO(userRequestDTO));
+
+            CRUD_SERVICE.read(PREDEFINED_USER.uuid());
+            CRUD_SERVICE.update(PREDEFINED_USER.uuid(), userRequestDTO);
+
+            assertThat(CRUD_SERVICE.read(PREDEFINED_USER.uuid()))
+                    .isEqualTo(toResponseDTO(userRequestDTO));
+            verify(USR_REPOSITORY, times(3))
+                    .findByUuid(PREDEFINED_USER.uuid());
+        }
+
         @ParameterizedTest(name = "{index}: username={0}")
         @DisplayName("UserService#update should throw UserNotFoundException when user with given uuid does not exist")
         @ValueSource(strings = NONEXISTENT_UUID)
@@ -337,10 +453,8 @@ class UserServiceTest {
 
             when(USR_REPOSITORY.findByUuid(conflictingUser.getUuid()))
                     .thenReturn(Optional.of(conflictingUser));
-            when(USR_REPOSITORY.findByEmail(PREDEFINED_USER.email()))
-                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
-            when(USR_REPOSITORY.findByUsername(PREDEFINED_USER.username()))
-                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
+            when(USR_REPOSITORY.findByEmailOrUsername(email, username))
+                    .thenReturn(List.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
 
             assertThatExceptionOfType(EmailTakenException.class)
                     .isThrownBy(() -> CRUD_SERVICE.update(conflictingUser.getUuid(), userRequestDTO));
@@ -365,10 +479,8 @@ class UserServiceTest {
 
             when(USR_REPOSITORY.findByUuid(conflictingUser.getUuid()))
                     .thenReturn(Optional.of(conflictingUser));
-            when(USR_REPOSITORY.findByEmail(PREDEFINED_USER.email()))
-                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
-            when(USR_REPOSITORY.findByUsername(PREDEFINED_USER.username()))
-                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
+            when(USR_REPOSITORY.findByEmailOrUsername(email, username))
+                    .thenReturn(List.of(MAPPER.dtoToEntity(PREDEFINED_USER)));
 
             assertThatExceptionOfType(UsernameTakenException.class)
                     .isThrownBy(() -> CRUD_SERVICE.update(conflictingUser.getUuid(), userRequestDTO));
@@ -407,5 +519,24 @@ class UserServiceTest {
                     .isThrownBy(() -> CRUD_SERVICE.delete(uuid));
         }
 
+        @Test
+        @DisplayName("UserService#delete should evict the cached user")
+        void delete_shouldEvictCachedUser() {
+            val uuid = PREDEFINED_USER.uuid();
+
+            when(USR_REPOSITORY.findByUuid(uuid))
+                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)))
+                    .thenReturn(Optional.of(MAPPER.dtoToEntity(PREDEFINED_USER)))
+                    .thenReturn(Optional.empty());
+            when(INJECTED_MAPPER.entityToResponseDTO(any(User.class)))
+                    .thenReturn(PREDEFINED_USER);
+
+            CRUD_SERVICE.read(uuid);
+            CRUD_SERVICE.delete(uuid);
+
+            assertThatExceptionOfType(UserNotFoundException.class)
+                    .isThrownBy(() -> CRUD_SERVICE.read(uuid));
+        }
+
     }
 }
@@ -0,0 +1,49 @@
+package com.griddynamics.internship.stonksjh.uuid;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T10:00:00.123Z");
+
+    @Test
+    void v7_ShouldStartWithTimestampAndKeepRandomBits() {
+        val random = UUID.fromString("f81d4fae-7dec-41d0-a765-00a0c91e6bf6");
+
+        val uuid = UuidGenerator.v7(NOW.toEpochMilli(), random);
+
+        assertThat(uuid.getMostSignificantBits() >>> 16)
+                .isEqualTo(NOW.toEpochMilli());
+        assertThat(uuid.version())
+                .isEqualTo(7);
+        assertThat(uuid.variant())
+                .isEqualTo(2);
+        assertThat(uuid.toString())
+                .endsWith("-71d0-a765-00a0c91e6bf6");
+    }
+
+    @Test
+    void v7_LaterMillisecond_ShouldSortAfterEarlierOne() {
+        val earlier = UuidGenerator.v7(NOW.toEpochMilli(), UUID.fromString("ffffffff-ffff-4fff-bfff-ffffffffffff"));
+        val later = UuidGenerator.v7(NOW.toEpochMilli() + 1, UUID.fromString("00000000-0000-4000-8000-000000000000"));
+
+        // PostgreSQL and the b-tree indexes compare uuids as unsigned bytes
+        assertThat(earlier.toString())
+                .isLessThan(later.toString());
+    }
+
+    @Test
+    void generate_ShouldUseConfiguredVersion() {
+        assertThat(new UuidGenerator(UuidGenerator.Version.V4).generate().version())
+                .isEqualTo(4);
+        assertThat(new UuidGenerator(UuidGenerator.Version.V7).generate().version())
+                .isEqualTo(7);
+    }
+
+}
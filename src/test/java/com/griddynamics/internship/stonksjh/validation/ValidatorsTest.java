@@ -0,0 +1,88 @@
+package com.griddynamics.internship.stonksjh.validation;
+
+import com.griddynamics.internship.stonksjh.model.Order;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValidatorsTest {
+
+    @Nested
+    class Email {
+
+        @ParameterizedTest(name = "{index}: email={0}")
+        @MethodSource("util.UserFlowTestDataFactory#invalidEmails")
+        @NullSource
+        void isEmail_EmailIsInvalid_ShouldReturnFalse(String email) {
+            assertThat(Validators.isEmail(email))
+                    .isFalse();
+        }
+
+        @Test
+        void isEmail_EmailIsValid_ShouldReturnTrue() {
+            assertThat(Validators.isEmail("user@example.com"))
+                    .isTrue();
+        }
+
+    }
+
+    @Nested
+    class Username {
+
+        @ParameterizedTest(name = "{index}: username={0}")
+        @MethodSource("util.UserFlowTestDataFactory#invalidUsernames")
+        @NullSource
+        void isUsername_UsernameIsInvalid_ShouldReturnFalse(String username) {
+            assertThat(Validators.isUsername(username))
+                    .isFalse();
+        }
+
+        @Test
+        void isUsername_UsernameIsValid_ShouldReturnTrue() {
+            assertThat(Validators.isUsername("user_123"))
+                    .isTrue();
+        }
+
+    }
+
+    @Nested
+    class Lookup {
+
+        @ParameterizedTest(name = "{index}: symbol={0}")
+        @EnumSource(Order.Symbol.class)
+        void symbol_SymbolIsSupported_ShouldReturnIt(Order.Symbol symbol) {
+            assertThat(Validators.symbol(symbol.name()))
+                    .isSameAs(symbol);
+        }
+
+        @ParameterizedTest(name = "{index}: symbol={0}")
+        @ValueSource(strings = {"", "aapl", "AAPLX", "*"})
+        @NullSource
+        void symbol_SymbolIsNotSupported_ShouldReturnNull(String symbol) {
+            assertThat(Validators.symbol(symbol))
+                    .isNull();
+        }
+
+        @ParameterizedTest(name = "{index}: type={0}")
+        @ValueSource(strings = {"", "buy", "HOLD"})
+        @NullSource
+        void orderType_TypeIsUnknown_ShouldReturnNull(String type) {
+            assertThat(Validators.orderType(type))
+                    .isNull();
+        }
+
+        @Test
+        void orderType_TypeIsKnown_ShouldReturnIt() {
+            assertThat(Validators.orderType("SELL"))
+                    .isSameAs(Order.Type.SELL);
+        }
+
+    }
+
+}
@@ -2,6 +2,7 @@ package util;
 
 import org.junit.jupiter.params.provider.Arguments;
 
+import java.math.BigDecimal;
 import java.util.stream.Stream;
 
 public class OrderFlowTestDataFactory {
@@ -16,7 +17,18 @@ public class OrderFlowTestDataFactory {
     public static Stream<Arguments> invalidAmounts() {
         return Stream.of(
                 Arguments.of(-1),
-                Arguments.of(Integer.MIN_VALUE)
+                Arguments.of(Integer.MIN_VALUE),
+                Arguments.of(1_000_001),
+                Arguments.of(Integer.MAX_VALUE)
+        );
+    }
+
+    public static Stream<Arguments> invalidPrices() {
+        return Stream.of(
+                Arguments.of(BigDecimal.ZERO),
+                Arguments.of(new BigDecimal("-1.00")),
+                Arguments.of(new BigDecimal("10.001")),
+                Arguments.of(new BigDecimal("100000000.00"))
         );
     }
 